@@ -23,8 +23,15 @@ public class BitcoinSimulationTest {
   private static final double measuredMedianBlockPropagationTime = 8.7 * 1000; // milliseconds
   private static final double gervaisMedianBlockPropagationTime = 9.42 * 1000; // milliseconds
 
+  // A run of 100 blocks sees a handful of forks at most, one fork more or less moves its fork
+  // rate by a whole percent, more than the range asserted. The fork rate is therefore averaged
+  // over runs of distinct seeds, the standard error of the mean is about 0.2 percent.
+  private static final int forkRateRuns = 30;
+
   private static SimulationStatistics stats;
 
+  private static double meanForkRate;
+
   @BeforeAll
   static void setup() throws PendingSimulationException {
     Simulation s = SimulationFactory.getInstance(SimulationType.COMPLEX);
@@ -32,11 +39,20 @@ public class BitcoinSimulationTest {
 
     stats = s.getSimulationStatistics();
     System.out.println(stats);
+
+    // The run above is the one of the default seed, 0
+    meanForkRate = stats.getForkRate() / forkRateRuns;
+    for (int seed = 1; seed < forkRateRuns; seed++) {
+      Simulation run = SimulationFactory.getInstance(SimulationType.COMPLEX, seed);
+      run.run();
+      meanForkRate += run.getSimulationStatistics().getForkRate() / forkRateRuns;
+    }
+    System.out.println("Mean fork rate over " + forkRateRuns + " runs: " + meanForkRate + " percent");
   }
 
   @Test
   void forkRateIsSound() {
-    double actualForkRate = stats.getForkRate();
+    double actualForkRate = meanForkRate;
     assertTrue(actualForkRate >= measuredForkRate);
     assertTrue(actualForkRate <= gervaisForkRate);
   }
@@ -0,0 +1,95 @@
+package simblock.block;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares ancestor lookups using the skip pointers of {@link Block} with the previous lookup
+ * walking one parent at a time. Run with the Gradle JMH plugin, which picks up {@code src/jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockAncestorBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  private int chainLength;
+
+  private Block tip;
+  private Block forkTip;
+  private int[] heights;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Block block = new Block(null, null, 0, 0);
+    Block fork = null;
+    for (int i = 1; i < chainLength; i++) {
+      block = new Block(block, null, i, i);
+      if (i == chainLength / 2) {
+        fork = block;
+      }
+    }
+    this.tip = block;
+
+    for (int i = 0; i < 10; i++) {
+      fork = new Block(fork, null, i, chainLength + i);
+    }
+    this.forkTip = fork;
+
+    // Spread the queried heights over the whole chain
+    this.heights = new int[1024];
+    for (int i = 0; i < heights.length; i++) {
+      heights[i] = (int) ((i * 2654435761L) % chainLength);
+    }
+  }
+
+  private int nextHeight() {
+    next = (next + 1) & (heights.length - 1);
+    return heights[next];
+  }
+
+  @Benchmark
+  public Block skipPointers() {
+    return tip.getBlockWithHeight(nextHeight());
+  }
+
+  @Benchmark
+  public Block parentWalk() {
+    return walkParents(tip, nextHeight());
+  }
+
+  @Benchmark
+  public boolean sameChainSkipPointers() {
+    return tip.isOnSameChainAs(forkTip);
+  }
+
+  @Benchmark
+  public boolean sameChainParentWalk() {
+    return forkTip.equals(walkParents(tip, forkTip.getHeight()));
+  }
+
+  /**
+   * The lookup used before skip pointers, kept iterative so long chains do not overflow the stack.
+   */
+  private static Block walkParents(Block block, int height) {
+    Block walk = block;
+    while (walk != null && walk.getHeight() > height) {
+      walk = walk.getParent();
+    }
+    return walk != null && walk.getHeight() == height ? walk : null;
+  }
+}
@@ -0,0 +1,63 @@
+package simblock.simulator.network;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simblock.settings.NetworkConfiguration;
+
+/**
+ * Compares drawing the latencies of a fan-out of eight neighbors with both
+ * {@link LatencySampling} modes and with the formula used before the parameters were precomputed.
+ * Run with the Gradle JMH plugin, which picks up {@code src/jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencySamplingBenchmark {
+
+  private static final int[] NEIGHBOR_REGIONS = {0, 1, 1, 3, 0, 5, 2, 4};
+
+  @Param({"EXACT", "TABLE"})
+  private LatencySampling sampling;
+
+  private ParetoLatencyTable table;
+  private Random random;
+  private long[] latencies;
+
+  @Setup
+  public void setUp() {
+    this.table = new ParetoLatencyTable(NetworkConfiguration.LATENCY, sampling);
+    this.random = new Random(1);
+    this.latencies = new long[NEIGHBOR_REGIONS.length];
+  }
+
+  @Benchmark
+  public long[] fanOut() {
+    table.sample(0, NEIGHBOR_REGIONS, random, latencies);
+    return latencies;
+  }
+
+  @Benchmark
+  public long[] fanOutRecomputingParameters() {
+    for (int i = 0; i < NEIGHBOR_REGIONS.length; i++) {
+      long mean = NetworkConfiguration.LATENCY[0][NEIGHBOR_REGIONS[i]];
+      double shape = 0.2 * mean;
+      double scale = mean - 5;
+      latencies[i] = Math.round(scale / Math.pow(random.nextDouble(), 1.0 / shape));
+    }
+    return latencies;
+  }
+}
@@ -0,0 +1,128 @@
+package helpers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import simblock.Simulation;
+import simblock.utils.stats.BatchStatistics;
+import simblock.utils.stats.SimulationStatistics;
+
+/**
+ * Runs independent replications of a simulation concurrently in one JVM, saving the start up and
+ * warm up of a JVM per replication. Replication <em>i</em> uses the seed <em>baseSeed + i</em>
+ * and writes its output to the directory <em>run-i</em> of the output root.
+ */
+public class BatchRunner {
+
+  private static final Logger logger = LoggerFactory.getLogger(BatchRunner.class);
+
+  /**
+   * Creates the settings of a replication, a new instance on every call.
+   */
+  private final Supplier<? extends SimulationSettings> settingsSupplier;
+
+  @Getter
+  private final int replications;
+
+  @Getter
+  private final long baseSeed;
+
+  @Getter
+  private final Path outputRoot;
+
+  /**
+   * The maximum number of replications running at the same time.
+   */
+  @Getter
+  private final int parallelism;
+
+  /**
+   * The level of the computed confidence intervals.
+   */
+  @Getter
+  @Setter
+  private double confidenceLevel = 0.95;
+
+  /**
+   * Instantiates a new batch runner.
+   *
+   * @param settingsSupplier creates the settings of a replication, a new instance on every call
+   * @param replications     the number of replications
+   * @param baseSeed         the seed of the first replication
+   * @param outputRoot       the directory holding the output directories of the replications
+   * @param parallelism      the maximum number of replications running at the same time
+   */
+  public BatchRunner(Supplier<? extends SimulationSettings> settingsSupplier, int replications,
+                     long baseSeed, Path outputRoot, int parallelism) {
+    if (replications < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("Replications and parallelism must be positive");
+    }
+    this.settingsSupplier = settingsSupplier;
+    this.replications = replications;
+    this.baseSeed = baseSeed;
+    this.outputRoot = outputRoot;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Runs all replications and aggregates their statistics.
+   *
+   * @return the aggregated statistics
+   */
+  public BatchStatistics run() {
+    BatchStatistics statistics = BatchStatistics.of(runAll(), confidenceLevel);
+    logger.info(statistics.toString());
+    return statistics;
+  }
+
+  /**
+   * Runs all replications.
+   *
+   * @return the statistics of every replication, in replication order
+   */
+  @SneakyThrows
+  public List<SimulationStatistics> runAll() {
+    List<Callable<SimulationStatistics>> work = new ArrayList<>(replications);
+    for (int i = 0; i < replications; i++) {
+      SimulationSettings settings = getSettings(i);
+      work.add(() -> {
+        Simulation simulation = new Simulation(settings);
+        simulation.run();
+        return simulation.getSimulationStatistics();
+      });
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      List<SimulationStatistics> statistics = new ArrayList<>(replications);
+      for (Future<SimulationStatistics> result : pool.invokeAll(work)) {
+        statistics.add(result.get());
+      }
+      return statistics;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Gets the settings of the provided replication.
+   *
+   * @param replication the replication index
+   * @return the settings
+   */
+  public SimulationSettings getSettings(int replication) {
+    SimulationSettings settings = settingsSupplier.get();
+    settings.seed = baseSeed + replication;
+    settings.outputDirectory = outputRoot.resolve("run-" + replication).toString();
+    return settings;
+  }
+}
@@ -14,21 +14,33 @@ public class SimulationFactory {
    * @return the instance
    */
   public static Simulation getInstance(SimulationType type) {
+    return getInstance(type, SimulationSettings.SIMULATION_SEED);
+  }
+
+  /**
+   * Gets the simulation instance drawing from the provided seed, to rerun an experiment on other
+   * random draws.
+   *
+   * @param type           the type
+   * @param simulationSeed the seed of all random draws of the simulation
+   * @return the instance
+   */
+  public static Simulation getInstance(SimulationType type, long simulationSeed) {
     switch (type) {
       case COMPLEX:
-        return complexSimulation();
+        return complexSimulation(simulationSeed);
       case SIMPLE:
-        return simpleSimulation();
+        return simpleSimulation(simulationSeed);
       case BTC_6000_NODES:
-        return bitcoinMassive();
+        return bitcoinMassive(simulationSeed);
       case SELFISH_MINING:
-        return selfishMining();
+        return selfishMining(simulationSeed);
       case SIMPLE_SELFISH_MINING:
-        return simpleSelfishMining();
+        return simpleSelfishMining(simulationSeed);
       case TEST:
-        return testSimulation();
+        return testSimulation(simulationSeed);
       default:
-        return defaultSimulation();
+        return defaultSimulation(simulationSeed);
     }
   }
 
@@ -44,48 +56,53 @@ public class SimulationFactory {
   /**
    * Simple simulation.
    *
+   * @param simulationSeed the seed of all random draws of the simulation
    * @return the simulation
    */
-  private static Simulation simpleSimulation() {
+  private static Simulation simpleSimulation(long simulationSeed) {
     SimulationSettings seed = new SimulationSettings();
     seed.numOfNodes = 5;
     seed.interval = 1000 * 60 * 10; // 1000 * 60 * (10 milliseconds) = 10 minutes
     seed.endBlockHeight = 5;
     seed.simulationType = SimulationType.SIMPLE;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
   }
 
-  private static Simulation defaultSimulation() {
+  private static Simulation defaultSimulation(long simulationSeed) {
 
     SimulationSettings seed = new SimulationSettings();
     seed.numOfNodes = 10;
     seed.interval = 1000 * 60 * 10; // 1000 * 60 * (10 milliseconds) = 10 minutes
     seed.endBlockHeight = 50;
     seed.simulationType = SimulationType.DEFAULT;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
   }
 
 
-  private static Simulation complexSimulation() {
+  private static Simulation complexSimulation(long simulationSeed) {
 
     SimulationSettings seed = new SimulationSettings();
     seed.numOfNodes = 600;
     seed.interval = 1000 * 60 * 10; // 1000 * 60 * (10 milliseconds) = 10 minutes
     seed.endBlockHeight = 100;
     seed.simulationType = SimulationType.COMPLEX;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
   }
 
-  private static Simulation bitcoinMassive() {
+  private static Simulation bitcoinMassive(long simulationSeed) {
 
     SimulationSettings seed = new SimulationSettings();
     seed.numOfNodes = 6000;
     seed.interval = 1000 * 60 * 10; // 1000 * 60 * (10 milliseconds) = 10 minutes
     seed.endBlockHeight = 10000;
     seed.simulationType = SimulationType.BTC_6000_NODES;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
 
@@ -93,9 +110,10 @@ public class SimulationFactory {
 
   /**
    * Returns a simulation that has a selfish mining attack.
+   * @param simulationSeed the seed of all random draws of the simulation
    * @return a selfish mining simulation
    */
-  private static Simulation selfishMining() {
+  private static Simulation selfishMining(long simulationSeed) {
 
     SelfishMiningSimulationSettings seed = new SelfishMiningSimulationSettings();
     seed.numOfNodes = 600;
@@ -103,15 +121,17 @@ public class SimulationFactory {
     seed.endBlockHeight = 100;
     seed.selfishMiningPowerPercentage = 25;
     seed.simulationType = SimulationType.SELFISH_MINING;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
   }
 
   /**
    * Returns a simple simulation that has a selfish mining attack.
+   * @param simulationSeed the seed of all random draws of the simulation
    * @return a selfish mining simulation
    */
-  private static Simulation simpleSelfishMining() {
+  private static Simulation simpleSelfishMining(long simulationSeed) {
 
     SelfishMiningSimulationSettings seed = new SelfishMiningSimulationSettings();
     seed.numOfNodes = 10;
@@ -119,21 +139,24 @@ public class SimulationFactory {
     seed.endBlockHeight = 100;
     seed.selfishMiningPowerPercentage = 25;
     seed.simulationType = SimulationType.SELFISH_MINING;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
   }
 
   /**
    * Returns a test simulation.
+   * @param simulationSeed the seed of all random draws of the simulation
    * @return a test simulation
    */
-  private static Simulation testSimulation() {
+  private static Simulation testSimulation(long simulationSeed) {
 
     SimulationSettings seed = new SimulationSettings();
     seed.numOfNodes = 10;
     seed.interval = 1000 * 60 * 10; // 1000 * 60 * (10 milliseconds) = 10 minutes
     seed.endBlockHeight = 10;
     seed.simulationType = SimulationType.TEST;
+    seed.seed = simulationSeed;
 
     return new Simulation(seed);
   }
@@ -1,8 +1,24 @@
 package helpers;
 
+import simblock.node.RelayProtocol;
+import simblock.node.UploadPolicy;
+import simblock.node.consensus.MiningMode;
+import simblock.node.consensus.RetargetType;
+import simblock.simulator.CancellationPolicy;
+import simblock.simulator.EngineType;
+import simblock.simulator.FutureEventListType;
+import simblock.simulator.network.BandwidthModelType;
+import simblock.simulator.network.LatencyModelType;
+import simblock.simulator.network.LatencySampling;
+
 public class SimulationSettings {
 
   public static final int SIMULATION_SEED = 0;
+
+  /**
+   * The default directory the output files are written to.
+   */
+  public static final String OUTPUT_DIRECTORY = "dist/output";
   
   /**
    * The average mining power of each node. Mining power corresponds to Hash Rate in Bitcoin, and
@@ -26,6 +42,17 @@ public class SimulationSettings {
    */
   public static final long PROCESSING_TIME = 2;
 
+  /**
+   * The seed of all random draws of the simulation.
+   */
+  public long seed = SIMULATION_SEED;
+
+  /**
+   * The directory the output files are written to. Simulations running concurrently need
+   * distinct directories.
+   */
+  public String outputDirectory = OUTPUT_DIRECTORY;
+
   /**
    * The type of the simulation.
    */
@@ -45,4 +72,98 @@ public class SimulationSettings {
    * Number of blocks to generate during the simulation.
    */
   public int endBlockHeight;
+
+  /**
+   * The Future Event List implementation scheduling the simulation tasks.
+   */
+  public FutureEventListType futureEventListType = FutureEventListType.CALENDAR_QUEUE;
+
+  /**
+   * How the timer removes cancelled tasks, e.g. mining tasks made obsolete by a received block.
+   */
+  public CancellationPolicy cancellationPolicy = CancellationPolicy.LAZY;
+
+  /**
+   * The share of cancelled tasks in the Future Event List above which it gets compacted.
+   */
+  public double compactionThreshold = 0.5;
+
+  /**
+   * The difficulty adjustment of the mined blocks.
+   */
+  public RetargetType retargetType = RetargetType.FIXED;
+
+  /**
+   * Whether every node schedules its own mining tasks or the nodes mining on the same block are
+   * pooled. Pooled mining requires the sequential engine.
+   */
+  public MiningMode miningMode = MiningMode.PER_NODE;
+
+  /**
+   * The latency model of the links between nodes.
+   */
+  public LatencyModelType latencyModelType = LatencyModelType.REGION_2015;
+
+  /**
+   * How the latencies of the region latency models are drawn.
+   */
+  public LatencySampling latencySampling = LatencySampling.EXACT;
+
+  /**
+   * The file the empirical latency samples or the latency matrix are read from.
+   */
+  public String latencyFile;
+
+  /**
+   * The bandwidth model of the links between nodes.
+   */
+  public BandwidthModelType bandwidthModelType = BandwidthModelType.REGION_2015;
+
+  /**
+   * How nodes share their upload bandwidth between the blocks they send. Policies other than
+   * serial require the sequential engine.
+   */
+  public UploadPolicy uploadPolicy = UploadPolicy.SERIAL;
+
+  /**
+   * How nodes relay blocks to their neighbors.
+   */
+  public RelayProtocol relayProtocol = RelayProtocol.INV;
+
+  /**
+   * The average number of transactions created per second, 0 to leave transactions out of the
+   * simulation. Simulating transactions requires the sequential engine.
+   */
+  public double transactionRate = 0;
+
+  /**
+   * The median fee rate of the created transactions in satoshis per byte.
+   */
+  public double medianFeeRate = 10;
+
+  /**
+   * The largest block mined when transactions are simulated, in bytes.
+   */
+  public long maxBlockSize = 1000000;
+
+  /**
+   * The average delay in milliseconds between two announcements of transactions by a node.
+   */
+  public long transactionAnnouncementInterval = 5000;
+
+  /**
+   * The engine running the simulation tasks.
+   */
+  public EngineType engineType = EngineType.SEQUENTIAL;
+
+  /**
+   * The maximum number of threads used by parallel engines.
+   */
+  public int parallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * How far ahead of the global virtual time the partitions of the Time Warp engine may run, in
+   * milliseconds.
+   */
+  public long optimisticWindow = Long.MAX_VALUE;
 }
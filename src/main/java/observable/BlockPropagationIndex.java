@@ -0,0 +1,188 @@
+package observable;
+
+import java.util.Arrays;
+import simblock.block.Block;
+import simblock.utils.IntIntHashMap;
+
+/**
+ * Propagation of the most recently observed blocks, kept in a ring buffer of fixed capacity and
+ * looked up by block id. Every slot records the sightings of its block as parallel primitive
+ * arrays of node ids and propagation times, in the order the nodes first saw the block, and is
+ * reused once its block is evicted.
+ */
+public class BlockPropagationIndex {
+
+  private final Block[] blocks;
+  private final int[][] nodeIDs;
+  private final long[][] propagationTimes;
+  private final int[] sightingCounts;
+
+  /**
+   * The position of the sighting of every node seen in a slot.
+   */
+  private final IntIntHashMap[] positions;
+
+  /**
+   * The slot of every held block by block id.
+   */
+  private final IntIntHashMap slots;
+
+  private int oldest;
+  private int size;
+
+  /**
+   * Instantiates a new, empty index.
+   *
+   * @param capacity  the number of blocks held
+   * @param nodeCount the number of simulated nodes, the initial number of sightings a slot holds
+   */
+  public BlockPropagationIndex(int capacity, int nodeCount) {
+    this.blocks = new Block[capacity];
+    this.nodeIDs = new int[capacity][Math.max(1, nodeCount)];
+    this.propagationTimes = new long[capacity][Math.max(1, nodeCount)];
+    this.sightingCounts = new int[capacity];
+    this.positions = new IntIntHashMap[capacity];
+    for (int i = 0; i < capacity; i++) {
+      positions[i] = new IntIntHashMap(nodeCount);
+    }
+    this.slots = new IntIntHashMap(capacity);
+  }
+
+  /**
+   * Gets the number of blocks held.
+   *
+   * @return the number of blocks
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether no further block can be added before the oldest is removed.
+   *
+   * @return true if the index is full
+   */
+  public boolean isFull() {
+    return size == blocks.length;
+  }
+
+  /**
+   * Checks whether the block is held.
+   *
+   * @param block the block
+   * @return true if the block is held
+   */
+  public boolean contains(Block block) {
+    return slots.containsKey(block.getId());
+  }
+
+  /**
+   * Adds a block without sightings as the most recent one.
+   *
+   * @param block the block
+   * @throws IllegalStateException if the index is full
+   */
+  public void add(Block block) {
+    if (isFull()) {
+      throw new IllegalStateException("The oldest block must be removed first");
+    }
+    int slot = (oldest + size) % blocks.length;
+    blocks[slot] = block;
+    slots.put(block.getId(), slot);
+    size++;
+  }
+
+  /**
+   * Removes the oldest block and clears its slot for reuse.
+   *
+   * @throws IllegalStateException if the index is empty
+   */
+  public void removeOldest() {
+    if (size == 0) {
+      throw new IllegalStateException("No block is held");
+    }
+    slots.remove(blocks[oldest].getId());
+    blocks[oldest] = null;
+    sightingCounts[oldest] = 0;
+    positions[oldest].clear();
+    oldest = (oldest + 1) % blocks.length;
+    size--;
+  }
+
+  /**
+   * Records the propagation time of a held block to a node, replacing the time of an earlier
+   * sighting by the same node.
+   *
+   * @param block           the block
+   * @param nodeID          the id of the node
+   * @param propagationTime the time between the minting and the reception of the block
+   * @throws IllegalArgumentException if the block is not held
+   */
+  public void put(Block block, int nodeID, long propagationTime) {
+    int slot = slots.getOrDefault(block.getId(), -1);
+    if (slot < 0) {
+      throw new IllegalArgumentException(block + " is not held");
+    }
+
+    int position = positions[slot].getOrDefault(nodeID, -1);
+    if (position < 0) {
+      position = sightingCounts[slot]++;
+      if (position == nodeIDs[slot].length) {
+        nodeIDs[slot] = Arrays.copyOf(nodeIDs[slot], 2 * position);
+        propagationTimes[slot] = Arrays.copyOf(propagationTimes[slot], 2 * position);
+      }
+      positions[slot].put(nodeID, position);
+      nodeIDs[slot][position] = nodeID;
+    }
+    propagationTimes[slot][position] = propagationTime;
+  }
+
+  /**
+   * Gets a held block.
+   *
+   * @param age the age of the block, 0 for the oldest
+   * @return the block
+   */
+  public Block getBlock(int age) {
+    return blocks[slot(age)];
+  }
+
+  /**
+   * Gets the number of nodes which have seen a held block.
+   *
+   * @param age the age of the block, 0 for the oldest
+   * @return the number of sightings
+   */
+  public int getSightingCount(int age) {
+    return sightingCounts[slot(age)];
+  }
+
+  /**
+   * Gets the node of a sighting of a held block.
+   *
+   * @param age      the age of the block, 0 for the oldest
+   * @param position the position of the sighting, in the order the nodes saw the block
+   * @return the id of the node
+   */
+  public int getNodeID(int age, int position) {
+    return nodeIDs[slot(age)][position];
+  }
+
+  /**
+   * Gets the propagation time of a sighting of a held block.
+   *
+   * @param age      the age of the block, 0 for the oldest
+   * @param position the position of the sighting, in the order the nodes saw the block
+   * @return the propagation time
+   */
+  public long getPropagationTime(int age, int position) {
+    return propagationTimes[slot(age)][position];
+  }
+
+  private int slot(int age) {
+    if (age < 0 || age >= size) {
+      throw new IndexOutOfBoundsException("Block " + age + " out of " + size);
+    }
+    return (oldest + age) % blocks.length;
+  }
+}
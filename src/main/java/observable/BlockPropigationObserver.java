@@ -1,18 +1,7 @@
 package observable;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.PrintWriter;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
-import lombok.Getter;
+import java.nio.file.Paths;
 import lombok.SneakyThrows;
 import observable.interfaces.IBlockPropagationObserver;
 import org.slf4j.Logger;
@@ -31,40 +20,44 @@ public class BlockPropigationObserver implements IBlockPropagationObserver {
    */
   private final int maxObservedBlocksListSize = 10;
 
-  private final int maxBlockSightingsListSize = 10000;
+  /**
+   * The blocks seen by a node and how long it took to receive them, in the order they were seen.
+   */
+  private final BlockSightingLog blockSightings;
 
   /**
-   * A list of observed {@link Block} instances.
+   * Shares of the nodes the time to reach is tracked for.
    */
-  private final ArrayList<Block> observedBlocks = new ArrayList<>();
+  private static final double[] TRACKED_SHARES = {0.5, 0.9};
 
   /**
-   * List of the blocks seens by a node and how long it took to receive the block.
+   * Propagation statistics updated with every sighting.
    */
-  private final Set<BlockSighting> blockSightings;
+  private final PropagationStatistics propagationStatistics;
 
   /**
-   * A list of observed block propagation times. The map key represents the id of the node that
-   * has seen the block, the value represents the difference between the current time and the block minting
+   * The propagation of the most recently observed blocks: for every block the ids of the nodes
+   * that have seen it and the difference between the time they saw it and the block minting
    * time, effectively recording the absolute time it took for a node to witness the block.
    */
-  @Getter
-  private final ArrayList<LinkedHashMap<Integer, Long>> observedPropagations =
-      new ArrayList<>();
+  private final BlockPropagationIndex observedPropagations;
 
   /**
    * Constructor, create a new block propigation observer.
+   *
+   * @param outDirectoryUri the directory the block sightings are written to
+   * @param nodeCount       the number of simulated nodes
    */
-  public BlockPropigationObserver(URI outDirectoryUri) {
+  @SneakyThrows
+  public BlockPropigationObserver(URI outDirectoryUri, int nodeCount) {
     super();
     
     this.outDirectoryUri = outDirectoryUri;
+    this.propagationStatistics = new PropagationStatistics(nodeCount, TRACKED_SHARES);
+    this.observedPropagations = new BlockPropagationIndex(maxObservedBlocksListSize + 1, nodeCount);
 
-    File outFile = new File(outDirectoryUri.resolve("./blockSightings.txt"));
-    outFile.delete();
-    
-    // Default method from interface
-    this.blockSightings = new TreeSet<>(this.getComparator());
+    // Deletes the sightings of a previous run
+    this.blockSightings = new BlockSightingLog(Paths.get(outDirectoryUri.resolve("./blockSightings.bin")));
   }
   
   /**
@@ -76,34 +69,22 @@ public class BlockPropigationObserver implements IBlockPropagationObserver {
    */
   private void observeBlockArrival(Block block, AbstractNode node, long currentTime) {
 
-    // If block is already seen by any node
-    if (observedBlocks.contains(block)) {
-      // Get the propagation information for the current block
-      LinkedHashMap<Integer, Long> propagation = observedPropagations.get(
-          observedBlocks.indexOf(block)
-      );
-      // Update information for the new block
-      propagation.put(node.getNodeID(), currentTime - block.getTime());
-    } else {
-      // If the block has not been seen by any node and there is no memory allocated
-      if (observedBlocks.size() > maxObservedBlocksListSize) {
+    // If the block has not been seen by any node yet
+    if (!observedPropagations.contains(block)) {
+      if (observedPropagations.isFull()) {
         // After the observed blocks limit is reached, log and remove old blocks by FIFO principle
-        printPropagation(observedBlocks.get(0), observedPropagations.get(0));
-        observedBlocks.remove(0);
-        observedPropagations.remove(0);
+        printPropagation(0);
+        observedPropagations.removeOldest();
       }
-      // If the block has not been seen by any node and there is additional memory
-      LinkedHashMap<Integer, Long> propagation = new LinkedHashMap<>();
-      propagation.put(node.getNodeID(), currentTime - block.getTime());
       // Record the block as seen
-      observedBlocks.add(block);
-      // Record the propagation time
-      observedPropagations.add(propagation);
+      observedPropagations.add(block);
     }
+    // Record the propagation time
+    observedPropagations.put(block, node.getNodeID(), currentTime - block.getTime());
   }
 
   /**
-   * Print propagation information about the propagation of the provided block in the format:
+   * Print propagation information about the propagation of an observed block in the format:
    *
    * <p><em>node_ID, propagation_time</em>
    *
@@ -111,31 +92,29 @@ public class BlockPropigationObserver implements IBlockPropagationObserver {
    * when the
    * node of the <em>node_ID</em> is reached.
    *
-   * @param block       the block
-   * @param propagation the propagation of the provided block as a list of {@link AbstractNode} IDs and
-   *                    propagation times
+   * @param age the age of the block among the observed blocks, 0 for the oldest
   */
-  public void printPropagation(Block block, LinkedHashMap<Integer, Long> propagation) {
+  private void printPropagation(int age) {
     // Print block and its height
-    logger.info(block + " propagation information:");
-    for (Map.Entry<Integer, Long> timeEntry : propagation.entrySet()) {
-      logger.info("Node ID: " + timeEntry.getKey() + "," + " Propagation time: " + timeEntry.getValue());
+    logger.info(observedPropagations.getBlock(age) + " propagation information:");
+    for (int i = 0; i < observedPropagations.getSightingCount(age); i++) {
+      logger.info("Node ID: " + observedPropagations.getNodeID(age, i) + ","
+          + " Propagation time: " + observedPropagations.getPropagationTime(age, i));
     }
   }
 
   @Override
   public void update(Block block, AbstractNode node, long currentTime) {
     this.observeBlockArrival(block, node, currentTime);
-    this.markSighting(block, node);
+    this.markSighting(block, node, currentTime);
   }
 
   /**
-   * Print propagation information about all blocks, internally relying on
-   * {@link Simulator#printPropagation(Block, LinkedHashMap)}.
+   * Print propagation information about all observed blocks, oldest first.
    */
   public void printAllPropagation() {
-    for (int i = 0; i < observedBlocks.size(); i++) {
-      printPropagation(observedBlocks.get(i), observedPropagations.get(i));
+    for (int i = 0; i < observedPropagations.size(); i++) {
+      printPropagation(i);
     }
   }
 
@@ -145,61 +124,27 @@ public class BlockPropigationObserver implements IBlockPropagationObserver {
    * Mark the block sightings so we can generate the statistics at the end of the simulation.
    * @param block the block.
    * @param node the node.
+   * @param currentTime the time the node has seen the block.
    */
   @SneakyThrows
-  private void markSighting(Block block, AbstractNode node) {
-
-    if (blockSightings.size() > maxBlockSightingsListSize) {
-      flushBlockSightings();
-    }
-
+  private void markSighting(Block block, AbstractNode node, long currentTime) {
     if (block.getMinter().getNodeID() != node.getNodeID()) {
-      
-      // Since this gets flsuhed every 1000 blocks, the default comparer won't sort the collection properly 
-      // You'll have to sort the printed list manually 
-      blockSightings.add(
-          BlockSighting.builder()
-            .blockID(block.getId())
-            .nodeID(node.getNodeID())
-            .propagationTime(node.getCurrentTime() - block.getTime())
-            .build()
-      );
+      blockSightings.append(node.getNodeID(), block.getId(), currentTime - block.getTime());
+      propagationStatistics.record(block.getId(), currentTime - block.getTime());
     }    
   }
-  
+
   /**
-   * Flush the list of block sightings so it doesn't become too large and cause performance issues.
-   * Since this gets flsuhed every 1000 blocks, the default comparer won't sort the collection properly 
-   * You'll have to sort the printed list manually 
+   * Writes the buffered block sightings and closes the sighting log until the next sighting.
    */
   @SneakyThrows
-  private void flushBlockSightings() {
-
-    try (FileWriter fw = new FileWriter(new File(outDirectoryUri.resolve("./blockSightings.txt")), true)) {
-
-      try (PrintWriter pw = new PrintWriter(new BufferedWriter(fw))) {
-
-        for (BlockSighting currentSighting : blockSightings) {
-          pw.println(currentSighting.toCsvString());
-        }
-      }
-    }
-
-    // Flush it
-    blockSightings.clear();
+  @Override
+  public void flushBlockSightings() {
+    blockSightings.close();
   }
 
-  /**
-   * Returns a reader for accessing the block sightings.
-   * You must close this reader after use!
-   * @return the reader that accesses the block sightings. Close when finished.
-   */
-  @SneakyThrows
-  public BufferedReader getBlockSightings() {
-    flushBlockSightings();
-    FileReader fr = new FileReader(new File(outDirectoryUri.resolve("./blockSightings.txt")));
-    BufferedReader br = new BufferedReader(fr);
-    
-    return br;
+  @Override
+  public PropagationStatistics getPropagationStatistics() {
+    return propagationStatistics;
   }
 }
@@ -0,0 +1,128 @@
+package observable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append only log of block sightings, written as fixed size binary records: the node id and the
+ * block id as 32 bit integers followed by the propagation time in milliseconds as a 64 bit
+ * integer, little endian. Records are gathered in a reusable direct buffer and written with a
+ * single channel write whenever it fills up, they can be read back with a
+ * {@link BlockSightingReader}.
+ *
+ * <p>The file is opened on the first write and truncated then, a closed log reopens it for
+ * appending once more sightings are added.
+ */
+public class BlockSightingLog implements Closeable {
+
+  /**
+   * Size of a record in bytes.
+   */
+  public static final int RECORD_SIZE = 2 * Integer.BYTES + Long.BYTES;
+
+  /**
+   * Number of records buffered before they are written.
+   */
+  private static final int BUFFERED_RECORDS = 1 << 16;
+
+  private final Path file;
+  private final ByteBuffer buffer;
+  private FileChannel channel;
+  private boolean truncated;
+  private long recordCount;
+
+  /**
+   * Instantiates a new log, deleting the records of a previous log at the same path.
+   *
+   * @param file the file the records are written to
+   * @throws IOException if a previous log cannot be deleted
+   */
+  public BlockSightingLog(Path file) throws IOException {
+    this.file = file;
+    this.buffer = ByteBuffer.allocateDirect(BUFFERED_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Appends a sighting.
+   *
+   * @param nodeID          the id of the node which received the block
+   * @param blockID         the id of the block
+   * @param propagationTime the time between the minting and the reception of the block in
+   *                        milliseconds
+   * @throws IOException if the buffered records cannot be written
+   */
+  public void append(int nodeID, int blockID, long propagationTime) throws IOException {
+    if (buffer.remaining() < RECORD_SIZE) {
+      writeBuffer();
+    }
+    buffer.putInt(nodeID).putInt(blockID).putLong(propagationTime);
+    recordCount++;
+  }
+
+  /**
+   * Gets the number of records appended so far, including those not written yet.
+   *
+   * @return the number of records
+   */
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Gets the file the records are written to.
+   *
+   * @return the file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Writes the buffered records to the file.
+   *
+   * @throws IOException if the records cannot be written
+   */
+  public void flush() throws IOException {
+    writeBuffer();
+  }
+
+  /**
+   * Writes the buffered records and closes the file.
+   *
+   * @throws IOException if the records cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    writeBuffer();
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  private void writeBuffer() throws IOException {
+    if (channel == null) {
+      if (!truncated) {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        truncated = true;
+      } else {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+      }
+    }
+
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,127 @@
+package observable;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the records of a {@link BlockSightingLog}, memory mapped rather than parsed
+ * onto the heap. Files above 2 GB are mapped in several segments of whole records.
+ *
+ * <p>The simulation itself never reads the log back, the reader is meant for analysing the
+ * {@code blockSightings.bin} output of a finished run offline.
+ */
+public class BlockSightingReader {
+
+  /**
+   * Number of records of a mapped segment, 1 GB.
+   */
+  private static final int SEGMENT_RECORDS = (1 << 30) / BlockSightingLog.RECORD_SIZE;
+
+  private final long size;
+  private final MappedByteBuffer[] segments;
+
+  /**
+   * Maps a sighting log file.
+   *
+   * @param file the file
+   * @throws IOException if the file cannot be mapped
+   * @throws IllegalArgumentException if the file does not hold whole records
+   */
+  public BlockSightingReader(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() % BlockSightingLog.RECORD_SIZE != 0) {
+        throw new IllegalArgumentException(file + " does not hold whole block sighting records");
+      }
+      this.size = channel.size() / BlockSightingLog.RECORD_SIZE;
+
+      int segmentCount = (int) ((size + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS);
+      this.segments = new MappedByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long start = (long) i * SEGMENT_RECORDS * BlockSightingLog.RECORD_SIZE;
+        long bytes = Math.min((long) SEGMENT_RECORDS * BlockSightingLog.RECORD_SIZE, channel.size() - start);
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, bytes);
+        segments[i].order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of records.
+   *
+   * @return the number of records
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Gets the id of the node of a record.
+   *
+   * @param index the index of the record
+   * @return the node id
+   */
+  public int getNodeID(long index) {
+    return segment(index).getInt(offset(index));
+  }
+
+  /**
+   * Gets the id of the block of a record.
+   *
+   * @param index the index of the record
+   * @return the block id
+   */
+  public int getBlockID(long index) {
+    return segment(index).getInt(offset(index) + Integer.BYTES);
+  }
+
+  /**
+   * Gets the propagation time of a record.
+   *
+   * @param index the index of the record
+   * @return the propagation time in milliseconds
+   */
+  public long getPropagationTime(long index) {
+    return segment(index).getLong(offset(index) + 2 * Integer.BYTES);
+  }
+
+  /**
+   * Gets a record.
+   *
+   * @param index the index of the record
+   * @return the sighting
+   */
+  public BlockSighting get(long index) {
+    return new BlockSighting(getNodeID(index), getBlockID(index), getPropagationTime(index));
+  }
+
+  /**
+   * Gets the propagation times of all records, in order.
+   *
+   * @return the propagation times in milliseconds
+   */
+  public double[] getPropagationTimes() {
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Too many sightings to gather in an array: " + size);
+    }
+    double[] times = new double[(int) size];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = getPropagationTime(i);
+    }
+    return times;
+  }
+
+  private MappedByteBuffer segment(long index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Record " + index + " out of " + size);
+    }
+    return segments[(int) (index / SEGMENT_RECORDS)];
+  }
+
+  private static int offset(long index) {
+    return (int) (index % SEGMENT_RECORDS) * BlockSightingLog.RECORD_SIZE;
+  }
+}
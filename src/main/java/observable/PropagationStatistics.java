@@ -0,0 +1,99 @@
+package observable;
+
+import java.util.Arrays;
+import lombok.Getter;
+import simblock.utils.IntIntHashMap;
+import simblock.utils.stats.LogLinearHistogram;
+
+/**
+ * Block propagation statistics updated with every sighting while the simulation runs: the
+ * distribution of the propagation times of all sightings, and for every tracked share of the
+ * nodes the distribution of the time a block takes to reach that share. The minter of a block
+ * counts as reached when it is minted.
+ */
+public class PropagationStatistics {
+
+  private final int nodeCount;
+
+  private final double[] shares;
+
+  /**
+   * The number of sightings of a block after which every share is reached.
+   */
+  private final int[] thresholds;
+
+  /**
+   * The propagation times of all sightings.
+   */
+  @Getter
+  private final LogLinearHistogram sightings = new LogLinearHistogram();
+
+  private final LogLinearHistogram[] timesToReach;
+
+  /**
+   * The number of sightings of the blocks which have not reached every node yet.
+   */
+  private final IntIntHashMap pendingBlocks = new IntIntHashMap();
+
+  /**
+   * Instantiates new statistics.
+   *
+   * @param nodeCount the number of simulated nodes
+   * @param shares    the shares of the nodes to track the time to reach for, between 0 and 1
+   */
+  public PropagationStatistics(int nodeCount, double... shares) {
+    this.nodeCount = nodeCount;
+    this.shares = shares.clone();
+    this.thresholds = new int[shares.length];
+    this.timesToReach = new LogLinearHistogram[shares.length];
+    for (int i = 0; i < shares.length; i++) {
+      if (shares[i] <= 0 || shares[i] > 1) {
+        throw new IllegalArgumentException("The share must be between 0 and 1: " + shares[i]);
+      }
+      // At least one node besides the minter
+      thresholds[i] = Math.max(1, (int) Math.ceil(shares[i] * nodeCount) - 1);
+      timesToReach[i] = new LogLinearHistogram();
+    }
+  }
+
+  /**
+   * Records the sighting of a block by a node other than its minter.
+   *
+   * @param blockID         the id of the block
+   * @param propagationTime the time between the minting and the reception of the block in
+   *                        milliseconds
+   */
+  public void record(int blockID, long propagationTime) {
+    sightings.record(propagationTime);
+
+    int blockSightings = pendingBlocks.getOrDefault(blockID, 0) + 1;
+    for (int i = 0; i < thresholds.length; i++) {
+      if (blockSightings == thresholds[i]) {
+        timesToReach[i].record(propagationTime);
+      }
+    }
+    if (blockSightings >= nodeCount - 1) {
+      pendingBlocks.remove(blockID);
+    } else {
+      pendingBlocks.put(blockID, blockSightings);
+    }
+  }
+
+  /**
+   * Gets the distribution of the time the blocks took to reach the provided share of the nodes.
+   * Blocks which have not reached the share are not part of it.
+   *
+   * @param share the share, one of those passed to the constructor
+   * @return the distribution of the times in milliseconds
+   * @throws IllegalArgumentException if the share is not tracked
+   */
+  public LogLinearHistogram getTimeToReach(double share) {
+    for (int i = 0; i < shares.length; i++) {
+      if (shares[i] == share) {
+        return timesToReach[i];
+      }
+    }
+    throw new IllegalArgumentException("Share not tracked: " + share + ", tracked are "
+        + Arrays.toString(shares));
+  }
+}
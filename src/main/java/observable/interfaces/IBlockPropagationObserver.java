@@ -1,8 +1,6 @@
 package observable.interfaces;
 
-import java.io.BufferedReader;
-import java.util.Comparator;
-import observable.BlockSighting;
+import observable.PropagationStatistics;
 import simblock.block.Block;
 import simblock.node.AbstractNode;
 
@@ -12,9 +10,16 @@ public interface IBlockPropagationObserver {
 
   void printAllPropagation();
 
-  BufferedReader getBlockSightings();
+  /**
+   * Writes out the block sightings recorded so far.
+   */
+  void flushBlockSightings();
 
-  default Comparator<BlockSighting> getComparator() {
-    return Comparator.comparing(BlockSighting::getBlockID).thenComparing(BlockSighting::getNodeID).thenComparing(BlockSighting::getPropagationTime);
-  }
+  /**
+   * Gets the propagation statistics of the sightings recorded so far, updated as the simulation
+   * runs.
+   *
+   * @return the statistics
+   */
+  PropagationStatistics getPropagationStatistics();
 }
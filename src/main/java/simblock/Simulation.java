@@ -9,7 +9,6 @@ package simblock;
 import helpers.SelfishMiningSimulationSettings;
 import helpers.SimulationSettings;
 import helpers.SimulationType;
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
@@ -23,34 +22,59 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
 
 import jdk.jshell.spi.ExecutionControl.NotImplementedException;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import observable.ArchiveExecutionObserver;
 import observable.BlockPropigationObserver;
-import observable.BlockSighting;
+import observable.PropagationStatistics;
 import observable.VisualizerExecutionObserver;
 import observable.interfaces.IBlockPropagationObserver;
-import org.apache.commons.math3.stat.descriptive.rank.Median;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pojo.events.AddNode;
 import pojo.events.SimulationEnd;
 import pojo.events.VisualizerEvents;
 import simblock.block.Block;
+import simblock.block.BlockTree;
 import simblock.block.ProofOfWorkBlock;
 import simblock.exceptions.PendingSimulationException;
 import simblock.node.AbstractNode;
 import simblock.node.NodeFactory;
 import simblock.node.NodeType;
 import simblock.node.SelfishMiningNode;
+import simblock.node.Topology;
+import simblock.node.TransactionRelay;
+import simblock.node.UploadPolicy;
+import simblock.node.consensus.AsertRetarget;
+import simblock.node.consensus.EpochRetarget;
+import simblock.node.consensus.FixedDifficultyRetarget;
+import simblock.node.consensus.IDifficultyRetarget;
+import simblock.node.consensus.LwmaRetarget;
+import simblock.node.consensus.MiningMode;
+import simblock.node.consensus.MiningPool;
+import simblock.settings.NetworkConfiguration;
+import simblock.simulator.EngineType;
 import simblock.simulator.Network;
+import simblock.simulator.SequentialEngine;
 import simblock.simulator.Simulator;
 import simblock.simulator.Timer;
+import simblock.simulator.interfaces.IExecutionEngine;
+import simblock.simulator.network.EmpiricalLatencyModel;
+import simblock.simulator.network.IBandwidthModel;
+import simblock.simulator.network.ILatencyModel;
+import simblock.simulator.network.MatrixLatencyModel;
+import simblock.simulator.network.ParetoLatencyTable;
+import simblock.simulator.network.RegionBandwidthModel;
+import simblock.simulator.parallel.ConservativeParallelEngine;
+import simblock.simulator.parallel.TimeWarpEngine;
 import simblock.task.AbstractMintingTask;
-import simblock.utils.probability.ProbabilityUtils;
+import simblock.transaction.TransactionGenerator;
+import simblock.transaction.TransactionRegistry;
+import simblock.utils.probability.AliasTable;
+import simblock.utils.probability.CheckpointableRandom;
+import simblock.utils.stats.LogLinearHistogram;
 import simblock.utils.stats.SimulationStatistics;
 import visualizer.VisualizerEvent;
 import visualizer.VisualizerJsonWriter;
@@ -74,6 +98,12 @@ public class Simulation implements Runnable {
   private NodeFactory nodeFactory;
   private VisualizerJsonWriter writer;
   private Timer timer;
+  private IExecutionEngine executionEngine;
+
+  /**
+   * The block height reached by the simulation, we stop at END_BLOCK_HEIGHT.
+   */
+  private int currentBlockHeight;
   @Getter
   private ArchiveExecutionObserver executionObserver;
   private IBlockPropagationObserver blockPropagationObserver;
@@ -112,25 +142,36 @@ public class Simulation implements Runnable {
     this.simulationSettings = simSettings;
 
     // A random instance shared in the simulation
-    Random random = new Random(SimulationSettings.SIMULATION_SEED);
+    Random random = new Random(simulationSettings.seed);
 
     // Simulation starts at 0
     this.simulationTime = 0;
 
-    // Network setup
-    this.network = new Network(random);
-
-    // Set the output directories and files
-    this.outDirectoryUri = Paths.get("dist/output").toUri();
+    // Set the output directories and files, the output directory must exist for its URI to end
+    // with a slash, as the output files are resolved against it
+    File outDirectory = new File(simulationSettings.outputDirectory);
+    outDirectory.mkdirs();
+    this.outDirectoryUri = outDirectory.toURI();
     this.graphDirectoryUri = outDirectoryUri.resolve("./graph/");
 
+    // Network setup
+    this.network = new Network(random, outDirectoryUri, createLatencyModel(), createBandwidthModel());
+
     // Set the transient data structures for the simulation
     this.visualizerEvents = new VisualizerEvents();
-    this.blockPropagationObserver = new BlockPropigationObserver(this.outDirectoryUri);
-    this.writer = new VisualizerJsonWriter();
-    this.timer = new Timer();
+    this.blockPropagationObserver = new BlockPropigationObserver(this.outDirectoryUri,
+        simulationSettings.numOfNodes);
+    this.writer = new VisualizerJsonWriter(outDirectoryUri);
+    this.timer = new Timer(simulationSettings.futureEventListType);
+    this.timer.setCancellationPolicy(simulationSettings.cancellationPolicy);
+    this.timer.setCompactionThreshold(simulationSettings.compactionThreshold);
 
     this.simulator = new Simulator(timer, simulationSettings.interval);
+    this.simulator.setDifficultyRetarget(createDifficultyRetarget());
+    if (simulationSettings.miningMode == MiningMode.POOLED) {
+      // The pool draws from a random instance of its own, per node runs keep their random sequence
+      this.simulator.setMiningPool(new MiningPool(timer, new CheckpointableRandom(random.nextLong())));
+    }
 
     this.nodeFactory = new NodeFactory(blockPropagationObserver,  
                                        visualizerEvents,   
@@ -142,7 +183,8 @@ public class Simulation implements Runnable {
                                        SimulationSettings.STDEV_OF_MINING_POWER,
                                        SimulationSettings.AVERAGE_MINING_POWER, 
                                        SimulationSettings.BLOCK_SIZE, 
-                                       SimulationSettings.PROCESSING_TIME);
+                                       SimulationSettings.PROCESSING_TIME,
+                                       simulator.getNodeStateStore());
     this.executionObserver = new ArchiveExecutionObserver();
 
 
@@ -185,46 +227,30 @@ public class Simulation implements Runnable {
     // Setup network
     this.constructNetworkWithAllNodes(simulationSettings.numOfNodes);
 
+    // Setup the engine running the tasks, it may move the nodes to timers of its own
+    this.executionEngine = createExecutionEngine();
+
     // Starts the simulation by designating a random node to mint the genesis block
     // (nodes in list are randomized)
     AbstractMintingTask genesisMint = simulator.getSimulatedNodes().get(0).getConsensusAlgo().genesisBlockTask();
     genesisMint.run();
 
     // Initial block height, we stop at END_BLOCK_HEIGHT
-    int currentBlockHeight = 1;
+    this.currentBlockHeight = 1;
 
     // StopWatch stopwatch = StopWatch.createStarted();
     // try (FileWriter fw = new FileWriter(new File(outDirectoryUri.resolve("./blockTimes.txt")), false)) {
     //try (PrintWriter pw = new PrintWriter(new BufferedWriter(fw))) {
 
-    // Iterate over tasks and handle
-    while (timer.getTask() != null) {
-      if (timer.getTask() instanceof AbstractMintingTask) {
-        AbstractMintingTask task = (AbstractMintingTask) timer.getTask();
-        if (task.getParent().getHeight() == currentBlockHeight) {
-          currentBlockHeight++;
-          //printBlockTimes(pw, currentBlockHeight, stopwatch.getTime(TimeUnit.SECONDS));
-
-        }
-        if (currentBlockHeight > simulationSettings.endBlockHeight) {
-          break;
-        }
-        // Log every 100 blocks and at the second block
-        // TODO use constants here
-        if (currentBlockHeight % 100 == 0 || currentBlockHeight == 2) {
-          this.writeGraph(currentBlockHeight);
-        }
-      }
-      // Execute task
-      timer.runTask();
-    }
+    // Iterate over the tasks
+    executionEngine.run(this::beforeMinting);
 
     //}
     //}
 
     logEndOfSimulationInfo();
 
-    VisualizerEvent simulationEnd = new SimulationEnd(timer.getCurrentTime());
+    VisualizerEvent simulationEnd = new SimulationEnd(executionEngine.getCurrentTime());
 
     visualizerEvents.add(simulationEnd);
 
@@ -235,12 +261,134 @@ public class Simulation implements Runnable {
     simulationTime += end - start;
     // Log simulation time in milliseconds
     logger.info("Simulation time: " + simulationTime + "ms");
+    logger.info("Timer tombstone ratio: " + timer.getTombstoneRatio()
+        + ", compactions: " + timer.getCompactionCount());
 
     this.simulationExecuted = true;
 
     printSimulationVerification();
   }
 
+  /**
+   * Creates the difficulty adjustment selected by the simulation settings.
+   *
+   * @return the difficulty adjustment
+   */
+  private IDifficultyRetarget createDifficultyRetarget() {
+    long interval = simulationSettings.interval;
+    switch (simulationSettings.retargetType) {
+      case EPOCH:
+        return new EpochRetarget(interval, EpochRetarget.BITCOIN_EPOCH_LENGTH);
+      case ASERT:
+        return new AsertRetarget(interval, AsertRetarget.DEFAULT_HALF_LIFE_BLOCKS);
+      case LWMA:
+        return new LwmaRetarget(interval, LwmaRetarget.DEFAULT_WINDOW);
+      default:
+        return FixedDifficultyRetarget.INSTANCE;
+    }
+  }
+
+  /**
+   * Creates the latency model selected by the simulation settings.
+   *
+   * @return the latency model
+   */
+  @SneakyThrows(IOException.class)
+  private ILatencyModel createLatencyModel() {
+    switch (simulationSettings.latencyModelType) {
+      case REGION_2019:
+        return new ParetoLatencyTable(NetworkConfiguration.LATENCY_2019, simulationSettings.latencySampling);
+      case EMPIRICAL:
+        return EmpiricalLatencyModel.load(Paths.get(simulationSettings.latencyFile),
+            NetworkConfiguration.REGION_LIST.size());
+      case MATRIX:
+        return new MatrixLatencyModel(Paths.get(simulationSettings.latencyFile));
+      default:
+        return new ParetoLatencyTable(NetworkConfiguration.LATENCY_2015, simulationSettings.latencySampling);
+    }
+  }
+
+  /**
+   * Creates the bandwidth model selected by the simulation settings.
+   *
+   * @return the bandwidth model
+   */
+  private IBandwidthModel createBandwidthModel() {
+    switch (simulationSettings.bandwidthModelType) {
+      case REGION_2019:
+        return new RegionBandwidthModel(NetworkConfiguration.UPLOAD_BANDWIDTH_2019,
+            NetworkConfiguration.DOWNLOAD_BANDWIDTH_2019);
+      default:
+        return new RegionBandwidthModel(NetworkConfiguration.UPLOAD_BANDWIDTH_2015,
+            NetworkConfiguration.DOWNLOAD_BANDWIDTH_2015);
+    }
+  }
+
+  /**
+   * Creates the execution engine selected by the simulation settings.
+   *
+   * @return the execution engine
+   */
+  private IExecutionEngine createExecutionEngine() {
+    if (simulationSettings.miningMode == MiningMode.POOLED
+        && simulationSettings.engineType != EngineType.SEQUENTIAL) {
+      throw new IllegalStateException("Pooled mining requires the sequential engine");
+    }
+    if (simulationSettings.uploadPolicy != UploadPolicy.SERIAL
+        && simulationSettings.engineType != EngineType.SEQUENTIAL) {
+      throw new IllegalStateException("Scheduled uploads require the sequential engine");
+    }
+    if (simulationSettings.transactionRate > 0 && simulationSettings.engineType != EngineType.SEQUENTIAL) {
+      throw new IllegalStateException("Simulating transactions requires the sequential engine");
+    }
+    switch (simulationSettings.engineType) {
+      case CONSERVATIVE_PARALLEL:
+        return new ConservativeParallelEngine(simulationSettings, timer, simulator.getSimulatedNodes(), network);
+      case TIME_WARP:
+        return new TimeWarpEngine(simulationSettings, timer, simulator.getSimulatedNodes(), network);
+      default:
+        return new SequentialEngine(timer);
+    }
+  }
+
+  /**
+   * Keeps track of the block height before a minting task is run.
+   *
+   * @param task the minting task
+   * @return false if the end block height has been reached and the simulation must stop
+   */
+  private boolean beforeMinting(AbstractMintingTask task) {
+    if (task.getParent().getHeight() == currentBlockHeight) {
+      currentBlockHeight++;
+      //printBlockTimes(pw, currentBlockHeight, stopwatch.getTime(TimeUnit.SECONDS));
+    }
+    if (currentBlockHeight > simulationSettings.endBlockHeight) {
+      return false;
+    }
+    // Log every 100 blocks and at the second block
+    // TODO use constants here
+    if (currentBlockHeight % 100 == 0 || currentBlockHeight == 2) {
+      this.writeGraph(currentBlockHeight);
+      this.logPropagationPercentiles(currentBlockHeight);
+    }
+    return true;
+  }
+
+  /**
+   * Logs the block propagation percentiles of the sightings so far.
+   *
+   * @param blockHeight the current block height
+   */
+  private void logPropagationPercentiles(int blockHeight) {
+    LogLinearHistogram sightings = blockPropagationObserver.getPropagationStatistics().getSightings();
+    if (sightings.getCount() > 0) {
+      logger.info("Block propagation at height " + blockHeight
+          + ": median=" + sightings.getValueAtQuantile(0.5) + "ms"
+          + ", p90=" + sightings.getValueAtQuantile(0.9) + "ms"
+          + ", p99=" + sightings.getValueAtQuantile(0.99) + "ms");
+    }
+  }
+
   /**
    * Prints the simulation verification.
    */
@@ -258,6 +406,8 @@ public class Simulation implements Runnable {
 
     // Print propagation information about all blocks
     this.blockPropagationObserver.printAllPropagation();
+    this.blockPropagationObserver.flushBlockSightings();
+    printPropagationCdf();
 
     // Get the latest block from the first simulated node
     Block block = simulator.getSimulatedNodes().get(0).getBlock();
@@ -269,26 +419,23 @@ public class Simulation implements Runnable {
       block = block.getParent();
     }
 
-    // Gather all known orphans
-    for (AbstractNode node : simulator.getSimulatedNodes()) {
-      orphans.addAll(node.getOrphans());
-      averageOrphansSize += node.getOrphans().size();
-    }
-    averageOrphansSize = averageOrphansSize / simulator.getSimulatedNodes().size();
+    // Gather all known orphans from the block tree shared by the nodes
+    BlockTree blockTree = simulator.getNodeStateStore().getBlockTree();
+    orphans.addAll(blockTree.getOrphanBlocks());
+    averageOrphansSize = (int) (blockTree.getOrphanCount() / simulator.getSimulatedNodes().size());
 
     // Record orphans to the list of all known blocks
     blocks.addAll(orphans);
 
     ArrayList<Block> blockList = new ArrayList<>(blocks);
 
-    // Sort the blocks first by time, then by hash code
+    // Sort the blocks first by time, then by id
     blockList.sort((a, b) -> {
-      int order = Long.signum(a.getTime() - b.getTime());
+      int order = Long.compare(a.getTime(), b.getTime());
       if (order != 0) {
         return order;
       }
-      order = System.identityHashCode(a) - System.identityHashCode(b);
-      return order;
+      return Integer.compare(a.getId(), b.getId());
     });
 
     // Log all orphans
@@ -334,27 +481,27 @@ public class Simulation implements Runnable {
   public void constructNetworkWithAllNodes(int numNodes) {
 
     long totalNetworkMiningPower = 0;
-    ProbabilityUtils regionProbability = new ProbabilityUtils();
-    ProbabilityUtils degreeProbability = new ProbabilityUtils();
+    AliasTable regionProbability = new AliasTable();
+    AliasTable degreeProbability = new AliasTable();
 
     // Random distribution of nodes per region
     double[] regionDistribution = network.getRegionDistribution();
     regionProbability.fromPmf(regionDistribution);
-    List<Integer> regionList = regionProbability.generatePopulation(numNodes, SimulationSettings.SIMULATION_SEED);
+    int[] regionList = regionProbability.samplePopulation(numNodes, simulationSettings.seed);
 
     // Random distribution of node degrees
     double[] degreeDistribution = network.getDegreeDistribution();
     degreeProbability.fromCdf(degreeDistribution);
-    List<Integer> degreeList = degreeProbability.generatePopulation(numNodes, SimulationSettings.SIMULATION_SEED);
+    int[] degreeList = degreeProbability.samplePopulation(numNodes, simulationSettings.seed);
 
-    var claimedNodeIDs = new ArrayList<Integer>();
+    var claimedNodeIDs = new HashSet<Integer>();
     int randomNodeID; /* Node ids must be random in order to generate a machine learning dataset. 
                          If it's not random, it will learn incorrectly on the id  */
 
     for (int i = 1; i <= numNodes; i++) {
 
       do {
-        randomNodeID = ThreadLocalRandom.current().nextInt(0, Integer.MAX_VALUE);
+        randomNodeID = nodeFactory.getRandom().nextInt(Integer.MAX_VALUE);
       } while (claimedNodeIDs.contains(randomNodeID));
       claimedNodeIDs.add(randomNodeID);
       
@@ -364,7 +511,7 @@ public class Simulation implements Runnable {
       if ((simulationSettings.simulationType == SimulationType.SELFISH_MINING
           || simulationSettings.simulationType == SimulationType.SIMPLE_SELFISH_MINING) && i == numNodes) {
 
-        AbstractNode selfishNode = nodeFactory.createNode(randomNodeID, degreeList.get(i - 1) + 1, regionList.get(i - 1),
+        AbstractNode selfishNode = nodeFactory.createNode(randomNodeID, degreeList[i - 1] + 1, regionList[i - 1],
             NodeType.BTC_SelfishMiner);
 
         // According to Eyal and Sirer, the selfish mining threshold should be 25% of
@@ -381,7 +528,7 @@ public class Simulation implements Runnable {
       } else {
         // Each node gets assigned a region, its degree, mining power, routing table and
         // consensus algorithm
-        AbstractNode node = nodeFactory.createNode(randomNodeID, degreeList.get(i - 1) + 1, regionList.get(i - 1),
+        AbstractNode node = nodeFactory.createNode(randomNodeID, degreeList[i - 1] + 1, regionList[i - 1],
             NodeType.BTC);
 
         // Add the node to the list of simulated nodes
@@ -390,7 +537,7 @@ public class Simulation implements Runnable {
         totalNetworkMiningPower += node.getMiningPower();
       }
 
-      VisualizerEvent addNode = new AddNode(0, randomNodeID, regionList.get(i - 1));
+      VisualizerEvent addNode = new AddNode(0, randomNodeID, regionList[i - 1]);
 
       visualizerEvents.add(addNode);
 
@@ -400,7 +547,29 @@ public class Simulation implements Runnable {
     // Link newly generated nodes
     for (AbstractNode node : bootstrapNodes) {
       node.joinNetwork(bootstrapNodes, nodeFactory.getRandom());
+      node.setUploadPolicy(simulationSettings.uploadPolicy);
+      node.setRelayProtocol(simulationSettings.relayProtocol);
+    }
+
+    if (simulationSettings.transactionRate > 0) {
+      this.startTransactions(bootstrapNodes);
+    }
+  }
+
+  /**
+   * Gives every node a mempool and starts the arrival of transactions.
+   *
+   * @param nodes the simulated nodes
+   */
+  private void startTransactions(List<AbstractNode> nodes) {
+    Random random = new CheckpointableRandom(nodeFactory.getRandom().nextLong());
+    TransactionRegistry registry = new TransactionRegistry();
+    for (AbstractNode node : nodes) {
+      node.setTransactionRelay(new TransactionRelay(node, registry, random, simulationSettings.maxBlockSize,
+          simulationSettings.transactionAnnouncementInterval));
     }
+    new TransactionGenerator(timer, random, registry, nodes, simulationSettings.transactionRate,
+        simulationSettings.medianFeeRate).start();
   }
 
   /**
@@ -418,11 +587,12 @@ public class Simulation implements Runnable {
       FileWriter fw = new FileWriter(new File(graphDirectoryUri.resolve(blockHeight + ".txt")), false);
       PrintWriter pw = new PrintWriter(new BufferedWriter(fw));
 
-      for (int index = 1; index <= simulator.getSimulatedNodes().size(); index++) {
-        AbstractNode node = simulator.getSimulatedNodes().get(index - 1);
-        for (int i = 0; i < node.getNeighbors().size(); i++) {
-          AbstractNode neighbor = node.getNeighbors().get(i);
-          pw.println(node.getNodeID() + " " + neighbor.getNodeID());
+      List<AbstractNode> nodes = simulator.getSimulatedNodes();
+      Topology topology = simulator.getTopology();
+      for (int index = 0; index < topology.size(); index++) {
+        int nodeID = nodes.get(index).getNodeID();
+        for (int i = topology.start(index); i < topology.end(index); i++) {
+          pw.println(nodeID + " " + nodes.get(topology.target(i)).getNodeID());
         }
       }
       pw.close();
@@ -450,6 +620,25 @@ public class Simulation implements Runnable {
     }
   }
 
+  /**
+   * Prints the cumulative distribution of the propagation times of all block sightings in the
+   * format:
+   *
+   * <p><em>propagation_time, cumulative_fraction</em>
+   */
+  public void printPropagationCdf() {
+    File file = new File(outDirectoryUri.resolve("./propagationCdf.csv"));
+    try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(file, false)))) {
+      pw.println("propagation_time,cumulative_fraction");
+      for (LogLinearHistogram.Point point
+          : blockPropagationObserver.getPropagationStatistics().getSightings().getCdf()) {
+        pw.println(point.getValue() + "," + point.getCumulativeFraction());
+      }
+    } catch (IOException ex) {
+      ex.printStackTrace();
+    }
+  }
+
   /**
    * Prints the simulation verification.
    * 
@@ -480,7 +669,6 @@ public class Simulation implements Runnable {
    * @return the {@link SimulationStatistics} instance
    * @throws PendingSimulationException if simulation has not been run yet.
    */
-  @SneakyThrows(IOException.class)
   public SimulationStatistics getSimulationStatistics() throws PendingSimulationException {
     if (!simulationExecuted) {
       throw new PendingSimulationException();
@@ -496,31 +684,33 @@ public class Simulation implements Runnable {
 
     double forkRatePercentage = (double) getOrphans().size() / getBlocks().size() * 100; // TODO: understand this
 
-    BufferedReader reader = blockPropagationObserver.getBlockSightings();
+    double blockFullness = getBlocks().stream()
+        .filter(block -> !getOrphans().contains(block) && block.getTransactions() != null)
+        .mapToDouble(block -> (double) block.getSize() / simulationSettings.maxBlockSize)
+        .average().orElse(0);
 
-    List<Double> propagationTimes = new ArrayList<Double>();
-    try {
-      String line;
-      while ((line = reader.readLine()) != null) {  
-        String[] blockSightingParts = line.split(",");
-        propagationTimes.add(Double.parseDouble(blockSightingParts[BlockSighting.PROPIGATION_INDEX]));
-      }
-
-    } finally {
-      reader.close();
-    }
+    PropagationStatistics propagation = blockPropagationObserver.getPropagationStatistics();
+    LogLinearHistogram sightings = propagation.getSightings();
 
-    double[] blockPropArray = new double[propagationTimes.size()];
-    for (int i = 0; i < propagationTimes.size(); i++) {
-      blockPropArray[i] = propagationTimes.get(i);
-    }
-    
     this.simulationStatistics = SimulationStatistics.builder()
                                                     .blockInterval(dss.getAverage())
                                                     .medianBlockPropagationTime(
-                                                      new Median().evaluate(blockPropArray)
+                                                      sightings.getValueAtQuantile(0.5)
+                                                    )
+                                                    .p90BlockPropagationTime(
+                                                      sightings.getValueAtQuantile(0.9)
+                                                    )
+                                                    .p99BlockPropagationTime(
+                                                      sightings.getValueAtQuantile(0.99)
+                                                    )
+                                                    .medianTimeToReachHalf(
+                                                      propagation.getTimeToReach(0.5).getValueAtQuantile(0.5)
+                                                    )
+                                                    .medianTimeToReachNinetyPercent(
+                                                      propagation.getTimeToReach(0.9).getValueAtQuantile(0.5)
                                                     )
-                                                    .forkRate(forkRatePercentage).build();
+                                                    .forkRate(forkRatePercentage)
+                                                    .blockFullness(blockFullness).build();
 
     return this.simulationStatistics;
   }
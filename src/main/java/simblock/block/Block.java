@@ -17,7 +17,6 @@
 package simblock.block;
 
 import java.util.concurrent.TimeUnit;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import simblock.node.AbstractNode;
@@ -26,7 +25,6 @@ import simblock.node.AbstractNode;
  * The representation of a block.
  */
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@AllArgsConstructor
 public class Block {
   
   /**
@@ -56,6 +54,22 @@ public class Block {
   @EqualsAndHashCode.Include
   private final int id;
 
+  /**
+   * An ancestor further back than the parent, at the height given by {@link #skipHeight(int)},
+   * letting ancestor lookups skip over most of the chain as Bitcoin Core's {@code pskip} does.
+   */
+  private final Block skip;
+
+  /**
+   * The ids of the transactions of the block, or null if transactions are not simulated.
+   */
+  private int[] transactions;
+
+  /**
+   * Size of the block in bytes, known once its transactions are set.
+   */
+  private long size;
+
 
   /**
    * Instantiates a new Block.
@@ -65,11 +79,32 @@ public class Block {
    * @param time   the time
    */
   public Block(Block parent, AbstractNode minter, long time, int id) {
-    this.height = parent == null ? 0 : parent.getHeight() + 1;
+    this(parent == null ? 0 : parent.getHeight() + 1, parent, minter, time, id);
+  }
+
+  /**
+   * Instantiates a new Block at the provided height. Only a block without parent may be placed at
+   * any height, as for a chain known from that block on, the skip pointers of the descendants rely
+   * on every other block being one above its parent.
+   *
+   * @param height the height
+   * @param parent the parent
+   * @param minter the minter
+   * @param time   the time
+   * @param id     the id
+   * @throws IllegalArgumentException if the block has a parent and is not one above it
+   */
+  public Block(int height, Block parent, AbstractNode minter, long time, int id) {
+    if (parent != null && height != parent.getHeight() + 1) {
+      throw new IllegalArgumentException("A block at height " + height
+          + " cannot have a parent at height " + parent.getHeight());
+    }
+    this.height = height;
     this.parent = parent;
     this.minter = minter;
     this.time = time;
     this.id = id;
+    this.skip = parent == null ? null : ancestor(parent, height - 1, skipHeight(height));
   }
 
 
@@ -100,6 +135,35 @@ public class Block {
     return this.time;
   }
 
+  /**
+   * Gets the ids of the transactions of the block. The array must not be modified.
+   *
+   * @return the transaction ids or null if transactions are not simulated
+   */
+  public int[] getTransactions() {
+    return this.transactions;
+  }
+
+  /**
+   * Gets the size of the block.
+   *
+   * @return the size in bytes or 0 if transactions are not simulated
+   */
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Sets the transactions of the block, done by the minter once before the block is sent.
+   *
+   * @param transactions the transaction ids
+   * @param size         the size of the block in bytes
+   */
+  public void setTransactions(int[] transactions, long size) {
+    this.transactions = transactions;
+    this.size = size;
+  }
+
   /**
    * Gets the block id.
    *
@@ -120,17 +184,67 @@ public class Block {
   }
 
   /**
-   * Recursively searches for the block at the provided height.
+   * Searches for the ancestor at the provided height, in O(log h) steps using the skip pointers.
    *
    * @param height the height
-   * @return the block with the provided height
+   * @return the block with the provided height or null if there is no such ancestor
    */
   public Block getBlockWithHeight(int height) {
-    if (this.height == height) {
-      return this;
-    } else {
-      return this.parent.getBlockWithHeight(height);
+    return ancestor(this, this.height, height);
+  }
+
+  /**
+   * Walks back from the provided block to its ancestor at the provided height, following the
+   * skip pointer whenever it does not overshoot the target, see Bitcoin Core's
+   * {@code CBlockIndex::GetAncestor}.
+   *
+   * @param block       the block to start from
+   * @param blockHeight the height of the block
+   * @param height      the height of the ancestor
+   * @return the ancestor or null if there is no such ancestor
+   */
+  private static Block ancestor(Block block, int blockHeight, int height) {
+    if (height > blockHeight || height < 0) {
+      return null;
+    }
+
+    Block walk = block;
+    int walkHeight = blockHeight;
+    while (walk != null && walkHeight > height) {
+      int walkSkipHeight = skipHeight(walkHeight);
+      int previousSkipHeight = skipHeight(walkHeight - 1);
+      if (walk.skip != null && (walkSkipHeight == height
+          || (walkSkipHeight > height
+              && !(previousSkipHeight < walkSkipHeight - 2 && previousSkipHeight >= height)))) {
+        // Only follow the skip pointer if the parent's one would not be a better way down
+        walk = walk.skip;
+        walkHeight = walkSkipHeight;
+      } else {
+        walk = walk.parent;
+        walkHeight--;
+      }
+    }
+    return walk;
+  }
+
+  /**
+   * Gets the height the skip pointer of a block at the provided height points to. Any ancestor
+   * can be reached in O(log h) steps when the skip heights are chosen this way.
+   *
+   * @param height the height of the block
+   * @return the height of its skip pointer
+   */
+  static int skipHeight(int height) {
+    if (height < 2) {
+      return 0;
     }
+    // Clear the lowest set bit, for odd heights of the height below and then add one
+    return (height & 1) != 0 ? invertLowestOne(invertLowestOne(height - 1)) + 1
+        : invertLowestOne(height);
+  }
+
+  private static int invertLowestOne(int n) {
+    return n & (n - 1);
   }
 
   /**
@@ -0,0 +1,275 @@
+package simblock.block;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import simblock.utils.LongObjectHashMap;
+
+/**
+ * The chain state of all nodes of a simulation kept in one tree, instead of every node keeping a
+ * tip and a set of orphans of its own. The tree holds the tip of every node, by node index, and
+ * one entry for every block orphaned by at least one node. The entry records the indices of the
+ * nodes orphaning the block in a bit set, so a fork costs one bit per node rather than one set
+ * entry per node, and the orphans of the whole network are counted and listed in O(blocks).
+ *
+ * <p>The orphans of a node are derived from the tree: a block is an orphan to a node if the node
+ * marked it and it is not on the chain of the tip of the node. Nodes unmark the blocks of a branch
+ * they switch to, see {@code AbstractNode#addOrphans}, so the marks of every node are off its
+ * chain and the totals of the tree count orphans. Listing the orphans of a node walks the orphaned
+ * blocks of the network, it is skipped for nodes without any.
+ *
+ * <p>Tips are only read and written by their own node and may be updated concurrently once the
+ * tree has been sized with {@link #ensureCapacity}. Entries are shared between nodes and guarded
+ * by a lock, which is held for a lookup or a bit update only, except when listing the orphans of
+ * a node.
+ */
+public class BlockTree {
+
+  private static final Block[] NO_BLOCKS = new Block[0];
+
+  private static final Comparator<Block> BY_ID = Comparator.comparingInt(Block::getId);
+
+  /**
+   * The current block of every node, by node index.
+   */
+  private Block[] tips = new Block[0];
+
+  /**
+   * Number of blocks marked by every node, by node index.
+   */
+  private int[] markCounts = new int[0];
+
+  /**
+   * Number of blocks marked by all nodes together.
+   */
+  private long markCount;
+
+  /**
+   * The orphaned blocks, by block id.
+   */
+  private final LongObjectHashMap<Entry> entries = new LongObjectHashMap<>();
+
+  /**
+   * Sizes the tree for nodes of indices below the provided capacity.
+   *
+   * @param capacity the number of node indices
+   */
+  public void ensureCapacity(int capacity) {
+    synchronized (entries) {
+      if (capacity <= tips.length) {
+        return;
+      }
+      int length = Math.max(capacity, 2 * tips.length);
+      tips = Arrays.copyOf(tips, length);
+      markCounts = Arrays.copyOf(markCounts, length);
+    }
+  }
+
+  /**
+   * Gets the current block of the node.
+   *
+   * @param nodeIndex the node index
+   * @return the tip or null if the node has no block yet
+   */
+  public Block getTip(int nodeIndex) {
+    return nodeIndex < tips.length ? tips[nodeIndex] : null;
+  }
+
+  /**
+   * Sets the current block of the node.
+   *
+   * @param nodeIndex the node index
+   * @param tip       the tip
+   */
+  public void setTip(int nodeIndex, Block tip) {
+    ensureCapacity(nodeIndex + 1);
+    tips[nodeIndex] = tip;
+  }
+
+  /**
+   * Marks the block as an orphan to the node.
+   *
+   * @param nodeIndex the node index
+   * @param block     the block
+   * @return false if the block already was marked by the node
+   */
+  public boolean addOrphan(int nodeIndex, Block block) {
+    ensureCapacity(nodeIndex + 1);
+    synchronized (entries) {
+      Entry entry = entries.get(block.getId());
+      if (entry == null) {
+        entry = new Entry(block);
+        entries.put(block.getId(), entry);
+      } else if (entry.orphanedBy.get(nodeIndex)) {
+        return false;
+      }
+
+      entry.orphanedBy.set(nodeIndex);
+      markCounts[nodeIndex]++;
+      markCount++;
+      return true;
+    }
+  }
+
+  /**
+   * Marks the block as no longer an orphan to the node.
+   *
+   * @param nodeIndex the node index
+   * @param block     the block
+   * @return false if the block was not marked by the node
+   */
+  public boolean removeOrphan(int nodeIndex, Block block) {
+    synchronized (entries) {
+      Entry entry = entries.get(block.getId());
+      if (entry == null || !entry.orphanedBy.get(nodeIndex)) {
+        return false;
+      }
+      unmark(nodeIndex, entry);
+      return true;
+    }
+  }
+
+  /**
+   * Checks whether the block is an orphan to the node.
+   *
+   * @param nodeIndex the node index
+   * @param block     the block
+   * @return true if the node marked the block and the block is not on the chain of the node
+   */
+  public boolean isOrphan(int nodeIndex, Block block) {
+    synchronized (entries) {
+      Entry entry = entries.get(block.getId());
+      if (entry == null || !entry.orphanedBy.get(nodeIndex)) {
+        return false;
+      }
+    }
+    return !isOnChain(getTip(nodeIndex), block);
+  }
+
+  /**
+   * Gets the number of orphans of the node.
+   *
+   * @param nodeIndex the node index
+   * @return the number of orphans
+   */
+  public int getOrphanCount(int nodeIndex) {
+    return copyOrphans(nodeIndex).length;
+  }
+
+  /**
+   * Gets the number of orphans of all nodes together, a block orphaned by several nodes being
+   * counted once for each of them.
+   *
+   * @return the number of orphans
+   */
+  public long getOrphanCount() {
+    synchronized (entries) {
+      return markCount;
+    }
+  }
+
+  /**
+   * Lists the orphans of the node.
+   *
+   * @param nodeIndex the node index
+   * @return a copy of the orphans of the node, ordered by block id
+   */
+  public List<Block> getOrphans(int nodeIndex) {
+    return Arrays.asList(copyOrphans(nodeIndex));
+  }
+
+  /**
+   * Copies the orphans of the node.
+   *
+   * @param nodeIndex the node index
+   * @return a copy of the orphans of the node, ordered by block id
+   */
+  public Block[] copyOrphans(int nodeIndex) {
+    List<Block> marked = new ArrayList<>();
+    synchronized (entries) {
+      if (nodeIndex >= markCounts.length || markCounts[nodeIndex] == 0) {
+        return NO_BLOCKS;
+      }
+      entries.forEachValue(entry -> {
+        if (entry.orphanedBy.get(nodeIndex)) {
+          marked.add(entry.block);
+        }
+      });
+    }
+
+    Block tip = getTip(nodeIndex);
+    marked.removeIf(block -> isOnChain(tip, block));
+    marked.sort(BY_ID);
+    return marked.toArray(NO_BLOCKS);
+  }
+
+  /**
+   * Replaces the orphans of the node.
+   *
+   * @param nodeIndex the node index
+   * @param blocks    the orphans, as returned by {@link #copyOrphans}
+   */
+  public void setOrphans(int nodeIndex, Block[] blocks) {
+    ensureCapacity(nodeIndex + 1);
+    synchronized (entries) {
+      if (markCounts[nodeIndex] > 0) {
+        List<Entry> marked = new ArrayList<>(markCounts[nodeIndex]);
+        entries.forEachValue(entry -> {
+          if (entry.orphanedBy.get(nodeIndex)) {
+            marked.add(entry);
+          }
+        });
+        for (Entry entry : marked) {
+          unmark(nodeIndex, entry);
+        }
+      }
+      for (Block block : blocks) {
+        addOrphan(nodeIndex, block);
+      }
+    }
+  }
+
+  /**
+   * Gets the blocks that are an orphan to at least one node.
+   *
+   * @return a copy of the orphan blocks
+   */
+  public Set<Block> getOrphanBlocks() {
+    synchronized (entries) {
+      Set<Block> blocks = new HashSet<>(2 * entries.size());
+      entries.forEachValue(entry -> blocks.add(entry.block));
+      return blocks;
+    }
+  }
+
+  private void unmark(int nodeIndex, Entry entry) {
+    entry.orphanedBy.clear(nodeIndex);
+    if (entry.orphanedBy.isEmpty()) {
+      entries.remove(entry.block.getId());
+    }
+    markCounts[nodeIndex]--;
+    markCount--;
+  }
+
+  private static boolean isOnChain(Block tip, Block block) {
+    return tip != null && tip.getHeight() >= block.getHeight()
+        && tip.getBlockWithHeight(block.getHeight()) == block;
+  }
+
+  private static final class Entry {
+    private final Block block;
+
+    /**
+     * The indices of the nodes that marked the block.
+     */
+    private final BitSet orphanedBy = new BitSet();
+
+    private Entry(Block block) {
+      this.block = block;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package simblock.block;
+
+import java.util.function.Consumer;
+
+/**
+ * Queries on the block tree, answered through the skip pointers of the blocks instead of walking
+ * the chains one parent at a time.
+ */
+public final class ChainIndex {
+
+  private ChainIndex() {
+  }
+
+  /**
+   * Finds the fork point of two chains, their last common block. Whether two blocks of the same
+   * height have a common ancestor at a given height only changes once along the chains, so the
+   * fork point is binary searched, each probe being an O(log h) ancestor lookup.
+   *
+   * @param first  the tip of the first chain
+   * @param second the tip of the second chain
+   * @return the last common block or null if the chains share no block
+   */
+  public static Block forkPoint(Block first, Block second) {
+    if (first == null || second == null) {
+      return null;
+    }
+
+    int height = Math.min(first.getHeight(), second.getHeight());
+    Block firstAncestor = first.getBlockWithHeight(height);
+    Block secondAncestor = second.getBlockWithHeight(height);
+    if (isSameBlock(firstAncestor, secondAncestor)) {
+      return firstAncestor;
+    }
+
+    // The chains are known to share a block at low and to differ at high
+    int low = -1;
+    int high = height;
+    while (high - low > 1) {
+      int middle = (low + high) >>> 1;
+      if (isSameBlock(first.getBlockWithHeight(middle), second.getBlockWithHeight(middle))) {
+        low = middle;
+      } else {
+        high = middle;
+      }
+    }
+    return low < 0 ? null : first.getBlockWithHeight(low);
+  }
+
+  /**
+   * Visits the blocks of a branch, from its tip down to the block above the fork point, without
+   * recursing.
+   *
+   * @param tip       the tip of the branch
+   * @param forkPoint the block the branch forks from, or null to visit the whole chain
+   * @param action    the action applied to every block of the branch
+   * @return the number of blocks visited
+   */
+  public static int forEachOnBranch(Block tip, Block forkPoint, Consumer<Block> action) {
+    int count = 0;
+    for (Block block = tip; block != null && !block.equals(forkPoint); block = block.getParent()) {
+      action.accept(block);
+      count++;
+    }
+    return count;
+  }
+
+  private static boolean isSameBlock(Block first, Block second) {
+    return first != null && first.equals(second);
+  }
+}
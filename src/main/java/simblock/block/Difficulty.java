@@ -0,0 +1,170 @@
+package simblock.block;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import lombok.EqualsAndHashCode;
+
+/**
+ * An immutable, non-negative block difficulty. Values below 2^128, which covers every simulated
+ * difficulty, are held in two primitive words so that sums and comparisons do not allocate and
+ * the conversion to double is done once. Larger values fall back to a {@link BigInteger}.
+ */
+@EqualsAndHashCode
+public final class Difficulty implements Comparable<Difficulty> {
+
+  public static final Difficulty ZERO = new Difficulty(0L, 0L, null);
+
+  /**
+   * The upper and lower 64 bits of the value as unsigned words, both 0 if the value is large.
+   */
+  private final long high;
+  private final long low;
+
+  /**
+   * The value if it does not fit in 128 bits, null otherwise.
+   */
+  private final BigInteger large;
+
+  @EqualsAndHashCode.Exclude
+  private final double doubleValue;
+
+  private Difficulty(long high, long low, BigInteger large) {
+    this.high = high;
+    this.low = low;
+    this.large = large;
+    if (large != null) {
+      this.doubleValue = large.doubleValue();
+    } else if (high == 0) {
+      this.doubleValue = unsignedToDouble(low);
+    } else {
+      this.doubleValue = toBigInteger().doubleValue();
+    }
+  }
+
+  /**
+   * Gets the difficulty of the provided value.
+   *
+   * @param value the value, must not be negative
+   * @return the difficulty
+   */
+  public static Difficulty of(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Negative difficulty " + value);
+    }
+    return value == 0 ? ZERO : new Difficulty(0L, value, null);
+  }
+
+  /**
+   * Gets the difficulty closest to the provided value, at least 1. Used by difficulty
+   * adjustments, which scale difficulties by real factors.
+   *
+   * @param value the value
+   * @return the difficulty
+   */
+  public static Difficulty of(double value) {
+    if (!(value >= 1.0)) {
+      return of(1L);
+    }
+    if (value < Long.MAX_VALUE) {
+      return of(Math.round(value));
+    }
+    return of(new BigDecimal(value).toBigInteger());
+  }
+
+  /**
+   * Gets the difficulty of the provided value.
+   *
+   * @param value the value, must not be negative
+   * @return the difficulty
+   */
+  public static Difficulty of(BigInteger value) {
+    if (value.signum() < 0) {
+      throw new IllegalArgumentException("Negative difficulty " + value);
+    }
+    if (value.bitLength() > 128) {
+      return new Difficulty(0L, 0L, value);
+    }
+    return new Difficulty(value.shiftRight(64).longValue(), value.longValue(), null);
+  }
+
+  /**
+   * Adds the provided difficulty.
+   *
+   * @param other the difficulty to add
+   * @return the sum
+   */
+  public Difficulty add(Difficulty other) {
+    if (large != null || other.large != null) {
+      return of(toBigInteger().add(other.toBigInteger()));
+    }
+    if (other.high == 0 && other.low == 0) {
+      return this;
+    }
+
+    long sumLow = low + other.low;
+    long carry = Long.compareUnsigned(sumLow, low) < 0 ? 1L : 0L;
+    long sumHigh = high + other.high;
+    boolean overflow = Long.compareUnsigned(sumHigh, high) < 0;
+    sumHigh += carry;
+    overflow |= carry != 0 && sumHigh == 0;
+    if (overflow) {
+      return of(toBigInteger().add(other.toBigInteger()));
+    }
+    return new Difficulty(sumHigh, sumLow, null);
+  }
+
+  @Override
+  public int compareTo(Difficulty other) {
+    if (large != null || other.large != null) {
+      return toBigInteger().compareTo(other.toBigInteger());
+    }
+    int order = Long.compareUnsigned(high, other.high);
+    return order != 0 ? order : Long.compareUnsigned(low, other.low);
+  }
+
+  /**
+   * Gets the value as a double, rounded as {@link BigInteger#doubleValue()} does.
+   *
+   * @return the value
+   */
+  public double doubleValue() {
+    return doubleValue;
+  }
+
+  /**
+   * Gets the value as a {@link BigInteger}.
+   *
+   * @return the value
+   */
+  public BigInteger toBigInteger() {
+    if (large != null) {
+      return large;
+    }
+    if (high == 0 && low >= 0) {
+      return BigInteger.valueOf(low);
+    }
+
+    byte[] bytes = new byte[16];
+    for (int i = 0; i < 8; i++) {
+      bytes[i] = (byte) (high >>> (56 - 8 * i));
+      bytes[8 + i] = (byte) (low >>> (56 - 8 * i));
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  @Override
+  public String toString() {
+    return high == 0 && low >= 0 && large == null ? Long.toString(low) : toBigInteger().toString();
+  }
+
+  /**
+   * Converts an unsigned word to the nearest double, keeping the lowest bit when halving so the
+   * result is rounded correctly.
+   */
+  private static double unsignedToDouble(long value) {
+    if (value >= 0) {
+      return value;
+    }
+    return ((value >>> 1) | (value & 1)) * 2.0;
+  }
+}
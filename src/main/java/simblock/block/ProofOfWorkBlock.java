@@ -18,18 +18,19 @@ package simblock.block;
 
 import java.math.BigInteger;
 import java.util.Date;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.TimeUnit;
 import simblock.node.AbstractNode;
+import simblock.node.consensus.IDifficultyRetarget;
 
 
 /**
  * The type Proof of work block.
  */
 public class ProofOfWorkBlock extends Block {
-  private final BigInteger difficulty;
-  private final BigInteger totalDifficulty;
-  private final BigInteger nextDifficulty;
+  private final Difficulty difficulty;
+  private final Difficulty totalDifficulty;
+  private final Difficulty nextDifficulty;
   private int transactionCount = 0;
   private final int ballparkTransactionCount = 4200;
 
@@ -49,12 +50,18 @@ public class ProofOfWorkBlock extends Block {
    * According to https://en.bitcoin.it/wiki/Maximum_transaction_rate
    * the safe transaction rate is 4200 txs/block
    * By examining the btc block explorer, I saw anywhere from 15 to 2,500
+   * When transactions are simulated the count of the block template is returned instead.
    * @return the block's transaction count
    */
   public int getTransactionCount() {
 
+    if (getTransactions() != null) {
+      return getTransactions().length;
+    }
+
     if (transactionCount == 0) {
-      Random numberGenerator = new Random();
+      // Seeded with the block id so that runs are reproducible
+      SplittableRandom numberGenerator = new SplittableRandom(getId());
       transactionCount = numberGenerator.nextInt(ballparkTransactionCount);
 
       if (transactionCount == 0) {
@@ -74,16 +81,48 @@ public class ProofOfWorkBlock extends Block {
    * @param difficulty the difficulty.
    */
   public ProofOfWorkBlock(ProofOfWorkBlock parent, AbstractNode minter, long time, BigInteger difficulty, int id) {
+    this(parent, minter, time, Difficulty.of(difficulty), id);
+  }
+
+  /**
+   * Instantiates a new Proof of work block.
+   *
+   * @param parent     the parent
+   * @param minter     the minter
+   * @param time       the time
+   * @param difficulty the difficulty.
+   * @param id         the id
+   */
+  public ProofOfWorkBlock(ProofOfWorkBlock parent, AbstractNode minter, long time, Difficulty difficulty, int id) {
     super(parent, minter, time, id);
     this.difficulty = difficulty;
 
-    this.totalDifficulty = parent.getTotalDifficulty().add(difficulty);
-    // TODO: difficulty adjustment is lacking, was never implemented in legacy
+    this.totalDifficulty = parent.getTotalDifficultyValue().add(difficulty);
     // Next difficulty perpetuates from genesis next difficulty and is never adjusted
-    this.nextDifficulty = parent.getNextDifficulty();
+    this.nextDifficulty = parent.getNextDifficultyValue();
 
   }
 
+  /**
+   * Instantiates a new Proof of work block, adjusting the difficulty of its children.
+   *
+   * @param parent     the parent
+   * @param minter     the minter
+   * @param time       the time
+   * @param difficulty the difficulty.
+   * @param id         the id
+   * @param retarget   the difficulty adjustment computing the next difficulty
+   */
+  public ProofOfWorkBlock(ProofOfWorkBlock parent, AbstractNode minter, long time, Difficulty difficulty, int id,
+                          IDifficultyRetarget retarget) {
+    super(parent, minter, time, id);
+    this.difficulty = difficulty;
+
+    this.totalDifficulty = parent.getTotalDifficultyValue().add(difficulty);
+    // Computed once here, every node mining on top of this block reads it
+    this.nextDifficulty = retarget.nextDifficulty(this);
+  }
+
   /**
    * Instantiates a new genesis block.
    *
@@ -92,12 +131,21 @@ public class ProofOfWorkBlock extends Block {
    * @param id the genesis block ID.
    */
   public ProofOfWorkBlock(AbstractNode minter, BigInteger genesisNextDifficulty, int id) {
+    this(minter, Difficulty.of(genesisNextDifficulty), id);
+  }
+
+  /**
+   * Instantiates a new genesis block.
+   *
+   * @param minter the minter to mint the genesis
+   * @param genesisNextDifficulty the next block difficulty
+   * @param id the genesis block ID.
+   */
+  public ProofOfWorkBlock(AbstractNode minter, Difficulty genesisNextDifficulty, int id) {
     super(null, minter, 0, id);
-    this.difficulty = BigInteger.ZERO;
-    this.totalDifficulty = BigInteger.ZERO.add(difficulty);  //This is then 0+0??
+    this.difficulty = Difficulty.ZERO;
+    this.totalDifficulty = Difficulty.ZERO;
     this.nextDifficulty = genesisNextDifficulty;
-
-
   }
 
   /**
@@ -106,6 +154,15 @@ public class ProofOfWorkBlock extends Block {
    * @return the difficulty
    */
   public BigInteger getDifficulty() {
+    return this.difficulty.toBigInteger();
+  }
+
+  /**
+   * Gets difficulty without converting it to a {@link BigInteger}.
+   *
+   * @return the difficulty
+   */
+  public Difficulty getDifficultyValue() {
     return this.difficulty;
   }
 
@@ -115,6 +172,15 @@ public class ProofOfWorkBlock extends Block {
    * @return the total difficulty
    */
   public BigInteger getTotalDifficulty() {
+    return this.totalDifficulty.toBigInteger();
+  }
+
+  /**
+   * Gets total difficulty without converting it to a {@link BigInteger}.
+   *
+   * @return the total difficulty
+   */
+  public Difficulty getTotalDifficultyValue() {
     return this.totalDifficulty;
   }
 
@@ -124,6 +190,15 @@ public class ProofOfWorkBlock extends Block {
    * @return the next difficulty
    */
   public BigInteger getNextDifficulty() {
+    return this.nextDifficulty.toBigInteger();
+  }
+
+  /**
+   * Gets next difficulty without converting it to a {@link BigInteger}.
+   *
+   * @return the next difficulty
+   */
+  public Difficulty getNextDifficultyValue() {
     return this.nextDifficulty;
   }
 
@@ -136,7 +211,7 @@ public class ProofOfWorkBlock extends Block {
         + "\"isSelfish\":" + (isSelfish ? 1 : 0)
         + ", \"height\":" + this.getHeight()
         + ", \"miner\":" + this.getMinter().getNodeID()
-        + ", \"size\":" + getTransactionCount() * averageBytesPerTransaction
+        + ", \"size\":" + (getTransactions() != null ? getSize() : getTransactionCount() * averageBytesPerTransaction)
         // All the mining times are calculated since january 1st 2020
         + ", \"time\":" + getTimeDelta()
         + ", \"difficulty\":\"" + difficulty + "\""
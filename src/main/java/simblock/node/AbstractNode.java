@@ -16,9 +16,11 @@
 
 package simblock.node;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
@@ -30,6 +32,8 @@ import observable.interfaces.IBlockPropagationSubject;
 import pojo.events.AddBlock;
 import pojo.events.VisualizerEventEmitter;
 import simblock.block.Block;
+import simblock.block.BlockTree;
+import simblock.block.ChainIndex;
 import simblock.node.consensus.AbstractConsensusAlgo;
 import simblock.node.routing.RoutingTable;
 import simblock.simulator.Network;
@@ -38,8 +42,18 @@ import simblock.simulator.Timer;
 import simblock.task.AbstractMessageTask;
 import simblock.task.AbstractMintingTask;
 import simblock.task.BlockMessageTask;
+import simblock.task.BlockTransactionsMessageTask;
+import simblock.task.CompactBlockMessageTask;
+import simblock.task.GetBlockTransactionsMessageTask;
+import simblock.task.GetCompactBlockMessageTask;
+import simblock.task.GetTransactionsMessageTask;
+import simblock.task.HeadersMessageTask;
 import simblock.task.InvMessageTask;
 import simblock.task.RecMessageTask;
+import simblock.task.TransactionInvMessageTask;
+import simblock.task.TransactionsMessageTask;
+import simblock.task.interfaces.ITask;
+import simblock.utils.probability.CheckpointableRandom;
 import visualizer.VisualizerEvent;
 
 /**
@@ -47,6 +61,22 @@ import visualizer.VisualizerEvent;
  */
 public abstract class AbstractNode extends TaskManager implements IBlockPropagationSubject, INetworkEntity, RoutingTable {
 
+  /**
+   * Number of low bits of a task sequence number counting the tasks of a single node.
+   */
+  private static final int TASK_SEQUENCE_BITS = 40;
+
+  /**
+   * Number of outbound peers a node in compact high bandwidth mode receives compact blocks from
+   * unsolicited, as in BIP152.
+   */
+  public static final int HIGH_BANDWIDTH_PEER_COUNT = 3;
+
+  /**
+   * Average size of a transaction in bytes, a 1,000,000 byte block holding 4,200 transactions.
+   */
+  public static final long AVERAGE_TRANSACTION_SIZE = 238;
+
   @Getter
   @Setter
   private int numConnection;
@@ -63,22 +93,39 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
   @Getter
   private final ArrayList<AbstractNode> inbound = new ArrayList<>();
 
+  /**
+   * The outbound followed by the inbound connections, or null if links changed since it was
+   * built. Links must only change through the routing table methods for it to stay valid.
+   */
+  private AbstractNode[] neighborArray;
+
+  /**
+   * The indexes and regions of the nodes of {@link #neighborArray}, built along with it.
+   */
+  private int[] neighborIndexes;
+  private int[] neighborRegions;
+
+  /**
+   * The latencies to the nodes of {@link #neighborArray}, drawn again for every announcement into
+   * the same array.
+   */
+  private long[] neighborLatencies;
+
   /**
    * Unique node ID.
    */
   private final int nodeID;
 
   /**
-   * Region assigned to the node.
+   * The store holding the region, mining power and chain state of the node, shared by all nodes
+   * of a simulation.
    */
-  private final int region;
+  private NodeStateStore stateStore;
 
   /**
-   * Mining power assigned to the node.
+   * Index of the node in its state store.
    */
-  @Getter
-  @Setter
-  private long miningPower;
+  private int stateIndex;
 
   /**
    * The consensus algorithm used by the node.
@@ -86,32 +133,25 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
   private AbstractConsensusAlgo consensusAlgo;
 
   /**
-   * The current block.
+   * Orphaned blocks known to node, a view of the block tree of the state store.
    */
-  private Block block;
+  private final Set<Block> orphans = new Orphans();
 
   /**
-   * Orphaned blocks known to node.
+   * The neighbor which pushed the block the node is receiving, a pushed block is not pushed back
+   * to it.
    */
-  private final Set<Block> orphans = new HashSet<>();
+  private AbstractNode pushingNeighbor;
 
   /**
    * The current minting task.
    */
   private AbstractMintingTask mintingTask = null;
 
-  /**
-   * In the process of downloading a new block.
-   * This gets flagged true when the node is receiving the bits for the block
-   * Happens in response to the getdata message
-   */
-  private boolean downloadingBlock = false;
-
   private final ArrayList<RecMessageTask> messageQue = new ArrayList<>();
-  private final Set<Block> downloadingBlocks = new HashSet<>();
 
   /**
-   * Currently hard coded to 0.5MB.
+   * Currently hard coded to 0.5MB, the size of blocks without simulated transactions.
    * @see helpers.SimulationSettings.java
    */
   @Getter
@@ -138,20 +178,74 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
   @Setter
   private Network network;
 
+  /**
+   * How the node shares its upload bandwidth between the blocks it sends.
+   */
+  @Getter
+  private UploadPolicy uploadPolicy = UploadPolicy.SERIAL;
+
+  /**
+   * How the node relays blocks to its neighbors.
+   */
+  @Getter
+  @Setter
+  private RelayProtocol relayProtocol = RelayProtocol.INV;
+
+  /**
+   * The mempool and transaction relay of the node, null if transactions are not simulated.
+   */
+  @Getter
+  @Setter
+  private TransactionRelay transactionRelay;
+
+  /**
+   * The uploads of the node, null with serial uploads.
+   */
+  @Getter
+  private UploadScheduler uploadScheduler;
+
+  /**
+   * The random instance of the node, drawing its latencies and mining times. Keeping it per node
+   * makes the random draws independent of the order in which nodes execute their tasks.
+   */
+  @Getter
+  @Setter
+  private Random random;
+
+  /**
+   * Dense index of the node among the simulated nodes, or -1 if it is not simulated.
+   */
+  @Getter
+  @Setter
+  private int nodeIndex = -1;
+
+  /**
+   * Number of tasks scheduled by the node.
+   */
+  private long scheduledTaskCount = 0;
+
+  /**
+   * Records changes to the chain state of the node so that execution engines can undo them, null
+   * if changes are not recorded.
+   */
+  @Setter
+  private INodeStateJournal stateJournal;
+
   /**
    * Instantiates a new Node.
    *
    * @param nodeID      the node id
    * @param region      the region
    * @param miningPower the mining power
+   * @param stateStore  the store the state of the node is kept in
    */
   public AbstractNode(int nodeID, int region, int numConnection, long miningPower, Timer timer, long blockSize,
-      long processingTime) {
+      long processingTime, NodeStateStore stateStore) {
     super(timer);
     this.nodeID = nodeID;
-    this.region = region;
     this.numConnection = numConnection;
-    this.miningPower = miningPower;
+    this.stateStore = stateStore;
+    this.stateIndex = stateStore.add(region, miningPower);
     this.blockObservers = new ArrayList<>();
     this.blockSize = blockSize;
     this.processingTime = processingTime;
@@ -173,7 +267,52 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    * @return the region
    */
   public int getRegion() {
-    return this.region;
+    return stateStore.getRegion(stateIndex);
+  }
+
+  /**
+   * Gets the mining power assigned to the node.
+   *
+   * @return the mining power
+   */
+  public long getMiningPower() {
+    return stateStore.getMiningPower(stateIndex);
+  }
+
+  /**
+   * Sets the mining power assigned to the node.
+   *
+   * @param miningPower the mining power
+   */
+  public void setMiningPower(long miningPower) {
+    stateStore.setMiningPower(stateIndex, miningPower);
+  }
+
+  /**
+   * Moves the state of the node into the provided store, where it is kept from then on.
+   *
+   * @param store the store
+   */
+  public void moveTo(NodeStateStore store) {
+    if (store == stateStore) {
+      return;
+    }
+    int index = store.add(getRegion(), getMiningPower());
+    store.setBlock(index, getBlock());
+    store.setDownloadingBlock(index, isDownloadingBlock());
+    store.setDownloadingBlockIds(index, stateStore.getDownloadingBlockIds(stateIndex));
+    store.getBlockTree().setOrphans(index, stateStore.getBlockTree().copyOrphans(stateIndex));
+    this.stateStore = store;
+    this.stateIndex = index;
+  }
+
+  /**
+   * Checks whether the node is receiving the bits of a block, in response to a getdata message.
+   *
+   * @return true if the node is downloading a block
+   */
+  public boolean isDownloadingBlock() {
+    return stateStore.isDownloadingBlock(stateIndex);
   }
 
   /**
@@ -193,7 +332,7 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    * @return the block
    */
   public Block getBlock() {
-    return this.block;
+    return stateStore.getBlock(stateIndex);
   }
 
   /**
@@ -206,17 +345,50 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
   }
 
   /**
-   * Gets the nodes neighbors.
+   * Gets the nodes neighbors, as an unmodifiable view of {@link #getNeighborArray()}.
    *
    * @return the neighbors
    */
-  public ArrayList<AbstractNode> getNeighbors() {
-    ArrayList<AbstractNode> neighbors = new ArrayList<>();
-    neighbors.addAll(outbound);
-    neighbors.addAll(inbound);
+  public List<AbstractNode> getNeighbors() {
+    return Collections.unmodifiableList(Arrays.asList(getNeighborArray()));
+  }
+
+  /**
+   * Gets the neighbors of the node, outbound connections first, without copying them. The array
+   * is rebuilt once links change and must not be modified.
+   *
+   * @return the neighbors
+   */
+  public AbstractNode[] getNeighborArray() {
+    AbstractNode[] neighbors = this.neighborArray;
+    if (neighbors == null) {
+      neighbors = new AbstractNode[outbound.size() + inbound.size()];
+      int position = 0;
+      for (AbstractNode node : outbound) {
+        neighbors[position++] = node;
+      }
+      for (AbstractNode node : inbound) {
+        neighbors[position++] = node;
+      }
+      int[] indexes = new int[neighbors.length];
+      int[] regions = new int[neighbors.length];
+      for (int i = 0; i < neighbors.length; i++) {
+        indexes[i] = neighbors[i].getNodeIndex();
+        regions[i] = neighbors[i].getRegion();
+      }
+      this.neighborIndexes = indexes;
+      this.neighborRegions = regions;
+      this.neighborLatencies = new long[neighbors.length];
+      this.neighborArray = neighbors;
+    }
     return neighbors;
   }
 
+  private void linksChanged() {
+    this.neighborArray = null;
+    stateStore.linksChanged();
+  }
+
   /**
    * Adds the node as a neighbor.
    * @param neighborNode the node to be added as a neighbor
@@ -227,6 +399,7 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
         || this.inbound.contains(neighborNode) || this.outbound.size() >= this.getNumConnection()) {
       return false;
     } else if (this.outbound.add(neighborNode) && neighborNode.addInbound(this)) {
+      linksChanged();
       emitAddLink(neighborNode);
       return true;
     } else {
@@ -242,6 +415,7 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    */
   public boolean addInbound(AbstractNode from) {
     if (this.inbound.add(from)) {
+      linksChanged();
       emitAddLink(from);
       return true;
     }
@@ -256,6 +430,7 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    */
   public boolean removeInbound(AbstractNode from) {
     if (this.inbound.remove(from)) {
+      linksChanged();
       emitRemoveLink(from);
       return true;
     }
@@ -270,6 +445,7 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    */
   public boolean removeNeighbor(AbstractNode node) {
     if (this.outbound.remove(node) && node.removeInbound(this)) {
+      linksChanged();
       emitRemoveLink(node);
       return true;
     }
@@ -321,7 +497,14 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
     this.removeMiningTask();
 
     // Update the current block
-    this.block = newBlock;
+    Block previousBlock = getBlock();
+    stateStore.setBlock(stateIndex, newBlock);
+    if (stateJournal != null) {
+      stateJournal.blockChanged(this, previousBlock);
+    }
+    if (transactionRelay != null) {
+      transactionRelay.chainChanged(previousBlock, newBlock);
+    }
     printAddBlock(newBlock);
     // Observe and handle new block arrival
     notifyObservers(newBlock, this);
@@ -342,6 +525,65 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
   }
 
 
+  /**
+   * Sets the current block without handling its arrival, used to undo a change of the current
+   * block recorded by the {@link INodeStateJournal}.
+   *
+   * @param block the block
+   */
+  public void restoreBlock(Block block) {
+    stateStore.setBlock(stateIndex, block);
+  }
+
+  /**
+   * Takes a copy of the state changed by the tasks of the node.
+   *
+   * @return the checkpoint
+   */
+  public NodeCheckpoint checkpoint() {
+    long randomState = random instanceof CheckpointableRandom
+        ? ((CheckpointableRandom) random).getState() : 0L;
+    return new NodeCheckpoint(getBlock(), stateStore.getBlockTree().copyOrphans(stateIndex),
+        mintingTask, isDownloadingBlock(), messageQue,
+        stateStore.getDownloadingBlockIds(stateIndex), scheduledTaskCount, randomState);
+  }
+
+  /**
+   * Restores the state copied by {@link #checkpoint()}.
+   *
+   * @param checkpoint the checkpoint
+   */
+  public void restore(NodeCheckpoint checkpoint) {
+    stateStore.setBlock(stateIndex, checkpoint.block);
+    stateStore.getBlockTree().setOrphans(stateIndex, checkpoint.orphans);
+    this.mintingTask = checkpoint.mintingTask;
+    stateStore.setDownloadingBlock(stateIndex, checkpoint.downloadingBlock);
+    this.messageQue.clear();
+    this.messageQue.addAll(checkpoint.messageQue);
+    stateStore.setDownloadingBlockIds(stateIndex, checkpoint.downloadingBlockIds);
+    this.scheduledTaskCount = checkpoint.scheduledTaskCount;
+    if (random instanceof CheckpointableRandom) {
+      ((CheckpointableRandom) random).setState(checkpoint.randomState);
+    }
+  }
+
+  /**
+   * Schedules a task of the node. Tasks of a simulated node get a sequence number made of the
+   * node index and the number of tasks the node scheduled so far, so the order of concurrent
+   * tasks does not depend on how the tasks of different nodes interleave.
+   *
+   * @param task the task
+   */
+  @Override
+  public void putTask(ITask task) {
+    if (nodeIndex < 0) {
+      super.putTask(task);
+    } else {
+      scheduledTaskCount++;
+      getTimer().putTask(task, ((long) (nodeIndex + 1) << TASK_SEQUENCE_BITS) | scheduledTaskCount);
+    }
+  }
+
   /**
    * Removes the mining task.
    */
@@ -350,33 +592,46 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
       removeTask(this.mintingTask);
       this.mintingTask = null;
     }
+    if (this.consensusAlgo != null) {
+      this.consensusAlgo.stopMinting();
+    }
   }
 
   /**
    * Add orphans.
    * If the valid chain is A->B->C and the orphan chain is A->D->E
-   * then C orphans is E, and B's orphans is D
-   * Not entirely sure why this is set like this
+   * then D and E become orphans while B and C are no longer orphans.
+   * The fork point A is found through the {@link ChainIndex}, so deep reorgs do not recurse.
    * @param orphanBlock the orphan block
    * @param validBlock  the valid block
    */
-  // TODO figure out why every block in the chain gets the orphan block set instead of just the last block
   public void addOrphans(Block orphanBlock, Block validBlock) {
+    Block forkPoint = ChainIndex.forkPoint(orphanBlock, validBlock);
+    markBranchOrphaned(orphanBlock, forkPoint);
+    ChainIndex.forEachOnBranch(validBlock, forkPoint, block -> {
+      if (this.orphans.remove(block) && stateJournal != null) {
+        stateJournal.orphanRemoved(this, block);
+      }
+    });
+  }
 
-    // Recursively traverse the two block chains until you find matching blocks
-    if (orphanBlock != validBlock) {
-      this.orphans.add(orphanBlock);
-      this.orphans.remove(validBlock);
-      if (validBlock == null || orphanBlock.getHeight() > validBlock.getHeight()) {
-        this.addOrphans(orphanBlock.getParent(), validBlock);
-      } else if (orphanBlock.getHeight() == validBlock.getHeight()) {
-        this.addOrphans(orphanBlock.getParent(), validBlock.getParent());
-      } else {
-        this.addOrphans(orphanBlock, validBlock.getParent());
+  /**
+   * Adds every block of a branch, from its tip down to the block above the fork point, to the
+   * orphans.
+   *
+   * @param tip       the tip of the orphaned branch
+   * @param forkPoint the block the branch forks from, or null to orphan the whole chain
+   * @return the number of blocks of the branch
+   */
+  public int markBranchOrphaned(Block tip, Block forkPoint) {
+    return ChainIndex.forEachOnBranch(tip, forkPoint, block -> {
+      if (this.orphans.add(block) && stateJournal != null) {
+        stateJournal.orphanAdded(this, block);
       }
-    }
+    });
   }
 
+
   /**
    * Generates a new minting task and registers it.
    */
@@ -393,17 +648,180 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    * @param block the block
    */
   public void sendInv(Block block) {
-    for (AbstractNode to : getNeighbors()) {
+    if (relayProtocol == RelayProtocol.UNSOLICITED_PUSH) {
+      pushBlock(block);
+      return;
+    }
 
-      long latency = this.getLatency(to.getRegion());
+    AbstractNode[] neighbors = getNeighborArray();
+    long[] latencies = neighborLatencies;
+    if (neighbors.length > 0) {
+      this.network.getLatencies(this, neighborIndexes, neighborRegions, getLatencyRandom(), latencies);
+    }
+    for (int i = 0; i < neighbors.length; i++) {
 
       // TODO duration;
       long duration = 10;
-      AbstractMessageTask task = new InvMessageTask(this, to, block, latency + duration);
+      AbstractMessageTask task = createAnnouncement(neighbors[i], block, latencies[i] + duration);
       putTask(task);
     }
   }
 
+  /**
+   * Creates the message announcing the block to a neighbor, according to the relay protocol.
+   *
+   * @param to    the neighbor
+   * @param block the block
+   * @param delay the latency and message delay in milliseconds
+   * @return the message
+   */
+  private AbstractMessageTask createAnnouncement(AbstractNode to, Block block, long delay) {
+    switch (relayProtocol) {
+      case HEADERS_FIRST:
+        return new HeadersMessageTask(this, to, block, false,
+            delay + getTransferTime(to, HeadersMessageTask.HEADER_SIZE));
+      case COMPACT_LOW_BANDWIDTH:
+      case COMPACT_HIGH_BANDWIDTH:
+        if (to.getRelayProtocol() == RelayProtocol.COMPACT_HIGH_BANDWIDTH && to.isHighBandwidthPeer(this)) {
+          return createCompactBlock(to, block, delay);
+        }
+        return new HeadersMessageTask(this, to, block, true,
+            delay + getTransferTime(to, HeadersMessageTask.HEADER_SIZE));
+      default:
+        return new InvMessageTask(this, to, block, delay);
+    }
+  }
+
+  private CompactBlockMessageTask createCompactBlock(AbstractNode to, Block block, long delay) {
+    long transactionCount = getTransactionCount(block);
+    long duration = delay + getTransferTime(to, CompactBlockMessageTask.getSize(transactionCount)) + processingTime;
+    return new CompactBlockMessageTask(this, to, block, transactionCount, duration);
+  }
+
+  /**
+   * Sends the block in full to every neighbor but the one which pushed it, as if each of them had
+   * requested it.
+   *
+   * @param block the block
+   */
+  private void pushBlock(Block block) {
+    for (AbstractNode to : getNeighborArray()) {
+      if (to == pushingNeighbor) {
+        continue;
+      }
+      RecMessageTask request = new RecMessageTask(to, this, block, 0);
+      if (uploadScheduler != null) {
+        this.startUpload(request);
+      } else {
+        this.messageQue.add(request);
+      }
+    }
+    if (uploadScheduler == null && !isDownloadingBlock()) {
+      this.processReceiveBlockMessage();
+    }
+  }
+
+  /**
+   * Checks whether the node selected the peer to send it compact blocks unsolicited, which a node
+   * in high bandwidth mode does with its first {@link #HIGH_BANDWIDTH_PEER_COUNT} outbound peers.
+   *
+   * @param peer the peer
+   * @return true if the peer is one of the high bandwidth peers of the node
+   */
+  public boolean isHighBandwidthPeer(AbstractNode peer) {
+    int position = outbound.indexOf(peer);
+    return position >= 0 && position < HIGH_BANDWIDTH_PEER_COUNT;
+  }
+
+  /**
+   * Gets the number of transactions of a block, used to size compact blocks.
+   *
+   * @param block the block
+   * @return the number of transactions
+   */
+  protected long getTransactionCount(Block block) {
+    if (block.getTransactions() != null) {
+      return block.getTransactions().length;
+    }
+    return Math.max(1, this.blockSize / AVERAGE_TRANSACTION_SIZE);
+  }
+
+  /**
+   * Counts the transactions of a compact block the node does not know and must request. Every
+   * transaction is assumed to be known as long as transactions are not simulated.
+   *
+   * @param block the block
+   * @return the number of missing transactions
+   */
+  protected int countMissingTransactions(Block block) {
+    if (transactionRelay == null || block.getTransactions() == null) {
+      return 0;
+    }
+    return transactionRelay.countMissing(block);
+  }
+
+  /**
+   * Gets the size of the transactions of a compact block the node does not know.
+   *
+   * @param block the block
+   * @return the size in bytes
+   */
+  protected long getMissingTransactionsSize(Block block) {
+    if (transactionRelay == null || block.getTransactions() == null) {
+      return countMissingTransactions(block) * AVERAGE_TRANSACTION_SIZE;
+    }
+    return transactionRelay.getMissingSize(block);
+  }
+
+  /**
+   * Gets the number of bytes sent to transfer a block.
+   *
+   * @param block the block
+   * @return the size of the block, or the configured block size if transactions are not simulated
+   */
+  protected long getBlockSize(Block block) {
+    return block.getTransactions() != null ? block.getSize() : this.blockSize;
+  }
+
+  /**
+   * Accepts a transaction created at the node, relaying it to the neighbors.
+   *
+   * @param transaction the transaction id
+   */
+  public void receiveTransaction(int transaction) {
+    if (transactionRelay != null) {
+      transactionRelay.accept(transaction);
+    }
+  }
+
+  /**
+   * Fills a block mined by the node with transactions of its mempool. Blocks are left empty if
+   * transactions are not simulated.
+   *
+   * @param block the block
+   */
+  public void assembleBlock(Block block) {
+    if (transactionRelay != null) {
+      transactionRelay.assemble(block);
+    }
+  }
+
+  /**
+   * Gets the time it takes to send a message to a neighbor.
+   *
+   * @param to   the neighbor
+   * @param size the size of the message in bytes
+   * @return the transfer time in milliseconds, rounded up so that no message is sent for free
+   * @throws IllegalStateException if there is no bandwidth to the neighbor
+   */
+  protected long getTransferTime(AbstractNode to, long size) {
+    long bandwidth = getBandwidth(to);
+    if (bandwidth <= 0) {
+      throw new IllegalStateException("No bandwidth from " + this + " to " + to);
+    }
+    return (long) Math.ceil(size * 8 * 1000.0 / bandwidth);
+  }
+
   /**
    * Receive block.
    * If the received block is valid, the node will propigate block to peers
@@ -411,11 +829,12 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
    */
   public void receiveBlock(Block receivedBlock) {
 
-    if (this.consensusAlgo.isReceivedBlockValid(receivedBlock, this.block)) {
+    Block block = getBlock();
+    if (this.consensusAlgo.isReceivedBlockValid(receivedBlock, block)) {
 
-      if (this.block != null && !this.block.isOnSameChainAs(receivedBlock)) {
+      if (block != null && !block.isOnSameChainAs(receivedBlock)) {
         // If the new block orphans this node's current block then add it to the orphans
-        this.addOrphans(this.block, receivedBlock);
+        this.addOrphans(block, receivedBlock);
       } 
 
       // This actually replaces the current block with the received block rather than adding it
@@ -425,11 +844,11 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
       // Advertise received block
       this.sendInv(receivedBlock);
 
-    } else if (!this.orphans.contains(receivedBlock) && !receivedBlock.isOnSameChainAs(this.block)) {
+    } else if (!this.orphans.contains(receivedBlock) && !receivedBlock.isOnSameChainAs(block)) {
       // TODO better understand - what if orphan is not valid?
       // If the block was not valid but was an unknown orphan and is not on the same
       // chain as the current block 
-      this.addOrphans(receivedBlock, this.block);
+      this.addOrphans(receivedBlock, block);
       this.notifyObservers(receivedBlock, this);
     }
   }
@@ -449,7 +868,7 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
       // The "from" geographical location is compared to the "to" geographical location
       // There is no bandwidth caluculation here because they assume the message size is 0. See paper on page 327
       AbstractNode from = message.getFrom();
-      long latencyInMilliseconds = this.getLatency(from.getRegion()); 
+      long latencyInMilliseconds = this.getLatency(from);
 
       Block newBlock = ((InvMessageTask) message).getBlock();
 
@@ -457,12 +876,13 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
       // Simplified version of the inv message exchange
       // Ignore messages that this node already knows about or are on a shorter chain
       // See https://bitcoin.stackexchange.com/questions/61191/how-do-bitcoin-nodes-sync-with-the-inv-mechanism
-      if ((this.block == null || newBlock.getHeight() > this.block.getHeight()) 
-          && !this.downloadingBlocks.contains(newBlock)) {
+      Block block = getBlock();
+      if ((block == null || newBlock.getHeight() > block.getHeight())
+          && !stateStore.isDownloading(stateIndex, newBlock.getId())) {
 
         AbstractMessageTask recBlockTask = new RecMessageTask(this, from, newBlock, latencyInMilliseconds + delay);
         putTask(recBlockTask);
-        downloadingBlocks.add(newBlock);
+        stateStore.addDownloading(stateIndex, newBlock.getId());
 
       } 
       // else if (!this.orphans.contains(newBlock)) {
@@ -474,12 +894,59 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
       // }
     }
 
+    if (message instanceof HeadersMessageTask) {
+      HeadersMessageTask headers = (HeadersMessageTask) message;
+      this.requestBlock(headers.getFrom(), headers.getBlock(), headers.isCompact());
+    }
+
+    // Compact block relay, see BIP152
+    if (message instanceof GetCompactBlockMessageTask) {
+      AbstractNode requester = message.getFrom();
+      Block requested = ((GetCompactBlockMessageTask) message).getBlock();
+      putTask(createCompactBlock(requester, requested, this.getLatency(requester)));
+    }
+
+    if (message instanceof CompactBlockMessageTask) {
+      this.receiveCompactBlock((CompactBlockMessageTask) message);
+    }
+
+    if (message instanceof GetBlockTransactionsMessageTask) {
+      GetBlockTransactionsMessageTask request = (GetBlockTransactionsMessageTask) message;
+      AbstractNode requester = request.getFrom();
+      long transactionsSize = request.getMissingSize();
+      long duration = this.getLatency(requester)
+          + getTransferTime(requester, BlockTransactionsMessageTask.getSize(transactionsSize)) + processingTime;
+      putTask(new BlockTransactionsMessageTask(this, requester, request.getBlock(), transactionsSize, duration));
+    }
+
+    if (message instanceof TransactionInvMessageTask) {
+      transactionRelay.receiveAnnouncement((TransactionInvMessageTask) message);
+    }
+
+    if (message instanceof GetTransactionsMessageTask) {
+      transactionRelay.receiveRequest((GetTransactionsMessageTask) message);
+    }
+
+    if (message instanceof TransactionsMessageTask) {
+      transactionRelay.receiveTransactions((TransactionsMessageTask) message);
+    }
+
+    if (message instanceof BlockTransactionsMessageTask) {
+      Block block = ((BlockTransactionsMessageTask) message).getBlock();
+      stateStore.removeDownloading(stateIndex, block.getId());
+      this.receiveBlock(block);
+    }
+
     // Send a getdata message
     // See https://en.bitcoin.it/wiki/Protocol_documentation#getdata
     if (message instanceof RecMessageTask) {
-      this.messageQue.add((RecMessageTask) message);
-      if (!downloadingBlock) {
-        this.processReceiveBlockMessage();
+      if (uploadScheduler != null) {
+        this.startUpload((RecMessageTask) message);
+      } else {
+        this.messageQue.add((RecMessageTask) message);
+        if (!isDownloadingBlock()) {
+          this.processReceiveBlockMessage();
+        }
       }
     }
 
@@ -487,42 +954,152 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
     // See https://en.bitcoin.it/wiki/Protocol_documentation#block
     if (message instanceof BlockMessageTask) {
       Block block = ((BlockMessageTask) message).getBlock();
-      downloadingBlocks.remove(block);
-      this.receiveBlock(block);
+      if (stateStore.removeDownloading(stateIndex, block.getId())) {
+        this.receiveBlock(block);
+      } else if (isUnknownBlockAboveTip(block)) {
+        // Pushed without being requested, see RelayProtocol.UNSOLICITED_PUSH
+        this.pushingNeighbor = message.getFrom();
+        try {
+          this.receiveBlock(block);
+        } finally {
+          this.pushingNeighbor = null;
+        }
+      }
     }
   }
 
+  /**
+   * Checks whether a block extends the chain of the node beyond its tip and is not one of its
+   * orphans. Blocks pushed to the node are dropped otherwise, so they are not relayed again.
+   *
+   * @param block the block
+   * @return true if the block is new to the node
+   */
+  private boolean isUnknownBlockAboveTip(Block block) {
+    Block current = getBlock();
+    return current == null
+        || (block.getHeight() > current.getHeight() && !this.orphans.contains(block));
+  }
+
   /**
    * Calculates how long it should take to receive a block from a neighbor and adds task.
    * Gets the sending node from the message queue and creates a new block message
    * This is the getdata message. See https://en.bitcoin.it/wiki/Protocol_documentation#getdata
    */
   public void processReceiveBlockMessage() {
+    if (uploadScheduler != null) {
+      // Uploads are not serialized, the upload scheduler starts them as they are requested
+      return;
+    }
     if (this.messageQue.size() > 0) {
-      downloadingBlock = true;
+      stateStore.setDownloadingBlock(stateIndex, true);
 
       AbstractNode fromNode = this.messageQue.get(0).getFrom();
       Block blockToReceive = this.messageQue.get(0).getBlock();
       this.messageQue.remove(0);
-      long bandwidthBetweenNodes = getBandwidth(fromNode.getRegion()); // upload and download speeds between regions
 
-      // Convert bytes to bits and divide by the bandwidth expressed as bit per
-      // millisecond, add processing time. (block size is currently hard coded to 0.5MB)
+      // Transfer the block over the bandwidth between the nodes, add processing time. (block size
+      // is hard coded to 0.5MB unless transactions are simulated)
       // The processing time is currently hard coded to 2 milliseconds
-      long bitsPerMillisecond = bandwidthBetweenNodes / 1000;
-      long blockSizeInBits = this.blockSize * 8;
-      long delay = blockSizeInBits / bitsPerMillisecond + this.processingTime; 
+      long delay = getTransferTime(fromNode, getBlockSize(blockToReceive)) + this.processingTime;
 
-      long durationInMilliseconds = this.getLatency(fromNode.getRegion()) + delay;
+      long durationInMilliseconds = this.getLatency(fromNode) + delay;
 
       BlockMessageTask messageTask = new BlockMessageTask(this, fromNode, blockToReceive, durationInMilliseconds);
 
       putTask(messageTask);
     } else {
-      downloadingBlock = false;
+      stateStore.setDownloadingBlock(stateIndex, false);
     }
   }
 
+  /**
+   * Requests an announced block, unless the node is already downloading it or it does not extend
+   * the chain of the node.
+   *
+   * @param from    the announcing node
+   * @param block   the block
+   * @param compact whether to request a compact block
+   */
+  private void requestBlock(AbstractNode from, Block block, boolean compact) {
+    long delay = 10;
+    Block current = getBlock();
+    if ((current == null || block.getHeight() > current.getHeight())
+        && stateStore.addDownloading(stateIndex, block.getId())) {
+      long duration = this.getLatency(from) + delay;
+      putTask(compact ? new GetCompactBlockMessageTask(this, from, block, duration)
+          : new RecMessageTask(this, from, block, duration));
+    }
+  }
+
+  /**
+   * Rebuilds a compact block, requesting the transactions the node is missing.
+   *
+   * @param message the compact block message
+   */
+  private void receiveCompactBlock(CompactBlockMessageTask message) {
+    Block block = message.getBlock();
+    Block current = getBlock();
+    if (current != null && block.getHeight() <= current.getHeight()) {
+      stateStore.removeDownloading(stateIndex, block.getId());
+      return;
+    }
+
+    int missingCount = countMissingTransactions(block);
+    if (missingCount == 0) {
+      stateStore.removeDownloading(stateIndex, block.getId());
+      this.receiveBlock(block);
+      return;
+    }
+
+    stateStore.addDownloading(stateIndex, block.getId());
+    AbstractNode from = message.getFrom();
+    long duration = this.getLatency(from) + getTransferTime(from, GetBlockTransactionsMessageTask.getSize(missingCount));
+    putTask(new GetBlockTransactionsMessageTask(this, from, block, missingCount, getMissingTransactionsSize(block),
+        duration));
+  }
+
+  /**
+   * Starts sending the requested block through the upload scheduler. The block is delivered once
+   * transferred, after the latency of the link and the processing time.
+   *
+   * @param request the block request
+   */
+  private void startUpload(RecMessageTask request) {
+    AbstractNode requester = request.getFrom();
+    long deliveryDelay = this.getLatency(requester) + this.processingTime;
+    uploadScheduler.startTransfer(requester, request.getBlock(), getBlockSize(request.getBlock()) * 8,
+        requester.getDownloadBandwidth(), deliveryDelay);
+  }
+
+  /**
+   * Sets how the node shares its upload bandwidth between the blocks it sends.
+   *
+   * @param uploadPolicy the upload policy
+   */
+  public void setUploadPolicy(UploadPolicy uploadPolicy) {
+    this.uploadPolicy = uploadPolicy;
+    this.uploadScheduler = uploadPolicy == UploadPolicy.SERIAL ? null : new UploadScheduler(this, uploadPolicy);
+  }
+
+  /**
+   * Gets the upload bandwidth of the node.
+   *
+   * @return the bandwidth in bits per second
+   */
+  public long getUploadBandwidth() {
+    return this.network.getBandwidthModel().getUploadBandwidth(getNodeIndex(), getRegion());
+  }
+
+  /**
+   * Gets the download bandwidth of the node.
+   *
+   * @return the bandwidth in bits per second
+   */
+  public long getDownloadBandwidth() {
+    return this.network.getBandwidthModel().getDownloadBandwidth(getNodeIndex(), getRegion());
+  }
+
   @Override
   public String toString() {
     return "Node{" + "nodeID=" + nodeID + '}';
@@ -577,7 +1154,38 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
 
   @Override
   public long getLatency(int toRegionID) {
-    return this.network.getLatency(this.getRegion(), toRegionID);
+    return this.network.getLatency(this.getRegion(), toRegionID, getLatencyRandom());
+  }
+
+  @Override
+  public long getBandwidth(INetworkEntity to) {
+    return this.network.getBandwidth(this, to);
+  }
+
+  @Override
+  public long getLatency(INetworkEntity to) {
+    return this.network.getLatency(this, to, getLatencyRandom());
+  }
+
+  /**
+   * Draws the latencies to several nodes at once, in order, as consecutive calls to
+   * {@link #getLatency(INetworkEntity)} would.
+   *
+   * @param toNodeIndexes the indexes of the nodes
+   * @param toRegionIDs   the regions of the nodes
+   * @return the latencies in milliseconds
+   */
+  public long[] getLatencies(int[] toNodeIndexes, int[] toRegionIDs) {
+    long[] latencies = new long[toRegionIDs.length];
+    if (latencies.length == 0) {
+      return latencies;
+    }
+    this.network.getLatencies(this, toNodeIndexes, toRegionIDs, getLatencyRandom(), latencies);
+    return latencies;
+  }
+
+  private Random getLatencyRandom() {
+    return this.random == null ? this.network.getRandomGenerator() : this.random;
   }
 
   private void emitAddLink(AbstractNode endNode) {
@@ -598,4 +1206,67 @@ public abstract class AbstractNode extends TaskManager implements IBlockPropagat
     }
     
   }
+
+  /**
+   * The orphans of the node, stored in the block tree of the state store of the node.
+   */
+  private final class Orphans extends AbstractSet<Block> {
+
+    private BlockTree tree() {
+      return stateStore.getBlockTree();
+    }
+
+    @Override
+    public boolean add(Block block) {
+      return tree().addOrphan(stateIndex, block);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return o instanceof Block && tree().removeOrphan(stateIndex, (Block) o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Block && tree().isOrphan(stateIndex, (Block) o);
+    }
+
+    @Override
+    public int size() {
+      return tree().getOrphanCount(stateIndex);
+    }
+
+    @Override
+    public void clear() {
+      tree().setOrphans(stateIndex, new Block[0]);
+    }
+
+    @Override
+    public Iterator<Block> iterator() {
+      Iterator<Block> snapshot = tree().getOrphans(stateIndex).iterator();
+      return new Iterator<>() {
+        private Block last;
+
+        @Override
+        public boolean hasNext() {
+          return snapshot.hasNext();
+        }
+
+        @Override
+        public Block next() {
+          last = snapshot.next();
+          return last;
+        }
+
+        @Override
+        public void remove() {
+          if (last == null) {
+            throw new IllegalStateException();
+          }
+          tree().removeOrphan(stateIndex, last);
+          last = null;
+        }
+      };
+    }
+  }
 }
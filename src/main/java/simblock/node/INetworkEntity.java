@@ -1,10 +1,40 @@
 package simblock.node;
 
 public interface INetworkEntity {
+  /**
+   * Gets the region of the entity.
+   *
+   * @return the region
+   */
+  int getRegion();
+
+  /**
+   * Gets the index of the entity among the simulated nodes.
+   *
+   * @return the index or -1 if the entity is not simulated
+   */
+  int getNodeIndex();
+
   long getBandwidth(int toRegionID);
 
   long getLatency(int toRegionID);
 
+  /**
+   * Gets the bandwidth of the link to another entity.
+   *
+   * @param to the other entity
+   * @return the bandwidth in bits per second
+   */
+  long getBandwidth(INetworkEntity to);
+
+  /**
+   * Draws the latency of a message to another entity.
+   *
+   * @param to the other entity
+   * @return the latency in milliseconds
+   */
+  long getLatency(INetworkEntity to);
+
   long getBlockSize();
 
   long getProcessingTime();
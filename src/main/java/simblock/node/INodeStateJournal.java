@@ -0,0 +1,35 @@
+package simblock.node;
+
+import simblock.block.Block;
+
+/**
+ * Records the changes to the chain state of a node, i.e. its current block and its orphans. An
+ * execution engine running tasks ahead of time uses the records to undo the changes of tasks
+ * that turn out to be past the end of the simulation.
+ */
+public interface INodeStateJournal {
+
+  /**
+   * Records that the current block of the node changed.
+   *
+   * @param node     the node
+   * @param previous the previous current block
+   */
+  void blockChanged(AbstractNode node, Block previous);
+
+  /**
+   * Records that the node added an orphan.
+   *
+   * @param node   the node
+   * @param orphan the added orphan
+   */
+  void orphanAdded(AbstractNode node, Block orphan);
+
+  /**
+   * Records that the node removed an orphan.
+   *
+   * @param node   the node
+   * @param orphan the removed orphan
+   */
+  void orphanRemoved(AbstractNode node, Block orphan);
+}
@@ -29,6 +29,7 @@ public class NetworkNode extends AbstractNode {
    * @param nodeID      the node id
    * @param region      the region
    * @param miningPower the mining power
+   * @param stateStore  the store the state of the node is kept in
    */
   public NetworkNode(
       int nodeID,
@@ -37,8 +38,9 @@ public class NetworkNode extends AbstractNode {
       long miningPower,
       Timer timer,
       long blockSize,
-      long processingTime
+      long processingTime,
+      NodeStateStore stateStore
   ) {
-    super(nodeID, region, numConnection, miningPower, timer, blockSize, processingTime);
+    super(nodeID, region, numConnection, miningPower, timer, blockSize, processingTime, stateStore);
   }
 }
@@ -0,0 +1,61 @@
+package simblock.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import simblock.block.Block;
+import simblock.task.AbstractMintingTask;
+import simblock.task.RecMessageTask;
+
+/**
+ * A copy of the state of a node, taken by {@link AbstractNode#checkpoint()} and restored by
+ * {@link AbstractNode#restore(NodeCheckpoint)}. Execution engines running tasks speculatively use
+ * checkpoints to roll nodes back.
+ */
+public class NodeCheckpoint {
+
+  final Block block;
+  /**
+   * The orphans of the node, ordered by block id as copied from the block tree.
+   */
+  final Block[] orphans;
+  final AbstractMintingTask mintingTask;
+  final boolean downloadingBlock;
+  final List<RecMessageTask> messageQue;
+  final int[] downloadingBlockIds;
+  final long scheduledTaskCount;
+
+  /**
+   * The state of the random instance of the node, or 0 if it cannot be restored.
+   */
+  final long randomState;
+
+  NodeCheckpoint(Block block, Block[] orphans, AbstractMintingTask mintingTask,
+                 boolean downloadingBlock, List<RecMessageTask> messageQue,
+                 int[] downloadingBlockIds, long scheduledTaskCount, long randomState) {
+    this.block = block;
+    this.orphans = orphans;
+    this.mintingTask = mintingTask;
+    this.downloadingBlock = downloadingBlock;
+    this.messageQue = new ArrayList<>(messageQue);
+    this.downloadingBlockIds = downloadingBlockIds;
+    this.scheduledTaskCount = scheduledTaskCount;
+    this.randomState = randomState;
+  }
+
+  /**
+   * Instantiates a checkpoint holding the same state as the provided one, used by node types
+   * adding state of their own.
+   *
+   * @param checkpoint the checkpoint
+   */
+  protected NodeCheckpoint(NodeCheckpoint checkpoint) {
+    this.block = checkpoint.block;
+    this.orphans = checkpoint.orphans;
+    this.mintingTask = checkpoint.mintingTask;
+    this.downloadingBlock = checkpoint.downloadingBlock;
+    this.messageQue = checkpoint.messageQue;
+    this.downloadingBlockIds = checkpoint.downloadingBlockIds;
+    this.scheduledTaskCount = checkpoint.scheduledTaskCount;
+    this.randomState = checkpoint.randomState;
+  }
+}
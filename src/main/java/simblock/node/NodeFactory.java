@@ -13,6 +13,7 @@ import simblock.node.consensus.INetworkAware;
 import simblock.node.consensus.ProofOfWork;
 import simblock.simulator.Network;
 import simblock.simulator.Timer;
+import simblock.utils.probability.CheckpointableRandom;
 
 /**
  * The type Node factory abstracts the creation of DLT nodes.
@@ -53,6 +54,11 @@ public class NodeFactory {
   private long blockSize;
   private long processingTime;
 
+  /**
+   * The store the state of the created nodes is kept in, shared by all nodes of the simulation.
+   */
+  private NodeStateStore stateStore;
+
   /**
    * The factory used to create new {@link AbstractNode} instances. Hides all the complexity of node creation,
    *
@@ -78,6 +84,7 @@ public class NodeFactory {
 
     this.generator = generator;
 
+    this.stateStore = new NodeStateStore(16);
   }
 
 
@@ -127,12 +134,16 @@ public class NodeFactory {
                                            this.genMiningPower(), 
                                            timer, 
                                            blockSize, 
-                                           processingTime);
+                                           processingTime,
+                                           stateStore);
     btcNode.setVisualizerEventEmitter(eventEmitter);
 
     // A consensus algo needs knowledge of a node, and a node needs knowledge of the consensus algo
     // Opted for setter injection as a solution for cyclic references
-    AbstractConsensusAlgo pow = new ProofOfWork(btcNode, timer, networkAware, random, generator);
+    // Every node draws from its own random instance, seeded from the shared one for determinism
+    CheckpointableRandom nodeRandom = new CheckpointableRandom(random.nextLong());
+    btcNode.setRandom(nodeRandom);
+    AbstractConsensusAlgo pow = new ProofOfWork(btcNode, timer, networkAware, nodeRandom, generator);
     btcNode.setConsensusAlgo(pow);
 
     // A node needs to know the latency, and the bandwith of the network
@@ -167,12 +178,16 @@ public class NodeFactory {
                                                  this.genMiningPower(), 
                                                  timer, 
                                                  blockSize, 
-                                                 processingTime);
+                                                 processingTime,
+                                                 stateStore);
     btcNode.setVisualizerEventEmitter(eventEmitter);
 
     // A consensus algo needs knowledge of a node, and a node needs knowledge of the consensus algo
     // Opted for setter injection as a solution for cyclic references
-    AbstractConsensusAlgo pow = new ProofOfWork(btcNode, timer, networkAware, random, generator);
+    // Every node draws from its own random instance, seeded from the shared one for determinism
+    CheckpointableRandom nodeRandom = new CheckpointableRandom(random.nextLong());
+    btcNode.setRandom(nodeRandom);
+    AbstractConsensusAlgo pow = new ProofOfWork(btcNode, timer, networkAware, nodeRandom, generator);
     btcNode.setConsensusAlgo(pow);
 
     // A node needs to know the latency, and the bandwith of the network
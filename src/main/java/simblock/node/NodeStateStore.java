@@ -0,0 +1,259 @@
+package simblock.node;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import simblock.block.Block;
+import simblock.block.BlockTree;
+
+/**
+ * Stores the state of many nodes in arrays indexed by a dense node index, instead of in fields
+ * and collections of every node. Nodes are created in the store of their simulation, a node
+ * created in another store can be moved with {@link AbstractNode#moveTo(NodeStateStore)}.
+ *
+ * <p>The current block and the orphans of the nodes are kept in a {@link BlockTree} shared by the
+ * nodes of the store.
+ *
+ * <p>The blocks a node is downloading are kept as a small sorted array of block ids, nodes
+ * download at most a handful of blocks at once. A bit set over block ids would grow with the
+ * chain instead. The array of every node is updated in place and only grows. Distinct nodes may
+ * be updated concurrently.
+ *
+ * <p>The links and the message queue of a node are not part of the store. Routing tables add and
+ * remove links throughout a run, which compressed rows cannot absorb in place, so every node keeps
+ * its outbound and inbound lists and the store only counts link changes. Readers walking the
+ * whole network take a compressed {@link Topology} snapshot when that count changed. Queued
+ * messages are task objects and have no primitive form.
+ */
+public class NodeStateStore {
+
+  private static final int[] NO_BLOCKS = new int[0];
+
+  /**
+   * Number of downloading block ids a node holds before its array grows.
+   */
+  private static final int INITIAL_DOWNLOADS = 4;
+
+  private int size;
+  private int[] regions;
+  private long[] miningPowers;
+  private boolean[] downloadingBlock;
+  private int[][] downloadingBlockIds;
+  private int[] downloadingCounts;
+  private final BlockTree blockTree = new BlockTree();
+
+  /**
+   * Counts the changes of the links between the nodes, see {@link Topology}.
+   */
+  private final AtomicInteger topologyVersion = new AtomicInteger();
+
+  /**
+   * Instantiates a new, empty store.
+   *
+   * @param expectedSize the expected number of nodes
+   */
+  public NodeStateStore(int expectedSize) {
+    allocate(Math.max(1, expectedSize));
+  }
+
+  /**
+   * Adds a node to the store.
+   *
+   * @param region      the region of the node
+   * @param miningPower the mining power of the node
+   * @return the index of the node in the store
+   */
+  public synchronized int add(int region, long miningPower) {
+    if (size == regions.length) {
+      allocate(2 * size);
+    }
+    blockTree.ensureCapacity(size + 1);
+    regions[size] = region;
+    miningPowers[size] = miningPower;
+    downloadingBlockIds[size] = NO_BLOCKS;
+    downloadingCounts[size] = 0;
+    return size++;
+  }
+
+  /**
+   * Gets the number of nodes in the store.
+   *
+   * @return the number of nodes
+   */
+  public int size() {
+    return size;
+  }
+
+  public int getRegion(int index) {
+    return regions[index];
+  }
+
+  public long getMiningPower(int index) {
+    return miningPowers[index];
+  }
+
+  public void setMiningPower(int index, long miningPower) {
+    miningPowers[index] = miningPower;
+  }
+
+  /**
+   * Gets the sum of the mining power of all nodes in the store.
+   *
+   * @return the total mining power
+   */
+  public long getTotalMiningPower() {
+    long total = 0;
+    for (int i = 0; i < size; i++) {
+      total += miningPowers[i];
+    }
+    return total;
+  }
+
+  public Block getBlock(int index) {
+    return blockTree.getTip(index);
+  }
+
+  public void setBlock(int index, Block block) {
+    blockTree.setTip(index, block);
+  }
+
+  /**
+   * Gets the id of the current block of the node.
+   *
+   * @param index the node index
+   * @return the block id or -1 if the node has no block yet
+   */
+  public int getBlockId(int index) {
+    Block block = blockTree.getTip(index);
+    return block == null ? -1 : block.getId();
+  }
+
+  /**
+   * Checks whether the node is receiving the bits of a block, in response to a getdata message.
+   *
+   * @param index the node index
+   * @return true if the node is downloading a block
+   */
+  public boolean isDownloadingBlock(int index) {
+    return downloadingBlock[index];
+  }
+
+  public void setDownloadingBlock(int index, boolean downloading) {
+    downloadingBlock[index] = downloading;
+  }
+
+  /**
+   * Checks whether the node requested the block.
+   *
+   * @param index   the node index
+   * @param blockId the block id
+   * @return true if the node is downloading the block
+   */
+  public boolean isDownloading(int index, int blockId) {
+    return Arrays.binarySearch(downloadingBlockIds[index], 0, downloadingCounts[index], blockId) >= 0;
+  }
+
+  /**
+   * Records that the node requested the block.
+   *
+   * @param index   the node index
+   * @param blockId the block id
+   * @return false if the node was already downloading the block
+   */
+  public boolean addDownloading(int index, int blockId) {
+    int[] ids = downloadingBlockIds[index];
+    int count = downloadingCounts[index];
+    int position = Arrays.binarySearch(ids, 0, count, blockId);
+    if (position >= 0) {
+      return false;
+    }
+    position = -position - 1;
+    if (count == ids.length) {
+      ids = Arrays.copyOf(ids, Math.max(INITIAL_DOWNLOADS, 2 * count));
+      downloadingBlockIds[index] = ids;
+    }
+    System.arraycopy(ids, position, ids, position + 1, count - position);
+    ids[position] = blockId;
+    downloadingCounts[index] = count + 1;
+    return true;
+  }
+
+  /**
+   * Records that the node is no longer downloading the block.
+   *
+   * @param index   the node index
+   * @param blockId the block id
+   * @return false if the node was not downloading the block
+   */
+  public boolean removeDownloading(int index, int blockId) {
+    int[] ids = downloadingBlockIds[index];
+    int count = downloadingCounts[index];
+    int position = Arrays.binarySearch(ids, 0, count, blockId);
+    if (position < 0) {
+      return false;
+    }
+    System.arraycopy(ids, position + 1, ids, position, count - position - 1);
+    downloadingCounts[index] = count - 1;
+    return true;
+  }
+
+  /**
+   * Gets a copy of the ids of the blocks the node is downloading.
+   *
+   * @param index the node index
+   * @return the sorted block ids
+   */
+  public int[] getDownloadingBlockIds(int index) {
+    int count = downloadingCounts[index];
+    return count == 0 ? NO_BLOCKS : Arrays.copyOf(downloadingBlockIds[index], count);
+  }
+
+  /**
+   * Replaces the ids of the blocks the node is downloading.
+   *
+   * @param index    the node index
+   * @param blockIds the sorted block ids, copied into the store
+   */
+  public void setDownloadingBlockIds(int index, int[] blockIds) {
+    if (downloadingBlockIds[index].length < blockIds.length) {
+      downloadingBlockIds[index] = new int[Math.max(INITIAL_DOWNLOADS, blockIds.length)];
+    }
+    System.arraycopy(blockIds, 0, downloadingBlockIds[index], 0, blockIds.length);
+    downloadingCounts[index] = blockIds.length;
+  }
+
+  /**
+   * Gets the block tree holding the current blocks and the orphans of the nodes, by node index.
+   *
+   * @return the block tree
+   */
+  public BlockTree getBlockTree() {
+    return blockTree;
+  }
+
+  /**
+   * Records that links between nodes of the store changed.
+   */
+  public void linksChanged() {
+    topologyVersion.incrementAndGet();
+  }
+
+  /**
+   * Gets a number changing whenever links between nodes of the store change.
+   *
+   * @return the topology version
+   */
+  public int getTopologyVersion() {
+    return topologyVersion.get();
+  }
+
+  private void allocate(int capacity) {
+    regions = Arrays.copyOf(regions == null ? new int[0] : regions, capacity);
+    miningPowers = Arrays.copyOf(miningPowers == null ? new long[0] : miningPowers, capacity);
+    downloadingBlock = Arrays.copyOf(downloadingBlock == null ? new boolean[0] : downloadingBlock,
+        capacity);
+    downloadingBlockIds = Arrays.copyOf(
+        downloadingBlockIds == null ? new int[0][] : downloadingBlockIds, capacity);
+    downloadingCounts = Arrays.copyOf(downloadingCounts == null ? new int[0] : downloadingCounts,
+        capacity);
+  }
+}
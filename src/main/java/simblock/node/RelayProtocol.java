@@ -0,0 +1,45 @@
+package simblock.node;
+
+/**
+ * How a node relays blocks to its neighbors.
+ *
+ * <p>The protocol of a node decides how it announces the blocks it sends. Compact blocks are sent
+ * by nodes using either compact mode: a neighbor in high bandwidth mode gets them unsolicited
+ * from the peers it selected, see {@link AbstractNode#isHighBandwidthPeer}, other neighbors get
+ * an announcement and request the compact block.
+ */
+public enum RelayProtocol {
+  /**
+   * Blocks are announced with an inv message and requested with a getdata message, then sent in
+   * full. This is the original relay of the simulator.
+   */
+  INV,
+  /**
+   * Blocks are announced with their header instead of an inv message, then requested and sent in
+   * full.
+   */
+  HEADERS_FIRST,
+  /**
+   * Blocks are sent in full to every neighbor without being announced nor requested.
+   */
+  UNSOLICITED_PUSH,
+  /**
+   * BIP152 low bandwidth mode: blocks are announced with their header, the receiver requests a
+   * compact block and fetches the transactions it is missing.
+   */
+  COMPACT_LOW_BANDWIDTH,
+  /**
+   * BIP152 high bandwidth mode: as the low bandwidth mode, except that the node receives compact
+   * blocks unsolicited from the peers it selected.
+   */
+  COMPACT_HIGH_BANDWIDTH;
+
+  /**
+   * Checks whether blocks are relayed as compact blocks.
+   *
+   * @return true for both compact modes
+   */
+  public boolean isCompact() {
+    return this == COMPACT_LOW_BANDWIDTH || this == COMPACT_HIGH_BANDWIDTH;
+  }
+}
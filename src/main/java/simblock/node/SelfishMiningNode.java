@@ -37,6 +37,7 @@ public class SelfishMiningNode extends AbstractNode  {
    * @param nodeID      the node id
    * @param region      the region
    * @param miningPower the mining power
+   * @param stateStore  the store the state of the node is kept in
    */
   public SelfishMiningNode(
       int nodeID,
@@ -45,9 +46,21 @@ public class SelfishMiningNode extends AbstractNode  {
       long miningPower,
       Timer timer,
       long blockSize,
-      long processingTime
+      long processingTime,
+      NodeStateStore stateStore
   ) {
-    super(nodeID, region, numConnection, miningPower, timer, blockSize, processingTime);
+    super(nodeID, region, numConnection, miningPower, timer, blockSize, processingTime, stateStore);
+  }
+
+  @Override
+  public NodeCheckpoint checkpoint() {
+    return new SelfishMiningNodeCheckpoint(super.checkpoint(), selfishMiningBlock);
+  }
+
+  @Override
+  public void restore(NodeCheckpoint checkpoint) {
+    super.restore(checkpoint);
+    this.selfishMiningBlock = ((SelfishMiningNodeCheckpoint) checkpoint).selfishMiningBlock;
   }
 
   /**
@@ -129,4 +142,16 @@ public class SelfishMiningNode extends AbstractNode  {
       this.sendInv(this.getBlock());
     }
   }
+
+  /**
+   * A checkpoint also holding the secret chain of the selfish miner.
+   */
+  private static final class SelfishMiningNodeCheckpoint extends NodeCheckpoint {
+    private final Block selfishMiningBlock;
+
+    private SelfishMiningNodeCheckpoint(NodeCheckpoint checkpoint, Block selfishMiningBlock) {
+      super(checkpoint);
+      this.selfishMiningBlock = selfishMiningBlock;
+    }
+  }
 }
@@ -0,0 +1,100 @@
+package simblock.node;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of the links between nodes in compressed sparse row form. The neighbors
+ * of the node with index {@code i}, outbound connections first, are the node indices stored from
+ * {@link #start(int)} to {@link #end(int)}, so the whole network can be walked without allocating.
+ */
+public final class Topology {
+
+  private final int[] offsets;
+  private final int[] targets;
+
+  private Topology(int[] offsets, int[] targets) {
+    this.offsets = offsets;
+    this.targets = targets;
+  }
+
+  /**
+   * Takes a snapshot of the links of the provided nodes, the index of a node in the list must be
+   * its node index.
+   *
+   * @param nodes the nodes
+   * @return the topology
+   */
+  public static Topology of(List<AbstractNode> nodes) {
+    int[] offsets = new int[nodes.size() + 1];
+    for (int i = 0; i < nodes.size(); i++) {
+      offsets[i + 1] = offsets[i] + nodes.get(i).getNeighborArray().length;
+    }
+
+    int[] targets = new int[offsets[nodes.size()]];
+    for (int i = 0; i < nodes.size(); i++) {
+      int position = offsets[i];
+      for (AbstractNode neighbor : nodes.get(i).getNeighborArray()) {
+        targets[position++] = neighbor.getNodeIndex();
+      }
+    }
+    return new Topology(offsets, targets);
+  }
+
+  /**
+   * Gets the number of nodes.
+   *
+   * @return the number of nodes
+   */
+  public int size() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Gets the number of links, counting every link once for each of its ends.
+   *
+   * @return the number of links
+   */
+  public int linkCount() {
+    return targets.length;
+  }
+
+  /**
+   * Gets the position of the first neighbor of the node.
+   *
+   * @param index the node index
+   * @return the position of the first neighbor
+   */
+  public int start(int index) {
+    return offsets[index];
+  }
+
+  /**
+   * Gets the position following the last neighbor of the node.
+   *
+   * @param index the node index
+   * @return the position following the last neighbor
+   */
+  public int end(int index) {
+    return offsets[index + 1];
+  }
+
+  /**
+   * Gets the number of neighbors of the node.
+   *
+   * @param index the node index
+   * @return the degree of the node
+   */
+  public int degree(int index) {
+    return offsets[index + 1] - offsets[index];
+  }
+
+  /**
+   * Gets the index of the neighbor at the provided position.
+   *
+   * @param position the position
+   * @return the node index of the neighbor
+   */
+  public int target(int position) {
+    return targets[position];
+  }
+}
@@ -0,0 +1,297 @@
+package simblock.node;
+
+import java.util.Arrays;
+import java.util.Random;
+import simblock.block.Block;
+import simblock.block.ChainIndex;
+import simblock.task.GetTransactionsMessageTask;
+import simblock.task.HeadersMessageTask;
+import simblock.task.TransactionInvMessageTask;
+import simblock.task.TransactionsMessageTask;
+import simblock.task.interfaces.ITask;
+import simblock.transaction.Mempool;
+import simblock.transaction.TransactionRegistry;
+import simblock.utils.IntIntHashMap;
+
+/**
+ * The transactions of a node: its mempool, the relay of transactions to its neighbors and the
+ * block templates it mines.
+ *
+ * <p>Accepted transactions are not announced one by one but trickled, as Bitcoin Core does: they
+ * are buffered and announced in a single inv message to every neighbor after an exponentially
+ * distributed delay. A neighbor requests the announced transactions it does not know and is not
+ * already waiting for with a getdata message, answered with the transactions still in the
+ * mempool of the sender.
+ *
+ * <p>The mempool follows the chain of the node, a new block removes its transactions and a reorg
+ * puts the transactions of the disconnected blocks back.
+ */
+public class TransactionRelay {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final AbstractNode node;
+  private final TransactionRegistry registry;
+  private final Random random;
+
+  /**
+   * The unconfirmed transactions known to the node.
+   */
+  private final Mempool mempool;
+
+  /**
+   * The largest block the node mines in bytes.
+   */
+  private final long maxBlockSize;
+
+  /**
+   * Average delay between two announcements in milliseconds.
+   */
+  private final double announcementInterval;
+
+  /**
+   * The transactions accepted since the last announcement.
+   */
+  private int[] pending = new int[DEFAULT_CAPACITY];
+  private int pendingCount;
+
+  private AnnouncementTask announcementTask;
+
+  /**
+   * The transactions requested from a neighbor and not received yet.
+   */
+  private final IntIntHashMap requested = new IntIntHashMap(DEFAULT_CAPACITY);
+
+  /**
+   * Instantiates a new transaction relay.
+   *
+   * @param node                 the node
+   * @param registry             the registry of the transactions
+   * @param random               the random instance drawing the announcement delays
+   * @param maxBlockSize         the largest block the node mines in bytes
+   * @param announcementInterval the average delay between two announcements in milliseconds
+   */
+  public TransactionRelay(AbstractNode node, TransactionRegistry registry, Random random, long maxBlockSize,
+                          long announcementInterval) {
+    this.node = node;
+    this.registry = registry;
+    this.random = random;
+    this.mempool = new Mempool(registry);
+    this.maxBlockSize = maxBlockSize;
+    this.announcementInterval = announcementInterval;
+  }
+
+  /**
+   * Gets the mempool of the node.
+   *
+   * @return the mempool
+   */
+  public Mempool getMempool() {
+    return mempool;
+  }
+
+  /**
+   * Adds a transaction to the mempool and queues its announcement, unless the node already knows
+   * it or it is confirmed on the chain of the node.
+   *
+   * @param transaction the transaction id
+   * @return true if the transaction was accepted
+   */
+  public boolean accept(int transaction) {
+    if (mempool.contains(transaction) || registry.isConfirmed(transaction, node.getBlock())) {
+      return false;
+    }
+    mempool.add(transaction);
+
+    if (pendingCount == pending.length) {
+      pending = Arrays.copyOf(pending, 2 * pending.length);
+    }
+    pending[pendingCount++] = transaction;
+    if (announcementTask == null) {
+      long delay = Math.round(-Math.log(1 - random.nextDouble()) * announcementInterval);
+      announcementTask = new AnnouncementTask(delay);
+      node.putTask(announcementTask);
+    }
+    return true;
+  }
+
+  /**
+   * Requests the announced transactions the node does not know.
+   *
+   * @param message the inv message
+   */
+  public void receiveAnnouncement(TransactionInvMessageTask message) {
+    int[] announced = message.getTransactions();
+    int[] wanted = new int[announced.length];
+    int wantedCount = 0;
+    Block tip = node.getBlock();
+    for (int transaction : announced) {
+      if (!mempool.contains(transaction) && !requested.containsKey(transaction)
+          && !registry.isConfirmed(transaction, tip)) {
+        requested.put(transaction, 0);
+        wanted[wantedCount++] = transaction;
+      }
+    }
+    if (wantedCount == 0) {
+      return;
+    }
+
+    AbstractNode from = message.getFrom();
+    wanted = Arrays.copyOf(wanted, wantedCount);
+    long duration = node.getLatency(from)
+        + node.getTransferTime(from, TransactionInvMessageTask.INVENTORY_ENTRY_SIZE * wantedCount);
+    node.putTask(new GetTransactionsMessageTask(node, from, wanted, duration));
+  }
+
+  /**
+   * Sends the requested transactions still in the mempool.
+   *
+   * @param message the getdata message
+   */
+  public void receiveRequest(GetTransactionsMessageTask message) {
+    int[] wanted = message.getTransactions();
+    int[] available = new int[wanted.length];
+    int availableCount = 0;
+    for (int transaction : wanted) {
+      if (mempool.contains(transaction)) {
+        available[availableCount++] = transaction;
+      }
+    }
+
+    AbstractNode requester = message.getFrom();
+    available = Arrays.copyOf(available, availableCount);
+    long size = registry.getTotalSize(available);
+    long duration = node.getLatency(requester) + node.getTransferTime(requester, size) + node.getProcessingTime();
+    node.putTask(new TransactionsMessageTask(node, requester, wanted, available, size, duration));
+  }
+
+  /**
+   * Accepts the received transactions.
+   *
+   * @param message the transactions message
+   */
+  public void receiveTransactions(TransactionsMessageTask message) {
+    for (int transaction : message.getRequested()) {
+      requested.remove(transaction);
+    }
+    for (int transaction : message.getTransactions()) {
+      accept(transaction);
+    }
+  }
+
+  /**
+   * Fills a block mined by the node with the transactions of the mempool paying the highest fee
+   * rates, up to the maximum block size.
+   *
+   * @param block the block
+   */
+  public void assemble(Block block) {
+    int[] transactions = mempool.selectTransactions(maxBlockSize - HeadersMessageTask.HEADER_SIZE);
+    block.setTransactions(transactions, HeadersMessageTask.HEADER_SIZE + registry.getTotalSize(transactions));
+    registry.include(block, transactions);
+  }
+
+  /**
+   * Updates the mempool once the node switched to another chain, putting back the transactions
+   * of the blocks it left and removing those of the blocks it adopted.
+   *
+   * @param previousTip the previous block of the node, or null
+   * @param newTip      the new block of the node
+   */
+  public void chainChanged(Block previousTip, Block newTip) {
+    if (previousTip == null) {
+      removeTransactions(newTip);
+      return;
+    }
+
+    Block forkPoint = ChainIndex.forkPoint(previousTip, newTip);
+    ChainIndex.forEachOnBranch(previousTip, forkPoint, block -> {
+      if (block.getTransactions() != null) {
+        for (int transaction : block.getTransactions()) {
+          mempool.add(transaction);
+        }
+      }
+    });
+    ChainIndex.forEachOnBranch(newTip, forkPoint, this::removeTransactions);
+  }
+
+  private void removeTransactions(Block block) {
+    if (block.getTransactions() != null) {
+      for (int transaction : block.getTransactions()) {
+        mempool.remove(transaction);
+      }
+    }
+  }
+
+  /**
+   * Counts the transactions of a block missing from the mempool.
+   *
+   * @param block the block
+   * @return the number of missing transactions
+   */
+  public int countMissing(Block block) {
+    int count = 0;
+    for (int transaction : block.getTransactions()) {
+      if (!mempool.contains(transaction)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the size of the transactions of a block missing from the mempool.
+   *
+   * @param block the block
+   * @return the size in bytes
+   */
+  public long getMissingSize(Block block) {
+    long size = 0;
+    for (int transaction : block.getTransactions()) {
+      if (!mempool.contains(transaction)) {
+        size += registry.getSize(transaction);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Announces the pending transactions to every neighbor.
+   */
+  private final class AnnouncementTask implements ITask {
+    private final long duration;
+    private long taskID;
+
+    private AnnouncementTask(long duration) {
+      this.duration = duration;
+    }
+
+    @Override
+    public long getTaskID() {
+      return taskID;
+    }
+
+    @Override
+    public void setTaskID(long taskID) {
+      this.taskID = taskID;
+    }
+
+    @Override
+    public long getDuration() {
+      return duration;
+    }
+
+    @Override
+    public void run() {
+      announcementTask = null;
+      int[] transactions = Arrays.copyOf(pending, pendingCount);
+      pendingCount = 0;
+
+      long size = TransactionInvMessageTask.INVENTORY_ENTRY_SIZE * transactions.length;
+      for (AbstractNode neighbor : node.getNeighborArray()) {
+        long duration = node.getLatency(neighbor) + node.getTransferTime(neighbor, size);
+        node.putTask(new TransactionInvMessageTask(node, neighbor, transactions, duration));
+      }
+    }
+  }
+}
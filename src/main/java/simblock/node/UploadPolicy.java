@@ -0,0 +1,22 @@
+package simblock.node;
+
+/**
+ * How a node shares its upload bandwidth between the blocks requested by its neighbors.
+ */
+public enum UploadPolicy {
+  /**
+   * The original model: one block is sent at a time and the next one only once the previous one
+   * has been delivered, latency included.
+   */
+  SERIAL,
+  /**
+   * One block is sent at a time at the full upload bandwidth, the next one starting as soon as
+   * the previous one has been transferred, see {@link UploadScheduler}.
+   */
+  FIFO,
+  /**
+   * All requested blocks are sent at once, sharing the upload bandwidth max-min fairly, see
+   * {@link UploadScheduler}.
+   */
+  FAIR_SHARE;
+}
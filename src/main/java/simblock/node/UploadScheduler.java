@@ -0,0 +1,225 @@
+package simblock.node;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import simblock.block.Block;
+import simblock.task.BlockMessageTask;
+import simblock.task.interfaces.ITask;
+
+/**
+ * Flow level model of the uploads of a node. Each transfer is a flow whose rate is limited by the
+ * download bandwidth of its receiver, and the upload bandwidth of the node is divided between the
+ * active flows according to the {@link UploadPolicy}. Rates only change when a flow starts or
+ * ends, so the scheduler advances every flow to the current time on each change, computes the new
+ * rates and keeps a single task scheduled, the completion of the flow ending first. A transferred
+ * block is delivered to its receiver after the latency of the link and the processing time.
+ *
+ * <p>Transfers of different senders do not affect each other, a receiver downloading several
+ * blocks at once gets each of them at up to its download bandwidth.
+ */
+public class UploadScheduler {
+
+  /**
+   * Remaining bits below which a flow is considered transferred, absorbing rounding errors.
+   */
+  private static final double EPSILON_BITS = 1e-6;
+
+  private final AbstractNode node;
+  private final UploadPolicy policy;
+
+  /**
+   * The active flows, in the order they were started.
+   */
+  private final List<Flow> flows = new ArrayList<>();
+
+  /**
+   * The time the flows were last advanced to.
+   */
+  private long lastUpdate;
+
+  private CompletionTask completionTask;
+
+  /**
+   * Instantiates a new upload scheduler.
+   *
+   * @param node   the uploading node
+   * @param policy how the upload bandwidth is shared, either FIFO or FAIR_SHARE
+   */
+  public UploadScheduler(AbstractNode node, UploadPolicy policy) {
+    if (policy == UploadPolicy.SERIAL) {
+      throw new IllegalArgumentException("Serial uploads are not scheduled by an upload scheduler");
+    }
+    this.node = node;
+    this.policy = policy;
+  }
+
+  /**
+   * Starts sending a block.
+   *
+   * @param receiver          the node receiving the block
+   * @param block             the block
+   * @param bits              the size of the transfer in bits
+   * @param downloadBandwidth the download bandwidth of the receiver in bits per second
+   * @param deliveryDelay     the time between the end of the transfer and the delivery of the
+   *                          block, in milliseconds
+   */
+  public void startTransfer(AbstractNode receiver, Block block, long bits, long downloadBandwidth,
+                            long deliveryDelay) {
+    advance();
+    flows.add(new Flow(receiver, block, bits, downloadBandwidth / 1000.0, deliveryDelay));
+    reschedule();
+  }
+
+  /**
+   * Gets the number of blocks being sent or waiting to be sent.
+   *
+   * @return the number of transfers
+   */
+  public int getTransferCount() {
+    return flows.size();
+  }
+
+  /**
+   * Gets the rate a block is currently sent at.
+   *
+   * @param receiver the node receiving the block
+   * @param block    the block
+   * @return the rate in bits per millisecond, or 0 if the block is not being sent to the node
+   */
+  public double getRate(AbstractNode receiver, Block block) {
+    for (Flow flow : flows) {
+      if (flow.receiver == receiver && flow.block == block) {
+        return flow.rate;
+      }
+    }
+    return 0;
+  }
+
+  private long getCurrentTime() {
+    return node.getCurrentTime();
+  }
+
+  /**
+   * Deducts the bits sent since the last update from every flow.
+   */
+  private void advance() {
+    long now = getCurrentTime();
+    long elapsed = now - lastUpdate;
+    if (elapsed > 0) {
+      for (Flow flow : flows) {
+        flow.remaining -= flow.rate * elapsed;
+      }
+    }
+    lastUpdate = now;
+  }
+
+  /**
+   * Delivers the transferred blocks, then shares the bandwidth between the remaining flows and
+   * schedules the next completion.
+   */
+  private void reschedule() {
+    for (int i = 0; i < flows.size(); i++) {
+      Flow flow = flows.get(i);
+      if (flow.remaining <= EPSILON_BITS) {
+        flows.remove(i--);
+        node.putTask(new BlockMessageTask(node, flow.receiver, flow.block, flow.deliveryDelay));
+      }
+    }
+
+    allocate();
+
+    long next = Long.MAX_VALUE;
+    for (Flow flow : flows) {
+      if (flow.rate > 0) {
+        next = Math.min(next, (long) Math.ceil(flow.remaining / flow.rate));
+      }
+    }
+
+    if (completionTask != null) {
+      node.removeTask(completionTask);
+      completionTask = null;
+    }
+    if (next != Long.MAX_VALUE) {
+      completionTask = new CompletionTask(Math.max(1, next));
+      node.putTask(completionTask);
+    }
+  }
+
+  /**
+   * Sets the rate of every flow.
+   */
+  private void allocate() {
+    double capacity = node.getUploadBandwidth() / 1000.0;
+
+    if (policy == UploadPolicy.FIFO) {
+      for (int i = 0; i < flows.size(); i++) {
+        Flow flow = flows.get(i);
+        flow.rate = i == 0 ? Math.min(capacity, flow.maximumRate) : 0;
+      }
+      return;
+    }
+
+    // Max-min fairness: flows limited below their fair share leave the rest to the others
+    List<Flow> byMaximumRate = new ArrayList<>(flows);
+    byMaximumRate.sort(Comparator.comparingDouble(flow -> flow.maximumRate));
+    double remaining = capacity;
+    int left = byMaximumRate.size();
+    for (Flow flow : byMaximumRate) {
+      flow.rate = Math.min(flow.maximumRate, remaining / left);
+      remaining -= flow.rate;
+      left--;
+    }
+  }
+
+  private static final class Flow {
+    private final AbstractNode receiver;
+    private final Block block;
+    private final double maximumRate;
+    private final long deliveryDelay;
+    private double remaining;
+    private double rate;
+
+    private Flow(AbstractNode receiver, Block block, long bits, double maximumRate, long deliveryDelay) {
+      this.receiver = receiver;
+      this.block = block;
+      this.remaining = bits;
+      this.maximumRate = maximumRate;
+      this.deliveryDelay = deliveryDelay;
+    }
+  }
+
+  /**
+   * Ends the flows transferred by now.
+   */
+  private final class CompletionTask implements ITask {
+    private final long duration;
+    private long taskID;
+
+    private CompletionTask(long duration) {
+      this.duration = duration;
+    }
+
+    @Override
+    public long getTaskID() {
+      return taskID;
+    }
+
+    @Override
+    public void setTaskID(long taskID) {
+      this.taskID = taskID;
+    }
+
+    @Override
+    public long getDuration() {
+      return duration;
+    }
+
+    @Override
+    public void run() {
+      completionTask = null;
+      advance();
+      reschedule();
+    }
+  }
+}
@@ -54,6 +54,13 @@ public abstract class AbstractConsensusAlgo extends TimerCarrier {
    */
   public abstract AbstractMintingTask minting();
 
+  /**
+   * Stops the mining of the node, called whenever its minting task is removed. The minting task
+   * itself is removed by the node, algorithms only release the state they hold for it.
+   */
+  public void stopMinting() {
+  }
+
   /**
    * Tests if the receivedBlock is valid with regards to the current block.
    *
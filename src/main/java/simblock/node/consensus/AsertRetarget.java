@@ -0,0 +1,44 @@
+package simblock.node.consensus;
+
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+
+/**
+ * Absolutely scheduled exponentially rising targets, as used by Bitcoin Cash. Every block sets
+ * the difficulty from how far ahead of or behind the ideal schedule since the genesis block it
+ * was mined: each half-life behind schedule halves the difficulty. Only the block and the genesis
+ * block are read, so the adjustment costs one ancestor lookup per block.
+ */
+public class AsertRetarget implements IDifficultyRetarget {
+
+  /**
+   * The half-life of Bitcoin Cash, two days of ten minute blocks.
+   */
+  public static final int DEFAULT_HALF_LIFE_BLOCKS = 288;
+
+  private final long targetInterval;
+  private final int halfLifeBlocks;
+
+  /**
+   * Instantiates a new ASERT retarget.
+   *
+   * @param targetInterval the target block interval in milliseconds
+   * @param halfLifeBlocks the half-life, in target block intervals
+   */
+  public AsertRetarget(long targetInterval, int halfLifeBlocks) {
+    if (halfLifeBlocks < 1) {
+      throw new IllegalArgumentException("Half-life must be positive, got " + halfLifeBlocks);
+    }
+    this.targetInterval = targetInterval;
+    this.halfLifeBlocks = halfLifeBlocks;
+  }
+
+  @Override
+  public Difficulty nextDifficulty(ProofOfWorkBlock block) {
+    ProofOfWorkBlock anchor = (ProofOfWorkBlock) block.getBlockWithHeight(0);
+    long idealTime = targetInterval * (block.getHeight() - anchor.getHeight());
+    long actualTime = block.getTime() - anchor.getTime();
+    double exponent = (double) (actualTime - idealTime) / ((double) targetInterval * halfLifeBlocks);
+    return Difficulty.of(anchor.getNextDifficultyValue().doubleValue() * Math.pow(2, -exponent));
+  }
+}
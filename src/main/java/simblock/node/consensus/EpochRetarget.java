@@ -0,0 +1,57 @@
+package simblock.node.consensus;
+
+import lombok.Getter;
+import simblock.block.Block;
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+
+/**
+ * Bitcoin style difficulty adjustment. The difficulty is kept for a whole epoch of blocks and is
+ * scaled at the end of every epoch by how much faster than targeted the epoch was mined, by at
+ * most a factor of four either way. Blocks within an epoch share the difficulty of the epoch, so
+ * the epoch is only measured once, through an ancestor lookup.
+ */
+public class EpochRetarget implements IDifficultyRetarget {
+
+  /**
+   * The number of blocks of an epoch in Bitcoin.
+   */
+  public static final int BITCOIN_EPOCH_LENGTH = 2016;
+
+  private static final int MAX_ADJUSTMENT = 4;
+
+  private final long targetInterval;
+
+  @Getter
+  private final int epochLength;
+
+  /**
+   * Instantiates a new epoch retarget.
+   *
+   * @param targetInterval the target block interval in milliseconds
+   * @param epochLength    the number of blocks of an epoch
+   */
+  public EpochRetarget(long targetInterval, int epochLength) {
+    if (epochLength < 1) {
+      throw new IllegalArgumentException("Epoch length must be positive, got " + epochLength);
+    }
+    this.targetInterval = targetInterval;
+    this.epochLength = epochLength;
+  }
+
+  @Override
+  public Difficulty nextDifficulty(ProofOfWorkBlock block) {
+    int height = block.getHeight();
+    Difficulty current = IDifficultyRetarget.inherited(block);
+    if (height % epochLength != 0) {
+      return current;
+    }
+
+    // Measure the epoch from the last block of the previous epoch
+    Block epochStart = block.getBlockWithHeight(height - epochLength);
+    long expected = targetInterval * epochLength;
+    long actual = block.getTime() - epochStart.getTime();
+    actual = Math.max(expected / MAX_ADJUSTMENT, Math.min(actual, expected * MAX_ADJUSTMENT));
+    return Difficulty.of(current.doubleValue() * expected / Math.max(actual, 1L));
+  }
+}
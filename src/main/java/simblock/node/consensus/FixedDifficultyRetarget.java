@@ -0,0 +1,20 @@
+package simblock.node.consensus;
+
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+
+/**
+ * Never adjusts the difficulty, every block keeps the difficulty set by the genesis block.
+ */
+public class FixedDifficultyRetarget implements IDifficultyRetarget {
+
+  /**
+   * The retarget shared by all users, it holds no state.
+   */
+  public static final FixedDifficultyRetarget INSTANCE = new FixedDifficultyRetarget();
+
+  @Override
+  public Difficulty nextDifficulty(ProofOfWorkBlock block) {
+    return IDifficultyRetarget.inherited(block);
+  }
+}
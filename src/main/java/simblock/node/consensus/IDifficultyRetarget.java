@@ -0,0 +1,30 @@
+package simblock.node.consensus;
+
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+
+/**
+ * A difficulty adjustment algorithm. The difficulty of the children of a block is computed once,
+ * when the block is created, and kept in the block, so every node mining on top of the block
+ * shares the result instead of computing it again.
+ */
+public interface IDifficultyRetarget {
+
+  /**
+   * Computes the difficulty of the blocks mined on top of the provided, newly created block.
+   *
+   * @param block the block, never a genesis block
+   * @return the difficulty of its children
+   */
+  Difficulty nextDifficulty(ProofOfWorkBlock block);
+
+  /**
+   * Gets the difficulty the parent of the block set for its children.
+   *
+   * @param block the block
+   * @return the difficulty of the block's siblings
+   */
+  static Difficulty inherited(ProofOfWorkBlock block) {
+    return ((ProofOfWorkBlock) block.getParent()).getNextDifficultyValue();
+  }
+}
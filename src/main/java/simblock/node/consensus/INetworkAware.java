@@ -8,4 +8,35 @@ public interface INetworkAware {
 
   long getTargetInterval();
 
+  /**
+   * Gets the difficulty adjustment of the mined blocks.
+   *
+   * @return the difficulty adjustment
+   */
+  default IDifficultyRetarget getDifficultyRetarget() {
+    return FixedDifficultyRetarget.INSTANCE;
+  }
+
+  /**
+   * Gets the pool of the mining nodes.
+   *
+   * @return the mining pool or null if every node schedules its own mining tasks
+   */
+  default MiningPool getMiningPool() {
+    return null;
+  }
+
+  /**
+   * Gets the sum of the mining power of the simulated nodes.
+   *
+   * @return the total mining power
+   */
+  default long getTotalMiningPower() {
+    long totalMiningPower = 0;
+    for (AbstractNode node : getSimulatedNodes()) {
+      totalMiningPower += node.getMiningPower();
+    }
+    return totalMiningPower;
+  }
+
 }
@@ -0,0 +1,61 @@
+package simblock.node.consensus;
+
+import simblock.block.Block;
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+
+/**
+ * Linearly weighted moving average difficulty adjustment. Every block sets the difficulty from
+ * the average difficulty and the solve times of the last blocks, weighting recent solve times
+ * more so the difficulty follows hash rate changes quickly.
+ */
+public class LwmaRetarget implements IDifficultyRetarget {
+
+  /**
+   * The window suggested for ten minute blocks.
+   */
+  public static final int DEFAULT_WINDOW = 45;
+
+  /**
+   * Solve times are capped to this many target intervals, limiting the effect of a single slow
+   * block.
+   */
+  private static final int MAX_SOLVE_TIME = 6;
+
+  private final long targetInterval;
+  private final int window;
+
+  /**
+   * Instantiates a new LWMA retarget.
+   *
+   * @param targetInterval the target block interval in milliseconds
+   * @param window         the number of blocks averaged over
+   */
+  public LwmaRetarget(long targetInterval, int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Window must be positive, got " + window);
+    }
+    this.targetInterval = targetInterval;
+    this.window = window;
+  }
+
+  @Override
+  public Difficulty nextDifficulty(ProofOfWorkBlock block) {
+    int blocks = Math.min(window, block.getHeight());
+
+    double weightedSolveTimes = 0;
+    double difficulties = 0;
+    Block current = block;
+    for (int weight = blocks; weight > 0; weight--) {
+      Block parent = current.getParent();
+      long solveTime = current.getTime() - parent.getTime();
+      solveTime = Math.max(1L, Math.min(solveTime, MAX_SOLVE_TIME * targetInterval));
+      weightedSolveTimes += (double) weight * solveTime;
+      difficulties += ((ProofOfWorkBlock) current).getDifficultyValue().doubleValue();
+      current = parent;
+    }
+
+    // The average difficulty scaled by the target over the weighted average solve time
+    return Difficulty.of(difficulties * targetInterval * (blocks + 1) / (2 * weightedSolveTimes));
+  }
+}
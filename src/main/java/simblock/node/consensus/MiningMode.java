@@ -0,0 +1,16 @@
+package simblock.node.consensus;
+
+/**
+ * How the mining of the next blocks is simulated.
+ */
+public enum MiningMode {
+  /**
+   * Every node schedules a mining task of its own, replaced whenever the node changes its tip.
+   */
+  PER_NODE,
+  /**
+   * The nodes sharing a tip are pooled and a single mining task is scheduled for all of them, see
+   * {@link MiningPool}.
+   */
+  POOLED;
+}
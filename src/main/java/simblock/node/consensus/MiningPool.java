@@ -0,0 +1,262 @@
+package simblock.node.consensus;
+
+import java.util.Arrays;
+import java.util.Random;
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+import simblock.node.AbstractNode;
+import simblock.simulator.Timer;
+import simblock.task.MiningTask;
+import simblock.task.interfaces.ITask;
+import simblock.utils.LongObjectHashMap;
+import simblock.utils.probability.AliasTable;
+
+/**
+ * Pools the mining of all nodes. Each node finds a block after an exponentially distributed time,
+ * so the first block found by any node comes after an exponentially distributed time at the
+ * summed rate of all nodes, and is found by a node chosen with probability proportional to its
+ * mining power. A single task is therefore scheduled for the whole network instead of one per
+ * node, and it is not drawn again when nodes move to another tip.
+ *
+ * <p>Tips may differ in difficulty, the time of the next block is drawn at the lowest difficulty
+ * mined on and the drawn node only finds a block with the ratio of that difficulty to the
+ * difficulty of its own tip, otherwise the next time is drawn. Nodes which do not mine are drawn
+ * and rejected the same way. The task is only drawn again early when a node starts mining on a
+ * tip of a lower difficulty, or when a node mines with the pool for the first time.
+ *
+ * <p>The pool is not synchronized, it is meant for the sequential execution engine.
+ */
+public class MiningPool {
+
+  private final Timer timer;
+  private final Random random;
+
+  /**
+   * The nodes which have mined with the pool, by node index.
+   */
+  private AbstractNode[] nodes = new AbstractNode[16];
+
+  /**
+   * The consensus algorithm of every node, by node index.
+   */
+  private ProofOfWork[] consensuses = new ProofOfWork[16];
+
+  /**
+   * The block every node mines on, by node index, null if the node does not mine.
+   */
+  private ProofOfWorkBlock[] tips = new ProofOfWorkBlock[16];
+
+  /**
+   * The tips mined on, by block id.
+   */
+  private final LongObjectHashMap<Tip> minedTips = new LongObjectHashMap<>();
+
+  private int miningNodeCount;
+
+  private long totalMiningPower;
+
+  /**
+   * The nodes weighted by mining power, built on the first draw after a node joined the pool.
+   */
+  private AliasTable miners;
+
+  /**
+   * The difficulty the pending task was drawn at, not above the difficulty of any mined tip.
+   */
+  private Difficulty referenceDifficulty;
+
+  private BlockFoundTask task;
+
+  /**
+   * Instantiates a new mining pool.
+   *
+   * @param timer  the timer the mining tasks are scheduled on
+   * @param random the random instance drawing mining times and winners
+   */
+  public MiningPool(Timer timer, Random random) {
+    this.timer = timer;
+    this.random = random;
+  }
+
+  /**
+   * Lets the node mine on its current block, instead of the block it mined on before.
+   *
+   * @param node      the node
+   * @param consensus the consensus algorithm of the node
+   */
+  public void join(AbstractNode node, ProofOfWork consensus) {
+    int index = node.getNodeIndex();
+    boolean drawAgain = task == null;
+    if (index >= nodes.length) {
+      int length = Math.max(index + 1, 2 * nodes.length);
+      nodes = Arrays.copyOf(nodes, length);
+      consensuses = Arrays.copyOf(consensuses, length);
+      tips = Arrays.copyOf(tips, length);
+    }
+    if (nodes[index] == null) {
+      // The summed rate grows
+      nodes[index] = node;
+      consensuses[index] = consensus;
+      totalMiningPower += node.getMiningPower();
+      miners = null;
+      drawAgain = true;
+    }
+
+    stopMining(index);
+    ProofOfWorkBlock tip = (ProofOfWorkBlock) node.getBlock();
+    tips[index] = tip;
+    miningNodeCount++;
+    Tip minedTip = minedTips.get(tip.getId());
+    if (minedTip == null) {
+      minedTip = new Tip(tip);
+      minedTips.put(tip.getId(), minedTip);
+      drawAgain = drawAgain || tip.getNextDifficultyValue().compareTo(referenceDifficulty) < 0;
+    }
+    minedTip.miners++;
+
+    if (drawAgain) {
+      schedule();
+    }
+  }
+
+  /**
+   * Stops the node from mining, if it does.
+   *
+   * @param node the node
+   */
+  public void leave(AbstractNode node) {
+    stopMining(node.getNodeIndex());
+    if (miningNodeCount == 0) {
+      cancel();
+    }
+  }
+
+  /**
+   * Gets the number of tips currently mined on.
+   *
+   * @return the number of tips
+   */
+  public int getTipCount() {
+    return minedTips.size();
+  }
+
+  private void stopMining(int index) {
+    ProofOfWorkBlock tip = index < tips.length ? tips[index] : null;
+    if (tip == null) {
+      return;
+    }
+    tips[index] = null;
+    miningNodeCount--;
+    Tip minedTip = minedTips.get(tip.getId());
+    if (--minedTip.miners == 0) {
+      minedTips.remove(tip.getId());
+    }
+  }
+
+  private void cancel() {
+    if (task != null) {
+      timer.removeTask(task);
+      task = null;
+    }
+  }
+
+  /**
+   * Draws the time the next block is found, replacing the task previously drawn.
+   */
+  private void schedule() {
+    cancel();
+    if (miningNodeCount == 0 || totalMiningPower <= 0) {
+      return;
+    }
+
+    referenceDifficulty = null;
+    minedTips.forEachValue(minedTip -> {
+      Difficulty difficulty = minedTip.block.getNextDifficultyValue();
+      if (referenceDifficulty == null || difficulty.compareTo(referenceDifficulty) < 0) {
+        referenceDifficulty = difficulty;
+      }
+    });
+    long interval = ProofOfWork.sampleInterval(random.nextDouble(), referenceDifficulty,
+        totalMiningPower);
+    task = new BlockFoundTask(interval);
+    timer.putTask(task);
+  }
+
+  /**
+   * Draws the node which found the block, or -1 if the draw is rejected.
+   */
+  private int drawMiner() {
+    if (miners == null) {
+      long[] miningPowers = new long[nodes.length];
+      for (int i = 0; i < nodes.length; i++) {
+        miningPowers[i] = nodes[i] == null ? 0 : nodes[i].getMiningPower();
+      }
+      miners = new AliasTable(miningPowers);
+    }
+
+    int index = miners.sample(random);
+    ProofOfWorkBlock tip = tips[index];
+    if (tip == null) {
+      return -1;
+    }
+    Difficulty difficulty = tip.getNextDifficultyValue();
+    if (difficulty.compareTo(referenceDifficulty) > 0
+        && random.nextDouble() * difficulty.doubleValue() >= referenceDifficulty.doubleValue()) {
+      return -1;
+    }
+    return index;
+  }
+
+  /**
+   * A tip and the number of nodes mining on it.
+   */
+  private static final class Tip {
+    private final ProofOfWorkBlock block;
+    private int miners;
+
+    private Tip(ProofOfWorkBlock block) {
+      this.block = block;
+    }
+  }
+
+  /**
+   * The time the next block is found by any node. Once it runs the node is drawn and a mining
+   * task minting its block at the same time is scheduled on its behalf, so the block is minted
+   * on the block the node mines on at that time.
+   */
+  private final class BlockFoundTask implements ITask {
+    private final long interval;
+    private long taskID;
+
+    private BlockFoundTask(long interval) {
+      this.interval = interval;
+    }
+
+    @Override
+    public long getDuration() {
+      return interval;
+    }
+
+    @Override
+    public void run() {
+      task = null;
+      int index = drawMiner();
+      if (index >= 0) {
+        ProofOfWork consensus = consensuses[index];
+        timer.putTask(new MiningTask(nodes[index], 0, tips[index].getNextDifficultyValue(), timer,
+            consensus.getGenerator(), consensus.getDifficultyRetarget()));
+      }
+      schedule();
+    }
+
+    @Override
+    public long getTaskID() {
+      return taskID;
+    }
+
+    @Override
+    public void setTaskID(long taskID) {
+      this.taskID = taskID;
+    }
+  }
+}
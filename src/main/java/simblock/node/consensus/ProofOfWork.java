@@ -16,10 +16,10 @@
 
 package simblock.node.consensus;
 
-import java.math.BigInteger;
 import java.util.List;
 import java.util.Random;
 import simblock.block.Block;
+import simblock.block.Difficulty;
 import simblock.block.IBlockIdGenerator;
 import simblock.block.ProofOfWorkBlock;
 import simblock.node.AbstractNode;
@@ -48,7 +48,7 @@ public class ProofOfWork extends AbstractConsensusAlgo implements IStochasticPro
    * @param selfNode     the node following this algorithm
    * @param timer        the simulation timer used to register tasks
    * @param networkAware entity holding global node network state
-   * @param random       the shared random instance
+   * @param random       the random instance of the node
    * @param generator    the block id generator
    */
   public ProofOfWork(AbstractNode selfNode, Timer timer, INetworkAware networkAware, Random random, IBlockIdGenerator generator) {
@@ -69,13 +69,20 @@ public class ProofOfWork extends AbstractConsensusAlgo implements IStochasticPro
 
     // I think this increases lineraly since it is set when mining the genesis node and never modified after that
     // Actually, it might stay static
-    BigInteger difficulty = parent.getNextDifficulty(); 
+    Difficulty difficulty = parent.getNextDifficultyValue();
     double modifiedDifficulty = 1.0 / difficulty.doubleValue(); // Why am I modifying this?
-    double newRandom = this.getRandomGenerator().nextDouble();
+    MiningPool pool = getMiningPool();
+    // The pool draws the mining times itself, the random sequence of the node is left untouched
+    double newRandom = pool == null ? this.getRandomGenerator().nextDouble() : 0;
     MiningTask newMiningTask = null;
 
     // Not sure of the significance of this calculation
     if (modifiedDifficulty > Math.pow(2, -53)) {
+      if (pool != null) {
+        // The pool schedules a single task for all the nodes of the network
+        pool.join(selfNode, this);
+        return null;
+      }
 
       // Create an expotential distribution of mining times
       // See https://en.wikipedia.org/wiki/Inverse_transform_sampling
@@ -83,19 +90,45 @@ public class ProofOfWork extends AbstractConsensusAlgo implements IStochasticPro
       //we simulate the time when the mining becomes successful
       //by deriving a random number that follows that distribution
       //random number are generated by obtaining the geometric distribution from the difficulty of block generation and the hash rate of the node.
-      var myInterval = (long) (Math.log(newRandom) / Math.log(1.0 - modifiedDifficulty) 
-                               / selfNode.getMiningPower());
+      long myInterval = sampleInterval(newRandom, difficulty, selfNode.getMiningPower());
 
       newMiningTask = new MiningTask(selfNode, 
                                      myInterval,
                                      difficulty, 
                                      getTimer(), 
-                                     generator);
+                                     generator,
+                                     getDifficultyRetarget());
     }
     
     return newMiningTask;                          
   }
 
+  /**
+   * Removes the node from its mining pool, if mining is pooled.
+   */
+  @Override
+  public void stopMinting() {
+    MiningPool pool = getMiningPool();
+    if (pool != null) {
+      pool.leave(getSelfNode());
+    }
+  }
+
+  /**
+   * Draws the time it takes to find a block, inverting the geometric distribution of the number
+   * of hashes needed at the provided difficulty.
+   *
+   * @param random      a uniform random number in [0, 1)
+   * @param difficulty  the difficulty of the block
+   * @param miningPower the hashes computed per millisecond
+   * @return the mining time in milliseconds, at least 1
+   */
+  public static long sampleInterval(double random, Difficulty difficulty, long miningPower) {
+    double interval = Math.log(random) / Math.log(1.0 - 1.0 / difficulty.doubleValue()) / miningPower;
+    // Blocks are never mined instantly, every task is scheduled strictly in the future
+    return Math.max((long) interval, 1L);
+  }
+
   /**
    * Tests if the receivedBlock is valid with regards to the current block. The receivedBlock
    * is valid if it is an instance of a Proof of Work block and the received block needs to have
@@ -119,16 +152,16 @@ public class ProofOfWork extends AbstractConsensusAlgo implements IStochasticPro
 
     //TODO - dangerous to split due to short circuit operators being used, refactor?
     boolean difficultyHasNotDecreased = (receivedBlockHeight == 0 
-                                         || recPoWBlock.getDifficulty().compareTo(receivedBlockParent.getNextDifficulty()) >= 0);
+                                         || recPoWBlock.getDifficultyValue().compareTo(receivedBlockParent.getNextDifficultyValue()) >= 0);
     boolean totalDifficultyHasIncreased = (currentBlock == null 
-                                           || recPoWBlock.getTotalDifficulty().compareTo(currPoWBlock.getTotalDifficulty()) >= 0);
+                                           || recPoWBlock.getTotalDifficultyValue().compareTo(currPoWBlock.getTotalDifficultyValue()) >= 0);
     // Total difficulty is currently the same. Is this valid?
     return difficultyHasNotDecreased && totalDifficultyHasIncreased;
   }
 
   @Override
   public AbstractMintingTask genesisBlockTask() {
-    BigInteger genesisNextDifficulty = BigInteger.valueOf(getTotalMiningPower() * networkAware.getTargetInterval());
+    Difficulty genesisNextDifficulty = Difficulty.of(getTotalMiningPower() * networkAware.getTargetInterval());
 
     return new GenesisMiningTask(
         this.getSelfNode(), 0, getTimer(), genesisNextDifficulty, generator
@@ -150,8 +183,35 @@ public class ProofOfWork extends AbstractConsensusAlgo implements IStochasticPro
     return totalMiningPower;
   }
 
+  /**
+   * Gets the difficulty adjustment of the blocks mined by the node.
+   *
+   * @return the difficulty adjustment
+   */
+  public IDifficultyRetarget getDifficultyRetarget() {
+    return networkAware == null ? FixedDifficultyRetarget.INSTANCE : networkAware.getDifficultyRetarget();
+  }
+
+  /**
+   * Gets the pool the node mines with.
+   *
+   * @return the mining pool or null if every node mines on its own
+   */
+  public MiningPool getMiningPool() {
+    return networkAware == null ? null : networkAware.getMiningPool();
+  }
+
+  /**
+   * Gets the generator of the ids of the mined blocks.
+   *
+   * @return the block id generator
+   */
+  public IBlockIdGenerator getGenerator() {
+    return generator;
+  }
+
   public long getTotalMiningPower() {
-    return getTotalMiningPower(this.networkAware.getSimulatedNodes());
+    return this.networkAware.getTotalMiningPower();
   }
 
   @Override
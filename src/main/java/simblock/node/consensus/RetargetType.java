@@ -0,0 +1,23 @@
+package simblock.node.consensus;
+
+/**
+ * The difficulty adjustment algorithms a simulation can use.
+ */
+public enum RetargetType {
+  /**
+   * The difficulty of the genesis block is kept forever.
+   */
+  FIXED,
+  /**
+   * Bitcoin style adjustment at the end of every epoch of blocks.
+   */
+  EPOCH,
+  /**
+   * Absolutely scheduled exponentially rising targets, adjusting every block.
+   */
+  ASERT,
+  /**
+   * Linearly weighted moving average of the recent solve times, adjusting every block.
+   */
+  LWMA;
+}
@@ -36,7 +36,7 @@ public class NetworkConfiguration {
    * LATENCY[i][j] is average latency from REGION_LIST[i] to REGION_LIST[j]
    * Unit: millisecond, for year 2015.
    */
-  private static final long[][] LATENCY_2015 = {
+  public static final long[][] LATENCY_2015 = {
       {36, 119, 255, 310, 154, 208},
       {119, 12, 221, 242, 266, 350},
       {255, 221, 137, 347, 256, 269},
@@ -48,7 +48,7 @@ public class NetworkConfiguration {
    * LATENCY[i][j] is average latency from REGION_LIST[i] to REGION_LIST[j]
    * Unit: millisecond, for year 2019.
    */
-  private static final long[][] LATENCY_2019 = {
+  public static final long[][] LATENCY_2019 = {
       {32, 124, 184, 198, 151, 189},
       {124, 11, 227, 237, 252, 294},
       {184, 227, 88, 325, 301, 322},
@@ -66,7 +66,7 @@ public class NetworkConfiguration {
    * List of download bandwidth assigned to each region, and last element is Inter-regional
    * bandwidth. (unit: bit per second) for year 2015
    */
-  private static final long[] DOWNLOAD_BANDWIDTH_2015 = {
+  public static final long[] DOWNLOAD_BANDWIDTH_2015 = {
       25000000, 24000000, 6500000, 10000000,
       17500000, 14000000, 6 * 1000000
   };
@@ -74,7 +74,7 @@ public class NetworkConfiguration {
    * List of download bandwidth assigned to each region, and last element is Inter-regional
    * bandwidth. (unit: bit per second) for year 2019
    */
-  private static final long[] DOWNLOAD_BANDWIDTH_2019 = {
+  public static final long[] DOWNLOAD_BANDWIDTH_2019 = {
       52000000, 40000000, 18000000, 22800000,
       22800000, 29900000, 6 * 1000000
   };
@@ -89,7 +89,7 @@ public class NetworkConfiguration {
    * List of upload bandwidth assigned to each region. (unit: bit per second), and last element
    * is Inter-regional bandwidth for year 2015
    */
-  private static final long[] UPLOAD_BANDWIDTH_2015 = {
+  public static final long[] UPLOAD_BANDWIDTH_2015 = {
       4700000, 8100000, 1800000, 5300000,
       3400000, 5200000, 6 * 1000000
   };
@@ -97,7 +97,7 @@ public class NetworkConfiguration {
    * List of upload bandwidth assigned to each region. (unit: bit per second), and last element
    * is Inter-regional bandwidth for year 2019
    */
-  private static final long[] UPLOAD_BANDWIDTH_2019 = {
+  public static final long[] UPLOAD_BANDWIDTH_2019 = {
       19200000, 20700000, 5800000, 15700000,
       10200000, 11300000, 6 * 1000000
   };
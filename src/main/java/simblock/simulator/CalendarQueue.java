@@ -0,0 +1,308 @@
+package simblock.simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import simblock.simulator.interfaces.IFutureEventList;
+import simblock.task.ScheduledTask;
+
+/**
+ * Calendar queue Future Event List, see R. Brown, "Calendar queues: a fast O(1) priority queue
+ * implementation for the simulation event set problem", CACM 31(10), 1988.
+ *
+ * <p>Tasks are hashed by their scheduled time into an array of buckets ("days") of a fixed width.
+ * Each bucket is a doubly linked list sorted by {@link ScheduledTask#compareTo}, so tasks sharing
+ * a timestamp keep their relative order. The dequeue cursor walks the buckets one day at a time,
+ * and the calendar is resized, re-estimating the bucket width from the earliest tasks, whenever
+ * the number of tasks drifts too far from the number of buckets. Enqueue and dequeue are O(1)
+ * amortized and removal is O(1), since every task keeps a handle to its list node.
+ */
+public class CalendarQueue implements IFutureEventList {
+
+  private static final int MIN_BUCKETS = 16;
+
+  /**
+   * Number of the earliest tasks sampled when estimating a new bucket width.
+   */
+  private static final int WIDTH_SAMPLE_SIZE = 25;
+
+  private Node[] heads;
+  private Node[] tails;
+  private int mask;
+
+  /**
+   * Bucket width in milliseconds of simulated time.
+   */
+  private long width;
+
+  /**
+   * The virtual bucket index (time divided by width) the dequeue cursor is at. No pending task
+   * has a smaller virtual bucket index.
+   */
+  private long currentBucket;
+
+  private int size;
+
+  /**
+   * Instantiates a new, empty calendar queue.
+   */
+  public CalendarQueue() {
+    this.width = 1;
+    allocate(MIN_BUCKETS);
+  }
+
+  @Override
+  public void add(ScheduledTask task) {
+    Node node = new Node(task);
+    task.setHandle(node);
+    insert(node);
+    size++;
+
+    if (size > 2 * heads.length) {
+      resize(2 * heads.length);
+    }
+  }
+
+  @Override
+  public ScheduledTask peek() {
+    Node node = findMin();
+    return node == null ? null : node.task;
+  }
+
+  @Override
+  public ScheduledTask poll() {
+    Node node = findMin();
+    if (node == null) {
+      return null;
+    }
+    unlink(node);
+
+    if (size < heads.length / 2 && heads.length > MIN_BUCKETS) {
+      resize(heads.length / 2);
+    }
+    return node.task;
+  }
+
+  @Override
+  public boolean remove(ScheduledTask task) {
+    Object handle = task.getHandle();
+    if (!(handle instanceof Node) || ((Node) handle).owner != this) {
+      return false;
+    }
+    unlink((Node) handle);
+    return true;
+  }
+
+  @Override
+  public int removeCancelled() {
+    int before = size;
+    for (Node head : heads) {
+      Node node = head;
+      while (node != null) {
+        Node next = node.next;
+        if (node.task.isCancelled()) {
+          unlink(node);
+        }
+        node = next;
+      }
+    }
+    return before - size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public List<ScheduledTask> toList() {
+    List<ScheduledTask> tasks = new ArrayList<>(size);
+    for (Node head : heads) {
+      for (Node node = head; node != null; node = node.next) {
+        tasks.add(node.task);
+      }
+    }
+    return tasks;
+  }
+
+  /**
+   * Gets the number of buckets currently in use.
+   *
+   * @return the number of buckets
+   */
+  public int getBucketCount() {
+    return heads.length;
+  }
+
+  /**
+   * Gets the current bucket width.
+   *
+   * @return the bucket width in milliseconds
+   */
+  public long getBucketWidth() {
+    return width;
+  }
+
+  private void allocate(int bucketCount) {
+    this.heads = new Node[bucketCount];
+    this.tails = new Node[bucketCount];
+    this.mask = bucketCount - 1;
+  }
+
+  /**
+   * Links the node into its bucket, keeping the bucket sorted. New tasks usually go last, so the
+   * bucket is scanned from its tail.
+   */
+  private void insert(Node node) {
+    long virtualBucket = Math.floorDiv(node.time, width);
+    if (size == 0 || virtualBucket < currentBucket) {
+      currentBucket = virtualBucket;
+    }
+
+    int bucket = (int) (virtualBucket & mask);
+    node.owner = this;
+    node.bucket = bucket;
+
+    Node previous = tails[bucket];
+    while (previous != null && previous.task.compareTo(node.task) > 0) {
+      previous = previous.prev;
+    }
+
+    node.prev = previous;
+    if (previous == null) {
+      node.next = heads[bucket];
+      heads[bucket] = node;
+    } else {
+      node.next = previous.next;
+      previous.next = node;
+    }
+
+    if (node.next == null) {
+      tails[bucket] = node;
+    } else {
+      node.next.prev = node;
+    }
+  }
+
+  private void unlink(Node node) {
+    if (node.prev == null) {
+      heads[node.bucket] = node.next;
+    } else {
+      node.prev.next = node.next;
+    }
+
+    if (node.next == null) {
+      tails[node.bucket] = node.prev;
+    } else {
+      node.next.prev = node.prev;
+    }
+
+    node.prev = null;
+    node.next = null;
+    node.owner = null;
+    node.task.setHandle(null);
+    size--;
+  }
+
+  /**
+   * Walks the calendar from the current day until a bucket holds a task of the current year. If a
+   * whole year is empty the queue is sparse and the minimum is searched for directly.
+   */
+  private Node findMin() {
+    if (size == 0) {
+      return null;
+    }
+
+    for (int i = 0; i < heads.length; i++) {
+      Node head = heads[(int) (currentBucket & mask)];
+      if (head != null && Math.floorDiv(head.time, width) == currentBucket) {
+        return head;
+      }
+      currentBucket++;
+    }
+
+    Node min = null;
+    for (Node head : heads) {
+      if (head != null && (min == null || head.task.compareTo(min.task) < 0)) {
+        min = head;
+      }
+    }
+    currentBucket = Math.floorDiv(min.time, width);
+    return min;
+  }
+
+  /**
+   * Re-hashes all tasks into the provided number of buckets, using a bucket width of three times
+   * the average separation of the earliest tasks, as suggested by Brown.
+   */
+  private void resize(int bucketCount) {
+    long newWidth = estimateWidth();
+
+    List<Node> nodes = new ArrayList<>(size);
+    for (Node head : heads) {
+      for (Node node = head; node != null; node = node.next) {
+        nodes.add(node);
+      }
+    }
+
+    allocate(bucketCount);
+    this.width = newWidth;
+    this.size = 0;
+    for (Node node : nodes) {
+      node.prev = null;
+      node.next = null;
+      insert(node);
+      size++;
+    }
+  }
+
+  private long estimateWidth() {
+    int samples = Math.min(size, WIDTH_SAMPLE_SIZE);
+    if (samples < 2) {
+      return width;
+    }
+
+    // Temporarily take out the earliest tasks, they are put back right away
+    Node[] earliest = new Node[samples];
+    for (int i = 0; i < samples; i++) {
+      earliest[i] = findMin();
+      unlink(earliest[i]);
+    }
+    for (Node node : earliest) {
+      node.task.setHandle(node);
+      insert(node);
+      size++;
+    }
+
+    double average = (double) (earliest[samples - 1].time - earliest[0].time) / (samples - 1);
+
+    // Ignore separations far above average, they would make the buckets too wide
+    long total = 0;
+    int count = 0;
+    for (int i = 1; i < samples; i++) {
+      long separation = earliest[i].time - earliest[i - 1].time;
+      if (separation <= 2 * average) {
+        total += separation;
+        count++;
+      }
+    }
+
+    if (count == 0 || total == 0) {
+      return width;
+    }
+    return Math.max(1L, Math.round(3.0 * total / count));
+  }
+
+  private static final class Node {
+    private final ScheduledTask task;
+    private final long time;
+    private CalendarQueue owner;
+    private int bucket;
+    private Node prev;
+    private Node next;
+
+    private Node(ScheduledTask task) {
+      this.task = task;
+      this.time = task.getScheduledTime();
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package simblock.simulator;
+
+/**
+ * How a {@link Timer} removes cancelled tasks from its Future Event List.
+ */
+public enum CancellationPolicy {
+  /**
+   * Cancelled tasks are removed from the Future Event List right away.
+   */
+  EAGER,
+  /**
+   * Cancelled tasks are only flagged and left in the Future Event List as tombstones. They are
+   * dropped when they reach the head of the list or when the list gets compacted.
+   */
+  LAZY;
+}
@@ -0,0 +1,8 @@
+package simblock.simulator;
+
+/**
+ * The execution engines able to run a simulation.
+ */
+public enum EngineType {
+  SEQUENTIAL, CONSERVATIVE_PARALLEL, TIME_WARP;
+}
@@ -0,0 +1,8 @@
+package simblock.simulator;
+
+/**
+ * The Future Event List implementations a {@link Timer} can be backed by.
+ */
+public enum FutureEventListType {
+  HEAP, CALENDAR_QUEUE;
+}
@@ -0,0 +1,54 @@
+package simblock.simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import simblock.simulator.interfaces.IFutureEventList;
+import simblock.task.ScheduledTask;
+
+/**
+ * Binary heap based Future Event List. Enqueue and dequeue are O(log n) while removing an
+ * arbitrary task is a linear scan of the heap. This is the original {@link Timer} implementation
+ * and is kept as the reference to check other implementations against.
+ */
+public class HeapFutureEventList implements IFutureEventList {
+
+  private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>();
+
+  @Override
+  public void add(ScheduledTask task) {
+    queue.add(task);
+  }
+
+  @Override
+  public ScheduledTask peek() {
+    return queue.peek();
+  }
+
+  @Override
+  public ScheduledTask poll() {
+    return queue.poll();
+  }
+
+  @Override
+  public boolean remove(ScheduledTask task) {
+    return queue.remove(task);
+  }
+
+  @Override
+  public int removeCancelled() {
+    int before = queue.size();
+    queue.removeIf(ScheduledTask::isCancelled);
+    return before - queue.size();
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public List<ScheduledTask> toList() {
+    return new ArrayList<>(queue);
+  }
+}
@@ -35,13 +35,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-import lombok.AllArgsConstructor;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pojo.Region;
+import simblock.node.INetworkEntity;
 import simblock.settings.NetworkConfiguration;
 import simblock.simulator.interfaces.IStochasticProcess;
+import simblock.simulator.network.IBandwidthModel;
+import simblock.simulator.network.ILatencyModel;
+import simblock.simulator.network.LatencySampling;
+import simblock.simulator.network.ParetoLatencyTable;
+import simblock.simulator.network.RegionBandwidthModel;
 import simblock.utils.NodeDegreeParser;
 
 /**
@@ -49,17 +54,68 @@ import simblock.utils.NodeDegreeParser;
  * an upload bandwidth
  * and a download bandwidth. Node degrees follow a predefined degree distribution.
  */
-@AllArgsConstructor
 public class Network implements IStochasticProcess {
 
   private static final URI OUT_FILE_URI = Paths.get("dist/output").toUri();
 
-  private static File networkInfo = new File(OUT_FILE_URI.resolve("static.json"));
+  private final File networkInfo;
 
   private Random random;
 
+  /**
+   * The latencies and bandwidths of the links between nodes.
+   */
+  private final ILatencyModel latencyModel;
+  private final IBandwidthModel bandwidthModel;
+
   private final Logger logger = LoggerFactory.getLogger(Network.class);
 
+  /**
+   * Instantiates a new network writing its information to the default output directory.
+   *
+   * @param random the random instance drawing the latencies
+   */
+  public Network(Random random) {
+    this(random, OUT_FILE_URI);
+  }
+
+  /**
+   * Instantiates a new network.
+   *
+   * @param random          the random instance drawing the latencies
+   * @param outDirectoryUri the directory the network information is written to
+   */
+  public Network(Random random, URI outDirectoryUri) {
+    this(random, outDirectoryUri, LatencySampling.EXACT);
+  }
+
+  /**
+   * Instantiates a new network using the configured region tables.
+   *
+   * @param random          the random instance drawing the latencies
+   * @param outDirectoryUri the directory the network information is written to
+   * @param latencySampling how the latencies are drawn
+   */
+  public Network(Random random, URI outDirectoryUri, LatencySampling latencySampling) {
+    this(random, outDirectoryUri, new ParetoLatencyTable(LATENCY, latencySampling),
+        new RegionBandwidthModel(UPLOAD_BANDWIDTH, DOWNLOAD_BANDWIDTH));
+  }
+
+  /**
+   * Instantiates a new network.
+   *
+   * @param random          the random instance drawing the latencies
+   * @param outDirectoryUri the directory the network information is written to
+   * @param latencyModel    the latencies of the messages between nodes
+   * @param bandwidthModel  the bandwidths of the links between nodes
+   */
+  public Network(Random random, URI outDirectoryUri, ILatencyModel latencyModel, IBandwidthModel bandwidthModel) {
+    this.random = random;
+    this.networkInfo = new File(outDirectoryUri.resolve("static.json"));
+    this.latencyModel = latencyModel;
+    this.bandwidthModel = bandwidthModel;
+  }
+
   /**
    * Gets latency according with 20% variance pallet distribution.
    *
@@ -68,24 +124,101 @@ public class Network implements IStochasticProcess {
    * @return the calculated latency
    */
   public long getLatency(int from, int to) {
-    long mean = LATENCY[from][to];
-    double shape = 0.2 * mean;
-    double scale = mean - 5;
-    return Math.round(scale / Math.pow(random.nextDouble(), 1.0 / shape));
+    return getLatency(from, to, random);
+  }
+
+  /**
+   * Gets the latency between two regions, drawn from the provided random instance. Only
+   * supported by latency models keyed by region.
+   *
+   * @param from   the from region
+   * @param to     the to region
+   * @param random the random instance
+   * @return the calculated latency
+   */
+  public long getLatency(int from, int to, Random random) {
+    return latencyModel.getLatency(-1, from, -1, to, random);
+  }
+
+  /**
+   * Gets the latency of a message between two nodes, drawn from the provided random instance.
+   *
+   * @param from   the sending node
+   * @param to     the receiving node
+   * @param random the random instance
+   * @return the latency in milliseconds
+   */
+  public long getLatency(INetworkEntity from, INetworkEntity to, Random random) {
+    return latencyModel.getLatency(from.getNodeIndex(), from.getRegion(), to.getNodeIndex(), to.getRegion(), random);
+  }
+
+  /**
+   * Draws the latencies of messages sent by a node to several nodes, in order, as consecutive
+   * calls to {@link #getLatency(INetworkEntity, INetworkEntity, Random)} would.
+   *
+   * @param from      the sending node
+   * @param to        the indexes of the receiving nodes
+   * @param toRegions the regions of the receiving nodes
+   * @param random    the random instance
+   * @param latencies the array the latencies are written to
+   */
+  public void getLatencies(INetworkEntity from, int[] to, int[] toRegions, Random random, long[] latencies) {
+    latencyModel.getLatencies(from.getNodeIndex(), from.getRegion(), to, toRegions, random, latencies);
+  }
+
+  /**
+   * Gets the lower bound of the latencies between the regions, used as lookahead by the parallel
+   * engines.
+   *
+   * @param from the from region
+   * @param to   the to region
+   * @return the minimum latency
+   */
+  public long getMinimumLatency(int from, int to) {
+    return latencyModel.getMinimumLatency(from, to);
   }
 
   /**
    * Gets the minimum between the <em>from</em> upload bandwidth and <em>to</em> download
-   * bandwidth.
+   * bandwidth. Only supported by bandwidth models keyed by region.
    *
-   * @param from the from index in the {@link NetworkConfiguration#UPLOAD_BANDWIDTH} array.
-   * @param to   the to index in the {@link NetworkConfiguration#UPLOAD_BANDWIDTH} array.
+   * @param from the from region
+   * @param to   the to region
    * @return the bandwidth
    */
-
   public long getBandwidth(int from, int to) {
     // This is constant, i.e. not randomized
-    return Math.min(UPLOAD_BANDWIDTH[from], DOWNLOAD_BANDWIDTH[to]);
+    return bandwidthModel.getBandwidth(-1, from, -1, to);
+  }
+
+  /**
+   * Gets the minimum between the upload bandwidth of the sending node and the download bandwidth
+   * of the receiving node.
+   *
+   * @param from the sending node
+   * @param to   the receiving node
+   * @return the bandwidth in bits per second
+   */
+  public long getBandwidth(INetworkEntity from, INetworkEntity to) {
+    return bandwidthModel.getBandwidth(from.getNodeIndex(), from.getRegion(), to.getNodeIndex(), to.getRegion());
+  }
+
+  /**
+   * Gets the bandwidths of the links between nodes.
+   *
+   * @return the bandwidth model
+   */
+  public IBandwidthModel getBandwidthModel() {
+    return bandwidthModel;
+  }
+
+  /**
+   * Gets the latencies of the messages between nodes.
+   *
+   * @return the latency model
+   */
+  public ILatencyModel getLatencyModel() {
+    return latencyModel;
   }
 
   /**
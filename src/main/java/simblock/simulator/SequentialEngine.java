@@ -0,0 +1,43 @@
+package simblock.simulator;
+
+import java.util.List;
+import java.util.function.Predicate;
+import lombok.AllArgsConstructor;
+import simblock.simulator.interfaces.IExecutionEngine;
+import simblock.task.AbstractMintingTask;
+import simblock.task.ScheduledTask;
+
+/**
+ * Runs all tasks on the calling thread from a single {@link Timer}, batching the tasks scheduled
+ * for the same time.
+ */
+@AllArgsConstructor
+public class SequentialEngine implements IExecutionEngine {
+
+  private final Timer timer;
+
+  @Override
+  public void run(Predicate<AbstractMintingTask> beforeMinting) {
+    List<ScheduledTask> batch = timer.pollBatch();
+    while (!batch.isEmpty()) {
+      for (ScheduledTask scheduledTask : batch) {
+        // Removed by a task of the same batch
+        if (scheduledTask.isCancelled()) {
+          continue;
+        }
+
+        if (scheduledTask.getTask() instanceof AbstractMintingTask
+            && !beforeMinting.test((AbstractMintingTask) scheduledTask.getTask())) {
+          return;
+        }
+        timer.runScheduledTask(scheduledTask);
+      }
+      batch = timer.pollBatch();
+    }
+  }
+
+  @Override
+  public long getCurrentTime() {
+    return timer.getCurrentTime();
+  }
+}
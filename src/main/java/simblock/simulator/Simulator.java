@@ -22,11 +22,17 @@ import java.util.Map;
 import jdk.jshell.spi.ExecutionControl.NotImplementedException;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import simblock.block.Block;
 import simblock.node.AbstractNode;
+import simblock.node.NodeStateStore;
+import simblock.node.Topology;
+import simblock.node.consensus.FixedDifficultyRetarget;
+import simblock.node.consensus.IDifficultyRetarget;
+import simblock.node.consensus.MiningPool;
 import simblock.node.consensus.INetworkAware;
 
 
@@ -45,6 +51,32 @@ public class Simulator extends TaskManager implements INetworkAware {
   @Getter
   private ArrayList<AbstractNode> simulatedNodes;
 
+  /**
+   * The store holding the state of the simulated nodes.
+   */
+  @Getter
+  private NodeStateStore nodeStateStore;
+
+  /**
+   * The last topology snapshot and the store topology version it was taken at.
+   */
+  private Topology topology;
+  private int topologyVersion;
+
+  /**
+   * The difficulty adjustment of the mined blocks.
+   */
+  @Getter
+  @Setter
+  private IDifficultyRetarget difficultyRetarget;
+
+  /**
+   * The pool of the mining nodes, null when every node schedules its own mining tasks.
+   */
+  @Getter
+  @Setter
+  private MiningPool miningPool;
+
   /**
    * The target block interval in milliseconds.
    */
@@ -58,6 +90,8 @@ public class Simulator extends TaskManager implements INetworkAware {
     super(timer);
 
     this.simulatedNodes = new ArrayList<>();
+    this.nodeStateStore = new NodeStateStore(16);
+    this.difficultyRetarget = FixedDifficultyRetarget.INSTANCE;
     this.targetInterval = blockInterval;
   }
 
@@ -80,12 +114,38 @@ public class Simulator extends TaskManager implements INetworkAware {
     targetInterval = interval;
   }
 
+  @Override
+  public long getTotalMiningPower() {
+    // Removed nodes keep their slot in the store
+    if (nodeStateStore.size() != simulatedNodes.size()) {
+      return INetworkAware.super.getTotalMiningPower();
+    }
+    return nodeStateStore.getTotalMiningPower();
+  }
+
+  /**
+   * Gets a snapshot of the links between the simulated nodes, taken again only if links changed.
+   *
+   * @return the topology
+   */
+  public Topology getTopology() {
+    int version = nodeStateStore.getTopologyVersion();
+    if (topology == null || topologyVersion != version || topology.size() != simulatedNodes.size()) {
+      topology = Topology.of(simulatedNodes);
+      topologyVersion = version;
+    }
+    return topology;
+  }
+
   /**
-   * Add node to the list of simulated nodes.
+   * Add node to the list of simulated nodes, assigning the node its index in the list and moving
+   * its state into the node state store.
    *
    * @param node the node
    */
   public void addNode(AbstractNode node) {
+    node.setNodeIndex(simulatedNodes.size());
+    node.moveTo(nodeStateStore);
     simulatedNodes.add(node);
   }
 
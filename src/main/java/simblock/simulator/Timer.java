@@ -17,16 +17,16 @@
 package simblock.simulator;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.PriorityQueue;
-import java.util.UUID;
+import lombok.Getter;
 import lombok.Setter;
 import observable.interfaces.IExecutionObserver;
 import observable.interfaces.IExecutionSubject;
+import simblock.simulator.interfaces.IFutureEventList;
 import simblock.task.ScheduledTask;
 import simblock.task.interfaces.ITask;
+import simblock.utils.LongObjectHashMap;
 
 
 /**
@@ -39,24 +39,52 @@ public class Timer implements IExecutionSubject {
   /**
    * A sorted queue of scheduled tasks.
    */
-  private final PriorityQueue<ScheduledTask> taskQueue = new PriorityQueue<>();
+  private final IFutureEventList taskQueue;
 
   /**
    * Getter for returning the task queue.
    * This returns a copy of the queue since the queue is closed to modification 
    * unless accessed through the approved methods.
-   * This is needed for unit tests
+   * This is needed for unit tests. Cancelled tasks are left out.
    * @see GetTask 
    * @see RemoveTask
    * @return Copy of the task queue
    */
   public PriorityQueue<ScheduledTask> getTaskQueueCopy() {
-    return new PriorityQueue<>(taskQueue);
+    PriorityQueue<ScheduledTask> copy = new PriorityQueue<>();
+    for (ScheduledTask scheduledTask : taskQueue.toList()) {
+      if (!scheduledTask.isCancelled()) {
+        copy.add(scheduledTask);
+      }
+    }
+    return copy;
   }
 
   private List<IExecutionObserver> executionObservers;
 
+  /**
+   * Instantiates a new Timer backed by a calendar queue.
+   */
   public Timer() {
+    this(FutureEventListType.CALENDAR_QUEUE);
+  }
+
+  /**
+   * Instantiates a new Timer backed by the provided type of Future Event List.
+   *
+   * @param type the Future Event List implementation
+   */
+  public Timer(FutureEventListType type) {
+    this(type == FutureEventListType.HEAP ? new HeapFutureEventList() : new CalendarQueue());
+  }
+
+  /**
+   * Instantiates a new Timer backed by the provided Future Event List.
+   *
+   * @param taskQueue the empty Future Event List
+   */
+  public Timer(IFutureEventList taskQueue) {
+    this.taskQueue = taskQueue;
     this.executionObservers = new ArrayList<>();
   }
 
@@ -65,13 +93,51 @@ public class Timer implements IExecutionSubject {
    * executed, the key - value
    * pair is to be removed from the mapping.
    */
-  private final Map<UUID, ScheduledTask> taskMap = new HashMap<>();
+  private final LongObjectHashMap<ScheduledTask> taskMap = new LongObjectHashMap<>();
+
+  /**
+   * The id issued to the next scheduled task. Ids start at 1, leaving 0 for tasks that have not
+   * been scheduled.
+   */
+  private long nextTaskID = 1L;
   /**
    * Initial simulation time in milliseconds.
    */
   @Setter
   private long currentTime = 0L;
 
+  /**
+   * How removed tasks are taken out of the queue.
+   */
+  @Getter
+  @Setter
+  private CancellationPolicy cancellationPolicy = CancellationPolicy.EAGER;
+
+  /**
+   * The share of tombstones in the queue above which the queue gets compacted, only used by the
+   * {@link CancellationPolicy#LAZY} policy.
+   */
+  @Getter
+  @Setter
+  private double compactionThreshold = 0.5;
+
+  /**
+   * Number of cancelled tasks still held by the queue.
+   */
+  @Getter
+  private int tombstoneCount = 0;
+
+  /**
+   * Number of times the queue got compacted.
+   */
+  @Getter
+  private int compactionCount = 0;
+
+  /**
+   * Reusable buffer holding the tasks returned by {@link #pollBatch}.
+   */
+  private final List<ScheduledTask> batch = new ArrayList<>();
+
   @Override
   public void register(IExecutionObserver o) {
     executionObservers.add(o);
@@ -93,37 +159,102 @@ public class Timer implements IExecutionSubject {
 
   }
 
-  
   /**
    * Runs a {@link ScheduledTask}.
    */
   public void runTask() {
     // If there are any tasks
-    if (taskQueue.size() > 0) {
+    if (pollCancelled() != null) {
       // Get the next ScheduledTask
-      ScheduledTask currentScheduledTask = taskQueue.poll();
-      ITask currentTask = currentScheduledTask.getTask();
-      currentTime = currentScheduledTask.getScheduledTime();
+      runScheduledTask(taskQueue.poll());
+    }
+  }
 
-      // Remove the task from the mapping of all tasks
-      taskMap.remove(currentTask.getTaskID(), currentScheduledTask);
-      // Execute
-      currentTask.run();
+  /**
+   * Removes all tasks scheduled for the earliest pending time from the queue. The current time is
+   * advanced as the tasks get run. The tasks stay registered until they are run through
+   * {@link #runScheduledTask}, so tasks of the batch can still be removed by tasks run before
+   * them.
+   *
+   * @return the tasks ordered by their sequence number, or an empty list if the queue is empty.
+   *         The list is reused and only valid until the next call.
+   */
+  public List<ScheduledTask> pollBatch() {
+    batch.clear();
+    ScheduledTask head = pollCancelled();
+    if (head == null) {
+      return batch;
+    }
 
-      //notifyObservers(currentScheduledTask);
+    long batchTime = head.getScheduledTime();
+    while (head != null && head.getScheduledTime() == batchTime) {
+      ScheduledTask polled = taskQueue.poll();
+      polled.markPolled();
+      batch.add(polled);
+      head = pollCancelled();
+    }
+    return batch;
+  }
 
+  /**
+   * Runs all tasks scheduled for the earliest pending time.
+   *
+   * @return the number of tasks taken from the queue
+   */
+  public int runBatch() {
+    List<ScheduledTask> tasks = pollBatch();
+    for (ScheduledTask scheduledTask : tasks) {
+      runScheduledTask(scheduledTask);
     }
+    return tasks.size();
   }
 
   /**
-   * Remove task from the mapping of all tasks and from the execution queue.
+   * Runs a {@link ScheduledTask} taken from the queue, unless it got cancelled in the meantime.
+   *
+   * @param scheduledTask the task
+   */
+  public void runScheduledTask(ScheduledTask scheduledTask) {
+    if (scheduledTask.isCancelled()) {
+      return;
+    }
+    ITask currentTask = scheduledTask.getTask();
+    currentTime = scheduledTask.getScheduledTime();
+
+    // Remove the task from the mapping of all tasks
+    taskMap.remove(currentTask.getTaskID(), scheduledTask);
+    // Execute
+    currentTask.run();
+
+    //notifyObservers(scheduledTask);
+  }
+
+  /**
+   * Remove task from the mapping of all tasks and from the execution queue. With the
+   * {@link CancellationPolicy#LAZY} policy the task is only flagged as cancelled and is dropped
+   * once it reaches the head of the queue or the queue gets compacted.
    * @param task the task to be removed
    */
   public void removeTask(ITask task) {
-    if (taskMap.containsKey(task.getTaskID())) {
-      ScheduledTask scheduledTask = taskMap.get(task.getTaskID());
+    ScheduledTask scheduledTask = taskMap.remove(task.getTaskID());
+    if (scheduledTask == null) {
+      return;
+    }
+
+    scheduledTask.cancel();
+    if (scheduledTask.isPolled()) {
+      // Already taken from the queue, it is skipped when its turn comes
+      return;
+    }
+
+    if (cancellationPolicy == CancellationPolicy.EAGER) {
       taskQueue.remove(scheduledTask);
-      taskMap.remove(task.getTaskID(), scheduledTask);
+      return;
+    }
+
+    tombstoneCount++;
+    if (tombstoneCount > compactionThreshold * taskQueue.size()) {
+      compact();
     }
   }
 
@@ -133,13 +264,51 @@ public class Timer implements IExecutionSubject {
    * @return the task from the queue or null if task queue is empty.
    */
   public ITask getTask() {
+    ScheduledTask currentTask = pollCancelled();
+    return currentTask == null ? null : currentTask.getTask();
+  }
+
+  /**
+   * Get the {@link ScheduledTask} from the execution queue to be executed next.
+   *
+   * @return the scheduled task or null if task queue is empty.
+   */
+  public ScheduledTask getScheduledTask() {
+    return pollCancelled();
+  }
+
+  /**
+   * Gets the pending {@link ScheduledTask} of the provided task.
+   *
+   * @param task the task
+   * @return the scheduled task or null if the task is not pending
+   */
+  protected ScheduledTask getScheduledTask(ITask task) {
+    ScheduledTask scheduledTask = taskMap.get(task.getTaskID());
+    return scheduledTask != null && scheduledTask.getTask() == task ? scheduledTask : null;
+  }
 
-    if (taskQueue.size() > 0) {
-      ScheduledTask currentTask = taskQueue.peek();
-      return currentTask.getTask();
-    } else {
-      return null;
+  /**
+   * Drops cancelled tasks from the head of the queue.
+   *
+   * @return the first task that is not cancelled or null if the queue is empty
+   */
+  private ScheduledTask pollCancelled() {
+    ScheduledTask head = taskQueue.peek();
+    while (head != null && head.isCancelled()) {
+      taskQueue.poll();
+      tombstoneCount--;
+      head = taskQueue.peek();
     }
+    return head;
+  }
+
+  /**
+   * Removes all tombstones from the queue.
+   */
+  private void compact() {
+    tombstoneCount -= taskQueue.removeCancelled();
+    compactionCount++;
   }
 
   /**
@@ -148,20 +317,44 @@ public class Timer implements IExecutionSubject {
    * @param task the task
    */
   public void putTask(ITask task) {
-    ScheduledTask scheduledTask = new ScheduledTask(task, currentTime + task.getDuration());
-    taskMap.put(task.getTaskID(), scheduledTask);
-    taskQueue.add(scheduledTask);
+    putTaskAbsoluteTime(task, currentTime + task.getDuration());
   }
 
   /**
-   * Schedule task to be executed at the provided absolute timestamp.
+   * Schedule task to be executed at the provided absolute timestamp. The task is issued the next
+   * task id.
    *
    * @param task the task
    * @param time the time in milliseconds
    */
   public void putTaskAbsoluteTime(ITask task, long time) {
-    ScheduledTask scheduledTask = new ScheduledTask(task, time);
-    taskMap.put(task.getTaskID(), scheduledTask);
+    schedule(task, time, nextTaskID++);
+  }
+
+  /**
+   * Schedule task to be executed at the current time incremented by the task duration, using the
+   * provided sequence number instead of issuing one. Entities scheduling tasks on their own, such
+   * as nodes, use this to keep the order of concurrent tasks independent of other entities.
+   *
+   * @param task     the task
+   * @param sequence the sequence number, unique among all scheduled tasks
+   */
+  public void putTask(ITask task, long sequence) {
+    schedule(task, currentTime + task.getDuration(), sequence);
+  }
+
+  /**
+   * Registers the task and adds it to the queue.
+   *
+   * @param task     the task
+   * @param time     the time in milliseconds
+   * @param sequence the sequence number
+   */
+  protected void schedule(ITask task, long time, long sequence) {
+    // The task id doubles as the sequence number ordering concurrent tasks
+    task.setTaskID(sequence);
+    ScheduledTask scheduledTask = new ScheduledTask(task, time, sequence);
+    taskMap.put(sequence, scheduledTask);
     taskQueue.add(scheduledTask);
   }
 
@@ -173,4 +366,13 @@ public class Timer implements IExecutionSubject {
   public long getCurrentTime() {
     return currentTime;
   }
+
+  /**
+   * Gets the share of the queued tasks that are cancelled.
+   *
+   * @return the tombstone ratio between 0 and 1
+   */
+  public double getTombstoneRatio() {
+    return taskQueue.isEmpty() ? 0 : (double) tombstoneCount / taskQueue.size();
+  }
 }
@@ -0,0 +1,26 @@
+package simblock.simulator.interfaces;
+
+import java.util.function.Predicate;
+import simblock.task.AbstractMintingTask;
+
+/**
+ * Executes the scheduled simulation tasks. Every engine executes the tasks in the order of their
+ * scheduled time and sequence number, so all engines produce the same results.
+ */
+public interface IExecutionEngine {
+
+  /**
+   * Runs the scheduled tasks until there is none left or the simulation gets stopped.
+   *
+   * @param beforeMinting called with every minting task before it is run, in execution order.
+   *                      Returning false stops the simulation without running the task.
+   */
+  void run(Predicate<AbstractMintingTask> beforeMinting);
+
+  /**
+   * Gets the time of the last task that has been run.
+   *
+   * @return the time in milliseconds
+   */
+  long getCurrentTime();
+}
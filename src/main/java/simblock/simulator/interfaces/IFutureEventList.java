@@ -0,0 +1,65 @@
+package simblock.simulator.interfaces;
+
+import java.util.List;
+import simblock.task.ScheduledTask;
+
+/**
+ * The Future Event List (FEL) backing the {@link simblock.simulator.Timer}. Implementations keep
+ * the pending {@link ScheduledTask} instances ordered by {@link ScheduledTask#compareTo}.
+ */
+public interface IFutureEventList {
+
+  /**
+   * Adds a scheduled task to the list.
+   *
+   * @param task the scheduled task
+   */
+  void add(ScheduledTask task);
+
+  /**
+   * Gets the task to be executed next without removing it.
+   *
+   * @return the next task or null if the list is empty
+   */
+  ScheduledTask peek();
+
+  /**
+   * Removes and returns the task to be executed next.
+   *
+   * @return the next task or null if the list is empty
+   */
+  ScheduledTask poll();
+
+  /**
+   * Removes the provided task from the list.
+   *
+   * @param task the task to be removed
+   * @return true if the task was pending and has been removed
+   */
+  boolean remove(ScheduledTask task);
+
+  /**
+   * Removes all tasks flagged as cancelled from the list.
+   *
+   * @return the number of removed tasks
+   */
+  int removeCancelled();
+
+  /**
+   * Gets the number of pending tasks.
+   *
+   * @return the number of pending tasks
+   */
+  int size();
+
+  /**
+   * Returns a snapshot of all pending tasks, in no particular order.
+   *
+   * @return a new list holding the pending tasks
+   */
+  List<ScheduledTask> toList();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+}
@@ -0,0 +1,8 @@
+package simblock.simulator.network;
+
+/**
+ * The bandwidth models a simulation can use.
+ */
+public enum BandwidthModelType {
+  REGION_2015, REGION_2019;
+}
@@ -0,0 +1,95 @@
+package simblock.simulator.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import simblock.utils.LatencySampleParser;
+
+/**
+ * Latencies drawn from measured samples, per pair of regions. A latency is one of the samples of
+ * the pair, picked uniformly, which is inverse transform sampling of the empirical distribution.
+ * Pairs without samples use the samples of the reverse pair. Node indexes are ignored.
+ */
+public class EmpiricalLatencyModel implements ILatencyModel {
+
+  private final int regionCount;
+
+  /**
+   * The sorted samples of every pair, by from * regionCount + to.
+   */
+  private final long[][] samples;
+
+  /**
+   * Instantiates a new empirical latency model.
+   *
+   * @param regionCount  the number of regions
+   * @param measurements the measured latencies as arrays {from, to, latency}
+   * @throws IllegalArgumentException if a pair of regions has no samples in any direction
+   */
+  public EmpiricalLatencyModel(int regionCount, List<long[]> measurements) {
+    this.regionCount = regionCount;
+    this.samples = new long[regionCount * regionCount][];
+
+    int[] counts = new int[samples.length];
+    for (long[] measurement : measurements) {
+      counts[pair(measurement)]++;
+    }
+    for (int pair = 0; pair < samples.length; pair++) {
+      samples[pair] = new long[counts[pair]];
+    }
+    int[] positions = new int[samples.length];
+    for (long[] measurement : measurements) {
+      int pair = pair(measurement);
+      samples[pair][positions[pair]++] = measurement[2];
+    }
+
+    for (int from = 0; from < regionCount; from++) {
+      for (int to = 0; to < regionCount; to++) {
+        int pair = from * regionCount + to;
+        if (samples[pair].length == 0) {
+          samples[pair] = samples[to * regionCount + from];
+        }
+        if (samples[pair].length == 0) {
+          throw new IllegalArgumentException("No latency samples between regions " + from + " and " + to);
+        }
+        Arrays.sort(samples[pair]);
+      }
+    }
+  }
+
+  /**
+   * Loads an empirical latency model from a CSV file, see {@link LatencySampleParser}.
+   *
+   * @param file        the file
+   * @param regionCount the number of regions
+   * @return the latency model
+   * @throws IOException if the file cannot be read
+   */
+  public static EmpiricalLatencyModel load(Path file, int regionCount) throws IOException {
+    try (InputStream is = Files.newInputStream(file)) {
+      return new EmpiricalLatencyModel(regionCount, new LatencySampleParser().parse(is));
+    }
+  }
+
+  private int pair(long[] measurement) {
+    if (measurement[0] < 0 || measurement[0] >= regionCount || measurement[1] < 0 || measurement[1] >= regionCount) {
+      throw new IllegalArgumentException("Unknown region in " + Arrays.toString(measurement));
+    }
+    return (int) measurement[0] * regionCount + (int) measurement[1];
+  }
+
+  @Override
+  public long getLatency(int from, int fromRegion, int to, int toRegion, Random random) {
+    long[] pairSamples = samples[fromRegion * regionCount + toRegion];
+    return pairSamples[(int) (random.nextDouble() * pairSamples.length)];
+  }
+
+  @Override
+  public long getMinimumLatency(int fromRegion, int toRegion) {
+    return samples[fromRegion * regionCount + toRegion][0];
+  }
+}
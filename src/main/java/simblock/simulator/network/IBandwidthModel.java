@@ -0,0 +1,39 @@
+package simblock.simulator.network;
+
+/**
+ * Bandwidth of the links between nodes, identified as by {@link ILatencyModel}.
+ */
+public interface IBandwidthModel {
+
+  /**
+   * Gets the upload bandwidth of a node.
+   *
+   * @param node   the index of the node
+   * @param region the region of the node
+   * @return the bandwidth in bits per second
+   */
+  long getUploadBandwidth(int node, int region);
+
+  /**
+   * Gets the download bandwidth of a node.
+   *
+   * @param node   the index of the node
+   * @param region the region of the node
+   * @return the bandwidth in bits per second
+   */
+  long getDownloadBandwidth(int node, int region);
+
+  /**
+   * Gets the bandwidth of a transfer, the minimum between the upload bandwidth of the sender and
+   * the download bandwidth of the receiver.
+   *
+   * @param from       the index of the sending node
+   * @param fromRegion the region of the sending node
+   * @param to         the index of the receiving node
+   * @param toRegion   the region of the receiving node
+   * @return the bandwidth in bits per second
+   */
+  default long getBandwidth(int from, int fromRegion, int to, int toRegion) {
+    return Math.min(getUploadBandwidth(from, fromRegion), getDownloadBandwidth(to, toRegion));
+  }
+}
@@ -0,0 +1,51 @@
+package simblock.simulator.network;
+
+import java.util.Random;
+
+/**
+ * Latencies of the messages sent between nodes. Nodes are identified both by their index among
+ * the simulated nodes and by their region, models keyed by region ignore the node indexes and
+ * models keyed by node ignore the regions. A node index of -1 stands for a node which is not
+ * simulated, only models keyed by region support it.
+ */
+public interface ILatencyModel {
+
+  /**
+   * Draws the latency of a message.
+   *
+   * @param from       the index of the sending node
+   * @param fromRegion the region of the sending node
+   * @param to         the index of the receiving node
+   * @param toRegion   the region of the receiving node
+   * @param random     the random instance
+   * @return the latency in milliseconds
+   */
+  long getLatency(int from, int fromRegion, int to, int toRegion, Random random);
+
+  /**
+   * Draws the latencies of messages sent by a node to several nodes, in order, as consecutive
+   * calls to {@link #getLatency} would.
+   *
+   * @param from       the index of the sending node
+   * @param fromRegion the region of the sending node
+   * @param to         the indexes of the receiving nodes
+   * @param toRegions  the regions of the receiving nodes
+   * @param random     the random instance
+   * @param latencies  the array the latencies in milliseconds are written to
+   */
+  default void getLatencies(int from, int fromRegion, int[] to, int[] toRegions, Random random, long[] latencies) {
+    for (int i = 0; i < to.length; i++) {
+      latencies[i] = getLatency(from, fromRegion, to[i], toRegions[i], random);
+    }
+  }
+
+  /**
+   * Gets a lower bound of the latencies between two regions, used as lookahead by the parallel
+   * engines.
+   *
+   * @param fromRegion the region sending
+   * @param toRegion   the region receiving
+   * @return the minimum latency in milliseconds
+   */
+  long getMinimumLatency(int fromRegion, int toRegion);
+}
@@ -0,0 +1,23 @@
+package simblock.simulator.network;
+
+/**
+ * The latency models a simulation can use.
+ */
+public enum LatencyModelType {
+  /**
+   * Pareto distributed latencies between regions, with the 2015 mean latencies.
+   */
+  REGION_2015,
+  /**
+   * Pareto distributed latencies between regions, with the 2019 mean latencies.
+   */
+  REGION_2019,
+  /**
+   * Latencies drawn from measured samples per pair of regions, see {@link EmpiricalLatencyModel}.
+   */
+  EMPIRICAL,
+  /**
+   * Fixed latencies per pair of nodes read from a matrix file, see {@link MatrixLatencyModel}.
+   */
+  MATRIX;
+}
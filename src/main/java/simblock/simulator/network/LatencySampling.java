@@ -0,0 +1,16 @@
+package simblock.simulator.network;
+
+/**
+ * How latencies are drawn from their Pareto distributions.
+ */
+public enum LatencySampling {
+  /**
+   * Inverts the cumulative distribution function for every latency.
+   */
+  EXACT,
+  /**
+   * Interpolates the inverse cumulative distribution function in a precomputed table, only the
+   * heavy tail is inverted exactly.
+   */
+  TABLE;
+}
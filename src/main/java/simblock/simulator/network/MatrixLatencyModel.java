@@ -0,0 +1,127 @@
+package simblock.simulator.network;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Fixed latencies per pair of nodes, read from a square matrix file memory mapped rather than
+ * loaded onto the heap. The file holds the latency in milliseconds from node i to node j as a
+ * little endian 32 bit integer at position i * n + j, nodes being identified by their index among
+ * the simulated nodes. Files above 2 GB are mapped in several segments of whole rows.
+ *
+ * <p>Latencies are not random, the random instance is not used.
+ */
+public class MatrixLatencyModel implements ILatencyModel {
+
+  /**
+   * Maximum size of a mapped segment.
+   */
+  private static final long SEGMENT_BYTES = 1L << 30;
+
+  private final int nodeCount;
+  private final int rowsPerSegment;
+  private final MappedByteBuffer[] segments;
+
+  /**
+   * The smallest latency between distinct nodes, or -1 until the matrix was scanned for it.
+   */
+  private volatile long minimumLatency = -1;
+
+  /**
+   * Maps a latency matrix file.
+   *
+   * @param file the file
+   * @throws IOException if the file cannot be mapped
+   * @throws IllegalArgumentException if the file does not hold a square matrix
+   */
+  public MatrixLatencyModel(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long entries = channel.size() / Integer.BYTES;
+      this.nodeCount = (int) Math.round(Math.sqrt(entries));
+      if ((long) nodeCount * nodeCount * Integer.BYTES != channel.size()) {
+        throw new IllegalArgumentException(file + " does not hold a square matrix of 32 bit latencies");
+      }
+
+      long rowBytes = (long) nodeCount * Integer.BYTES;
+      this.rowsPerSegment = (int) Math.max(1, SEGMENT_BYTES / Math.max(1, rowBytes));
+      int segmentCount = (nodeCount + rowsPerSegment - 1) / rowsPerSegment;
+      this.segments = new MappedByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long start = i * rowsPerSegment * rowBytes;
+        long size = Math.min(rowsPerSegment * rowBytes, channel.size() - start);
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        segments[i].order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+  }
+
+  /**
+   * Writes a latency matrix file readable by this model.
+   *
+   * @param file      the file
+   * @param latencies the square matrix of latencies in milliseconds
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Path file, int[][] latencies) throws IOException {
+    try (OutputStream os = Files.newOutputStream(file);
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+      for (int[] row : latencies) {
+        if (row.length != latencies.length) {
+          throw new IllegalArgumentException("The latency matrix is not square");
+        }
+        for (int latency : row) {
+          out.writeInt(Integer.reverseBytes(latency));
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the number of nodes of the matrix.
+   *
+   * @return the number of nodes
+   */
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  @Override
+  public long getLatency(int from, int fromRegion, int to, int toRegion, Random random) {
+    if (from < 0 || from >= nodeCount || to < 0 || to >= nodeCount) {
+      throw new IllegalArgumentException(
+          "No latency between nodes " + from + " and " + to + " in a matrix of " + nodeCount + " nodes");
+    }
+    int row = from % rowsPerSegment;
+    return segments[from / rowsPerSegment].getInt(((row * nodeCount) + to) * Integer.BYTES);
+  }
+
+  /**
+   * Gets the smallest latency between any two distinct nodes, regions are not known to the
+   * matrix. The matrix is scanned once on the first call.
+   */
+  @Override
+  public long getMinimumLatency(int fromRegion, int toRegion) {
+    long minimum = minimumLatency;
+    if (minimum < 0) {
+      minimum = Long.MAX_VALUE;
+      for (int from = 0; from < nodeCount; from++) {
+        for (int to = 0; to < nodeCount; to++) {
+          if (from != to) {
+            minimum = Math.min(minimum, getLatency(from, -1, to, -1, null));
+          }
+        }
+      }
+      minimumLatency = minimum;
+    }
+    return minimum;
+  }
+}
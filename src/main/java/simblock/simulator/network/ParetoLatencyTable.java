@@ -0,0 +1,171 @@
+package simblock.simulator.network;
+
+import java.util.Random;
+
+/**
+ * Pareto distributed latencies between regions, with the distribution parameters of every pair of
+ * regions computed once. The latency from a region to another with a mean latency m follows a
+ * Pareto distribution of scale m - 5 and shape 0.2 m, and is drawn by inverse transform sampling:
+ * scale / u^(1 / shape) for a uniform u.
+ *
+ * <p>With {@link LatencySampling#TABLE} the inverse is read from a table of
+ * {@link #TABLE_RESOLUTION} points per pair and linearly interpolated, avoiding the {@code pow}
+ * call. The inverse is steep near zero, the heavy tail of the distribution, so uniform values in
+ * the first {@link #EXACT_TAIL_INTERVALS} intervals are still inverted exactly, keeping the
+ * interpolation error well below a millisecond. Both modes consume a single random number per
+ * latency.
+ *
+ * <p>Latencies only depend on the regions, the node indexes are ignored.
+ */
+public final class ParetoLatencyTable implements ILatencyModel {
+
+  /**
+   * Number of intervals the inverse cumulative distribution function of a pair is split into.
+   */
+  public static final int TABLE_RESOLUTION = 1024;
+
+  /**
+   * Number of the first intervals, the tail of the distribution, inverted exactly.
+   */
+  public static final int EXACT_TAIL_INTERVALS = 16;
+
+  private final int regionCount;
+  private final LatencySampling sampling;
+
+  /**
+   * The scale and the inverse shape of the distribution of every pair, by from * regionCount + to.
+   */
+  private final double[] scales;
+  private final double[] inverseShapes;
+
+  /**
+   * The latencies at the uniform values k / TABLE_RESOLUTION for k in 1..TABLE_RESOLUTION, by
+   * pair, only set when sampling from the table.
+   */
+  private final double[] quantiles;
+
+  /**
+   * Instantiates a new latency table.
+   *
+   * @param meanLatencies the mean latency in milliseconds from each region to each region
+   * @param sampling      how the latencies are drawn
+   */
+  public ParetoLatencyTable(long[][] meanLatencies, LatencySampling sampling) {
+    this.regionCount = meanLatencies.length;
+    this.sampling = sampling;
+    this.scales = new double[regionCount * regionCount];
+    this.inverseShapes = new double[regionCount * regionCount];
+
+    for (int from = 0; from < regionCount; from++) {
+      for (int to = 0; to < regionCount; to++) {
+        long mean = meanLatencies[from][to];
+        scales[from * regionCount + to] = mean - 5;
+        inverseShapes[from * regionCount + to] = 1.0 / (0.2 * mean);
+      }
+    }
+
+    if (sampling == LatencySampling.TABLE) {
+      this.quantiles = new double[scales.length * TABLE_RESOLUTION];
+      for (int pair = 0; pair < scales.length; pair++) {
+        for (int k = 1; k <= TABLE_RESOLUTION; k++) {
+          double uniform = (double) k / TABLE_RESOLUTION;
+          quantiles[pair * TABLE_RESOLUTION + k - 1] = scales[pair] / Math.pow(uniform, inverseShapes[pair]);
+        }
+      }
+    } else {
+      this.quantiles = null;
+    }
+  }
+
+  /**
+   * Gets the number of regions.
+   *
+   * @return the number of regions
+   */
+  public int getRegionCount() {
+    return regionCount;
+  }
+
+  /**
+   * Gets how the latencies are drawn.
+   *
+   * @return the latency sampling
+   */
+  public LatencySampling getSampling() {
+    return sampling;
+  }
+
+  /**
+   * Gets the lower bound of the latencies between the regions, the scale of their distribution.
+   *
+   * @param from the region sending
+   * @param to   the region receiving
+   * @return the minimum latency
+   */
+  public double getScale(int from, int to) {
+    return scales[from * regionCount + to];
+  }
+
+  /**
+   * Draws a latency between the regions.
+   *
+   * @param from   the region sending
+   * @param to     the region receiving
+   * @param random the random instance
+   * @return the latency in milliseconds
+   */
+  public long sample(int from, int to, Random random) {
+    return sample(from * regionCount + to, random.nextDouble());
+  }
+
+  /**
+   * Draws the latencies from a region to several regions, in order, as when a node sends a
+   * message to all its neighbors. The random instance is used exactly as by consecutive calls to
+   * {@link #sample(int, int, Random)}.
+   *
+   * @param from      the region sending
+   * @param to        the regions receiving
+   * @param random    the random instance
+   * @param latencies the array the latencies in milliseconds are written to, at least as long as
+   *                  the receiving regions
+   */
+  public void sample(int from, int[] to, Random random, long[] latencies) {
+    int offset = from * regionCount;
+    for (int i = 0; i < to.length; i++) {
+      latencies[i] = sample(offset + to[i], random.nextDouble());
+    }
+  }
+
+  @Override
+  public long getLatency(int from, int fromRegion, int to, int toRegion, Random random) {
+    return sample(fromRegion, toRegion, random);
+  }
+
+  @Override
+  public void getLatencies(int from, int fromRegion, int[] to, int[] toRegions, Random random, long[] latencies) {
+    sample(fromRegion, toRegions, random, latencies);
+  }
+
+  @Override
+  public long getMinimumLatency(int fromRegion, int toRegion) {
+    return (long) getScale(fromRegion, toRegion);
+  }
+
+  private long sample(int pair, double uniform) {
+    if (quantiles == null) {
+      return Math.round(scales[pair] / Math.pow(uniform, inverseShapes[pair]));
+    }
+
+    double position = uniform * TABLE_RESOLUTION;
+    int k = (int) position;
+    if (k < EXACT_TAIL_INTERVALS) {
+      // The tail is unbounded, it cannot be interpolated
+      return Math.round(scales[pair] / Math.pow(uniform, inverseShapes[pair]));
+    }
+    int index = pair * TABLE_RESOLUTION + k - 1;
+    double fraction = position - k;
+    double lower = quantiles[index];
+    double upper = k < TABLE_RESOLUTION ? quantiles[index + 1] : lower;
+    return Math.round(lower + (upper - lower) * fraction);
+  }
+}
@@ -0,0 +1,32 @@
+package simblock.simulator.network;
+
+/**
+ * Bandwidths given per region, such as the tables of
+ * {@link simblock.settings.NetworkConfiguration}.
+ */
+public class RegionBandwidthModel implements IBandwidthModel {
+
+  private final long[] uploadBandwidth;
+  private final long[] downloadBandwidth;
+
+  /**
+   * Instantiates a new region bandwidth model.
+   *
+   * @param uploadBandwidth   the upload bandwidth of every region in bits per second
+   * @param downloadBandwidth the download bandwidth of every region in bits per second
+   */
+  public RegionBandwidthModel(long[] uploadBandwidth, long[] downloadBandwidth) {
+    this.uploadBandwidth = uploadBandwidth;
+    this.downloadBandwidth = downloadBandwidth;
+  }
+
+  @Override
+  public long getUploadBandwidth(int node, int region) {
+    return uploadBandwidth[region];
+  }
+
+  @Override
+  public long getDownloadBandwidth(int node, int region) {
+    return downloadBandwidth[region];
+  }
+}
@@ -0,0 +1,32 @@
+package simblock.simulator.parallel;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import simblock.task.BlockMessageTask;
+import simblock.task.interfaces.ITask;
+
+/**
+ * The part of a {@link BlockMessageTask} run by the receiving node, when the sender and the
+ * receiver belong to different partitions.
+ */
+@RequiredArgsConstructor
+class BlockDeliveryTask implements ITask {
+
+  @Getter
+  private final BlockMessageTask message;
+
+  @Getter
+  @Setter
+  private long taskID;
+
+  @Override
+  public long getDuration() {
+    return message.getDuration();
+  }
+
+  @Override
+  public void run() {
+    message.deliver();
+  }
+}
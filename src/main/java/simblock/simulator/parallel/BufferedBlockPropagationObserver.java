@@ -0,0 +1,100 @@
+package simblock.simulator.parallel;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import observable.PropagationStatistics;
+import observable.interfaces.IBlockPropagationObserver;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+
+/**
+ * Buffers the updates of the nodes of a partition for an observer shared by all partitions, so
+ * the engine can replay them in the order of the sequential execution once they are committed.
+ */
+@AllArgsConstructor
+class BufferedBlockPropagationObserver implements IBlockPropagationObserver {
+
+  private final PartitionTimer timer;
+
+  @Getter
+  private final IBlockPropagationObserver target;
+
+  private final List<Update> updates;
+
+  @Override
+  public void update(Block block, AbstractNode node, long currentTime) {
+    updates.add(new Update(timer.getCurrentTime(), timer.getCurrentSequence(), target, block, node,
+        currentTime));
+  }
+
+  @Override
+  public void printAllPropagation() {
+    target.printAllPropagation();
+  }
+
+  @Override
+  public void flushBlockSightings() {
+    target.flushBlockSightings();
+  }
+
+  @Override
+  public PropagationStatistics getPropagationStatistics() {
+    return target.getPropagationStatistics();
+  }
+
+  /**
+   * Replays the buffered updates of all partitions ordered before the provided key, merged in key
+   * order, and drops them from the buffers.
+   *
+   * @param partitions the partitions
+   * @param time       the time of the bound
+   * @param sequence   the sequence number of the bound
+   */
+  static void replay(PartitionTimer[] partitions, long time, long sequence) {
+    int[] positions = new int[partitions.length];
+    while (true) {
+      Update first = null;
+      int firstPartition = -1;
+      for (int i = 0; i < partitions.length; i++) {
+        List<Update> updates = partitions[i].getUpdates();
+        if (positions[i] == updates.size()) {
+          continue;
+        }
+        Update update = updates.get(positions[i]);
+        if (NodePartitioning.compare(update.time, update.sequence, time, sequence) < 0
+            && (first == null
+                || NodePartitioning.compare(update.time, update.sequence, first.time, first.sequence) < 0)) {
+          first = update;
+          firstPartition = i;
+        }
+      }
+      if (first == null) {
+        break;
+      }
+      first.replay();
+      positions[firstPartition]++;
+    }
+
+    for (int i = 0; i < partitions.length; i++) {
+      partitions[i].getUpdates().subList(0, positions[i]).clear();
+    }
+  }
+
+  /**
+   * A buffered observer update, keyed by the task that made it.
+   */
+  @AllArgsConstructor
+  static final class Update {
+    final long time;
+    final long sequence;
+    private final IBlockPropagationObserver target;
+    private final Block block;
+    private final AbstractNode node;
+    private final long currentTime;
+
+    void replay() {
+      target.update(block, node, currentTime);
+    }
+  }
+}
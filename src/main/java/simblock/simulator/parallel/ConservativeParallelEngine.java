@@ -0,0 +1,201 @@
+package simblock.simulator.parallel;
+
+import helpers.SimulationSettings;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import lombok.SneakyThrows;
+import simblock.node.AbstractNode;
+import simblock.simulator.Network;
+import simblock.simulator.Timer;
+import simblock.simulator.interfaces.IExecutionEngine;
+import simblock.task.AbstractMintingTask;
+import simblock.task.ScheduledTask;
+
+/**
+ * Conservative parallel discrete event execution, see K. M. Chandy and J. Misra, "Distributed
+ * simulation: a case study in design and verification of distributed programs", IEEE TSE 5(5),
+ * 1979.
+ *
+ * <p>The nodes are partitioned by region, and every partition runs its tasks from its own
+ * {@link ConservativePartitionTimer}. Any message between two partitions takes at least the
+ * lookahead, the smallest latency between regions of different partitions, so the partitions can
+ * safely run all tasks scheduled before the earliest pending task plus the lookahead in parallel.
+ * Minting tasks are run one at a time, in between the windows, since they are global: they draw
+ * block ids and decide when the simulation ends.
+ *
+ * <p>Tasks are keyed by their time and sequence number and nodes only touch their own state, so
+ * every node runs its tasks in the same order as the sequential engine. Observer updates are
+ * buffered and replayed in key order once committed, and partitions ahead of a stopping minting
+ * task undo their chain state changes, so the results are the same as the sequential ones.
+ */
+public class ConservativeParallelEngine implements IExecutionEngine {
+
+  private final Timer timer;
+  private final NodePartitioning partitioning;
+  private final ConservativePartitionTimer[] partitions;
+
+  /**
+   * Instantiates a new engine and moves the nodes to the partition timers. The tasks must not be
+   * scheduled on the provided timer yet.
+   *
+   * @param settings the simulation settings
+   * @param timer    the simulation timer, set back on the nodes once the simulation ended
+   * @param nodes    the simulated nodes
+   * @param network  the network
+   */
+  public ConservativeParallelEngine(SimulationSettings settings, Timer timer,
+                                    List<AbstractNode> nodes, Network network) {
+    this.timer = timer;
+    this.partitioning = new NodePartitioning(nodes, network, settings.parallelism);
+    if (partitioning.getLookahead() < 1) {
+      throw new IllegalStateException(
+          "Partitions need a positive lookahead, got " + partitioning.getLookahead());
+    }
+
+    this.partitions = new ConservativePartitionTimer[partitioning.getPartitionCount()];
+    for (int i = 0; i < partitions.length; i++) {
+      partitions[i] = new ConservativePartitionTimer(i, settings.futureEventListType, partitioning);
+      partitions[i].setCancellationPolicy(settings.cancellationPolicy);
+      partitions[i].setCompactionThreshold(settings.compactionThreshold);
+    }
+
+    partitioning.attach(partitions);
+    for (AbstractNode node : nodes) {
+      node.setStateJournal(partitions[partitioning.getPartition(node)].getJournal());
+    }
+  }
+
+  @SneakyThrows
+  @Override
+  public void run(Predicate<AbstractMintingTask> beforeMinting) {
+    ExecutorService executor = Executors.newFixedThreadPool(partitions.length);
+    try {
+      deliverOutboxes();
+      while (true) {
+        ConservativePartitionTimer next = null;
+        ScheduledTask head = null;
+        for (ConservativePartitionTimer partition : partitions) {
+          ScheduledTask candidate = partition.getScheduledTask();
+          if (candidate != null && (head == null || candidate.compareTo(head) < 0)) {
+            head = candidate;
+            next = partition;
+          }
+        }
+
+        if (head == null) {
+          commit(Long.MAX_VALUE, Long.MAX_VALUE);
+          break;
+        }
+
+        // Nothing is scheduled before the earliest pending task anymore
+        commit(head.getScheduledTime(), head.getSequence());
+
+        if (head.getTask() instanceof AbstractMintingTask) {
+          if (!beforeMinting.test((AbstractMintingTask) head.getTask())) {
+            rollback();
+            break;
+          }
+          next.runTask();
+        } else {
+          runWindow(executor, saturatedAdd(head.getScheduledTime(), partitioning.getLookahead()));
+        }
+        deliverOutboxes();
+      }
+    } finally {
+      executor.shutdownNow();
+      timer.setCurrentTime(getCurrentTime());
+      partitioning.detach(timer);
+    }
+  }
+
+  @Override
+  public long getCurrentTime() {
+    long currentTime = 0L;
+    for (ConservativePartitionTimer partition : partitions) {
+      currentTime = Math.max(currentTime, partition.getJournal().getCommittedTime());
+    }
+    return currentTime;
+  }
+
+  /**
+   * Gets the number of partitions.
+   *
+   * @return the number of partitions
+   */
+  public int getPartitionCount() {
+    return partitions.length;
+  }
+
+  /**
+   * Gets the lookahead bounding the execution windows.
+   *
+   * @return the lookahead in milliseconds
+   */
+  public long getLookahead() {
+    return partitioning.getLookahead();
+  }
+
+  /**
+   * Runs the partitions holding tasks scheduled before the bound, in parallel if there are more
+   * than one.
+   */
+  @SneakyThrows
+  private void runWindow(ExecutorService executor, long bound) {
+    List<Callable<Void>> work = new ArrayList<>();
+    for (ConservativePartitionTimer partition : partitions) {
+      ScheduledTask head = partition.getScheduledTask();
+      if (head != null && head.getScheduledTime() < bound
+          && !(head.getTask() instanceof AbstractMintingTask)) {
+        work.add(() -> {
+          partition.runUntil(bound);
+          return null;
+        });
+      }
+    }
+
+    if (work.size() == 1) {
+      work.get(0).call();
+      return;
+    }
+    for (Future<Void> result : executor.invokeAll(work)) {
+      // Rethrows the failure of a partition
+      result.get();
+    }
+  }
+
+  private void deliverOutboxes() {
+    for (ConservativePartitionTimer partition : partitions) {
+      partition.deliverOutboxes(partitions);
+    }
+  }
+
+  /**
+   * Commits everything ordered before the provided key.
+   */
+  private void commit(long time, long sequence) {
+    BufferedBlockPropagationObserver.replay(partitions, time, sequence);
+    for (ConservativePartitionTimer partition : partitions) {
+      partition.getJournal().commit(time, sequence);
+    }
+  }
+
+  /**
+   * Drops everything the partitions ran ahead of the end of the simulation.
+   */
+  private void rollback() {
+    for (ConservativePartitionTimer partition : partitions) {
+      partition.getJournal().rollback();
+      partition.getUpdates().clear();
+    }
+  }
+
+  static long saturatedAdd(long time, long duration) {
+    long sum = time + duration;
+    return sum < time ? Long.MAX_VALUE : sum;
+  }
+}
@@ -0,0 +1,77 @@
+package simblock.simulator.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import simblock.simulator.FutureEventListType;
+import simblock.task.AbstractMintingTask;
+import simblock.task.ScheduledTask;
+
+/**
+ * The timer of a partition of the {@link ConservativeParallelEngine}. Tasks sent to other
+ * partitions are put in an outbox, and are handed over by the engine between two execution
+ * windows.
+ */
+class ConservativePartitionTimer extends PartitionTimer {
+
+  /**
+   * The tasks scheduled for each other partition since the last hand over.
+   */
+  private final List<List<ScheduledTask>> outboxes;
+
+  @Getter
+  private final PartitionJournal journal = new PartitionJournal(this);
+
+  ConservativePartitionTimer(int index, FutureEventListType type, NodePartitioning partitioning) {
+    super(index, type, partitioning);
+    this.outboxes = new ArrayList<>(partitioning.getPartitionCount());
+    for (int i = 0; i < partitioning.getPartitionCount(); i++) {
+      outboxes.add(new ArrayList<>());
+    }
+  }
+
+  @Override
+  public void runScheduledTask(ScheduledTask scheduledTask) {
+    if (scheduledTask.isCancelled()) {
+      return;
+    }
+    setCurrent(scheduledTask.getScheduledTime(), scheduledTask.getSequence());
+    journal.taskStarted();
+    super.runScheduledTask(scheduledTask);
+  }
+
+  /**
+   * Runs the tasks scheduled before the provided time, stopping at the first minting task as
+   * minting tasks are run by the engine one at a time.
+   *
+   * @param bound the time in milliseconds
+   */
+  void runUntil(long bound) {
+    ScheduledTask head = getScheduledTask();
+    while (head != null && head.getScheduledTime() < bound
+        && !(head.getTask() instanceof AbstractMintingTask)) {
+      runTask();
+      head = getScheduledTask();
+    }
+  }
+
+  /**
+   * Hands the tasks in the outboxes over to their partitions.
+   *
+   * @param partitions all partitions, indexed by partition index
+   */
+  void deliverOutboxes(ConservativePartitionTimer[] partitions) {
+    for (int i = 0; i < outboxes.size(); i++) {
+      for (ScheduledTask scheduledTask : outboxes.get(i)) {
+        partitions[i].scheduleLocal(scheduledTask.getTask(), scheduledTask.getScheduledTime(),
+            scheduledTask.getSequence());
+      }
+      outboxes.get(i).clear();
+    }
+  }
+
+  @Override
+  protected void send(int partition, ScheduledTask scheduledTask) {
+    outboxes.get(partition).add(scheduledTask);
+  }
+}
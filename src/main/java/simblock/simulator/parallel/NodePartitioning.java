@@ -0,0 +1,185 @@
+package simblock.simulator.parallel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import lombok.Getter;
+import observable.interfaces.IBlockPropagationObserver;
+import simblock.node.AbstractNode;
+import simblock.simulator.Network;
+import simblock.simulator.Timer;
+import simblock.task.AbstractMessageTask;
+import simblock.task.AbstractMintingTask;
+import simblock.task.interfaces.ITask;
+
+/**
+ * Assigns the simulated nodes to partitions by region, balancing the number of nodes, and moves
+ * the nodes to the timers of their partitions.
+ */
+class NodePartitioning {
+
+  private final List<AbstractNode> nodes;
+
+  /**
+   * The partition index of every node, indexed by node index.
+   */
+  private final int[] partitionOfNode;
+
+  @Getter
+  private final int partitionCount;
+
+  /**
+   * The minimum duration of a message between two partitions in milliseconds.
+   */
+  @Getter
+  private final long lookahead;
+
+  NodePartitioning(List<AbstractNode> nodes, Network network, int parallelism) {
+    this.nodes = nodes;
+
+    int[] partitionOfRegion = partitionRegions(nodes, network.getRegionList().size(), parallelism);
+    this.partitionCount = Arrays.stream(partitionOfRegion).max().orElse(0) + 1;
+    this.lookahead = computeLookahead(partitionOfRegion, network);
+
+    this.partitionOfNode = new int[nodes.size()];
+    for (AbstractNode node : nodes) {
+      partitionOfNode[node.getNodeIndex()] = partitionOfRegion[node.getRegion()];
+    }
+  }
+
+  /**
+   * Gets the partition of the node.
+   *
+   * @param node the node
+   * @return the partition index
+   */
+  int getPartition(AbstractNode node) {
+    return partitionOfNode[node.getNodeIndex()];
+  }
+
+  /**
+   * Gets the partition of the node running the task.
+   *
+   * @param task             the task
+   * @param defaultPartition the partition of tasks not run by a node
+   * @return the partition index
+   */
+  int getPartition(ITask task, int defaultPartition) {
+    if (task instanceof AbstractMessageTask) {
+      return getPartition(((AbstractMessageTask) task).getTo());
+    }
+    if (task instanceof AbstractMintingTask) {
+      return getPartition(((AbstractMintingTask) task).getMinter());
+    }
+    return defaultPartition;
+  }
+
+  /**
+   * Moves every node to the timer of its partition and buffers its observer updates.
+   *
+   * @param partitions the partition timers, indexed by partition index
+   */
+  void attach(PartitionTimer[] partitions) {
+    for (AbstractNode node : nodes) {
+      PartitionTimer partition = partitions[getPartition(node)];
+      setTimer(node, partition);
+
+      List<IBlockPropagationObserver> observers = node.getBlockObservers();
+      for (int i = 0; i < observers.size(); i++) {
+        observers.set(i,
+            new BufferedBlockPropagationObserver(partition, observers.get(i), partition.getUpdates()));
+      }
+    }
+  }
+
+  /**
+   * Moves the nodes back to the provided timer and unwraps their observers.
+   *
+   * @param timer the simulation timer
+   */
+  void detach(Timer timer) {
+    for (AbstractNode node : nodes) {
+      setTimer(node, timer);
+      node.setStateJournal(null);
+
+      List<IBlockPropagationObserver> observers = node.getBlockObservers();
+      for (int i = 0; i < observers.size(); i++) {
+        if (observers.get(i) instanceof BufferedBlockPropagationObserver) {
+          observers.set(i, ((BufferedBlockPropagationObserver) observers.get(i)).getTarget());
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares two task keys, first by time and then by sequence number.
+   */
+  static int compare(long time, long sequence, long otherTime, long otherSequence) {
+    int order = Long.compare(time, otherTime);
+    return order != 0 ? order : Long.compare(sequence, otherSequence);
+  }
+
+  private static void setTimer(AbstractNode node, Timer timer) {
+    node.setTimer(timer);
+    node.getConsensusAlgo().setTimer(timer);
+    if (node.getVisualizerEventEmitter() != null) {
+      node.getVisualizerEventEmitter().setTimer(timer);
+    }
+  }
+
+  /**
+   * Assigns the regions to partitions, largest region first, each to the partition holding the
+   * fewest nodes so far.
+   *
+   * @return the partition index of every region, -1 for regions without nodes
+   */
+  private static int[] partitionRegions(List<AbstractNode> nodes, int regionCount,
+                                        int parallelism) {
+    int[] nodesPerRegion = new int[regionCount];
+    for (AbstractNode node : nodes) {
+      nodesPerRegion[node.getRegion()]++;
+    }
+
+    List<Integer> regions = new ArrayList<>();
+    for (int region = 0; region < regionCount; region++) {
+      if (nodesPerRegion[region] > 0) {
+        regions.add(region);
+      }
+    }
+    regions.sort(Comparator.comparingInt((Integer region) -> nodesPerRegion[region]).reversed()
+        .thenComparingInt(region -> region));
+
+    int partitionCount = Math.max(1, Math.min(parallelism, regions.size()));
+    int[] nodesPerPartition = new int[partitionCount];
+    int[] partitionOfRegion = new int[regionCount];
+    Arrays.fill(partitionOfRegion, -1);
+    for (int region : regions) {
+      int smallest = 0;
+      for (int i = 1; i < partitionCount; i++) {
+        if (nodesPerPartition[i] < nodesPerPartition[smallest]) {
+          smallest = i;
+        }
+      }
+      partitionOfRegion[region] = smallest;
+      nodesPerPartition[smallest] += nodesPerRegion[region];
+    }
+    return partitionOfRegion;
+  }
+
+  /**
+   * Gets the smallest latency between two regions assigned to different partitions.
+   */
+  private static long computeLookahead(int[] partitionOfRegion, Network network) {
+    long lookahead = Long.MAX_VALUE;
+    for (int from = 0; from < partitionOfRegion.length; from++) {
+      for (int to = 0; to < partitionOfRegion.length; to++) {
+        if (partitionOfRegion[from] >= 0 && partitionOfRegion[to] >= 0
+            && partitionOfRegion[from] != partitionOfRegion[to]) {
+          lookahead = Math.min(lookahead, network.getMinimumLatency(from, to));
+        }
+      }
+    }
+    return lookahead;
+  }
+}
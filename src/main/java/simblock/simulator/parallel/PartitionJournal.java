@@ -0,0 +1,99 @@
+package simblock.simulator.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+import simblock.node.INodeStateJournal;
+
+/**
+ * Records the tasks run by a partition and the chain state changes they made, keyed by the time
+ * and sequence number of the task. Records before the committed bound are dropped, the others can
+ * be undone in reverse order.
+ */
+class PartitionJournal implements INodeStateJournal {
+
+  private final PartitionTimer timer;
+  private final List<Entry> entries = new ArrayList<>();
+
+  /**
+   * The time of the latest committed task.
+   */
+  @Getter
+  private long committedTime = 0L;
+
+  PartitionJournal(PartitionTimer timer) {
+    this.timer = timer;
+  }
+
+  /**
+   * Records that the partition timer started running its current task.
+   */
+  void taskStarted() {
+    record(null);
+  }
+
+  @Override
+  public void blockChanged(AbstractNode node, Block previous) {
+    record(() -> node.restoreBlock(previous));
+  }
+
+  @Override
+  public void orphanAdded(AbstractNode node, Block orphan) {
+    record(() -> node.getOrphans().remove(orphan));
+  }
+
+  @Override
+  public void orphanRemoved(AbstractNode node, Block orphan) {
+    record(() -> node.getOrphans().add(orphan));
+  }
+
+  /**
+   * Drops the records of tasks ordered before the provided bound, they can no longer be undone.
+   *
+   * @param time     the time of the bound
+   * @param sequence the sequence number of the bound
+   */
+  void commit(long time, long sequence) {
+    int count = 0;
+    while (count < entries.size()
+        && NodePartitioning.compare(entries.get(count).time, entries.get(count).sequence,
+            time, sequence) < 0) {
+      Entry entry = entries.get(count);
+      if (entry.undo == null) {
+        committedTime = Math.max(committedTime, entry.time);
+      }
+      count++;
+    }
+    entries.subList(0, count).clear();
+  }
+
+  /**
+   * Undoes all changes that have not been committed, latest first.
+   */
+  void rollback() {
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      if (entries.get(i).undo != null) {
+        entries.get(i).undo.run();
+      }
+    }
+    entries.clear();
+  }
+
+  private void record(Runnable undo) {
+    entries.add(new Entry(timer.getCurrentTime(), timer.getCurrentSequence(), undo));
+  }
+
+  @AllArgsConstructor
+  private static final class Entry {
+    private final long time;
+    private final long sequence;
+
+    /**
+     * Restores the state before the change, null for task markers.
+     */
+    private final Runnable undo;
+  }
+}
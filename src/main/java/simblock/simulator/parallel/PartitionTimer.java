@@ -0,0 +1,108 @@
+package simblock.simulator.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import simblock.simulator.FutureEventListType;
+import simblock.simulator.Timer;
+import simblock.task.BlockMessageTask;
+import simblock.task.ScheduledTask;
+import simblock.task.interfaces.ITask;
+
+/**
+ * The timer of a partition of nodes run by a parallel engine. Tasks owned by nodes of other
+ * partitions are not added to the local queue but sent to their partition.
+ */
+abstract class PartitionTimer extends Timer {
+
+  @Getter
+  private final int index;
+
+  protected final NodePartitioning partitioning;
+
+  /**
+   * The sequence number of the task being run.
+   */
+  @Getter
+  private long currentSequence = 0L;
+
+  /**
+   * The observer updates made by the nodes of the partition that have not been committed yet.
+   */
+  @Getter
+  private final List<BufferedBlockPropagationObserver.Update> updates = new ArrayList<>();
+
+  PartitionTimer(int index, FutureEventListType type, NodePartitioning partitioning) {
+    super(type);
+    this.index = index;
+    this.partitioning = partitioning;
+  }
+
+  @Override
+  public void runScheduledTask(ScheduledTask scheduledTask) {
+    if (scheduledTask.isCancelled()) {
+      return;
+    }
+    setCurrentTime(scheduledTask.getScheduledTime());
+    currentSequence = scheduledTask.getSequence();
+    super.runScheduledTask(scheduledTask);
+  }
+
+  /**
+   * Sets the time and sequence number of the task considered to be run last.
+   *
+   * @param time     the time in milliseconds
+   * @param sequence the sequence number
+   */
+  protected void setCurrent(long time, long sequence) {
+    setCurrentTime(time);
+    currentSequence = sequence;
+  }
+
+  /**
+   * Routes the task to the partition of the node running it. A block message between two
+   * partitions is split, the sender completes its upload locally and the block is delivered to
+   * the receiver by the other partition, both at the same time and with the same sequence number.
+   */
+  @Override
+  protected void schedule(ITask task, long time, long sequence) {
+    if (task instanceof BlockMessageTask) {
+      BlockMessageTask message = (BlockMessageTask) task;
+      int sender = partitioning.getPartition(message.getFrom());
+      int receiver = partitioning.getPartition(message.getTo());
+      if (sender != receiver) {
+        route(new BlockUploadTask(message), time, sequence, sender);
+        route(new BlockDeliveryTask(message), time, sequence, receiver);
+        return;
+      }
+    }
+    route(task, time, sequence, partitioning.getPartition(task, index));
+  }
+
+  /**
+   * Adds the task to the local queue.
+   *
+   * @param task     the task
+   * @param time     the time in milliseconds
+   * @param sequence the sequence number
+   */
+  protected void scheduleLocal(ITask task, long time, long sequence) {
+    super.schedule(task, time, sequence);
+  }
+
+  /**
+   * Sends the task to another partition.
+   *
+   * @param partition     the partition index
+   * @param scheduledTask the task
+   */
+  protected abstract void send(int partition, ScheduledTask scheduledTask);
+
+  private void route(ITask task, long time, long sequence, int partition) {
+    if (partition == index) {
+      scheduleLocal(task, time, sequence);
+    } else {
+      send(partition, new ScheduledTask(task, time, sequence));
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package simblock.simulator.parallel;
+
+import helpers.SimulationSettings;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import lombok.SneakyThrows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import simblock.node.AbstractNode;
+import simblock.simulator.Network;
+import simblock.simulator.Timer;
+import simblock.simulator.interfaces.IExecutionEngine;
+import simblock.task.AbstractMintingTask;
+import simblock.task.ScheduledTask;
+import simblock.utils.probability.CheckpointableRandom;
+
+/**
+ * Optimistic parallel discrete event execution, see D. R. Jefferson, "Virtual time", ACM TOPLAS
+ * 7(3), 1985.
+ *
+ * <p>The nodes are partitioned by region as for the {@link ConservativeParallelEngine}, but the
+ * partitions do not wait for each other: every {@link TimeWarpPartitionTimer} runs its tasks
+ * speculatively and rolls back when a task from another partition turns out to be in its past.
+ * The engine runs in rounds. In a round all partitions run in parallel until their next task is a
+ * minting task, is past the optimistic window or there is none. At the end of a round all sent
+ * tasks are taken in, so the global virtual time (GVT) is the earliest pending task of all
+ * partitions. Tasks before the GVT can no longer be rolled back, so they are committed: their
+ * checkpoints are dropped (fossil collection) and their observer updates are replayed in task
+ * order. Minting tasks draw block ids and decide when the simulation ends, so they are only run
+ * once they are at the GVT, by the engine.
+ */
+public class TimeWarpEngine implements IExecutionEngine {
+
+  private final Logger logger = LoggerFactory.getLogger(TimeWarpEngine.class);
+
+  private final Timer timer;
+  private final NodePartitioning partitioning;
+  private final TimeWarpPartitionTimer[] partitions;
+
+  /**
+   * How far ahead of the GVT partitions may run in milliseconds.
+   */
+  private final long optimisticWindow;
+
+  private int roundCount = 0;
+
+  /**
+   * Instantiates a new engine and moves the nodes to the partition timers. The tasks must not be
+   * scheduled on the provided timer yet.
+   *
+   * @param settings the simulation settings
+   * @param timer    the simulation timer, set back on the nodes once the simulation ended
+   * @param nodes    the simulated nodes
+   * @param network  the network
+   */
+  public TimeWarpEngine(SimulationSettings settings, Timer timer, List<AbstractNode> nodes,
+                        Network network) {
+    for (AbstractNode node : nodes) {
+      if (!(node.getRandom() instanceof CheckpointableRandom)) {
+        throw new IllegalStateException("Node " + node.getNodeID()
+            + " needs a CheckpointableRandom to be rolled back");
+      }
+    }
+
+    this.timer = timer;
+    this.optimisticWindow = settings.optimisticWindow;
+    this.partitioning = new NodePartitioning(nodes, network, settings.parallelism);
+
+    this.partitions = new TimeWarpPartitionTimer[partitioning.getPartitionCount()];
+    for (int i = 0; i < partitions.length; i++) {
+      partitions[i] = new TimeWarpPartitionTimer(i, settings.futureEventListType, partitioning);
+      partitions[i].setCancellationPolicy(settings.cancellationPolicy);
+      partitions[i].setCompactionThreshold(settings.compactionThreshold);
+    }
+    for (TimeWarpPartitionTimer partition : partitions) {
+      partition.setPartitions(partitions);
+    }
+
+    partitioning.attach(partitions);
+  }
+
+  @SneakyThrows
+  @Override
+  public void run(Predicate<AbstractMintingTask> beforeMinting) {
+    ExecutorService executor = Executors.newFixedThreadPool(partitions.length);
+    try {
+      ScheduledTask gvt = receiveAll();
+      while (gvt != null) {
+        commit(gvt.getScheduledTime(), gvt.getSequence());
+
+        if (gvt.getTask() instanceof AbstractMintingTask) {
+          if (!beforeMinting.test((AbstractMintingTask) gvt.getTask())) {
+            rollback(gvt.getScheduledTime(), gvt.getSequence());
+            break;
+          }
+          partitions[partitioning.getPartition(gvt.getTask(), 0)].runTask();
+        } else {
+          runRound(executor, ConservativeParallelEngine.saturatedAdd(gvt.getScheduledTime(),
+              optimisticWindow));
+        }
+        gvt = receiveAll();
+      }
+      commit(Long.MAX_VALUE, Long.MAX_VALUE);
+    } finally {
+      executor.shutdownNow();
+      timer.setCurrentTime(getCurrentTime());
+      partitioning.detach(timer);
+      logStatistics();
+    }
+  }
+
+  @Override
+  public long getCurrentTime() {
+    long currentTime = 0L;
+    for (TimeWarpPartitionTimer partition : partitions) {
+      currentTime = Math.max(currentTime, partition.getCommittedTime());
+    }
+    return currentTime;
+  }
+
+  /**
+   * Gets the number of partitions.
+   *
+   * @return the number of partitions
+   */
+  public int getPartitionCount() {
+    return partitions.length;
+  }
+
+  /**
+   * Gets the number of rollbacks of all partitions.
+   *
+   * @return the number of rollbacks
+   */
+  public int getRollbackCount() {
+    int count = 0;
+    for (TimeWarpPartitionTimer partition : partitions) {
+      count += partition.getRollbackCount();
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of tasks that have been rolled back.
+   *
+   * @return the number of rolled back tasks
+   */
+  public long getRolledBackTaskCount() {
+    long count = 0L;
+    for (TimeWarpPartitionTimer partition : partitions) {
+      count += partition.getRolledBackTaskCount();
+    }
+    return count;
+  }
+
+  /**
+   * Runs all partitions in parallel until they block.
+   */
+  @SneakyThrows
+  private void runRound(ExecutorService executor, long horizon) {
+    roundCount++;
+    List<Callable<Void>> work = new ArrayList<>(partitions.length);
+    for (TimeWarpPartitionTimer partition : partitions) {
+      work.add(() -> {
+        partition.runUntil(horizon);
+        return null;
+      });
+    }
+
+    if (work.size() == 1) {
+      work.get(0).call();
+      return;
+    }
+    for (Future<Void> result : executor.invokeAll(work)) {
+      // Rethrows the failure of a partition
+      result.get();
+    }
+  }
+
+  /**
+   * Takes in all tasks in transit and computes the GVT.
+   *
+   * @return the earliest pending task of all partitions or null if there is none
+   */
+  private ScheduledTask receiveAll() {
+    boolean received = true;
+    while (received) {
+      received = false;
+      for (TimeWarpPartitionTimer partition : partitions) {
+        received |= partition.receive();
+      }
+    }
+
+    ScheduledTask gvt = null;
+    for (TimeWarpPartitionTimer partition : partitions) {
+      ScheduledTask head = partition.getScheduledTask();
+      if (head != null && (gvt == null || head.compareTo(gvt) < 0)) {
+        gvt = head;
+      }
+    }
+    return gvt;
+  }
+
+  /**
+   * Commits everything ordered before the provided key.
+   */
+  private void commit(long time, long sequence) {
+    BufferedBlockPropagationObserver.replay(partitions, time, sequence);
+    for (TimeWarpPartitionTimer partition : partitions) {
+      partition.commit(time, sequence);
+    }
+  }
+
+  /**
+   * Rolls all partitions back to the provided key, dropping the tasks sent meanwhile.
+   */
+  private void rollback(long time, long sequence) {
+    for (TimeWarpPartitionTimer partition : partitions) {
+      partition.rollback(time, sequence);
+    }
+    receiveAll();
+  }
+
+  private void logStatistics() {
+    logger.info("Time Warp partitions: " + partitions.length + ", rounds: " + roundCount
+        + ", rollbacks: " + getRollbackCount() + ", rolled back tasks: " + getRolledBackTaskCount());
+  }
+}
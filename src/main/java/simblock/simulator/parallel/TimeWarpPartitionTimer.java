@@ -0,0 +1,279 @@
+package simblock.simulator.parallel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import simblock.node.AbstractNode;
+import simblock.node.NodeCheckpoint;
+import simblock.simulator.FutureEventListType;
+import simblock.task.AbstractMessageTask;
+import simblock.task.AbstractMintingTask;
+import simblock.task.BlockMessageTask;
+import simblock.task.ScheduledTask;
+import simblock.task.interfaces.ITask;
+
+/**
+ * The timer of a partition of the {@link TimeWarpEngine}, a logical process running its tasks
+ * speculatively. Before a task is run the nodes it touches are checkpointed, and the tasks it
+ * schedules, removes and sends are recorded. When a task arrives from another partition with a
+ * time and sequence number before a task that has already been run, or when an anti-message
+ * cancels a task that has already been run, the partition rolls back: it restores the
+ * checkpoints, undoes the recorded operations, sends anti-messages for the sent tasks and puts
+ * the rolled back tasks back in the queue.
+ */
+class TimeWarpPartitionTimer extends PartitionTimer {
+
+  /**
+   * All partitions, indexed by partition index.
+   */
+  @Setter
+  private TimeWarpPartitionTimer[] partitions;
+
+  /**
+   * Tasks and anti-messages sent by other partitions, in the order they were sent.
+   */
+  private final Queue<Message> inbox = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The tasks run but not yet committed, in the order they were run.
+   */
+  private final Deque<ProcessedTask> processed = new ArrayDeque<>();
+
+  /**
+   * The task being run, or null if operations are not recorded.
+   */
+  private ProcessedTask running;
+
+  /**
+   * The time of the latest committed task.
+   */
+  @Getter
+  private long committedTime = 0L;
+
+  @Getter
+  private int rollbackCount = 0;
+
+  @Getter
+  private long rolledBackTaskCount = 0L;
+
+  TimeWarpPartitionTimer(int index, FutureEventListType type, NodePartitioning partitioning) {
+    super(index, type, partitioning);
+  }
+
+  @Override
+  public void runScheduledTask(ScheduledTask scheduledTask) {
+    if (scheduledTask.isCancelled()) {
+      return;
+    }
+    running = new ProcessedTask(scheduledTask, checkpoint(scheduledTask.getTask()));
+    try {
+      super.runScheduledTask(scheduledTask);
+      processed.addLast(running);
+    } finally {
+      running = null;
+    }
+  }
+
+  /**
+   * Runs tasks until the next one is a minting task or is scheduled at or after the horizon,
+   * taking in the tasks sent by other partitions in between.
+   *
+   * @param horizon the time in milliseconds
+   */
+  void runUntil(long horizon) {
+    receive();
+    ScheduledTask head = getScheduledTask();
+    while (head != null && head.getScheduledTime() < horizon
+        && !(head.getTask() instanceof AbstractMintingTask)) {
+      runTask();
+      receive();
+      head = getScheduledTask();
+    }
+  }
+
+  /**
+   * Takes in the tasks and anti-messages sent by other partitions, rolling back if needed.
+   *
+   * @return true if there was anything to take in
+   */
+  boolean receive() {
+    boolean received = false;
+    Message message = inbox.poll();
+    while (message != null) {
+      ScheduledTask scheduledTask = message.scheduledTask;
+      if (message.anti) {
+        if (getScheduledTask(scheduledTask.getTask()) == null) {
+          // Already run, roll back to put it back in the queue
+          rollback(scheduledTask.getScheduledTime(), scheduledTask.getSequence());
+        }
+        removeTask(scheduledTask.getTask());
+      } else {
+        if (!processed.isEmpty() && compare(scheduledTask, processed.getLast().scheduledTask) < 0) {
+          // Straggler
+          rollback(scheduledTask.getScheduledTime(), scheduledTask.getSequence());
+        }
+        insert(scheduledTask);
+      }
+      received = true;
+      message = inbox.poll();
+    }
+    return received;
+  }
+
+  /**
+   * Rolls back all tasks run with a time and sequence number at or after the provided ones.
+   *
+   * @param time     the time in milliseconds
+   * @param sequence the sequence number
+   */
+  void rollback(long time, long sequence) {
+    if (processed.isEmpty() || compare(processed.getLast().scheduledTask, time, sequence) < 0) {
+      return;
+    }
+    rollbackCount++;
+
+    while (!processed.isEmpty() && compare(processed.getLast().scheduledTask, time, sequence) >= 0) {
+      ProcessedTask task = processed.removeLast();
+      for (int i = task.operations.size() - 1; i >= 0; i--) {
+        task.operations.get(i).run();
+      }
+      for (int i = task.checkpoints.size() - 1; i >= 0; i--) {
+        task.checkpoints.get(i).node.restore(task.checkpoints.get(i).checkpoint);
+      }
+      insert(task.scheduledTask);
+      rolledBackTaskCount++;
+    }
+
+    // Observer updates are buffered in the order the tasks were run
+    List<BufferedBlockPropagationObserver.Update> updates = getUpdates();
+    int count = updates.size();
+    while (count > 0 && NodePartitioning.compare(updates.get(count - 1).time,
+        updates.get(count - 1).sequence, time, sequence) >= 0) {
+      count--;
+    }
+    updates.subList(count, updates.size()).clear();
+
+    if (processed.isEmpty()) {
+      setCurrent(committedTime, 0L);
+    } else {
+      ScheduledTask last = processed.getLast().scheduledTask;
+      setCurrent(last.getScheduledTime(), last.getSequence());
+    }
+  }
+
+  /**
+   * Commits the tasks run before the provided time and sequence number, which can no longer be
+   * rolled back.
+   *
+   * @param time     the time in milliseconds
+   * @param sequence the sequence number
+   */
+  void commit(long time, long sequence) {
+    while (!processed.isEmpty() && compare(processed.getFirst().scheduledTask, time, sequence) < 0) {
+      committedTime = Math.max(committedTime,
+          processed.removeFirst().scheduledTask.getScheduledTime());
+    }
+  }
+
+  @Override
+  public void removeTask(ITask task) {
+    ScheduledTask scheduledTask = getScheduledTask(task);
+    super.removeTask(task);
+    if (scheduledTask != null && running != null) {
+      running.operations.add(() -> insert(scheduledTask));
+    }
+  }
+
+  @Override
+  protected void scheduleLocal(ITask task, long time, long sequence) {
+    super.scheduleLocal(task, time, sequence);
+    if (running != null) {
+      running.operations.add(() -> removeTask(task));
+    }
+  }
+
+  @Override
+  protected void send(int partition, ScheduledTask scheduledTask) {
+    partitions[partition].inbox.add(new Message(scheduledTask, false));
+    if (running != null) {
+      running.operations.add(() -> partitions[partition].inbox.add(new Message(scheduledTask, true)));
+    }
+  }
+
+  /**
+   * Puts a task back in the queue without recording it.
+   */
+  private void insert(ScheduledTask scheduledTask) {
+    super.scheduleLocal(scheduledTask.getTask(), scheduledTask.getScheduledTime(),
+        scheduledTask.getSequence());
+  }
+
+  /**
+   * Checkpoints the nodes whose state the task changes.
+   */
+  private List<Checkpoint> checkpoint(ITask task) {
+    List<Checkpoint> checkpoints = new ArrayList<>(2);
+    if (task instanceof BlockMessageTask) {
+      checkpoints.add(new Checkpoint(((BlockMessageTask) task).getFrom()));
+    }
+    if (task instanceof AbstractMessageTask) {
+      checkpoints.add(new Checkpoint(((AbstractMessageTask) task).getTo()));
+    } else if (task instanceof BlockUploadTask) {
+      checkpoints.add(new Checkpoint(((BlockUploadTask) task).getMessage().getFrom()));
+    } else if (task instanceof BlockDeliveryTask) {
+      checkpoints.add(new Checkpoint(((BlockDeliveryTask) task).getMessage().getTo()));
+    } else if (task instanceof AbstractMintingTask) {
+      checkpoints.add(new Checkpoint(((AbstractMintingTask) task).getMinter()));
+    }
+    return checkpoints;
+  }
+
+  private static int compare(ScheduledTask task, ScheduledTask other) {
+    return compare(task, other.getScheduledTime(), other.getSequence());
+  }
+
+  private static int compare(ScheduledTask task, long time, long sequence) {
+    return NodePartitioning.compare(task.getScheduledTime(), task.getSequence(), time, sequence);
+  }
+
+  @AllArgsConstructor
+  private static final class Message {
+    private final ScheduledTask scheduledTask;
+
+    /**
+     * Whether the message cancels the previously sent task.
+     */
+    private final boolean anti;
+  }
+
+  private static final class Checkpoint {
+    private final AbstractNode node;
+    private final NodeCheckpoint checkpoint;
+
+    private Checkpoint(AbstractNode node) {
+      this.node = node;
+      this.checkpoint = node.checkpoint();
+    }
+  }
+
+  private static final class ProcessedTask {
+    private final ScheduledTask scheduledTask;
+    private final List<Checkpoint> checkpoints;
+
+    /**
+     * Undo actions of the operations of the task, in the order the operations were made.
+     */
+    private final List<Runnable> operations = new ArrayList<>(4);
+
+    private ProcessedTask(ScheduledTask scheduledTask, List<Checkpoint> checkpoints) {
+      this.scheduledTask = scheduledTask;
+      this.checkpoints = checkpoints;
+    }
+  }
+}
@@ -17,7 +17,6 @@
 package simblock.task;
 
 
-import java.util.UUID;
 import simblock.node.AbstractNode;
 import simblock.task.interfaces.ITask;
 
@@ -26,7 +25,7 @@ import simblock.task.interfaces.ITask;
  */
 public abstract class AbstractMessageTask implements ITask {
 
-  private final UUID taskID;
+  private long taskID;
 
   /**
    * The sending entity.
@@ -50,7 +49,6 @@ public abstract class AbstractMessageTask implements ITask {
     this.from = from;
     this.to = to;
     this.duration = duration;
-    this.taskID = UUID.randomUUID();
   }
 
 
@@ -82,6 +80,16 @@ public abstract class AbstractMessageTask implements ITask {
   }
 
   
+  /**
+   * Gets the number of bytes transferred by the message. Announcements and requests are modeled
+   * as empty messages, their transfer time is ignored.
+   *
+   * @return the size in bytes
+   */
+  public long getSize() {
+    return 0;
+  }
+
   /**
    * Receive message at the <em>to</em> side.
    */
@@ -93,9 +101,18 @@ public abstract class AbstractMessageTask implements ITask {
   /**
    * Get the task ID.
    *
-   * @return the block
+   * @return the task ID
    */
-  public UUID getTaskID() {
+  public long getTaskID() {
     return this.taskID;
   }
+
+  /**
+   * Set the task ID.
+   *
+   * @param taskID the task ID
+   */
+  public void setTaskID(long taskID) {
+    this.taskID = taskID;
+  }
 }
\ No newline at end of file
@@ -16,7 +16,6 @@
 
 package simblock.task;
 
-import java.util.UUID;
 import simblock.block.Block;
 import simblock.node.AbstractNode;
 import simblock.simulator.Timer;
@@ -31,7 +30,7 @@ public abstract class AbstractMintingTask implements ITask, ITimeAware {
   /**
    * The task ID.
    */
-  private final UUID taskID;
+  private long taskID;
   
   /**
    * The node to mint the block.
@@ -59,7 +58,6 @@ public abstract class AbstractMintingTask implements ITask, ITimeAware {
     this.minter = minter;
     this.interval = interval;
     this.timer = timer;
-    this.taskID = UUID.randomUUID();
   }
 
   /**
@@ -93,9 +91,18 @@ public abstract class AbstractMintingTask implements ITask, ITimeAware {
   /**
    * Get the task ID.
    *
-   * @return the block
+   * @return the task ID
    */
-  public UUID getTaskID() {
+  public long getTaskID() {
     return this.taskID;
   }
+
+  /**
+   * Set the task ID.
+   *
+   * @param taskID the task ID
+   */
+  public void setTaskID(long taskID) {
+    this.taskID = taskID;
+  }
 }
@@ -57,9 +57,22 @@ public class BlockMessageTask extends AbstractMessageTask {
    */
   @Override
   public void run() {
+    completeUpload();
+    deliver();
+  }
 
+  /**
+   * Lets the sender start uploading the next requested block.
+   */
+  public void completeUpload() {
     // Again timer is used only for visualizer
     this.getFrom().processReceiveBlockMessage();
+  }
+
+  /**
+   * Delivers the block at the receiver.
+   */
+  public void deliver() {
     super.run();
   }
 
@@ -0,0 +1,65 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+
+// BIP152: https://github.com/bitcoin/bips/blob/master/bip-0152.mediawiki
+/**
+ * The type Block transactions message task, a blocktxn message carrying the transactions requested
+ * to rebuild a compact block.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class BlockTransactionsMessageTask extends AbstractMessageTask {
+  /**
+   * The block the transactions belong to.
+   */
+  private final Block block;
+
+  /**
+   * The size of the sent transactions in bytes.
+   */
+  private final long transactionsSize;
+
+  /**
+   * Instantiates a new Block transactions message task.
+   *
+   * @param from             the sender
+   * @param to               the receiver
+   * @param block            the block
+   * @param transactionsSize the size of the sent transactions in bytes
+   * @param duration         the message delay in milliseconds
+   */
+  public BlockTransactionsMessageTask(AbstractNode from, AbstractNode to, Block block, long transactionsSize,
+                                      long duration) {
+    super(from, to, duration);
+    this.block = block;
+    this.transactionsSize = transactionsSize;
+  }
+
+  /**
+   * Gets the size of a blocktxn message.
+   *
+   * @param transactionsSize the size of the sent transactions in bytes
+   * @return the size in bytes
+   */
+  public static long getSize(long transactionsSize) {
+    return HeadersMessageTask.HEADER_SIZE + transactionsSize;
+  }
+
+  /**
+   * Gets the block the transactions belong to.
+   *
+   * @return the block
+   */
+  public Block getBlock() {
+    return this.block;
+  }
+
+  @Override
+  public long getSize() {
+    return getSize(transactionsSize);
+  }
+}
@@ -0,0 +1,76 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+
+// BIP152: https://github.com/bitcoin/bips/blob/master/bip-0152.mediawiki
+/**
+ * The type Compact block message task, a cmpctblock message carrying the header of a block, a
+ * short id per transaction and the prefilled coinbase transaction. The receiver rebuilds the block
+ * from the transactions it already knows.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class CompactBlockMessageTask extends AbstractMessageTask {
+  /**
+   * Size of a short transaction id in bytes.
+   */
+  public static final long SHORT_ID_SIZE = 6;
+
+  /**
+   * Size of the header, the nonce and the prefilled coinbase transaction in bytes.
+   */
+  public static final long FIXED_SIZE = HeadersMessageTask.HEADER_SIZE + 8 + 250;
+
+  /**
+   * The sent block.
+   */
+  private final Block block;
+
+  /**
+   * The number of transactions of the block.
+   */
+  private final long transactionCount;
+
+  /**
+   * Instantiates a new Compact block message task.
+   *
+   * @param from             the sender
+   * @param to               the receiver
+   * @param block            the block
+   * @param transactionCount the number of transactions of the block
+   * @param duration         the message delay in milliseconds
+   */
+  public CompactBlockMessageTask(AbstractNode from, AbstractNode to, Block block, long transactionCount,
+                                 long duration) {
+    super(from, to, duration);
+    this.block = block;
+    this.transactionCount = transactionCount;
+  }
+
+  /**
+   * Gets the size of a compact block.
+   *
+   * @param transactionCount the number of transactions of the block
+   * @return the size in bytes
+   */
+  public static long getSize(long transactionCount) {
+    return FIXED_SIZE + SHORT_ID_SIZE * transactionCount;
+  }
+
+  /**
+   * Gets the sent block.
+   *
+   * @return the block
+   */
+  public Block getBlock() {
+    return this.block;
+  }
+
+  @Override
+  public long getSize() {
+    return getSize(transactionCount);
+  }
+}
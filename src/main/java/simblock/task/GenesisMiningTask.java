@@ -1,6 +1,7 @@
 package simblock.task;
 
 import java.math.BigInteger;
+import simblock.block.Difficulty;
 import simblock.block.IBlockIdGenerator;
 import simblock.block.ProofOfWorkBlock;
 import simblock.node.AbstractNode;
@@ -11,7 +12,7 @@ import simblock.simulator.Timer;
 public class GenesisMiningTask extends AbstractMintingTask {
 
 
-  private BigInteger genesisNextDifficulty;
+  private Difficulty genesisNextDifficulty;
   private IBlockIdGenerator generator;
 
   /**
@@ -23,6 +24,17 @@ public class GenesisMiningTask extends AbstractMintingTask {
    */
 
   public GenesisMiningTask(AbstractNode minter, long interval, Timer timer, BigInteger genesisNextDifficulty, IBlockIdGenerator generator) {
+    this(minter, interval, timer, Difficulty.of(genesisNextDifficulty), generator);
+  }
+
+  /**
+   * Instantiates a new genesis minting task.
+   *
+   * @param minter   the minter
+   * @param interval the interval in milliseconds
+   * @param timer the timer instance shared in the simulation
+   */
+  public GenesisMiningTask(AbstractNode minter, long interval, Timer timer, Difficulty genesisNextDifficulty, IBlockIdGenerator generator) {
     super(minter, interval, timer);
     this.genesisNextDifficulty = genesisNextDifficulty;
     this.generator = generator;
@@ -0,0 +1,96 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+
+// BIP152: https://github.com/bitcoin/bips/blob/master/bip-0152.mediawiki
+/**
+ * The type Get block transactions message task, a getblocktxn message requesting the transactions
+ * of a compact block the receiver could not rebuild the block without.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class GetBlockTransactionsMessageTask extends AbstractMessageTask {
+  /**
+   * Size of the differentially encoded index of a transaction in bytes.
+   */
+  public static final long INDEX_SIZE = 2;
+
+  /**
+   * The block whose transactions are requested.
+   */
+  private final Block block;
+
+  /**
+   * The number of requested transactions.
+   */
+  private final int missingCount;
+
+  /**
+   * The size of the requested transactions in bytes.
+   */
+  private final long missingSize;
+
+  /**
+   * Instantiates a new Get block transactions message task.
+   *
+   * @param from         the requesting node
+   * @param to           the node which sent the compact block
+   * @param block        the block
+   * @param missingCount the number of requested transactions
+   * @param missingSize  the size of the requested transactions in bytes
+   * @param duration     the message delay in milliseconds
+   */
+  public GetBlockTransactionsMessageTask(AbstractNode from, AbstractNode to, Block block, int missingCount,
+                                        long missingSize, long duration) {
+    super(from, to, duration);
+    this.block = block;
+    this.missingCount = missingCount;
+    this.missingSize = missingSize;
+  }
+
+  /**
+   * Gets the size of a getblocktxn message.
+   *
+   * @param missingCount the number of requested transactions
+   * @return the size in bytes
+   */
+  public static long getSize(int missingCount) {
+    return HeadersMessageTask.HEADER_SIZE + INDEX_SIZE * missingCount;
+  }
+
+  /**
+   * Gets the block whose transactions are requested.
+   *
+   * @return the block
+   */
+  public Block getBlock() {
+    return this.block;
+  }
+
+  /**
+   * Gets the number of requested transactions.
+   *
+   * @return the number of transactions
+   */
+  public int getMissingCount() {
+    return this.missingCount;
+  }
+
+  /**
+   * Gets the size of the requested transactions, the size of the blocktxn message answering the
+   * request.
+   *
+   * @return the size in bytes
+   */
+  public long getMissingSize() {
+    return this.missingSize;
+  }
+
+  @Override
+  public long getSize() {
+    return getSize(missingCount);
+  }
+}
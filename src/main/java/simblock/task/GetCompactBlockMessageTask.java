@@ -0,0 +1,42 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+
+// BIP152: https://github.com/bitcoin/bips/blob/master/bip-0152.mediawiki
+/**
+ * The type Get compact block message task, a getdata message requesting a block as a compact
+ * block.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class GetCompactBlockMessageTask extends AbstractMessageTask {
+  /**
+   * The requested block.
+   */
+  private final Block block;
+
+  /**
+   * Instantiates a new Get compact block message task.
+   *
+   * @param from     the requesting node
+   * @param to       the node sending the block
+   * @param block    the requested block
+   * @param duration the message delay in milliseconds
+   */
+  public GetCompactBlockMessageTask(AbstractNode from, AbstractNode to, Block block, long duration) {
+    super(from, to, duration);
+    this.block = block;
+  }
+
+  /**
+   * Gets the requested block.
+   *
+   * @return the block
+   */
+  public Block getBlock() {
+    return this.block;
+  }
+}
@@ -0,0 +1,45 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.node.AbstractNode;
+
+// Bitcoin protocol Wiki: https://en.bitcoin.it/wiki/Protocol_documentation#getdata
+/**
+ * The type Get transactions message task, a getdata message requesting announced transactions.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class GetTransactionsMessageTask extends AbstractMessageTask {
+  /**
+   * The requested transaction ids.
+   */
+  private final int[] transactions;
+
+  /**
+   * Instantiates a new Get transactions message task.
+   *
+   * @param from         the requesting node
+   * @param to           the node which announced the transactions
+   * @param transactions the requested transaction ids
+   * @param duration     the message delay in milliseconds
+   */
+  public GetTransactionsMessageTask(AbstractNode from, AbstractNode to, int[] transactions, long duration) {
+    super(from, to, duration);
+    this.transactions = transactions;
+  }
+
+  /**
+   * Gets the requested transaction ids.
+   *
+   * @return the transaction ids
+   */
+  public int[] getTransactions() {
+    return this.transactions;
+  }
+
+  @Override
+  public long getSize() {
+    return TransactionInvMessageTask.INVENTORY_ENTRY_SIZE * transactions.length;
+  }
+}
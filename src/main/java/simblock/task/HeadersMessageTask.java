@@ -0,0 +1,68 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.block.Block;
+import simblock.node.AbstractNode;
+
+// Bitcoin protocol Wiki: https://en.bitcoin.it/wiki/Protocol_documentation#headers
+/**
+ * The type Headers message task, announces a block with its header instead of an inv message.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class HeadersMessageTask extends AbstractMessageTask {
+  /**
+   * Size of a block header in bytes.
+   */
+  public static final long HEADER_SIZE = 80;
+
+  /**
+   * The block whose header is sent.
+   */
+  private final Block block;
+
+  /**
+   * Whether the sender relays compact blocks.
+   */
+  private final boolean compact;
+
+  /**
+   * Instantiates a new Headers message task.
+   *
+   * @param from     the sender
+   * @param to       the receiver
+   * @param block    the announced block
+   * @param compact  whether the sender relays compact blocks
+   * @param duration the message delay in milliseconds
+   */
+  public HeadersMessageTask(AbstractNode from, AbstractNode to, Block block, boolean compact, long duration) {
+    super(from, to, duration);
+    this.block = block;
+    this.compact = compact;
+  }
+
+  /**
+   * Gets the announced block.
+   *
+   * @return the block
+   */
+  public Block getBlock() {
+    return this.block;
+  }
+
+  /**
+   * Checks whether the sender relays compact blocks, the block should then be requested as a
+   * compact block.
+   *
+   * @return true if the sender relays compact blocks
+   */
+  public boolean isCompact() {
+    return this.compact;
+  }
+
+  @Override
+  public long getSize() {
+    return HEADER_SIZE;
+  }
+}
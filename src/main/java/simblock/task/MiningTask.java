@@ -20,9 +20,12 @@ package simblock.task;
 import java.math.BigInteger;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import simblock.block.Difficulty;
 import simblock.block.IBlockIdGenerator;
 import simblock.block.ProofOfWorkBlock;
 import simblock.node.AbstractNode;
+import simblock.node.consensus.FixedDifficultyRetarget;
+import simblock.node.consensus.IDifficultyRetarget;
 import simblock.simulator.Timer;
 
 /**
@@ -31,8 +34,9 @@ import simblock.simulator.Timer;
 @EqualsAndHashCode(callSuper = false)
 @ToString
 public class MiningTask extends AbstractMintingTask {
-  protected final BigInteger difficulty;
+  protected final Difficulty difficulty;
   protected final IBlockIdGenerator generator;
+  protected final IDifficultyRetarget retarget;
 
   /**
    * Instantiates a new Mining task.
@@ -42,9 +46,23 @@ public class MiningTask extends AbstractMintingTask {
    * @param difficulty the difficulty
    */
   public MiningTask(AbstractNode minter, long interval, BigInteger difficulty, Timer timer, IBlockIdGenerator generator) {
+    this(minter, interval, Difficulty.of(difficulty), timer, generator, FixedDifficultyRetarget.INSTANCE);
+  }
+
+  /**
+   * Instantiates a new Mining task.
+   *
+   * @param minter     the minter
+   * @param interval   the interval
+   * @param difficulty the difficulty
+   * @param retarget   the difficulty adjustment of the mined block
+   */
+  public MiningTask(AbstractNode minter, long interval, Difficulty difficulty, Timer timer, IBlockIdGenerator generator,
+                    IDifficultyRetarget retarget) {
     super(minter, interval, timer);
     this.difficulty = difficulty;
     this.generator = generator;
+    this.retarget = retarget;
   }
 
   @Override
@@ -52,9 +70,10 @@ public class MiningTask extends AbstractMintingTask {
 
     ProofOfWorkBlock createdBlock = new ProofOfWorkBlock(
         (ProofOfWorkBlock) this.getParent(), this.getMinter(), getCurrentTime(),
-        this.difficulty, generator.createNextBlockID()
+        this.difficulty, generator.createNextBlockID(), retarget
 
     );
+    this.getMinter().assembleBlock(createdBlock);
     this.getMinter().receiveBlock(createdBlock);
   }
 }
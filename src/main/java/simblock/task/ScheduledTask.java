@@ -1,28 +1,52 @@
 package simblock.task;
 
-import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import simblock.task.interfaces.ITask;
 
 /**
- * Represents a {@link ITask} that is scheduled to be executed.
+ * Represents a {@link ITask} that is scheduled to be executed. Scheduled tasks are only equal to
+ * themselves, consistent with {@link #compareTo} as no two of them share a sequence number.
  */
-@EqualsAndHashCode
 @ToString
 public class ScheduledTask implements Comparable<ScheduledTask> {
   private final ITask task;
   private final long scheduledTime;
 
+  /**
+   * The insertion sequence number, ordering tasks scheduled for the same time.
+   */
+  private final long sequence;
+
+  /**
+   * Bookkeeping attached by the {@link simblock.simulator.interfaces.IFutureEventList} holding the
+   * task, e.g. its node in a calendar queue bucket.
+   */
+  @ToString.Exclude
+  private Object handle;
+
+  /**
+   * Whether the task got cancelled while pending and must not be executed.
+   */
+  private boolean cancelled;
+
+  /**
+   * Whether the task has been taken from the queue as part of a batch and waits to be run.
+   */
+  private boolean polled;
+
   /**
    * Instantiates a new ScheduledTask.
    *
    * @param task          - the task to be executed
    * @param scheduledTime - the simulation time at which the task is to be
    *                      executed
+   * @param sequence      - the insertion sequence number, tasks scheduled for
+   *                      the same time are executed in increasing order
    */
-  public ScheduledTask(ITask task, long scheduledTime) {
+  public ScheduledTask(ITask task, long scheduledTime, long sequence) {
     this.task = task;
     this.scheduledTime = scheduledTime;
+    this.sequence = sequence;
   }
 
   /**
@@ -44,21 +68,77 @@ public class ScheduledTask implements Comparable<ScheduledTask> {
   }
 
   /**
-   * Compares the two scheduled tasks.
+   * Gets the insertion sequence number.
+   *
+   * @return the sequence number
+   */
+  public long getSequence() {
+    return this.sequence;
+  }
+
+  /**
+   * Gets the handle the Future Event List attached to this task.
+   *
+   * @return the handle or null if none is attached
+   */
+  public Object getHandle() {
+    return this.handle;
+  }
+
+  /**
+   * Sets the handle the Future Event List attaches to this task.
+   *
+   * @param handle the handle
+   */
+  public void setHandle(Object handle) {
+    this.handle = handle;
+  }
+
+  /**
+   * Checks whether the task got cancelled.
+   *
+   * @return true if the task is not to be executed
+   */
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  /**
+   * Marks the task as cancelled.
+   */
+  public void cancel() {
+    this.cancelled = true;
+  }
+
+  /**
+   * Checks whether the task has been taken from the queue as part of a batch.
+   *
+   * @return true if the task is no longer held by the queue
+   */
+  public boolean isPolled() {
+    return this.polled;
+  }
+
+  /**
+   * Marks the task as taken from the queue as part of a batch.
+   */
+  public void markPolled() {
+    this.polled = true;
+  }
+
+  /**
+   * Compares the two scheduled tasks by their scheduled time, then by their
+   * sequence number.
    *
    * @param o other task
-   * @return 1 if self is executed later, 0 if concurrent and -1 if self is to be
-   *         executed before.
+   * @return 1 if self is executed later, 0 if it is the same entry and -1 if
+   *         self is to be executed before.
    */
   public int compareTo(ScheduledTask o) {
-    if (this.equals(o)) {
-      return 0;
-    }
-    int order = Long.signum(this.scheduledTime - o.scheduledTime);
+    int order = Long.compare(this.scheduledTime, o.scheduledTime);
     if (order != 0) {
       return order;
     }
-    order = System.identityHashCode(this) - System.identityHashCode(o);
-    return order;
+    return Long.compare(this.sequence, o.sequence);
   }
 }
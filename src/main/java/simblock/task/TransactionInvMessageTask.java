@@ -0,0 +1,51 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.node.AbstractNode;
+
+// Bitcoin protocol Wiki: https://en.bitcoin.it/wiki/Protocol_documentation#inv
+/**
+ * The type Transaction inv message task, announces the transactions a node accepted since its
+ * previous announcement.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class TransactionInvMessageTask extends AbstractMessageTask {
+  /**
+   * Size of an inventory entry in bytes, a type and a hash.
+   */
+  public static final long INVENTORY_ENTRY_SIZE = 36;
+
+  /**
+   * The announced transaction ids, shared by the announcements to every neighbor.
+   */
+  private final int[] transactions;
+
+  /**
+   * Instantiates a new Transaction inv message task.
+   *
+   * @param from         the sender
+   * @param to           the receiver
+   * @param transactions the announced transaction ids, must not be modified
+   * @param duration     the message delay in milliseconds
+   */
+  public TransactionInvMessageTask(AbstractNode from, AbstractNode to, int[] transactions, long duration) {
+    super(from, to, duration);
+    this.transactions = transactions;
+  }
+
+  /**
+   * Gets the announced transaction ids. The array must not be modified.
+   *
+   * @return the transaction ids
+   */
+  public int[] getTransactions() {
+    return this.transactions;
+  }
+
+  @Override
+  public long getSize() {
+    return INVENTORY_ENTRY_SIZE * transactions.length;
+  }
+}
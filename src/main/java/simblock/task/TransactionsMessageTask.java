@@ -0,0 +1,71 @@
+package simblock.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import simblock.node.AbstractNode;
+
+// Bitcoin protocol Wiki: https://en.bitcoin.it/wiki/Protocol_documentation#tx
+/**
+ * The type Transactions message task, the tx messages answering a request for transactions. A
+ * requested transaction the sender no longer holds, for instance because it got confirmed, is
+ * left out.
+ */
+@EqualsAndHashCode(callSuper = false)
+@ToString
+public class TransactionsMessageTask extends AbstractMessageTask {
+  /**
+   * The requested transaction ids.
+   */
+  private final int[] requested;
+
+  /**
+   * The sent transaction ids.
+   */
+  private final int[] transactions;
+
+  /**
+   * The size of the sent transactions in bytes.
+   */
+  private final long transactionsSize;
+
+  /**
+   * Instantiates a new Transactions message task.
+   *
+   * @param from             the sender
+   * @param to               the requesting node
+   * @param requested        the requested transaction ids
+   * @param transactions     the sent transaction ids
+   * @param transactionsSize the size of the sent transactions in bytes
+   * @param duration         the message delay in milliseconds
+   */
+  public TransactionsMessageTask(AbstractNode from, AbstractNode to, int[] requested, int[] transactions,
+                                 long transactionsSize, long duration) {
+    super(from, to, duration);
+    this.requested = requested;
+    this.transactions = transactions;
+    this.transactionsSize = transactionsSize;
+  }
+
+  /**
+   * Gets the requested transaction ids.
+   *
+   * @return the transaction ids
+   */
+  public int[] getRequested() {
+    return this.requested;
+  }
+
+  /**
+   * Gets the sent transaction ids.
+   *
+   * @return the transaction ids
+   */
+  public int[] getTransactions() {
+    return this.transactions;
+  }
+
+  @Override
+  public long getSize() {
+    return this.transactionsSize;
+  }
+}
@@ -16,8 +16,6 @@
 
 package simblock.task.interfaces;
 
-import java.util.UUID;
-
 /**
  * The interface Task. A task can be run and has its execution duration.
  */
@@ -25,10 +23,17 @@ import java.util.UUID;
 public interface ITask  {
 
   /**
-   * Gets the id that uniquely identifies the task.
-   * @return
+   * Gets the id that uniquely identifies the task, issued by the
+   * {@link simblock.simulator.Timer} when the task gets scheduled.
+   * @return the task id or 0 if the task has not been scheduled yet
+   */
+  long getTaskID();
+
+  /**
+   * Sets the id that uniquely identifies the task.
+   * @param taskID the task id
    */
-  UUID getTaskID();
+  void setTaskID(long taskID);
 
   /**
    * Gets the execution duration of the task in milliseconds of simulated time. Network tasks consist out of latency + delay.
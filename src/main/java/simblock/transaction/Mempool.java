@@ -0,0 +1,250 @@
+package simblock.transaction;
+
+import java.util.Arrays;
+import simblock.utils.IntIntHashMap;
+
+/**
+ * The unconfirmed transactions known to a node. The transaction ids are kept in a binary heap
+ * ordered by fee rate, the highest first, and a primitive map from id to heap position makes
+ * lookups and removals of arbitrary transactions O(1) and O(log n). An entry takes around twenty
+ * bytes, so mempools of millions of transactions stay small.
+ */
+public class Mempool {
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  /**
+   * Number of transactions in a row not fitting in a block after which the selection stops, as in
+   * Bitcoin Core's {@code BlockAssembler}.
+   */
+  public static final int MAX_CONSECUTIVE_FAILURES = 1000;
+
+  private final TransactionRegistry registry;
+
+  private int[] heap = new int[DEFAULT_CAPACITY];
+  private int size;
+  private long byteSize;
+
+  /**
+   * The heap position of every transaction.
+   */
+  private final IntIntHashMap positions = new IntIntHashMap(DEFAULT_CAPACITY);
+
+  /**
+   * Instantiates a new, empty mempool.
+   *
+   * @param registry the registry of the transactions
+   */
+  public Mempool(TransactionRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Adds a transaction.
+   *
+   * @param transaction the transaction id
+   * @return true if the transaction was not in the mempool
+   */
+  public boolean add(int transaction) {
+    if (positions.containsKey(transaction)) {
+      return false;
+    }
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, 2 * heap.length);
+    }
+    heap[size] = transaction;
+    positions.put(transaction, size);
+    size++;
+    byteSize += registry.getSize(transaction);
+    siftUp(size - 1);
+    return true;
+  }
+
+  /**
+   * Removes a transaction.
+   *
+   * @param transaction the transaction id
+   * @return true if the transaction was in the mempool
+   */
+  public boolean remove(int transaction) {
+    int position = positions.getOrDefault(transaction, -1);
+    if (position < 0) {
+      return false;
+    }
+    positions.remove(transaction);
+    byteSize -= registry.getSize(transaction);
+    size--;
+    if (position != size) {
+      heap[position] = heap[size];
+      positions.put(heap[position], position);
+      siftDown(position);
+      siftUp(position);
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the mempool holds a transaction.
+   *
+   * @param transaction the transaction id
+   * @return true if the transaction is in the mempool
+   */
+  public boolean contains(int transaction) {
+    return positions.containsKey(transaction);
+  }
+
+  /**
+   * Gets the number of transactions.
+   *
+   * @return the number of transactions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the total size of the transactions.
+   *
+   * @return the size in bytes
+   */
+  public long getByteSize() {
+    return byteSize;
+  }
+
+  /**
+   * Gets the transaction paying the highest fee rate.
+   *
+   * @return the transaction id or -1 if the mempool is empty
+   */
+  public int peek() {
+    return size == 0 ? -1 : heap[0];
+  }
+
+  /**
+   * Selects the transactions of a block template, by decreasing fee rate, skipping those that do
+   * not fit in the remaining space. The heap is walked best first with a second heap of positions,
+   * so the mempool is left unchanged and selecting k transactions takes O(k log k).
+   *
+   * @param maxBytes the space available for transactions in bytes
+   * @return the ids of the selected transactions, by decreasing fee rate
+   */
+  public int[] selectTransactions(long maxBytes) {
+    int[] selected = new int[Math.min(size, DEFAULT_CAPACITY)];
+    int selectedCount = 0;
+    long used = 0;
+    int failures = 0;
+
+    // Heap positions whose parent was visited, ordered by the fee rate of their transaction
+    int[] frontier = new int[DEFAULT_CAPACITY];
+    int frontierSize = 0;
+    if (size > 0) {
+      frontier[frontierSize++] = 0;
+    }
+
+    while (frontierSize > 0 && failures < MAX_CONSECUTIVE_FAILURES) {
+      int position = frontier[0];
+      frontier[0] = frontier[--frontierSize];
+      siftDownFrontier(frontier, frontierSize, 0);
+
+      int transaction = heap[position];
+      int transactionSize = registry.getSize(transaction);
+      if (used + transactionSize <= maxBytes) {
+        if (selectedCount == selected.length) {
+          selected = Arrays.copyOf(selected, 2 * selected.length);
+        }
+        selected[selectedCount++] = transaction;
+        used += transactionSize;
+        failures = 0;
+      } else {
+        failures++;
+      }
+
+      for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+        if (frontierSize == frontier.length) {
+          frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+        }
+        frontier[frontierSize] = child;
+        siftUpFrontier(frontier, frontierSize++);
+      }
+    }
+    return Arrays.copyOf(selected, selectedCount);
+  }
+
+  private boolean higher(int first, int second) {
+    return registry.compareFeeRates(first, second) > 0;
+  }
+
+  private void siftUp(int position) {
+    int transaction = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (!higher(transaction, heap[parent])) {
+        break;
+      }
+      move(parent, position);
+      position = parent;
+    }
+    heap[position] = transaction;
+    positions.put(transaction, position);
+  }
+
+  private void siftDown(int position) {
+    int transaction = heap[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && higher(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!higher(heap[child], transaction)) {
+        break;
+      }
+      move(child, position);
+      position = child;
+    }
+    heap[position] = transaction;
+    positions.put(transaction, position);
+  }
+
+  private void move(int from, int to) {
+    heap[to] = heap[from];
+    positions.put(heap[to], to);
+  }
+
+  private void siftUpFrontier(int[] frontier, int position) {
+    int entry = frontier[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (!higher(heap[entry], heap[frontier[parent]])) {
+        break;
+      }
+      frontier[position] = frontier[parent];
+      position = parent;
+    }
+    frontier[position] = entry;
+  }
+
+  private void siftDownFrontier(int[] frontier, int frontierSize, int position) {
+    if (frontierSize == 0) {
+      return;
+    }
+    int entry = frontier[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= frontierSize) {
+        break;
+      }
+      if (child + 1 < frontierSize && higher(heap[frontier[child + 1]], heap[frontier[child]])) {
+        child++;
+      }
+      if (!higher(heap[frontier[child]], heap[entry])) {
+        break;
+      }
+      frontier[position] = frontier[child];
+      position = child;
+    }
+    frontier[position] = entry;
+  }
+}
@@ -0,0 +1,135 @@
+package simblock.transaction;
+
+import java.util.List;
+import java.util.Random;
+import simblock.node.AbstractNode;
+import simblock.simulator.Timer;
+import simblock.task.interfaces.ITask;
+
+/**
+ * Poisson arrival process of the transactions of a simulation. Transactions arrive at a constant
+ * average rate, each at a node drawn uniformly at random, with log-normally distributed sizes and
+ * fee rates. Only the next arrival is scheduled at any time.
+ *
+ * <p>Arrivals are not synchronized with the nodes, the generator is meant for the sequential
+ * execution engine.
+ */
+public class TransactionGenerator {
+
+  /**
+   * Median size of a transaction in bytes.
+   */
+  public static final double MEDIAN_TRANSACTION_SIZE = 226;
+
+  /**
+   * Spread of the logarithm of the transaction sizes.
+   */
+  private static final double SIZE_SIGMA = 0.6;
+
+  /**
+   * Spread of the logarithm of the fee rates.
+   */
+  private static final double FEE_RATE_SIGMA = 1.0;
+
+  /**
+   * Bounds of the transaction sizes in bytes, the smallest possible transaction and the largest
+   * standard one.
+   */
+  private static final int MIN_TRANSACTION_SIZE = 60;
+  private static final int MAX_TRANSACTION_SIZE = 100000;
+
+  private final Timer timer;
+  private final Random random;
+  private final TransactionRegistry registry;
+  private final List<AbstractNode> nodes;
+
+  /**
+   * Average time between two arrivals in milliseconds.
+   */
+  private final double meanInterval;
+
+  private final double medianFeeRate;
+
+  /**
+   * The exact time of the next arrival, the task is scheduled at the millisecond following it.
+   */
+  private double nextArrival;
+
+  /**
+   * Instantiates a new transaction generator.
+   *
+   * @param timer         the timer the arrivals are scheduled on
+   * @param random        the random instance drawing the arrivals
+   * @param registry      the registry of the transactions
+   * @param nodes         the nodes transactions arrive at
+   * @param rate          the average number of transactions per second
+   * @param medianFeeRate the median fee rate in satoshis per byte
+   */
+  public TransactionGenerator(Timer timer, Random random, TransactionRegistry registry, List<AbstractNode> nodes,
+                              double rate, double medianFeeRate) {
+    if (rate <= 0) {
+      throw new IllegalArgumentException("The transaction rate must be positive: " + rate);
+    }
+    this.timer = timer;
+    this.random = random;
+    this.registry = registry;
+    this.nodes = nodes;
+    this.meanInterval = 1000 / rate;
+    this.medianFeeRate = medianFeeRate;
+  }
+
+  /**
+   * Schedules the first arrival.
+   */
+  public void start() {
+    this.nextArrival = timer.getCurrentTime();
+    scheduleNext();
+  }
+
+  private void scheduleNext() {
+    nextArrival += -Math.log(1 - random.nextDouble()) * meanInterval;
+    timer.putTaskAbsoluteTime(new ArrivalTask(), (long) Math.ceil(nextArrival));
+  }
+
+  /**
+   * Registers a new transaction with a random size and fee.
+   *
+   * @return the transaction id
+   */
+  public int createTransaction() {
+    double size = MEDIAN_TRANSACTION_SIZE * Math.exp(SIZE_SIGMA * random.nextGaussian());
+    int bytes = (int) Math.max(MIN_TRANSACTION_SIZE, Math.min(MAX_TRANSACTION_SIZE, Math.round(size)));
+    double feeRate = medianFeeRate * Math.exp(FEE_RATE_SIGMA * random.nextGaussian());
+    int fee = (int) Math.min(Integer.MAX_VALUE, Math.round(feeRate * bytes));
+    return registry.add(bytes, fee);
+  }
+
+  /**
+   * Creates a transaction, hands it to a random node and schedules the next arrival.
+   */
+  private final class ArrivalTask implements ITask {
+    private long taskID;
+
+    @Override
+    public long getTaskID() {
+      return taskID;
+    }
+
+    @Override
+    public void setTaskID(long taskID) {
+      this.taskID = taskID;
+    }
+
+    @Override
+    public long getDuration() {
+      return 0;
+    }
+
+    @Override
+    public void run() {
+      int transaction = createTransaction();
+      nodes.get(random.nextInt(nodes.size())).receiveTransaction(transaction);
+      scheduleNext();
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package simblock.transaction;
+
+import java.util.Arrays;
+import simblock.block.Block;
+
+/**
+ * The transactions of a simulation. A transaction is only an id, its size, fee and the block it
+ * was last included in are kept here in arrays indexed by the id, so that mempools and blocks
+ * hold plain {@code int} ids and simulating millions of transactions costs a few bytes per
+ * transaction.
+ */
+public class TransactionRegistry {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private int[] sizes;
+  private int[] fees;
+  private Block[] blocks;
+  private int count;
+
+  /**
+   * Instantiates a new, empty registry.
+   */
+  public TransactionRegistry() {
+    this.sizes = new int[DEFAULT_CAPACITY];
+    this.fees = new int[DEFAULT_CAPACITY];
+    this.blocks = new Block[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Registers a new transaction.
+   *
+   * @param size the size in bytes
+   * @param fee  the fee in satoshis
+   * @return the id of the transaction
+   */
+  public int add(int size, int fee) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("The size of a transaction must be positive: " + size);
+    }
+    if (count == sizes.length) {
+      int capacity = Math.multiplyExact(sizes.length, 2);
+      sizes = Arrays.copyOf(sizes, capacity);
+      fees = Arrays.copyOf(fees, capacity);
+      blocks = Arrays.copyOf(blocks, capacity);
+    }
+    sizes[count] = size;
+    fees[count] = fee;
+    return count++;
+  }
+
+  /**
+   * Gets the number of registered transactions.
+   *
+   * @return the number of transactions
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the size of a transaction.
+   *
+   * @param transaction the transaction id
+   * @return the size in bytes
+   */
+  public int getSize(int transaction) {
+    return sizes[transaction];
+  }
+
+  /**
+   * Gets the fee of a transaction.
+   *
+   * @param transaction the transaction id
+   * @return the fee in satoshis
+   */
+  public int getFee(int transaction) {
+    return fees[transaction];
+  }
+
+  /**
+   * Gets the total size of several transactions.
+   *
+   * @param transactions the transaction ids
+   * @return the size in bytes
+   */
+  public long getTotalSize(int[] transactions) {
+    long total = 0;
+    for (int transaction : transactions) {
+      total += sizes[transaction];
+    }
+    return total;
+  }
+
+  /**
+   * Compares the fee rates of two transactions, without rounding. Transactions paying the same
+   * rate are ordered by id, the older one first.
+   *
+   * @param first  the first transaction id
+   * @param second the second transaction id
+   * @return a positive number if the first transaction pays the higher fee rate, a negative
+   *         number if the second does
+   */
+  public int compareFeeRates(int first, int second) {
+    int comparison = Long.compare((long) fees[first] * sizes[second], (long) fees[second] * sizes[first]);
+    return comparison != 0 ? comparison : Integer.compare(second, first);
+  }
+
+  /**
+   * Records that the transactions were included in the provided block.
+   *
+   * @param block        the block
+   * @param transactions the transaction ids
+   */
+  public void include(Block block, int[] transactions) {
+    for (int transaction : transactions) {
+      blocks[transaction] = block;
+    }
+  }
+
+  /**
+   * Checks whether a transaction is confirmed on the chain ending with the provided block. Only
+   * the block the transaction was last included in is kept, a transaction included in blocks of
+   * competing branches is confirmed on the branch mined last.
+   *
+   * @param transaction the transaction id
+   * @param tip         the last block of the chain
+   * @return true if the transaction is included in the chain
+   */
+  public boolean isConfirmed(int transaction, Block tip) {
+    Block block = blocks[transaction];
+    return block != null && tip != null && block.getHeight() <= tip.getHeight()
+        && block.equals(tip.getBlockWithHeight(block.getHeight()));
+  }
+}
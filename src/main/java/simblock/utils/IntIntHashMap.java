@@ -0,0 +1,205 @@
+package simblock.utils;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive {@code int} keys to primitive {@code int} values, avoiding the boxing
+ * and the per entry allocations of a {@link java.util.HashMap}. Entries are stored in parallel
+ * arrays using open addressing with linear probing, removals shift the following entries back
+ * instead of leaving deleted markers. {@link Integer#MIN_VALUE} marks empty slots and can not be
+ * used as a key.
+ */
+public class IntIntHashMap {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * The map grows once it is filled beyond this share, keeping probe sequences short.
+   */
+  private static final double LOAD_FACTOR = 0.5;
+
+  private static final int FREE_KEY = Integer.MIN_VALUE;
+
+  private int[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+
+  /**
+   * Instantiates a new, empty map.
+   */
+  public IntIntHashMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Instantiates a new, empty map able to hold the provided number of entries without growing.
+   *
+   * @param expectedSize the expected number of entries
+   */
+  public IntIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  /**
+   * Gets the value mapped to the provided key.
+   *
+   * @param key          the key
+   * @param defaultValue the value returned if the key is not mapped
+   * @return the value or the default value if the key is not mapped
+   */
+  public int getOrDefault(int key, int defaultValue) {
+    int slot = findSlot(key);
+    return slot < 0 ? defaultValue : values[slot];
+  }
+
+  /**
+   * Checks whether the key is mapped.
+   *
+   * @param key the key
+   * @return true if the key is mapped
+   */
+  public boolean containsKey(int key) {
+    return findSlot(key) >= 0;
+  }
+
+  /**
+   * Maps the key to the provided value.
+   *
+   * @param key   the key, must not be {@link Integer#MIN_VALUE}
+   * @param value the value
+   * @return true if the key was not mapped before
+   */
+  public boolean put(int key, int value) {
+    if (key == FREE_KEY) {
+      throw new IllegalArgumentException("Integer.MIN_VALUE can not be used as a key");
+    }
+
+    int slot = index(key);
+    while (keys[slot] != FREE_KEY) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > resizeThreshold) {
+      grow();
+    }
+    return true;
+  }
+
+  /**
+   * Removes the mapping of the key.
+   *
+   * @param key the key
+   * @return true if the key was mapped
+   */
+  public boolean remove(int key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return false;
+    }
+    removeSlot(slot);
+    return true;
+  }
+
+  /**
+   * Gets the number of entries.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the map is empty.
+   *
+   * @return true if there are no entries
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    Arrays.fill(keys, FREE_KEY);
+    size = 0;
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new int[capacity];
+    this.values = new int[capacity];
+    Arrays.fill(keys, FREE_KEY);
+    this.mask = capacity - 1;
+    this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Spreads the key bits over the table, using the finalizer of MurmurHash3.
+   */
+  private int index(int key) {
+    key ^= key >>> 16;
+    key *= 0x85ebca6b;
+    key ^= key >>> 13;
+    key *= 0xc2b2ae35;
+    key ^= key >>> 16;
+    return key & mask;
+  }
+
+  private int findSlot(int key) {
+    int slot = index(key);
+    while (keys[slot] != FREE_KEY) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Empties the slot, moving back every following entry of the probe sequence that would
+   * otherwise no longer be found.
+   */
+  private void removeSlot(int slot) {
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (keys[next] != FREE_KEY) {
+      int ideal = index(keys[next]);
+      if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    keys[hole] = FREE_KEY;
+    size--;
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(keys.length * 2);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE_KEY) {
+        int slot = index(oldKeys[i]);
+        while (keys[slot] != FREE_KEY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
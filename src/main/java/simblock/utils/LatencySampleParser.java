@@ -0,0 +1,46 @@
+package simblock.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Parses measured latencies from a CSV file with the columns FromRegion, ToRegion and Latency, the
+ * regions being indexes in the region list and the latency in milliseconds. Every record is
+ * returned as an array {from, to, latency}.
+ */
+public class LatencySampleParser implements Parser<List<long[]>> {
+
+  public List<long[]> parse(InputStream is) throws IOException {
+    return parse(new InputStreamReader(is, StandardCharsets.UTF_8));
+  }
+
+  private List<long[]> parse(Reader reader) throws IOException {
+    List<long[]> samples = new ArrayList<>();
+
+    Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
+        .setHeader()
+        .setSkipHeaderRecord(true)
+        .setIgnoreHeaderCase(true)
+        .setTrim(true)
+        .build()
+        .parse(reader);
+
+    for (CSVRecord record : records) {
+      samples.add(new long[] {
+          Long.parseLong(record.get("FromRegion")),
+          Long.parseLong(record.get("ToRegion")),
+          Long.parseLong(record.get("Latency"))
+      });
+    }
+
+    reader.close();
+    return samples;
+  }
+}
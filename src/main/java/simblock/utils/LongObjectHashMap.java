@@ -0,0 +1,239 @@
+package simblock.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A hash map from primitive {@code long} keys to objects, avoiding the boxing and the per entry
+ * allocations of a {@link java.util.HashMap}. Entries are stored in parallel arrays using open
+ * addressing with linear probing, removals shift the following entries back instead of leaving
+ * deleted markers. Null values are not supported.
+ *
+ * @param <V> the type of the values
+ */
+public class LongObjectHashMap<V> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * The map grows once it is filled beyond this share, keeping probe sequences short.
+   */
+  private static final double LOAD_FACTOR = 0.5;
+
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+
+  /**
+   * Instantiates a new, empty map.
+   */
+  public LongObjectHashMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Instantiates a new, empty map able to hold the provided number of entries without growing.
+   *
+   * @param expectedSize the expected number of entries
+   */
+  public LongObjectHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  /**
+   * Gets the value mapped to the provided key.
+   *
+   * @param key the key
+   * @return the value or null if the key is not mapped
+   */
+  @SuppressWarnings("unchecked")
+  public V get(long key) {
+    int slot = findSlot(key);
+    return slot < 0 ? null : (V) values[slot];
+  }
+
+  /**
+   * Checks whether the key is mapped.
+   *
+   * @param key the key
+   * @return true if the key is mapped
+   */
+  public boolean containsKey(long key) {
+    return findSlot(key) >= 0;
+  }
+
+  /**
+   * Maps the key to the provided value.
+   *
+   * @param key   the key
+   * @param value the value, must not be null
+   * @return the value previously mapped to the key or null
+   */
+  @SuppressWarnings("unchecked")
+  public V put(long key, V value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null values are not supported");
+    }
+
+    int slot = index(key);
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > resizeThreshold) {
+      grow();
+    }
+    return null;
+  }
+
+  /**
+   * Removes the mapping of the key.
+   *
+   * @param key the key
+   * @return the removed value or null if the key was not mapped
+   */
+  @SuppressWarnings("unchecked")
+  public V remove(long key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    V previous = (V) values[slot];
+    removeSlot(slot);
+    return previous;
+  }
+
+  /**
+   * Removes the mapping of the key only if it is mapped to the provided value.
+   *
+   * @param key   the key
+   * @param value the expected value
+   * @return true if the mapping was removed
+   */
+  public boolean remove(long key, V value) {
+    int slot = findSlot(key);
+    if (slot < 0 || !values[slot].equals(value)) {
+      return false;
+    }
+    removeSlot(slot);
+    return true;
+  }
+
+  /**
+   * Gets the number of entries.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the map is empty.
+   *
+   * @return true if there are no entries
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Applies the action to every value, in no particular order. The map must not be changed by
+   * the action.
+   *
+   * @param action the action
+   */
+  @SuppressWarnings("unchecked")
+  public void forEachValue(Consumer<? super V> action) {
+    for (Object value : values) {
+      if (value != null) {
+        action.accept((V) value);
+      }
+    }
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    this.mask = capacity - 1;
+    this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  /**
+   * Spreads the key bits over the table, using the finalizer of MurmurHash3.
+   */
+  private int index(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key & mask;
+  }
+
+  private int findSlot(long key) {
+    int slot = index(key);
+    while (values[slot] != null) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Empties the slot, moving back every following entry of the probe sequence that would
+   * otherwise no longer be found.
+   */
+  private void removeSlot(int slot) {
+    int hole = slot;
+    int next = (hole + 1) & mask;
+    while (values[next] != null) {
+      int ideal = index(keys[next]);
+      if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+        keys[hole] = keys[next];
+        values[hole] = values[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    values[hole] = null;
+    size--;
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(keys.length * 2);
+
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int slot = index(oldKeys[i]);
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -18,9 +18,12 @@ public class NodeDegreeParser implements Parser<Double[]> {
     ArrayList<Double> values = new ArrayList<>(125);
 
     // read csv file
-    Iterable<CSVRecord> records = CSVFormat.DEFAULT.withFirstRecordAsHeader()
-        .withIgnoreHeaderCase()
-        .withTrim()
+    Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
+        .setHeader()
+        .setSkipHeaderRecord(true)
+        .setIgnoreHeaderCase(true)
+        .setTrim(true)
+        .build()
         .parse(reader);
 
     for (CSVRecord record : records) {
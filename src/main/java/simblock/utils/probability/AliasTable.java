@@ -0,0 +1,236 @@
+package simblock.utils.probability;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+
+/**
+ * Discrete distribution sampled with the alias method, see M. D. Vose, "A linear algorithm for
+ * generating random numbers with a given distribution", IEEE TSE 17(9), 1991.
+ *
+ * <p>Each of the n outcomes owns a column of probability 1/n, split between the outcome itself and
+ * a single alias filling the rest of the column. Building the table is O(n) and drawing a sample
+ * is O(1): a uniform column is picked and a biased coin decides between the outcome and its
+ * alias. Samples are plain {@code int} values, nothing is boxed.
+ *
+ * <p>Seeded populations are drawn by inverse transform sampling instead, from the same generator
+ * and cumulative probabilities as commons-math {@code EnumeratedDistribution}, so a population
+ * drawn for a seed is the one {@link ProbabilityUtils} draws and seeded simulations keep their
+ * networks. A guide table, see H.-C. Chen and Y. Asau, "On generating random variates from an
+ * empirical distribution", AIIE Transactions 6(2), 1974, keeps each of these draws O(1) on
+ * average.
+ */
+public class AliasTable implements SimblockDistribution {
+
+  /**
+   * The probability of keeping the outcome of each column rather than taking its alias.
+   */
+  private double[] probabilities;
+  private int[] aliases;
+
+  /**
+   * The cumulative probabilities of the outcomes, summed as {@code EnumeratedDistribution} does.
+   */
+  private double[] cumulativeProbabilities;
+
+  /**
+   * The first outcome of cumulative probability above i / n for every i, where inverse transform
+   * draws start their search.
+   */
+  private int[] guide;
+
+  /**
+   * Instantiates a new, empty alias table, to be set through {@link #fromPmf} or
+   * {@link #fromCdf}.
+   */
+  public AliasTable() {
+  }
+
+  /**
+   * Instantiates a new alias table drawing every outcome with probability proportional to its
+   * weight.
+   *
+   * @param weights the non negative weights, index represents the outcome
+   */
+  public AliasTable(double[] weights) {
+    fromPmf(weights);
+  }
+
+  /**
+   * Instantiates a new alias table drawing every outcome with probability proportional to its
+   * weight, as needed for picking nodes by mining power.
+   *
+   * @param weights the non negative weights, index represents the outcome
+   */
+  public AliasTable(long[] weights) {
+    double[] converted = new double[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      converted[i] = weights[i];
+    }
+    fromPmf(converted);
+  }
+
+  /**
+   * Builds the table from the given probability mass function. The values do not need to sum up
+   * to one, they are used as weights.
+   *
+   * @param distribution the pmf array, index represents the occurrence, value represents
+   *                     the probability.
+   */
+  @Override
+  public void fromPmf(double[] distribution) {
+    int size = distribution.length;
+    if (size == 0) {
+      throw new IllegalArgumentException("The distribution has no outcome");
+    }
+
+    double total = 0;
+    for (double weight : distribution) {
+      if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Invalid weight " + weight);
+      }
+      total += weight;
+    }
+    if (total <= 0) {
+      throw new IllegalArgumentException("The weights sum up to zero");
+    }
+
+    probabilities = new double[size];
+    aliases = new int[size];
+
+    // Columns below and above the average, used as stacks
+    double[] scaled = new double[size];
+    int[] small = new int[size];
+    int[] large = new int[size];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < size; i++) {
+      scaled[i] = distribution[i] * size / total;
+      if (scaled[i] < 1.0) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+
+    // Fill every small column with a part of a large one
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      probabilities[less] = scaled[less];
+      aliases[less] = more;
+
+      scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+      if (scaled[more] < 1.0) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+
+    // Whatever is left is full up to rounding errors
+    while (largeCount > 0) {
+      int more = large[--largeCount];
+      probabilities[more] = 1.0;
+      aliases[more] = more;
+    }
+    while (smallCount > 0) {
+      int less = small[--smallCount];
+      probabilities[less] = 1.0;
+      aliases[less] = less;
+    }
+
+    cumulativeProbabilities = new double[size];
+    double cumulative = 0;
+    for (int i = 0; i < size; i++) {
+      cumulative += distribution[i] / total;
+      cumulativeProbabilities[i] = cumulative;
+    }
+    guide = new int[size];
+    int outcome = 0;
+    for (int i = 0; i < size; i++) {
+      while (outcome < size - 1 && cumulativeProbabilities[outcome] <= (double) i / size) {
+        outcome++;
+      }
+      guide[i] = outcome;
+    }
+  }
+
+  /**
+   * Builds the table from the given cumulative distribution function.
+   *
+   * @param distribution the cdf array, index represents the occurrence, value represents
+   *                     the probability.
+   */
+  @Override
+  public void fromCdf(double[] distribution) {
+    double[] pmf = new double[distribution.length];
+    for (int i = 0; i < distribution.length; i++) {
+      // Rounding errors must not turn a flat step into a negative weight
+      pmf[i] = i == 0 ? distribution[0] : Math.max(0.0, distribution[i] - distribution[i - 1]);
+    }
+    fromPmf(pmf);
+  }
+
+  /**
+   * Gets the number of outcomes.
+   *
+   * @return the number of outcomes
+   */
+  public int size() {
+    return aliases.length;
+  }
+
+  /**
+   * Draws an outcome.
+   *
+   * @param random the random instance to draw with
+   * @return the outcome
+   */
+  public int sample(Random random) {
+    int column = random.nextInt(aliases.length);
+    return random.nextDouble() < probabilities[column] ? column : aliases[column];
+  }
+
+  /**
+   * Draws an outcome by inverse transform sampling: the first outcome of cumulative probability
+   * above a uniform value, or the last outcome if none is, as well as when the value equals a
+   * cumulative probability, as {@code EnumeratedDistribution} does.
+   *
+   * @param random the generator to draw with
+   * @return the outcome
+   */
+  private int sampleInverse(RandomGenerator random) {
+    double value = random.nextDouble();
+    int last = cumulativeProbabilities.length - 1;
+    int outcome = guide[(int) (value * guide.length)];
+    while (outcome < last && cumulativeProbabilities[outcome] <= value) {
+      outcome++;
+    }
+    if (outcome > 0 && cumulativeProbabilities[outcome - 1] == value) {
+      return last;
+    }
+    return outcome;
+  }
+
+  @Override
+  public int[] samplePopulation(int size, long seed) {
+    RandomGenerator random = new Well19937c(seed);
+    int[] population = new int[size];
+    for (int i = 0; i < size; i++) {
+      population[i] = sampleInverse(random);
+    }
+    return population;
+  }
+
+  @Override
+  public ArrayList<Integer> generatePopulation(int size, long seed) {
+    int[] samples = samplePopulation(size, seed);
+    ArrayList<Integer> population = new ArrayList<>(size);
+    for (int sample : samples) {
+      population.add(sample);
+    }
+    return population;
+  }
+}
@@ -0,0 +1,75 @@
+package simblock.utils.probability;
+
+import java.util.Random;
+
+/**
+ * A {@link Random} whose state can be saved and restored, drawing the same numbers as a
+ * {@link Random} created with the same seed. The state of a {@link Random} is not accessible, so
+ * its linear congruential generator is reimplemented here.
+ *
+ * <p>Unlike {@link Random#nextGaussian()}, {@link #nextGaussian()} does not keep the second
+ * number of a pair for the next call, so the state is just the seed.
+ */
+public class CheckpointableRandom extends Random {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final long MULTIPLIER = 0x5DEECE66DL;
+  private static final long ADDEND = 0xBL;
+  private static final long MASK = (1L << 48) - 1;
+
+  // Not initialized on purpose, the super constructor sets it through setSeed
+  private long state;
+
+  /**
+   * Instantiates a new random instance.
+   *
+   * @param seed the seed
+   */
+  public CheckpointableRandom(long seed) {
+    super(seed);
+  }
+
+  @Override
+  public synchronized void setSeed(long seed) {
+    this.state = (seed ^ MULTIPLIER) & MASK;
+  }
+
+  @Override
+  protected int next(int bits) {
+    state = (state * MULTIPLIER + ADDEND) & MASK;
+    return (int) (state >>> (48 - bits));
+  }
+
+  @Override
+  public double nextGaussian() {
+    // Polar method, as in Random
+    double v1;
+    double v2;
+    double s;
+    do {
+      v1 = 2 * nextDouble() - 1;
+      v2 = 2 * nextDouble() - 1;
+      s = v1 * v1 + v2 * v2;
+    } while (s >= 1 || s == 0);
+    return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+  }
+
+  /**
+   * Gets the current state.
+   *
+   * @return the state
+   */
+  public long getState() {
+    return state;
+  }
+
+  /**
+   * Restores a state returned by {@link #getState()}.
+   *
+   * @param state the state
+   */
+  public void setState(long state) {
+    this.state = state;
+  }
+}
@@ -44,4 +44,21 @@ public interface SimblockDistribution {
    * @return the array list
    */
   ArrayList<Integer> generatePopulation(int size, long seed);
+
+  /**
+   * Generate a population array using the given seed. Implementations able to sample primitive
+   * values should override this method, the default unboxes {@link #generatePopulation}.
+   *
+   * @param size the size
+   * @param seed the seed
+   * @return the population array
+   */
+  default int[] samplePopulation(int size, long seed) {
+    ArrayList<Integer> population = generatePopulation(size, seed);
+    int[] samples = new int[size];
+    for (int i = 0; i < size; i++) {
+      samples[i] = population.get(i);
+    }
+    return samples;
+  }
 }
@@ -0,0 +1,70 @@
+package simblock.utils.stats;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * The {@link SimulationStatistics} of independent replications of a simulation, aggregated into
+ * confidence intervals.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class BatchStatistics {
+
+  /**
+   * The statistics of every replication.
+   */
+  private List<SimulationStatistics> replications;
+
+  /**
+   * The measured block interval in milliseconds.
+   */
+  private ConfidenceInterval blockInterval;
+
+  /**
+   * The median of the propagation of every generated block to every simulated node.
+   */
+  private ConfidenceInterval medianBlockPropagationTime;
+
+  /**
+   * The percentage of orphaned blocks in the amount of all blocks.
+   */
+  private ConfidenceInterval forkRate;
+
+  /**
+   * Aggregates the statistics of the replications.
+   *
+   * @param replications the statistics of every replication
+   * @param level        the confidence level, between 0 and 1
+   * @return the aggregated statistics
+   */
+  public static BatchStatistics of(List<SimulationStatistics> replications, double level) {
+    return BatchStatistics.builder()
+        .replications(List.copyOf(replications))
+        .blockInterval(interval(replications, SimulationStatistics::getBlockInterval, level))
+        .medianBlockPropagationTime(
+            interval(replications, SimulationStatistics::getMedianBlockPropagationTime, level))
+        .forkRate(interval(replications, SimulationStatistics::getForkRate, level))
+        .build();
+  }
+
+  private static ConfidenceInterval interval(List<SimulationStatistics> replications,
+                                             ToDoubleFunction<SimulationStatistics> statistic,
+                                             double level) {
+    return ConfidenceInterval.of(replications.stream().mapToDouble(statistic).toArray(), level);
+  }
+
+  @Override
+  public String toString() {
+    return "BatchStatistics{"
+        + "replications=" + replications.size()
+        + ", blockInterval=" + blockInterval + " ms"
+        + ", medianBlockPropagationTime=" + medianBlockPropagationTime + " ms"
+        + ", forkRate=" + forkRate + " percent"
+        + '}';
+  }
+}
@@ -0,0 +1,77 @@
+package simblock.utils.stats;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * A confidence interval for the mean of independent samples, based on the Student t
+ * distribution.
+ */
+@Getter
+@EqualsAndHashCode
+public class ConfidenceInterval {
+
+  private final double mean;
+
+  /**
+   * Half of the width of the interval, NaN for a single sample.
+   */
+  private final double halfWidth;
+
+  /**
+   * The confidence level, e.g. 0.95.
+   */
+  private final double level;
+
+  private final long sampleSize;
+
+  private ConfidenceInterval(double mean, double halfWidth, double level, long sampleSize) {
+    this.mean = mean;
+    this.halfWidth = halfWidth;
+    this.level = level;
+    this.sampleSize = sampleSize;
+  }
+
+  /**
+   * Computes the confidence interval for the mean of the provided samples.
+   *
+   * @param samples the samples
+   * @param level   the confidence level, between 0 and 1
+   * @return the confidence interval
+   */
+  public static ConfidenceInterval of(double[] samples, double level) {
+    if (samples.length == 0) {
+      throw new IllegalArgumentException("At least one sample is needed");
+    }
+    if (level <= 0 || level >= 1) {
+      throw new IllegalArgumentException("The confidence level must be between 0 and 1");
+    }
+
+    SummaryStatistics statistics = new SummaryStatistics();
+    for (double sample : samples) {
+      statistics.addValue(sample);
+    }
+
+    double halfWidth = Double.NaN;
+    if (samples.length > 1) {
+      double t = new TDistribution(samples.length - 1).inverseCumulativeProbability(1 - (1 - level) / 2);
+      halfWidth = t * statistics.getStandardDeviation() / Math.sqrt(samples.length);
+    }
+    return new ConfidenceInterval(statistics.getMean(), halfWidth, level, samples.length);
+  }
+
+  public double getLower() {
+    return mean - halfWidth;
+  }
+
+  public double getUpper() {
+    return mean + halfWidth;
+  }
+
+  @Override
+  public String toString() {
+    return mean + " ± " + halfWidth + " (" + Math.round(level * 100) + "%, n=" + sampleSize + ")";
+  }
+}
@@ -0,0 +1,149 @@
+package simblock.utils.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Streaming histogram of non negative integer values, answering quantile queries in constant
+ * memory. Values below {@value #SUB_BUCKETS} are counted exactly, above every power of two range
+ * is split into {@value #SUB_BUCKETS} buckets of equal width, bounding the relative error of a
+ * reported quantile to half a bucket, about 0.4 percent.
+ */
+public class LogLinearHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private long[] counts = new long[2 * SUB_BUCKETS];
+
+  @Getter
+  private long count;
+
+  @Getter
+  private long min = Long.MAX_VALUE;
+
+  @Getter
+  private long max = Long.MIN_VALUE;
+
+  private double sum;
+
+  /**
+   * Records a value.
+   *
+   * @param value the value, not negative
+   * @throws IllegalArgumentException if the value is negative
+   */
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Negative value: " + value);
+    }
+    int index = index(value);
+    if (index >= counts.length) {
+      counts = Arrays.copyOf(counts, Math.max(index + 1, 2 * counts.length));
+    }
+    counts[index]++;
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    sum += value;
+  }
+
+  /**
+   * Gets the mean of the recorded values.
+   *
+   * @return the mean or NaN if no value has been recorded
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : sum / count;
+  }
+
+  /**
+   * Gets the value below or at which the provided share of the recorded values lie, e.g. the
+   * median for 0.5.
+   *
+   * @param quantile the quantile, between 0 and 1
+   * @return the value or NaN if no value has been recorded
+   */
+  public double getValueAtQuantile(double quantile) {
+    if (quantile < 0 || quantile > 1) {
+      throw new IllegalArgumentException("The quantile must be between 0 and 1: " + quantile);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(quantile * count));
+    long seen = 0;
+    int index = 0;
+    while (seen + counts[index] < rank) {
+      seen += counts[index++];
+    }
+    double midpoint = lowestValue(index) + (bucketWidth(index) - 1) / 2.0;
+    return Math.min(Math.max(midpoint, min), max);
+  }
+
+  /**
+   * Gets the cumulative distribution of the recorded values, one point for every non empty
+   * bucket in ascending order.
+   *
+   * @return the points of the distribution
+   */
+  public List<Point> getCdf() {
+    List<Point> cdf = new ArrayList<>();
+    long seen = 0;
+    for (int index = 0; index < counts.length && seen < count; index++) {
+      if (counts[index] > 0) {
+        seen += counts[index];
+        long highest = lowestValue(index) + bucketWidth(index) - 1;
+        cdf.add(new Point(Math.min(highest, max), (double) seen / count));
+      }
+    }
+    return cdf;
+  }
+
+  private static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+  }
+
+  private static long lowestValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+  }
+
+  private static long bucketWidth(int index) {
+    return index < SUB_BUCKETS ? 1 : 1L << ((index >>> SUB_BUCKET_BITS) - 1);
+  }
+
+  /**
+   * A point of a cumulative distribution.
+   */
+  @Getter
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  @ToString
+  public static class Point {
+
+    /**
+     * The highest value of the bucket.
+     */
+    private final long value;
+
+    /**
+     * The share of the recorded values below or at the value.
+     */
+    private final double cumulativeFraction;
+  }
+}
@@ -20,18 +20,50 @@ public class SimulationStatistics {
    */
   private double medianBlockPropagationTime;
 
+  /**
+   * The 90th percentile of the propagation of every generated block to every simulated node.
+   */
+  private double p90BlockPropagationTime;
+
+  /**
+   * The 99th percentile of the propagation of every generated block to every simulated node.
+   */
+  private double p99BlockPropagationTime;
+
+  /**
+   * The median of the time the generated blocks took to reach half of the simulated nodes, NaN if
+   * no block did.
+   */
+  private double medianTimeToReachHalf;
+
+  /**
+   * The median of the time the generated blocks took to reach 90 percent of the simulated nodes,
+   * NaN if no block did.
+   */
+  private double medianTimeToReachNinetyPercent;
+
   /**
    * The percentage of orphaned blocks in the amount of all blocks.
    */
   private double forkRate;
 
+  /**
+   * The average share of the maximum block size filled by the blocks of the main chain, 0 if
+   * transactions are not simulated.
+   */
+  private double blockFullness;
 
   @Override
   public String toString() {
     return "SimulationStatistics{"
         + "blockInterval=" + TimeUnit.MILLISECONDS.toMinutes((long) blockInterval) + " minutes"
         + ", medianBlockPropagationTime=" + TimeUnit.MILLISECONDS.toSeconds((long) medianBlockPropagationTime) + " seconds"
+        + ", p90BlockPropagationTime=" + TimeUnit.MILLISECONDS.toSeconds((long) p90BlockPropagationTime) + " seconds"
+        + ", p99BlockPropagationTime=" + TimeUnit.MILLISECONDS.toSeconds((long) p99BlockPropagationTime) + " seconds"
+        + ", medianTimeToReachHalf=" + TimeUnit.MILLISECONDS.toSeconds((long) medianTimeToReachHalf) + " seconds"
+        + ", medianTimeToReachNinetyPercent=" + TimeUnit.MILLISECONDS.toSeconds((long) medianTimeToReachNinetyPercent) + " seconds"
         + ", forkRate=" + forkRate + " percent"
+        + ", blockFullness=" + blockFullness * 100 + " percent"
         + '}';
   }
 }
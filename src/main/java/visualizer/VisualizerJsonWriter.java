@@ -32,11 +32,20 @@ public class VisualizerJsonWriter implements IVisualizerEventObserver {
 
 
   /**
-   * Instantiates a new Json writer.
+   * Instantiates a new Json writer, writing to the default output directory.
    */
   public VisualizerJsonWriter() {
+    this(Paths.get(OUT_FILE_URI).toUri());
+  }
+
+  /**
+   * Instantiates a new Json writer.
+   *
+   * @param outDirectoryUri the directory the output file is written to
+   */
+  public VisualizerJsonWriter(URI outDirectoryUri) {
 
-    this.outFileUri = Paths.get(OUT_FILE_URI).toUri();
+    this.outFileUri = outDirectoryUri;
     this.empty = true;
     this.serializer = new JsonSerializer();
 
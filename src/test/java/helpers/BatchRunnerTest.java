@@ -0,0 +1,46 @@
+package helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simblock.Simulation;
+import simblock.utils.stats.BatchStatistics;
+import simblock.utils.stats.SimulationStatistics;
+
+class BatchRunnerTest {
+
+  private static SimulationSettings settings() {
+    SimulationSettings settings = new SimulationSettings();
+    settings.numOfNodes = 20;
+    settings.interval = 1000 * 60 * 10;
+    settings.endBlockHeight = 10;
+    settings.simulationType = SimulationType.DEFAULT;
+    return settings;
+  }
+
+  @Test
+  void concurrentReplicationsMatchSingleRuns(@TempDir Path outputRoot) throws Exception {
+    BatchRunner runner = new BatchRunner(BatchRunnerTest::settings, 4, 100, outputRoot, 4);
+    BatchStatistics statistics = runner.run();
+
+    List<SimulationStatistics> replications = statistics.getReplications();
+    assertEquals(4, replications.size());
+    for (int i = 0; i < replications.size(); i++) {
+      assertTrue(Files.exists(outputRoot.resolve("run-" + i).resolve("blockList.txt")));
+
+      Simulation single = new Simulation(runner.getSettings(i));
+      single.run();
+      assertEquals(single.getSimulationStatistics(), replications.get(i));
+    }
+
+    // Different seeds draw different simulations
+    assertNotEquals(replications.get(0), replications.get(1));
+    assertEquals(4, statistics.getForkRate().getSampleSize());
+  }
+}
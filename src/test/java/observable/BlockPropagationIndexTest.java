@@ -0,0 +1,62 @@
+package observable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import org.junit.jupiter.api.Test;
+import simblock.block.Block;
+import simblock.block.ProofOfWorkBlock;
+
+class BlockPropagationIndexTest {
+
+  private static Block block(int id) {
+    return new ProofOfWorkBlock(null, BigInteger.ZERO, id);
+  }
+
+  @Test
+  void sightingsKeepTheOrderNodesFirstSawTheBlock() {
+    BlockPropagationIndex index = new BlockPropagationIndex(2, 2);
+    Block block = block(1);
+    index.add(block);
+
+    index.put(block, 30, 100);
+    index.put(block, 10, 200);
+    index.put(block, 20, 300);
+    // A repeated sighting replaces the time but keeps the position
+    index.put(block, 30, 400);
+
+    assertEquals(3, index.getSightingCount(0));
+    assertEquals(30, index.getNodeID(0, 0));
+    assertEquals(400, index.getPropagationTime(0, 0));
+    assertEquals(20, index.getNodeID(0, 2));
+    assertEquals(300, index.getPropagationTime(0, 2));
+  }
+
+  @Test
+  void oldestBlockIsEvictedFirst() {
+    BlockPropagationIndex index = new BlockPropagationIndex(2, 4);
+    for (int id = 1; id <= 5; id++) {
+      if (index.isFull()) {
+        assertEquals(id - 2, index.getBlock(0).getId());
+        index.removeOldest();
+      }
+      Block block = block(id);
+      index.add(block);
+      index.put(block, id, id);
+    }
+
+    assertEquals(2, index.size());
+    assertFalse(index.contains(block(3)));
+    assertTrue(index.contains(block(4)));
+    assertEquals(5, index.getBlock(1).getId());
+    // Reused slots start without sightings
+    assertEquals(1, index.getSightingCount(1));
+    assertEquals(5, index.getNodeID(1, 0));
+    assertThrows(IllegalStateException.class, () -> index.add(block(6)));
+    assertThrows(IllegalArgumentException.class, () -> index.put(block(3), 1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> index.getBlock(2));
+  }
+}
@@ -0,0 +1,85 @@
+package observable;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BlockSightingLogTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void recordsAreReadBackInOrder() throws IOException {
+    Path file = directory.resolve("sightings.bin");
+    BlockSightingLog log = new BlockSightingLog(file);
+    // More records than the buffer holds
+    int count = 200000;
+    for (int i = 0; i < count; i++) {
+      log.append(i, i / 10, 1000L * i);
+    }
+    log.close();
+
+    assertEquals((long) count * BlockSightingLog.RECORD_SIZE, Files.size(file));
+    BlockSightingReader reader = new BlockSightingReader(file);
+    assertEquals(count, reader.size());
+    assertEquals(new BlockSighting(123456, 12345, 123456000L), reader.get(123456));
+    double[] times = reader.getPropagationTimes();
+    assertEquals(count, times.length);
+    assertEquals(1000.0 * (count - 1), times[count - 1]);
+  }
+
+  @Test
+  void closedLogAppendsFurtherRecords() throws IOException {
+    Path file = directory.resolve("sightings.bin");
+    BlockSightingLog log = new BlockSightingLog(file);
+    log.append(1, 2, 3);
+    log.close();
+    log.append(4, 5, 6);
+    log.close();
+
+    BlockSightingReader reader = new BlockSightingReader(file);
+    assertEquals(2, reader.size());
+    assertArrayEquals(new double[] {3, 6}, reader.getPropagationTimes());
+    assertEquals(4, reader.getNodeID(1));
+    assertEquals(5, reader.getBlockID(1));
+  }
+
+  @Test
+  void newLogDeletesPreviousRecords() throws IOException {
+    Path file = directory.resolve("sightings.bin");
+    BlockSightingLog previous = new BlockSightingLog(file);
+    previous.append(1, 2, 3);
+    previous.close();
+
+    new BlockSightingLog(file);
+
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  void partialRecordsAreRejected() throws IOException {
+    Path file = directory.resolve("sightings.bin");
+    Files.write(file, new byte[BlockSightingLog.RECORD_SIZE + 1]);
+
+    assertThrows(IllegalArgumentException.class, () -> new BlockSightingReader(file));
+  }
+
+  @Test
+  void readingOutOfBoundsFails() throws IOException {
+    Path file = directory.resolve("sightings.bin");
+    BlockSightingLog log = new BlockSightingLog(file);
+    log.close();
+
+    BlockSightingReader reader = new BlockSightingReader(file);
+    assertEquals(0, reader.size());
+    assertThrows(IndexOutOfBoundsException.class, () -> reader.getNodeID(0));
+  }
+}
@@ -0,0 +1,37 @@
+package observable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class PropagationStatisticsTest {
+
+  @Test
+  void timeToReachIsTheSightingCompletingTheShare() {
+    PropagationStatistics statistics = new PropagationStatistics(10, 0.5, 0.9);
+    // The minter and four further nodes make half of the nodes
+    for (int node = 1; node < 10; node++) {
+      statistics.record(1, node * 100L);
+    }
+    for (int node = 1; node < 6; node++) {
+      statistics.record(2, node * 10L);
+    }
+
+    assertEquals(14, statistics.getSightings().getCount());
+    assertEquals(2, statistics.getTimeToReach(0.5).getCount());
+    assertEquals(40, statistics.getTimeToReach(0.5).getMin());
+    assertEquals(400, statistics.getTimeToReach(0.5).getMax());
+    // Only the first block reached 90 percent
+    assertEquals(1, statistics.getTimeToReach(0.9).getCount());
+    assertEquals(800, statistics.getTimeToReach(0.9).getMax());
+  }
+
+  @Test
+  void untrackedShareIsRejected() {
+    PropagationStatistics statistics = new PropagationStatistics(10, 0.5);
+
+    assertThrows(IllegalArgumentException.class, () -> statistics.getTimeToReach(0.9));
+    assertThrows(IllegalArgumentException.class, () -> new PropagationStatistics(10, 1.5));
+  }
+}
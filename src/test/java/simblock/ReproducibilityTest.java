@@ -0,0 +1,63 @@
+package simblock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import helpers.SimulationFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Two runs with the same seed must produce byte identical output files. Each run is forked into a
+ * JVM of its own, so no state left in the JVM by the first run, static or not, can make the
+ * second one agree with it.
+ */
+class ReproducibilityTest {
+
+  private static final Path OUTPUT_DIRECTORY = Paths.get("dist/output");
+
+  /**
+   * Runs the default simulation, its output is written below the working directory.
+   */
+  static class Run {
+    public static void main(String[] args) {
+      SimulationFactory.getInstance().run();
+    }
+  }
+
+  private static byte[][] runAndReadOutput(Path workingDirectory)
+      throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(
+        Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+        "-cp", System.getProperty("java.class.path"),
+        Run.class.getName())
+        .directory(workingDirectory.toFile())
+        .redirectErrorStream(true)
+        .redirectOutput(workingDirectory.resolve("run.log").toFile())
+        .start();
+    assertEquals(0, process.waitFor(), "The run failed, see " + workingDirectory.resolve("run.log"));
+
+    Path outputDirectory = workingDirectory.resolve(OUTPUT_DIRECTORY);
+    return new byte[][] {
+        Files.readAllBytes(outputDirectory.resolve("blockList.txt")),
+        Files.readAllBytes(outputDirectory.resolve("blockSightings.bin"))
+    };
+  }
+
+  @Test
+  void twoRunsWithTheSameSeedProduceIdenticalOutput(@TempDir Path directory)
+      throws IOException, InterruptedException {
+    byte[][] first = runAndReadOutput(Files.createDirectory(directory.resolve("first")));
+    byte[][] second = runAndReadOutput(Files.createDirectory(directory.resolve("second")));
+
+    assertTrue(first[0].length > 0);
+    assertTrue(first[1].length > 0);
+    assertArrayEquals(first[0], second[0], "blockList.txt differs");
+    assertArrayEquals(first[1], second[1], "blockSightings.bin differs");
+  }
+}
@@ -1,9 +1,11 @@
 package simblock.block;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 import java.math.BigInteger;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,27 +15,24 @@ import simblock.node.NetworkNode;
 class BlockTest {
 
   NetworkNode mockedNode;
-  ProofOfWorkBlock mockedParentBlock;
+  ProofOfWorkBlock genesisBlock;
 
   @BeforeEach
   void setup() {
     mockedNode = mock(NetworkNode.class);
-    mockedParentBlock = mock(ProofOfWorkBlock.class);
-    when(mockedParentBlock.getTotalDifficulty()).thenReturn(BigInteger.ZERO);
-    // TODO: change when difficulty is implemented
-    when(mockedParentBlock.getNextDifficulty()).thenReturn(BigInteger.ZERO); 
+    genesisBlock = new ProofOfWorkBlock(null, BigInteger.ZERO, 0);
   }
 
   @Test
   void getHeight() {
-    Block testBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 0);
+    Block testBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 0);
 
     assertEquals(1, testBlock.getHeight());
   }
 
   @Test
   void getParent() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(firstBlock, mockedNode, 1, BigInteger.ZERO, 2);
 
     assertEquals(secondBlock.getParent(), firstBlock);
@@ -41,21 +40,21 @@ class BlockTest {
 
   @Test
   void getMinter() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
 
     assertEquals(mockedNode, firstBlock.getMinter());
   }
 
   @Test
   void getTime() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
 
     assertEquals(0, firstBlock.getTime());
   }
 
   @Test
   void getId() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(firstBlock, mockedNode, 1, BigInteger.ZERO, 2);
 
     assertEquals(2, secondBlock.getId());
@@ -70,7 +69,7 @@ class BlockTest {
 
   @Test
   void getBlockWithHeight() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(firstBlock, mockedNode, 1, BigInteger.ZERO, 2);
 
     assertEquals(firstBlock, secondBlock.getBlockWithHeight(1));
@@ -81,7 +80,7 @@ class BlockTest {
    */
   @Test
   void getBlockWithHeight_shouldReturn_null() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(firstBlock, mockedNode, 1, BigInteger.ZERO, 2);
 
     assertEquals(null, secondBlock.getBlockWithHeight(3));
@@ -89,9 +88,54 @@ class BlockTest {
 
   @Test
   void isOnSameChainAs() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, mockedNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, mockedNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(firstBlock, mockedNode, 1, BigInteger.ZERO, 2);
 
     assertTrue(secondBlock.isOnSameChainAs(firstBlock));
   }
-}
\ No newline at end of file
+
+  @Test
+  void getBlockWithHeight_findsEveryAncestorOfLongChain() {
+    ProofOfWorkBlock genesis = new ProofOfWorkBlock(mockedNode, BigInteger.ZERO, 0);
+    ProofOfWorkBlock[] chain = new ProofOfWorkBlock[5000];
+    chain[0] = genesis;
+    for (int i = 1; i < chain.length; i++) {
+      chain[i] = new ProofOfWorkBlock(chain[i - 1], mockedNode, i, BigInteger.ZERO, i);
+    }
+
+    Block tip = chain[chain.length - 1];
+    for (int height = 0; height < chain.length; height++) {
+      assertSame(chain[height], tip.getBlockWithHeight(height));
+    }
+    assertSame(chain[1234], chain[4321].getBlockWithHeight(1234));
+  }
+
+  @Test
+  void isOnSameChainAs_rejectsForkedBranch() {
+    ProofOfWorkBlock genesis = new ProofOfWorkBlock(mockedNode, BigInteger.ZERO, 0);
+    ProofOfWorkBlock fork = genesis;
+    ProofOfWorkBlock main = genesis;
+    for (int i = 1; i <= 300; i++) {
+      main = new ProofOfWorkBlock(main, mockedNode, i, BigInteger.ZERO, i);
+      if (i == 100) {
+        fork = main;
+      }
+    }
+    ProofOfWorkBlock branch = fork;
+    for (int i = 1; i <= 50; i++) {
+      branch = new ProofOfWorkBlock(branch, mockedNode, i, BigInteger.ZERO, 1000 + i);
+    }
+
+    assertTrue(main.isOnSameChainAs(fork));
+    assertTrue(branch.isOnSameChainAs(fork));
+    assertFalse(main.isOnSameChainAs(branch));
+    assertFalse(branch.isOnSameChainAs(main));
+  }
+
+  @Test
+  void heightMustBeOneAboveTheParent() {
+    assertEquals(7, new Block(7, null, mockedNode, 0, 1).getHeight());
+    assertEquals(1, new Block(1, genesisBlock, mockedNode, 0, 2).getHeight());
+    assertThrows(IllegalArgumentException.class, () -> new Block(3, genesisBlock, mockedNode, 0, 3));
+  }
+}
@@ -0,0 +1,80 @@
+package simblock.block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class BlockTreeTest {
+
+  @Test
+  void tracksOrphansOfEveryNode() {
+    BlockTree tree = new BlockTree();
+    Block genesis = new Block(null, null, 0, 0);
+    Block first = new Block(genesis, null, 1, 1);
+    Block second = new Block(genesis, null, 2, 2);
+
+    assertTrue(tree.addOrphan(0, first));
+    assertTrue(tree.addOrphan(100, first));
+    assertTrue(tree.addOrphan(100, second));
+    assertFalse(tree.addOrphan(100, second));
+
+    assertTrue(tree.isOrphan(100, first));
+    assertFalse(tree.isOrphan(1, first));
+    assertEquals(2, tree.getOrphanCount(100));
+    assertEquals(0, tree.getOrphanCount(5000));
+    assertEquals(3, tree.getOrphanCount());
+    assertEquals(Set.of(first, second), tree.getOrphanBlocks());
+
+    assertTrue(tree.removeOrphan(100, second));
+    assertFalse(tree.removeOrphan(100, second));
+    assertEquals(List.of(first), tree.getOrphans(100));
+    assertEquals(Set.of(first), tree.getOrphanBlocks());
+    assertEquals(2, tree.getOrphanCount());
+  }
+
+  @Test
+  void orphansAreKeptInBlockIdOrder() {
+    BlockTree tree = new BlockTree();
+    tree.ensureCapacity(2);
+    Block genesis = new Block(null, null, 0, 0);
+    Block[] blocks = new Block[10];
+    for (int id = blocks.length; id > 0; id--) {
+      blocks[id - 1] = new Block(genesis, null, id, id);
+      tree.addOrphan(1, blocks[id - 1]);
+    }
+
+    assertEquals(List.of(blocks), tree.getOrphans(1));
+    Block[] copy = tree.copyOrphans(1);
+    assertTrue(tree.removeOrphan(1, blocks[4]));
+    tree.setOrphans(0, copy);
+    tree.setOrphans(1, new Block[] {blocks[0]});
+
+    assertEquals(List.of(blocks), tree.getOrphans(0));
+    assertEquals(List.of(blocks[0]), tree.getOrphans(1));
+    assertFalse(tree.isOrphan(1, blocks[1]));
+    assertEquals(11, tree.getOrphanCount());
+  }
+
+  @Test
+  void blocksOnTheChainOfTheTipAreNotOrphans() {
+    BlockTree tree = new BlockTree();
+    Block genesis = new Block(null, null, 0, 0);
+    Block first = new Block(genesis, null, 1, 1);
+    Block second = new Block(genesis, null, 2, 2);
+    Block third = new Block(first, null, 3, 3);
+    tree.addOrphan(0, first);
+    tree.addOrphan(0, second);
+
+    tree.setTip(0, third);
+
+    assertEquals(third, tree.getTip(0));
+    assertFalse(tree.isOrphan(0, first));
+    assertTrue(tree.isOrphan(0, second));
+    assertEquals(List.of(second), tree.getOrphans(0));
+    assertEquals(1, tree.getOrphanCount(0));
+  }
+}
@@ -0,0 +1,52 @@
+package simblock.block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChainIndexTest {
+
+  private static Block extend(Block block, int length, int firstId) {
+    for (int i = 0; i < length; i++) {
+      block = new Block(block, null, 0, firstId + i);
+    }
+    return block;
+  }
+
+  @Test
+  void forkPointOfBranches() {
+    Block genesis = new Block(null, null, 0, 0);
+    Block fork = extend(genesis, 777, 1);
+    Block first = extend(fork, 3000, 1000);
+    Block second = extend(fork, 5, 5000);
+
+    assertSame(fork, ChainIndex.forkPoint(first, second));
+    assertSame(fork, ChainIndex.forkPoint(second, first));
+    assertSame(fork, ChainIndex.forkPoint(fork, first));
+    assertSame(genesis, ChainIndex.forkPoint(extend(genesis, 1, 9000), first));
+  }
+
+  @Test
+  void forkPointOfUnrelatedChains() {
+    Block first = extend(new Block(null, null, 0, 0), 10, 1);
+    Block second = extend(new Block(null, null, 0, 100), 10, 101);
+
+    assertNull(ChainIndex.forkPoint(first, second));
+    assertNull(ChainIndex.forkPoint(first, null));
+  }
+
+  @Test
+  void forEachOnBranchStopsAboveForkPoint() {
+    Block fork = extend(new Block(null, null, 0, 0), 5, 1);
+    Block tip = extend(fork, 3, 10);
+
+    List<Integer> visited = new ArrayList<>();
+    assertEquals(3, ChainIndex.forEachOnBranch(tip, fork, block -> visited.add(block.getId())));
+    assertEquals(List.of(12, 11, 10), visited);
+    assertEquals(9, ChainIndex.forEachOnBranch(tip, null, block -> { }));
+  }
+}
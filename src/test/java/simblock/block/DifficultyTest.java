@@ -0,0 +1,50 @@
+package simblock.block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DifficultyTest {
+
+  @Test
+  void matchesBigIntegerArithmetic() {
+    Random random = new Random(3);
+    BigInteger expected = BigInteger.ZERO;
+    Difficulty actual = Difficulty.ZERO;
+    for (int i = 0; i < 1000; i++) {
+      BigInteger term = new BigInteger(1 + random.nextInt(140), random);
+      Difficulty previous = actual;
+      expected = expected.add(term);
+      actual = actual.add(Difficulty.of(term));
+
+      assertEquals(expected, actual.toBigInteger());
+      assertEquals(expected.toString(), actual.toString());
+      assertEquals(expected.doubleValue(), actual.doubleValue());
+      assertEquals(Difficulty.of(expected), actual);
+      assertTrue(actual.compareTo(previous) >= 0);
+    }
+  }
+
+  @Test
+  void carriesIntoTheUpperWord() {
+    Difficulty max = Difficulty.of(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE));
+    Difficulty sum = max.add(Difficulty.of(1));
+
+    assertEquals(BigInteger.ONE.shiftLeft(64), sum.toBigInteger());
+    assertTrue(sum.compareTo(max) > 0);
+    assertEquals(Math.pow(2, 64), sum.doubleValue());
+  }
+
+  @Test
+  void fallsBackBeyond128Bits() {
+    BigInteger max = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE);
+    Difficulty sum = Difficulty.of(max).add(Difficulty.of(2));
+
+    assertEquals(max.add(BigInteger.TWO), sum.toBigInteger());
+    assertTrue(sum.compareTo(Difficulty.of(max)) > 0);
+    assertTrue(Difficulty.of(max).compareTo(sum) < 0);
+  }
+}
@@ -3,7 +3,6 @@ package simblock.node;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 import java.math.BigInteger;
 import java.util.Random;
@@ -23,7 +22,7 @@ public class NetworkNodeTest {
   private AbstractNode btcNode1;
   private AbstractNode btcNode2;
   private NodeFactory nodeFactory;
-  ProofOfWorkBlock mockedParentBlock;
+  ProofOfWorkBlock genesisBlock;
   private Timer timer;
   private Random random;
 
@@ -40,13 +39,8 @@ public class NetworkNodeTest {
     btcNode1.setNetwork(network);
     btcNode2.setNetwork(network);
 
-    // Set up the fake parent block
-    mockedParentBlock = mock(ProofOfWorkBlock.class);
-    when(mockedParentBlock.getTotalDifficulty()).thenReturn(BigInteger.ZERO);
-    when(mockedParentBlock.getNextDifficulty()).thenReturn(BigInteger.ZERO);
-    when(mockedParentBlock.getDifficulty()).thenReturn(BigInteger.ZERO);
-    when(mockedParentBlock.getHeight()).thenReturn(0);
-    when(mockedParentBlock.getBlockWithHeight(0)).thenReturn(mockedParentBlock);
+    // Set up the parent block
+    genesisBlock = new ProofOfWorkBlock(null, BigInteger.ZERO, 0);
   }
 
   /**
@@ -55,7 +49,7 @@ public class NetworkNodeTest {
    */
   @Test
   void addOrphans() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(firstBlock, btcNode1, 1, BigInteger.ZERO, 2);
     ProofOfWorkBlock thirdBlock = new ProofOfWorkBlock(secondBlock, btcNode1, 2, BigInteger.ZERO, 3);
     ProofOfWorkBlock orphanBlock = new ProofOfWorkBlock(firstBlock, btcNode2, 1, BigInteger.ZERO, 4);
@@ -74,7 +68,7 @@ public class NetworkNodeTest {
   @Test
   void orphanLongerChain() {
 
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock orphanChainBlock1 = new ProofOfWorkBlock(firstBlock, btcNode1, 1, BigInteger.ZERO, 2);
     ProofOfWorkBlock orphanChainBlock2 = new ProofOfWorkBlock(orphanChainBlock1, btcNode1, 2, BigInteger.ZERO, 3);
     ProofOfWorkBlock validChainBlock1 = new ProofOfWorkBlock(firstBlock, btcNode2, 1, BigInteger.ZERO, 4);
@@ -91,7 +85,7 @@ public class NetworkNodeTest {
    */
   @Test
   void receiveInvMessage() {
-    ProofOfWorkBlock newBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock newBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 1);
     InvMessageTask invMsg = new InvMessageTask(btcNode2, btcNode1, newBlock, 10);
 
     btcNode1.receiveMessage(invMsg);
@@ -105,10 +99,10 @@ public class NetworkNodeTest {
    */
   @Test
   void receiveInvMessage_shouldRejectSameHeightBlock() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 1);
-    final ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode2, 1, BigInteger.ZERO, 2);
-    btcNode1.addToChain(mockedParentBlock);
-    btcNode2.addToChain(mockedParentBlock);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 1);
+    final ProofOfWorkBlock secondBlock = new ProofOfWorkBlock(genesisBlock, btcNode2, 1, BigInteger.ZERO, 2);
+    btcNode1.addToChain(genesisBlock);
+    btcNode2.addToChain(genesisBlock);
 
     btcNode1.receiveBlock(firstBlock);
     var oneReceiveBlockTask = timer.getTaskQueueCopy().size();
@@ -127,8 +121,8 @@ public class NetworkNodeTest {
    */
   @Test
   void receiveBlockMessage_shouldQueueBlockTask() {
-    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 1);
-    btcNode1.addToChain(mockedParentBlock);
+    ProofOfWorkBlock firstBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 1);
+    btcNode1.addToChain(genesisBlock);
     btcNode2.addToChain(firstBlock);
 
     RecMessageTask receiveBlockTask = new RecMessageTask(btcNode2, btcNode1, firstBlock, 10);
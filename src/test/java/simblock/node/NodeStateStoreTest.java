@@ -0,0 +1,64 @@
+package simblock.node;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class NodeStateStoreTest {
+
+  @Test
+  void growsBeyondTheExpectedSize() {
+    NodeStateStore store = new NodeStateStore(1);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, store.add(i % 6, i));
+    }
+
+    assertEquals(100, store.size());
+    assertEquals(3, store.getRegion(99));
+    assertEquals(99, store.getMiningPower(99));
+    assertEquals(4950, store.getTotalMiningPower());
+    assertEquals(-1, store.getBlockId(50));
+  }
+
+  @Test
+  void keepsDownloadingBlocksSorted() {
+    NodeStateStore store = new NodeStateStore(2);
+    int index = store.add(0, 1);
+
+    assertTrue(store.addDownloading(index, 7));
+    assertTrue(store.addDownloading(index, 3));
+    assertTrue(store.addDownloading(index, 5));
+    assertFalse(store.addDownloading(index, 5));
+    assertArrayEquals(new int[] {3, 5, 7}, store.getDownloadingBlockIds(index));
+
+    int[] copy = store.getDownloadingBlockIds(index);
+    assertTrue(store.removeDownloading(index, 5));
+    assertFalse(store.removeDownloading(index, 5));
+    assertFalse(store.isDownloading(index, 5));
+    assertTrue(store.isDownloading(index, 7));
+    assertArrayEquals(new int[] {3, 5, 7}, copy);
+
+    store.setDownloadingBlockIds(index, copy);
+    assertTrue(store.isDownloading(index, 5));
+  }
+
+  @Test
+  void downloadingBlocksGrowInPlace() {
+    NodeStateStore store = new NodeStateStore(2);
+    int index = store.add(0, 1);
+
+    for (int id = 20; id > 0; id--) {
+      assertTrue(store.addDownloading(index, id));
+    }
+    for (int id = 2; id <= 20; id += 2) {
+      assertTrue(store.removeDownloading(index, id));
+    }
+
+    assertArrayEquals(new int[] {1, 3, 5, 7, 9, 11, 13, 15, 17, 19}, store.getDownloadingBlockIds(index));
+    store.setDownloadingBlockIds(index, new int[0]);
+    assertFalse(store.isDownloading(index, 1));
+  }
+}
@@ -0,0 +1,192 @@
+package simblock.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import jdk.jshell.spi.ExecutionControl.NotImplementedException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simblock.block.IBlockIdGenerator;
+import simblock.block.ProofOfWorkBlock;
+import simblock.simulator.Network;
+import simblock.simulator.Timer;
+import simblock.task.BlockMessageTask;
+import simblock.task.CompactBlockMessageTask;
+import simblock.task.GetCompactBlockMessageTask;
+import simblock.task.HeadersMessageTask;
+import simblock.task.MiningTask;
+import simblock.task.RecMessageTask;
+import simblock.task.ScheduledTask;
+import simblock.task.interfaces.ITask;
+
+class RelayProtocolTest {
+
+  private Timer timer;
+  private Network network;
+  private AbstractNode sender;
+  private AbstractNode receiver;
+  private ProofOfWorkBlock genesisBlock;
+  private ProofOfWorkBlock block;
+
+  @BeforeEach
+  @SneakyThrows(NotImplementedException.class)
+  void setUp() {
+    timer = new Timer();
+    NodeFactory nodeFactory = new NodeFactory(timer, new Random(1), mock(IBlockIdGenerator.class));
+    sender = nodeFactory.createNode(1, 8, 0, NodeType.BTC);
+    receiver = nodeFactory.createNode(2, 8, 1, NodeType.BTC);
+
+    network = new Network(new Random(1));
+    sender.setNetwork(network);
+    receiver.setNetwork(network);
+
+    genesisBlock = new ProofOfWorkBlock(null, BigInteger.ZERO, 0);
+    block = new ProofOfWorkBlock(genesisBlock, sender, 1, BigInteger.ZERO, 1);
+  }
+
+  private List<ITask> getQueuedTasks() {
+    List<ITask> tasks = new ArrayList<>();
+    for (ScheduledTask scheduledTask : timer.getTaskQueueCopy()) {
+      tasks.add(scheduledTask.getTask());
+    }
+    return tasks;
+  }
+
+  private ITask getOnlyQueuedTask() {
+    List<ITask> tasks = getQueuedTasks();
+    assertEquals(1, tasks.size());
+    return tasks.get(0);
+  }
+
+  @Test
+  void headersFirstAnnouncesHeaders() {
+    sender.setRelayProtocol(RelayProtocol.HEADERS_FIRST);
+    sender.addNeighbor(receiver);
+
+    sender.sendInv(block);
+
+    ITask task = getOnlyQueuedTask();
+    assertTrue(task instanceof HeadersMessageTask);
+    assertFalse(((HeadersMessageTask) task).isCompact());
+  }
+
+  @Test
+  void headersAreFollowedByBlockRequest() {
+    receiver.receiveMessage(new HeadersMessageTask(sender, receiver, block, false, 0));
+
+    assertTrue(getOnlyQueuedTask() instanceof RecMessageTask);
+  }
+
+  @Test
+  void compactHeadersAreFollowedByCompactBlockRequest() {
+    receiver.receiveMessage(new HeadersMessageTask(sender, receiver, block, true, 0));
+
+    assertTrue(getOnlyQueuedTask() instanceof GetCompactBlockMessageTask);
+  }
+
+  @Test
+  void alreadyRequestedBlockIsNotRequestedAgain() {
+    receiver.receiveMessage(new HeadersMessageTask(sender, receiver, block, true, 0));
+    receiver.receiveMessage(new HeadersMessageTask(sender, receiver, block, true, 0));
+
+    assertEquals(1, getQueuedTasks().size());
+  }
+
+  @Test
+  void compactBlockIsSmallerThanTheBlock() {
+    sender.receiveMessage(new GetCompactBlockMessageTask(receiver, sender, block, 0));
+
+    ITask task = getOnlyQueuedTask();
+    assertTrue(task instanceof CompactBlockMessageTask);
+    long transactionCount = sender.getTransactionCount(block);
+    assertEquals(CompactBlockMessageTask.getSize(transactionCount), ((CompactBlockMessageTask) task).getSize());
+
+    // A full block of average transactions
+    long fullBlockCount = 4000;
+    assertTrue(CompactBlockMessageTask.getSize(fullBlockCount)
+        < fullBlockCount * AbstractNode.AVERAGE_TRANSACTION_SIZE / 20);
+  }
+
+  @Test
+  void compactBlockWithoutMissingTransactionsIsAdopted() {
+    receiver.addToChain(genesisBlock);
+
+    receiver.receiveMessage(new CompactBlockMessageTask(sender, receiver, block, 100, 0));
+
+    assertEquals(block, receiver.getBlock());
+  }
+
+  @Test
+  void highBandwidthPeerReceivesCompactBlockUnsolicited() {
+    sender.setRelayProtocol(RelayProtocol.COMPACT_HIGH_BANDWIDTH);
+    receiver.setRelayProtocol(RelayProtocol.COMPACT_HIGH_BANDWIDTH);
+    receiver.addNeighbor(sender);
+
+    assertTrue(receiver.isHighBandwidthPeer(sender));
+    sender.sendInv(block);
+
+    assertTrue(getOnlyQueuedTask() instanceof CompactBlockMessageTask);
+  }
+
+  @Test
+  void lowBandwidthPeerReceivesCompactHeaders() {
+    sender.setRelayProtocol(RelayProtocol.COMPACT_HIGH_BANDWIDTH);
+    receiver.setRelayProtocol(RelayProtocol.COMPACT_LOW_BANDWIDTH);
+    receiver.addNeighbor(sender);
+
+    sender.sendInv(block);
+
+    ITask task = getOnlyQueuedTask();
+    assertTrue(task instanceof HeadersMessageTask);
+    assertTrue(((HeadersMessageTask) task).isCompact());
+  }
+
+  @Test
+  @SneakyThrows(NotImplementedException.class)
+  void unsolicitedPushDeliversTheBlockOncePerLink() {
+    AbstractNode relay = new NodeFactory(timer, new Random(2), mock(IBlockIdGenerator.class))
+        .createNode(3, 8, 2, NodeType.BTC);
+    relay.setNetwork(network);
+    for (AbstractNode node : List.of(sender, relay, receiver)) {
+      node.setRelayProtocol(RelayProtocol.UNSOLICITED_PUSH);
+      node.addToChain(genesisBlock);
+    }
+    sender.addNeighbor(relay);
+    relay.addNeighbor(receiver);
+
+    sender.addToChain(block);
+    sender.sendInv(block);
+
+    List<String> deliveries = new ArrayList<>();
+    ITask task;
+    while ((task = timer.getTask()) != null) {
+      if (task instanceof MiningTask) {
+        timer.removeTask(task);
+        continue;
+      }
+      if (task instanceof BlockMessageTask) {
+        BlockMessageTask message = (BlockMessageTask) task;
+        assertEquals(block, message.getBlock());
+        deliveries.add(message.getFrom().getNodeID() + "->" + message.getTo().getNodeID());
+        assertTrue(deliveries.size() <= 2, "The block is pushed again: " + deliveries);
+      }
+      timer.runTask();
+    }
+
+    assertEquals(List.of("1->3", "3->2"), deliveries);
+    assertEquals(block, relay.getBlock());
+    assertEquals(block, receiver.getBlock());
+  }
+
+  @Test
+  void headersTakeAtLeastAMillisecondToTransfer() {
+    assertTrue(sender.getTransferTime(receiver, HeadersMessageTask.HEADER_SIZE) >= 1);
+  }
+}
@@ -22,7 +22,7 @@ public class SelfishMiningNodeTest {
   private AbstractNode btcNode1;
   private SelfishMiningNode selfishNode;
   private NodeFactory nodeFactory;
-  ProofOfWorkBlock mockedParentBlock;
+  ProofOfWorkBlock genesisBlock;
   private Timer timer;
   private Random random;
 
@@ -43,10 +43,8 @@ public class SelfishMiningNodeTest {
     selfishNode = (SelfishMiningNode) nodeFactory.createNode(3, 8, 1, NodeType.BTC_SelfishMiner);
     selfishNode.setConsensusAlgo(mockedConsensus);
 
-    // Set up the fake parent block
-    mockedParentBlock = mock(ProofOfWorkBlock.class);
-    when(mockedParentBlock.getTotalDifficulty()).thenReturn(BigInteger.ZERO);
-    when(mockedParentBlock.getNextDifficulty()).thenReturn(BigInteger.ZERO);
+    // Set up the parent block
+    genesisBlock = new ProofOfWorkBlock(null, BigInteger.ZERO, 0);
 
   }
 
@@ -57,7 +55,7 @@ public class SelfishMiningNodeTest {
   @Test
   void blockArrival_hasSignificantLead() {
     
-    ProofOfWorkBlock selfishBlock1 = new ProofOfWorkBlock(mockedParentBlock, selfishNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock selfishBlock1 = new ProofOfWorkBlock(genesisBlock, selfishNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock selfishBlock2 = new ProofOfWorkBlock(selfishBlock1, selfishNode, 1, BigInteger.ZERO, 2);
     ProofOfWorkBlock selfishBlock3 = new ProofOfWorkBlock(selfishBlock2, selfishNode, 2, BigInteger.ZERO, 3);
     selfishNode.receiveBlock(selfishBlock3);
@@ -65,7 +63,7 @@ public class SelfishMiningNodeTest {
     assertEquals(selfishBlock3, selfishNode.getSelfishMiningBlock());
 
     // Recieve an honest block
-    ProofOfWorkBlock honestBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 4);
+    ProofOfWorkBlock honestBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 4);
     selfishNode.receiveBlock(honestBlock);
     
     // Verify that the selfish miners didn't accept the honest block
@@ -79,14 +77,14 @@ public class SelfishMiningNodeTest {
   @Test
   void blockArrival_releasesAttack() {
     
-    ProofOfWorkBlock selfishBlock1 = new ProofOfWorkBlock(mockedParentBlock, selfishNode, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock selfishBlock1 = new ProofOfWorkBlock(genesisBlock, selfishNode, 0, BigInteger.ZERO, 1);
     ProofOfWorkBlock selfishBlock2 = new ProofOfWorkBlock(selfishBlock1, selfishNode, 1, BigInteger.ZERO, 2);
     selfishNode.receiveBlock(selfishBlock2);
 
     assertEquals(selfishBlock2, selfishNode.getSelfishMiningBlock());
 
     // Recieve an honest block
-    ProofOfWorkBlock honestBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 3);
+    ProofOfWorkBlock honestBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 3);
     selfishNode.receiveBlock(honestBlock);
     
     // Verify that the selfish miners didn't accept the honest block and
@@ -102,7 +100,7 @@ public class SelfishMiningNodeTest {
   @Test
   void blockArrival_noActiveAttack() {
     
-    ProofOfWorkBlock honestBlock = new ProofOfWorkBlock(mockedParentBlock, btcNode1, 0, BigInteger.ZERO, 1);
+    ProofOfWorkBlock honestBlock = new ProofOfWorkBlock(genesisBlock, btcNode1, 0, BigInteger.ZERO, 1);
     selfishNode.receiveBlock(honestBlock);
 
     // Verify that the selfish miners didn't accept the honest block and
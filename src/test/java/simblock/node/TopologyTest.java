@@ -0,0 +1,67 @@
+package simblock.node;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.util.Random;
+import jdk.jshell.spi.ExecutionControl.NotImplementedException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simblock.block.IBlockIdGenerator;
+import simblock.simulator.Simulator;
+import simblock.simulator.Timer;
+
+class TopologyTest {
+
+  private Simulator simulator;
+  private AbstractNode node0;
+  private AbstractNode node1;
+  private AbstractNode node2;
+
+  @BeforeEach
+  @SneakyThrows(NotImplementedException.class)
+  void setUp() {
+    Timer timer = mock(Timer.class);
+    NodeFactory nodeFactory = new NodeFactory(timer, new Random(0), mock(IBlockIdGenerator.class));
+    simulator = new Simulator(timer, 600000);
+    node0 = nodeFactory.createNode(10, 8, 0, NodeType.BTC);
+    node1 = nodeFactory.createNode(11, 8, 1, NodeType.BTC);
+    node2 = nodeFactory.createNode(12, 8, 2, NodeType.BTC);
+    simulator.addNode(node0);
+    simulator.addNode(node1);
+    simulator.addNode(node2);
+  }
+
+  @Test
+  void listsOutboundBeforeInboundNeighbors() {
+    node0.addNeighbor(node1);
+    node2.addNeighbor(node0);
+
+    Topology topology = simulator.getTopology();
+    assertEquals(3, topology.size());
+    assertEquals(4, topology.linkCount());
+    assertEquals(2, topology.degree(0));
+    assertEquals(1, topology.target(topology.start(0)));
+    assertEquals(2, topology.target(topology.start(0) + 1));
+    assertEquals(0, topology.target(topology.start(2)));
+    assertArrayEquals(new AbstractNode[] {node1, node2}, node0.getNeighborArray());
+  }
+
+  @Test
+  void snapshotIsTakenAgainOnlyWhenLinksChange() {
+    node0.addNeighbor(node1);
+    Topology topology = simulator.getTopology();
+    AbstractNode[] neighbors = node0.getNeighborArray();
+    assertSame(topology, simulator.getTopology());
+    assertSame(neighbors, node0.getNeighborArray());
+
+    node0.removeNeighbor(node1);
+    assertNotSame(topology, simulator.getTopology());
+    assertEquals(0, simulator.getTopology().linkCount());
+    assertEquals(0, node1.getNeighborArray().length);
+  }
+}
@@ -0,0 +1,154 @@
+package simblock.node;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigInteger;
+import java.util.Random;
+import jdk.jshell.spi.ExecutionControl.NotImplementedException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simblock.block.IBlockIdGenerator;
+import simblock.block.ProofOfWorkBlock;
+import simblock.simulator.Network;
+import simblock.simulator.Timer;
+import simblock.task.GetTransactionsMessageTask;
+import simblock.task.HeadersMessageTask;
+import simblock.task.ScheduledTask;
+import simblock.task.TransactionInvMessageTask;
+import simblock.task.TransactionsMessageTask;
+import simblock.task.interfaces.ITask;
+import simblock.transaction.TransactionRegistry;
+
+class TransactionRelayTest {
+
+  private static final long MAX_BLOCK_SIZE = 1000;
+
+  private Timer timer;
+  private TransactionRegistry registry;
+  private AbstractNode sender;
+  private AbstractNode receiver;
+  private TransactionRelay senderRelay;
+  private TransactionRelay receiverRelay;
+  private ProofOfWorkBlock genesisBlock;
+
+  @BeforeEach
+  @SneakyThrows(NotImplementedException.class)
+  void setUp() {
+    timer = new Timer();
+    NodeFactory nodeFactory = new NodeFactory(timer, new Random(1), mock(IBlockIdGenerator.class));
+    sender = nodeFactory.createNode(1, 8, 0, NodeType.BTC);
+    receiver = nodeFactory.createNode(2, 8, 1, NodeType.BTC);
+
+    Network network = new Network(new Random(1));
+    sender.setNetwork(network);
+    receiver.setNetwork(network);
+
+    registry = new TransactionRegistry();
+    senderRelay = new TransactionRelay(sender, registry, new Random(1), MAX_BLOCK_SIZE, 5000);
+    receiverRelay = new TransactionRelay(receiver, registry, new Random(2), MAX_BLOCK_SIZE, 5000);
+    sender.setTransactionRelay(senderRelay);
+    receiver.setTransactionRelay(receiverRelay);
+
+    genesisBlock = new ProofOfWorkBlock(null, BigInteger.ZERO, 0);
+  }
+
+  private ITask getOnlyQueuedTask() {
+    assertEquals(1, timer.getTaskQueueCopy().size());
+    ScheduledTask scheduledTask = timer.getTaskQueueCopy().peek();
+    return scheduledTask.getTask();
+  }
+
+  @Test
+  void acceptedTransactionsAreAnnouncedTogether() {
+    sender.addNeighbor(receiver);
+    int first = registry.add(200, 2000);
+    int second = registry.add(300, 3000);
+
+    sender.receiveTransaction(first);
+    sender.receiveTransaction(second);
+    assertFalse(senderRelay.accept(first));
+    assertEquals(1, timer.getTaskQueueCopy().size());
+
+    timer.runTask();
+    ITask task = getOnlyQueuedTask();
+    assertTrue(task instanceof TransactionInvMessageTask);
+    assertArrayEquals(new int[] {first, second}, ((TransactionInvMessageTask) task).getTransactions());
+  }
+
+  @Test
+  void unknownTransactionsAreRequestedOnce() {
+    int known = registry.add(200, 2000);
+    int unknown = registry.add(300, 3000);
+    receiverRelay.getMempool().add(known);
+
+    receiver.receiveMessage(new TransactionInvMessageTask(sender, receiver, new int[] {known, unknown}, 0));
+    receiver.receiveMessage(new TransactionInvMessageTask(sender, receiver, new int[] {unknown}, 0));
+
+    ITask task = getOnlyQueuedTask();
+    assertTrue(task instanceof GetTransactionsMessageTask);
+    assertArrayEquals(new int[] {unknown}, ((GetTransactionsMessageTask) task).getTransactions());
+  }
+
+  @Test
+  void requestIsAnsweredWithTheTransactionsInTheMempool() {
+    int available = registry.add(200, 2000);
+    int confirmed = registry.add(300, 3000);
+    senderRelay.getMempool().add(available);
+
+    sender.receiveMessage(new GetTransactionsMessageTask(receiver, sender, new int[] {available, confirmed}, 0));
+
+    ITask task = getOnlyQueuedTask();
+    assertTrue(task instanceof TransactionsMessageTask);
+    TransactionsMessageTask message = (TransactionsMessageTask) task;
+    assertArrayEquals(new int[] {available}, message.getTransactions());
+    assertEquals(200, message.getSize());
+
+    receiver.receiveMessage(message);
+    assertTrue(receiverRelay.getMempool().contains(available));
+  }
+
+  @Test
+  void minedBlockIsFilledUpToTheMaximumSize() {
+    for (int i = 0; i < 10; i++) {
+      senderRelay.getMempool().add(registry.add(200, 1000 + i));
+    }
+    ProofOfWorkBlock block = new ProofOfWorkBlock(genesisBlock, sender, 1, BigInteger.ZERO, 1);
+
+    sender.assembleBlock(block);
+
+    assertEquals(4, block.getTransactions().length);
+    assertEquals(HeadersMessageTask.HEADER_SIZE + 800, block.getSize());
+    assertEquals(4, block.getTransactionCount());
+    assertEquals(block.getSize(), sender.getBlockSize(block));
+  }
+
+  @Test
+  void mempoolFollowsTheChain() {
+    int first = registry.add(200, 2000);
+    int second = registry.add(300, 3000);
+    senderRelay.accept(first);
+    senderRelay.accept(second);
+    sender.addToChain(genesisBlock);
+
+    ProofOfWorkBlock block = new ProofOfWorkBlock(genesisBlock, sender, 1, BigInteger.ZERO, 1);
+    sender.assembleBlock(block);
+    sender.addToChain(block);
+    assertEquals(0, senderRelay.getMempool().size());
+    assertFalse(senderRelay.accept(first));
+
+    // A longer branch confirming only the first transaction
+    ProofOfWorkBlock competitor = new ProofOfWorkBlock(genesisBlock, receiver, 1, BigInteger.ZERO, 2);
+    competitor.setTransactions(new int[] {first}, HeadersMessageTask.HEADER_SIZE + 200);
+    registry.include(competitor, competitor.getTransactions());
+    ProofOfWorkBlock tip = new ProofOfWorkBlock(competitor, receiver, 2, BigInteger.ZERO, 3);
+    sender.addToChain(tip);
+
+    assertFalse(senderRelay.getMempool().contains(first));
+    assertTrue(senderRelay.getMempool().contains(second));
+  }
+}
@@ -0,0 +1,117 @@
+package simblock.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.util.Random;
+import jdk.jshell.spi.ExecutionControl.NotImplementedException;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simblock.block.IBlockIdGenerator;
+import simblock.block.ProofOfWorkBlock;
+import simblock.simulator.Network;
+import simblock.simulator.Timer;
+import simblock.simulator.network.ILatencyModel;
+import simblock.simulator.network.RegionBandwidthModel;
+
+class UploadSchedulerTest {
+
+  /**
+   * Long enough for the deliveries to come after every transfer.
+   */
+  private static final long DELIVERY_DELAY = 1000;
+
+  private Timer timer;
+  private AbstractNode sender;
+  private AbstractNode fastReceiver;
+  private AbstractNode slowReceiver;
+  private ProofOfWorkBlock block;
+
+  @BeforeEach
+  @SneakyThrows(NotImplementedException.class)
+  void setUp() {
+    timer = new Timer();
+    NodeFactory nodeFactory = new NodeFactory(timer, new Random(1), mock(IBlockIdGenerator.class));
+    sender = nodeFactory.createNode(1, 8, 0, NodeType.BTC);
+    fastReceiver = nodeFactory.createNode(2, 8, 1, NodeType.BTC);
+    slowReceiver = nodeFactory.createNode(3, 8, 2, NodeType.BTC);
+
+    // 1000 bits per millisecond of upload, region 2 downloads 200 bits per millisecond
+    RegionBandwidthModel bandwidth = new RegionBandwidthModel(
+        new long[] {1000000, 1000000, 1000000}, new long[] {1000000000, 1000000000, 200000});
+    ILatencyModel latency = mock(ILatencyModel.class);
+    Network network = new Network(new Random(1), Paths.get("dist/output").toUri(), latency, bandwidth);
+    sender.setNetwork(network);
+    fastReceiver.setNetwork(network);
+    slowReceiver.setNetwork(network);
+
+    block = new ProofOfWorkBlock(null, BigInteger.ZERO, 0);
+  }
+
+  private void start(UploadScheduler scheduler, AbstractNode receiver) {
+    scheduler.startTransfer(receiver, block, 1000, receiver.getDownloadBandwidth(), DELIVERY_DELAY);
+  }
+
+  /**
+   * Runs tasks until the scheduler has the provided number of transfers left.
+   */
+  private long runUntil(UploadScheduler scheduler, int transfers) {
+    while (scheduler.getTransferCount() > transfers) {
+      timer.runTask();
+    }
+    return timer.getCurrentTime();
+  }
+
+  @Test
+  void fifoSendsOneBlockAtATime() {
+    sender.setUploadPolicy(UploadPolicy.FIFO);
+    UploadScheduler scheduler = sender.getUploadScheduler();
+    start(scheduler, fastReceiver);
+    start(scheduler, fastReceiver);
+
+    assertEquals(1, runUntil(scheduler, 1));
+    assertEquals(2, runUntil(scheduler, 0));
+  }
+
+  @Test
+  void fairShareSplitsTheUploadBandwidth() {
+    sender.setUploadPolicy(UploadPolicy.FAIR_SHARE);
+    UploadScheduler scheduler = sender.getUploadScheduler();
+    start(scheduler, fastReceiver);
+    start(scheduler, fastReceiver);
+
+    assertEquals(500.0, scheduler.getRate(fastReceiver, block), 1e-9);
+    assertEquals(2, runUntil(scheduler, 0));
+  }
+
+  @Test
+  void fairShareIsMaxMinFair() {
+    sender.setUploadPolicy(UploadPolicy.FAIR_SHARE);
+    UploadScheduler scheduler = sender.getUploadScheduler();
+    start(scheduler, slowReceiver);
+    start(scheduler, fastReceiver);
+
+    // The slow receiver is limited to 200 bits per millisecond, the rest goes to the fast one
+    assertEquals(200.0, scheduler.getRate(slowReceiver, block), 1e-9);
+    assertEquals(800.0, scheduler.getRate(fastReceiver, block), 1e-9);
+
+    assertEquals(2, runUntil(scheduler, 1));
+    // 600 bits are left, still at the download bandwidth of the slow receiver
+    assertEquals(200.0, scheduler.getRate(slowReceiver, block), 1e-9);
+    assertEquals(5, runUntil(scheduler, 0));
+  }
+
+  @Test
+  void transferredBlocksAreDeliveredAfterTheDelay() {
+    sender.setUploadPolicy(UploadPolicy.FIFO);
+    UploadScheduler scheduler = sender.getUploadScheduler();
+    start(scheduler, fastReceiver);
+
+    runUntil(scheduler, 0);
+    assertEquals(1, timer.getTaskQueueCopy().size());
+    assertEquals(1 + DELIVERY_DELAY, timer.getTaskQueueCopy().peek().getScheduledTime());
+  }
+}
@@ -0,0 +1,70 @@
+package simblock.node.consensus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import simblock.block.Difficulty;
+import simblock.block.ProofOfWorkBlock;
+
+class DifficultyRetargetTest {
+
+  private static final long INTERVAL = 600000;
+  private static final Difficulty GENESIS_DIFFICULTY = Difficulty.of(1000000L);
+
+  /**
+   * Mines a chain whose blocks all take the provided time.
+   */
+  private static ProofOfWorkBlock mine(IDifficultyRetarget retarget, int length, long solveTime) {
+    ProofOfWorkBlock block = new ProofOfWorkBlock(null, GENESIS_DIFFICULTY, 0);
+    for (int i = 1; i <= length; i++) {
+      block = new ProofOfWorkBlock(block, null, i * solveTime, block.getNextDifficultyValue(), i, retarget);
+    }
+    return block;
+  }
+
+  @Test
+  void fixedKeepsGenesisDifficulty() {
+    ProofOfWorkBlock tip = mine(new FixedDifficultyRetarget(), 50, INTERVAL / 2);
+    assertSame(GENESIS_DIFFICULTY, tip.getNextDifficultyValue());
+  }
+
+  @Test
+  void epochAdjustsOnlyAtEpochEnd() {
+    EpochRetarget retarget = new EpochRetarget(INTERVAL, 10);
+
+    ProofOfWorkBlock beforeEnd = mine(retarget, 9, INTERVAL / 2);
+    assertSame(GENESIS_DIFFICULTY, beforeEnd.getNextDifficultyValue());
+
+    ProofOfWorkBlock epochEnd = mine(retarget, 10, INTERVAL / 2);
+    assertEquals(Difficulty.of(2000000L), epochEnd.getNextDifficultyValue());
+
+    // Adjustments are limited to a factor of four
+    ProofOfWorkBlock slowEpoch = mine(retarget, 10, INTERVAL * 10);
+    assertEquals(Difficulty.of(250000L), slowEpoch.getNextDifficultyValue());
+  }
+
+  @Test
+  void asertFollowsTheSchedule() {
+    AsertRetarget retarget = new AsertRetarget(INTERVAL, 10);
+
+    ProofOfWorkBlock onSchedule = mine(retarget, 30, INTERVAL);
+    assertEquals(GENESIS_DIFFICULTY, onSchedule.getNextDifficultyValue());
+
+    // Ten blocks ahead of schedule is one half-life, doubling the difficulty
+    ProofOfWorkBlock ahead = mine(retarget, 20, INTERVAL / 2);
+    assertEquals(Difficulty.of(2000000L), ahead.getNextDifficultyValue());
+  }
+
+  @Test
+  void lwmaScalesWithSolveTimes() {
+    LwmaRetarget retarget = new LwmaRetarget(INTERVAL, 5);
+
+    ProofOfWorkBlock onTarget = mine(retarget, 20, INTERVAL);
+    assertEquals(GENESIS_DIFFICULTY, onTarget.getNextDifficultyValue());
+
+    ProofOfWorkBlock fast = mine(retarget, 20, INTERVAL / 2);
+    assertTrue(fast.getNextDifficultyValue().compareTo(GENESIS_DIFFICULTY) > 0);
+  }
+}
@@ -0,0 +1,115 @@
+package simblock.node.consensus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simblock.block.Difficulty;
+import simblock.block.IBlockIdGenerator;
+import simblock.block.ProofOfWorkBlock;
+import simblock.node.AbstractNode;
+import simblock.simulator.Timer;
+import simblock.task.interfaces.ITask;
+
+class MiningPoolTest {
+
+  private static final Difficulty DIFFICULTY = Difficulty.of(1000L);
+
+  private Timer timer;
+  private MiningPool pool;
+  private ProofOfWorkBlock genesis;
+  private int[] blocksMined;
+
+  @BeforeEach
+  void setUp() {
+    timer = new Timer();
+    pool = new MiningPool(timer, new Random(1));
+    genesis = new ProofOfWorkBlock(null, DIFFICULTY, 0);
+    blocksMined = new int[2];
+  }
+
+  private AbstractNode node(int index, long miningPower) {
+    AbstractNode node = mock(AbstractNode.class);
+    when(node.getNodeIndex()).thenReturn(index);
+    when(node.getMiningPower()).thenReturn(miningPower);
+    when(node.getBlock()).thenReturn(genesis);
+    doAnswer(invocation -> blocksMined[index]++).when(node).receiveBlock(any());
+    return node;
+  }
+
+  private ProofOfWork consensus(AbstractNode node) {
+    return new ProofOfWork(node, timer, null, new Random(2), mock(IBlockIdGenerator.class));
+  }
+
+  @Test
+  void schedulesOneTaskForAllTips() {
+    AbstractNode node1 = node(0, 1);
+    AbstractNode node2 = node(1, 3);
+    ProofOfWorkBlock fork = new ProofOfWorkBlock(genesis, node1, 1, DIFFICULTY, 1);
+    when(node2.getBlock()).thenReturn(fork);
+
+    pool.join(node1, consensus(node1));
+    pool.join(node2, consensus(node2));
+    assertEquals(2, pool.getTipCount());
+    assertEquals(1, timer.getTaskQueueCopy().size());
+    ITask task = timer.getTask();
+
+    // Moving to another tip of the same difficulty keeps the drawn time
+    when(node1.getBlock()).thenReturn(fork);
+    pool.leave(node1);
+    pool.join(node1, consensus(node1));
+    assertEquals(1, pool.getTipCount());
+    assertSame(task, timer.getTask());
+
+    pool.leave(node1);
+    pool.leave(node2);
+    assertEquals(0, pool.getTipCount());
+    assertEquals(0, timer.getTaskQueueCopy().size());
+  }
+
+  @Test
+  void drawsWinnersByMiningPower() {
+    AbstractNode node1 = node(0, 1);
+    AbstractNode node2 = node(1, 3);
+    pool.join(node1, consensus(node1));
+    pool.join(node2, consensus(node2));
+
+    int rounds = 4000;
+    while (blocksMined[0] + blocksMined[1] < rounds) {
+      assertNotNull(timer.getTask());
+      timer.runTask();
+    }
+
+    assertEquals(0.25, (double) blocksMined[0] / rounds, 0.03);
+
+    // The nodes mine at the summed rate, a block every 1000 / 4 milliseconds on average
+    assertEquals(250.0, (double) timer.getCurrentTime() / rounds, 25.0);
+  }
+
+  @Test
+  void nodesMiningAHigherDifficultyFindFewerBlocks() {
+    AbstractNode node1 = node(0, 1);
+    AbstractNode node2 = node(1, 1);
+    ProofOfWorkBlock harder = new ProofOfWorkBlock(genesis, node1, 1, DIFFICULTY, 1,
+        block -> Difficulty.of(3000L));
+    when(node2.getBlock()).thenReturn(harder);
+    pool.join(node1, consensus(node1));
+    pool.join(node2, consensus(node2));
+
+    int rounds = 4000;
+    while (blocksMined[0] + blocksMined[1] < rounds) {
+      timer.runTask();
+    }
+
+    // Rates of 1 / 1000 and 1 / 3000 blocks per millisecond
+    assertEquals(0.75, (double) blocksMined[0] / rounds, 0.03);
+    assertEquals(750.0, (double) timer.getCurrentTime() / rounds, 75.0);
+  }
+}
@@ -0,0 +1,125 @@
+package simblock.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simblock.task.ScheduledTask;
+import simblock.task.interfaces.ITask;
+
+class CalendarQueueTest {
+
+  private CalendarQueue queue;
+  private long sequence;
+
+  @BeforeEach
+  void setUp() {
+    queue = new CalendarQueue();
+  }
+
+  private ScheduledTask scheduled(long time) {
+    return new ScheduledTask(mock(ITask.class), time, sequence++);
+  }
+
+  @Test
+  void pollReturnsNullIfEmpty() {
+    assertNull(queue.peek());
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void pollReturnsTasksInTimeOrder() {
+    ScheduledTask late = scheduled(5000);
+    ScheduledTask early = scheduled(3);
+    ScheduledTask middle = scheduled(700);
+    queue.add(late);
+    queue.add(early);
+    queue.add(middle);
+
+    assertSame(early, queue.peek());
+    assertSame(early, queue.poll());
+    assertSame(middle, queue.poll());
+    assertSame(late, queue.poll());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  void removeUnlinksPendingTask() {
+    ScheduledTask first = scheduled(10);
+    ScheduledTask second = scheduled(20);
+    queue.add(first);
+    queue.add(second);
+
+    assertTrue(queue.remove(first));
+    assertFalse(queue.remove(first));
+    assertEquals(1, queue.size());
+    assertSame(second, queue.poll());
+  }
+
+  @Test
+  void removeIgnoresTaskOfAnotherQueue() {
+    ScheduledTask task = scheduled(10);
+    new CalendarQueue().add(task);
+
+    assertFalse(queue.remove(task));
+  }
+
+  @Test
+  void resizesWithTheNumberOfTasks() {
+    for (int i = 0; i < 1000; i++) {
+      queue.add(scheduled(i * 13L));
+    }
+    assertTrue(queue.getBucketCount() >= 500);
+    assertEquals(39, queue.getBucketWidth());
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i * 13L, queue.poll().getScheduledTime());
+    }
+    assertEquals(16, queue.getBucketCount());
+  }
+
+  @Test
+  void behavesLikeTheHeap() {
+    Random random = new Random(0);
+    HeapFutureEventList heap = new HeapFutureEventList();
+    List<ScheduledTask> pending = new ArrayList<>();
+    long now = 0;
+
+    for (int i = 0; i < 20000; i++) {
+      int operation = random.nextInt(10);
+      if (operation < 5) {
+        // Mix of near, far and concurrent events, as produced by the simulation
+        long delay = random.nextBoolean() ? random.nextInt(100) : random.nextInt(600000);
+        ScheduledTask task = scheduled(now + delay);
+        queue.add(task);
+        heap.add(task);
+        pending.add(task);
+      } else if (operation < 8 || pending.isEmpty()) {
+        ScheduledTask expected = heap.poll();
+        assertSame(expected, queue.poll());
+        if (expected != null) {
+          now = expected.getScheduledTime();
+          pending.remove(expected);
+        }
+      } else {
+        ScheduledTask task = pending.remove(random.nextInt(pending.size()));
+        assertEquals(heap.remove(task), queue.remove(task));
+      }
+      assertEquals(heap.size(), queue.size());
+    }
+
+    while (!heap.isEmpty()) {
+      assertSame(heap.poll(), queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+  }
+}
@@ -2,15 +2,20 @@ package simblock.simulator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.atMostOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import simblock.task.ScheduledTask;
 import simblock.task.interfaces.ITask;
 
 class TimerTest {
@@ -20,12 +25,25 @@ class TimerTest {
 
   @BeforeEach
   void setUp() {
-    dummy = mock(ITask.class);
-    when(dummy.getTaskID()).thenReturn(UUID.fromString("32EA1BC7-FA86-40A2-8B2E-579BAA72DCAF"));
+    dummy = mockTask();
 
     timer = new Timer();
   }
 
+  /**
+   * Mocks a task that keeps the id issued by the timer.
+   */
+  private ITask mockTask() {
+    ITask task = mock(ITask.class);
+    AtomicLong taskID = new AtomicLong();
+    doAnswer(invocation -> {
+      taskID.set(invocation.getArgument(0));
+      return null;
+    }).when(task).setTaskID(anyLong());
+    when(task.getTaskID()).thenAnswer(invocation -> taskID.get());
+    return task;
+  }
+
   @Test
   void runTaskIsAbleToRunATask() {
     timer.putTask(dummy);
@@ -110,4 +128,113 @@ class TimerTest {
 
   }
 
+  @Test
+  void lazyRemoveTaskSkipsCancelledTask() {
+    ITask other = mockTask();
+    when(other.getDuration()).thenReturn(20L);
+    timer.setCancellationPolicy(CancellationPolicy.LAZY);
+    timer.setCompactionThreshold(1);
+
+    timer.putTask(dummy);
+    timer.putTask(other);
+    timer.removeTask(dummy);
+
+    assertEquals(1, timer.getTombstoneCount());
+    assertEquals(0.5, timer.getTombstoneRatio());
+    assertEquals(1, timer.getTaskQueueCopy().size());
+    assertEquals(other, timer.getTask());
+    assertEquals(0, timer.getTombstoneCount());
+
+    timer.runTask();
+    verify(dummy, never()).run();
+    verify(other).run();
+  }
+
+  @Test
+  void lazyRemoveTaskCompactsAboveThreshold() {
+    timer.setCancellationPolicy(CancellationPolicy.LAZY);
+    timer.setCompactionThreshold(0.5);
+
+    List<ITask> tasks = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      ITask task = mockTask();
+      when(task.getDuration()).thenReturn(10L + i);
+      timer.putTask(task);
+      tasks.add(task);
+    }
+    timer.removeTask(tasks.get(0));
+    timer.removeTask(tasks.get(1));
+    assertEquals(0, timer.getCompactionCount());
+    timer.removeTask(tasks.get(2));
+
+    assertEquals(1, timer.getCompactionCount());
+    assertEquals(1, timer.getTaskQueueCopy().size());
+  }
+
+  @Test
+  void putTaskIssuesIncreasingTaskIds() {
+    ITask other = mockTask();
+
+    timer.putTask(dummy);
+    timer.putTask(other);
+
+    assertEquals(1L, dummy.getTaskID());
+    assertEquals(2L, other.getTaskID());
+  }
+
+  @Test
+  void pollBatchReturnsAllTasksOfTheEarliestTime() {
+    ITask concurrent = mockTask();
+    ITask later = mockTask();
+    when(later.getDuration()).thenReturn(5L);
+
+    timer.putTask(dummy);
+    timer.putTask(later);
+    timer.putTask(concurrent);
+
+    List<ScheduledTask> batch = timer.pollBatch();
+    assertEquals(2, batch.size());
+    assertEquals(dummy, batch.get(0).getTask());
+    assertEquals(concurrent, batch.get(1).getTask());
+    assertEquals(later, timer.getTask());
+  }
+
+  @Test
+  void runBatchSkipsTasksRemovedWithinTheBatch() {
+    ITask removed = mockTask();
+    doAnswer(invocation -> {
+      timer.removeTask(removed);
+      return null;
+    }).when(dummy).run();
+
+    timer.putTask(dummy);
+    timer.putTask(removed);
+
+    assertEquals(2, timer.runBatch());
+    verify(dummy).run();
+    verify(removed, never()).run();
+    assertEquals(0, timer.getTombstoneCount());
+    assertEquals(0, timer.runBatch());
+  }
+
+  @Test
+  void sameTimeTaskOfALowerSequenceIsCancelledFromTheQueue() {
+    ITask queued = mockTask();
+    timer.setCancellationPolicy(CancellationPolicy.LAZY);
+    timer.setCompactionThreshold(1);
+    // Scheduled by a task of the batch for the same time, ordered before it as nodes issue
+    // sequence numbers of their own
+    doAnswer(invocation -> {
+      timer.putTask(queued, 1L);
+      timer.removeTask(queued);
+      return null;
+    }).when(dummy).run();
+    timer.putTask(dummy, 2L);
+
+    assertEquals(1, timer.runBatch());
+    assertEquals(1, timer.getTombstoneCount());
+    assertEquals(0, timer.runBatch());
+    assertEquals(0, timer.getTombstoneCount());
+    verify(queued, never()).run();
+  }
 }
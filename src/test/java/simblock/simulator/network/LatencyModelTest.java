@@ -0,0 +1,89 @@
+package simblock.simulator.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LatencyModelTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void matrixReadsNodePairs() throws IOException {
+    int[][] latencies = {
+        {0, 10, 20},
+        {11, 0, 30},
+        {21, 31, 0}
+    };
+    Path file = directory.resolve("latencies.bin");
+    MatrixLatencyModel.write(file, latencies);
+
+    MatrixLatencyModel model = new MatrixLatencyModel(file);
+    assertEquals(3, model.getNodeCount());
+    for (int from = 0; from < 3; from++) {
+      for (int to = 0; to < 3; to++) {
+        assertEquals(latencies[from][to], model.getLatency(from, 0, to, 0, null));
+      }
+    }
+    assertEquals(10, model.getMinimumLatency(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> model.getLatency(-1, 0, 1, 0, null));
+  }
+
+  @Test
+  void matrixMustBeSquare() throws IOException {
+    Path file = directory.resolve("latencies.bin");
+    Files.write(file, new byte[12]);
+    assertThrows(IllegalArgumentException.class, () -> new MatrixLatencyModel(file));
+  }
+
+  @Test
+  void empiricalDrawsMeasuredSamples() {
+    List<long[]> measurements = Arrays.asList(
+        new long[] {0, 0, 5},
+        new long[] {0, 1, 100},
+        new long[] {0, 1, 120},
+        new long[] {1, 1, 7});
+    EmpiricalLatencyModel model = new EmpiricalLatencyModel(2, measurements);
+
+    Random random = new Random(1);
+    int fast = 0;
+    for (int i = 0; i < 1000; i++) {
+      long latency = model.getLatency(-1, 0, -1, 1, random);
+      assertTrue(latency == 100 || latency == 120);
+      fast += latency == 100 ? 1 : 0;
+      // The reverse pair has no samples of its own
+      long reverse = model.getLatency(-1, 1, -1, 0, random);
+      assertTrue(reverse == 100 || reverse == 120);
+    }
+    assertEquals(500, fast, 60);
+    assertEquals(100, model.getMinimumLatency(1, 0));
+    assertEquals(5, model.getLatency(-1, 0, -1, 0, random));
+  }
+
+  @Test
+  void empiricalNeedsEveryPair() {
+    List<long[]> measurements = Arrays.asList(new long[] {0, 0, 5}, new long[] {0, 1, 100});
+    assertThrows(IllegalArgumentException.class, () -> new EmpiricalLatencyModel(2, measurements));
+  }
+
+  @Test
+  void empiricalLoadsCsv() throws IOException {
+    Path file = directory.resolve("latencies.csv");
+    Files.write(file, Arrays.asList("FromRegion,ToRegion,Latency", "0,0,5", "0,1,100", "1,1,7"),
+        StandardCharsets.UTF_8);
+
+    EmpiricalLatencyModel model = EmpiricalLatencyModel.load(file, 2);
+    assertEquals(7, model.getLatency(-1, 1, -1, 1, new Random(1)));
+  }
+}
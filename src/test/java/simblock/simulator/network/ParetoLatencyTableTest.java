@@ -0,0 +1,72 @@
+package simblock.simulator.network;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import simblock.settings.NetworkConfiguration;
+
+class ParetoLatencyTableTest {
+
+  private static final long[][] LATENCY = NetworkConfiguration.LATENCY;
+
+  /**
+   * The formula used before the parameters were precomputed.
+   */
+  private static long reference(int from, int to, Random random) {
+    long mean = LATENCY[from][to];
+    double shape = 0.2 * mean;
+    double scale = mean - 5;
+    return Math.round(scale / Math.pow(random.nextDouble(), 1.0 / shape));
+  }
+
+  @Test
+  void exactMatchesTheReferenceFormula() {
+    ParetoLatencyTable table = new ParetoLatencyTable(LATENCY, LatencySampling.EXACT);
+    Random expected = new Random(1);
+    Random actual = new Random(1);
+    for (int from = 0; from < LATENCY.length; from++) {
+      for (int to = 0; to < LATENCY.length; to++) {
+        for (int i = 0; i < 100; i++) {
+          assertEquals(reference(from, to, expected), table.sample(from, to, actual));
+        }
+      }
+    }
+  }
+
+  @Test
+  void batchMatchesConsecutiveSamples() {
+    int[] regions = {0, 3, 5, 1, 1, 2};
+    for (LatencySampling sampling : LatencySampling.values()) {
+      ParetoLatencyTable table = new ParetoLatencyTable(LATENCY, sampling);
+      Random random = new Random(2);
+      long[] expected = new long[regions.length];
+      for (int i = 0; i < regions.length; i++) {
+        expected[i] = table.sample(4, regions[i], random);
+      }
+
+      long[] actual = new long[regions.length];
+      table.sample(4, regions, new Random(2), actual);
+      assertArrayEquals(expected, actual);
+    }
+  }
+
+  @Test
+  void tableStaysCloseToExact() {
+    ParetoLatencyTable exact = new ParetoLatencyTable(LATENCY, LatencySampling.EXACT);
+    ParetoLatencyTable table = new ParetoLatencyTable(LATENCY, LatencySampling.TABLE);
+    Random exactRandom = new Random(3);
+    Random tableRandom = new Random(3);
+    for (int i = 0; i < 100000; i++) {
+      int from = i % LATENCY.length;
+      int to = (i / LATENCY.length) % LATENCY.length;
+      long expected = exact.sample(from, to, exactRandom);
+      long actual = table.sample(from, to, tableRandom);
+      assertTrue(Math.abs(expected - actual) <= Math.max(1, expected / 100),
+          expected + " differs from " + actual);
+      assertTrue(actual >= Math.round(exact.getScale(from, to)));
+    }
+  }
+}
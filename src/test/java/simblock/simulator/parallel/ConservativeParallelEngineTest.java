@@ -0,0 +1,73 @@
+package simblock.simulator.parallel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import helpers.SelfishMiningSimulationSettings;
+import helpers.SimulationSettings;
+import helpers.SimulationType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import simblock.Simulation;
+import simblock.simulator.EngineType;
+
+/**
+ * The parallel engine must produce the same output files as the sequential one.
+ */
+class ConservativeParallelEngineTest {
+
+  private static final Path OUTPUT_DIRECTORY = Paths.get("dist/output");
+
+  private static byte[][] runAndReadOutput(SimulationSettings settings) throws IOException {
+    new Simulation(settings).run();
+    return new byte[][] {
+        Files.readAllBytes(OUTPUT_DIRECTORY.resolve("blockList.txt")),
+        Files.readAllBytes(OUTPUT_DIRECTORY.resolve("blockSightings.bin"))
+    };
+  }
+
+  private static void assertSameOutput(Supplier<SimulationSettings> settings) throws IOException {
+    SimulationSettings sequential = settings.get();
+    sequential.engineType = EngineType.SEQUENTIAL;
+    byte[][] expected = runAndReadOutput(sequential);
+
+    SimulationSettings parallel = settings.get();
+    parallel.engineType = EngineType.CONSERVATIVE_PARALLEL;
+    parallel.parallelism = 3;
+    byte[][] actual = runAndReadOutput(parallel);
+
+    assertTrue(expected[0].length > 0);
+    assertTrue(expected[1].length > 0);
+    assertArrayEquals(expected[0], actual[0], "blockList.txt differs");
+    assertArrayEquals(expected[1], actual[1], "blockSightings.bin differs");
+  }
+
+  @Test
+  void parallelRunProducesTheSequentialOutput() throws IOException {
+    assertSameOutput(() -> {
+      SimulationSettings settings = new SimulationSettings();
+      settings.numOfNodes = 100;
+      settings.interval = 1000 * 60 * 10;
+      settings.endBlockHeight = 20;
+      settings.simulationType = SimulationType.DEFAULT;
+      return settings;
+    });
+  }
+
+  @Test
+  void parallelSelfishMiningRunProducesTheSequentialOutput() throws IOException {
+    assertSameOutput(() -> {
+      SelfishMiningSimulationSettings settings = new SelfishMiningSimulationSettings();
+      settings.numOfNodes = 60;
+      settings.interval = 1000 * 60 * 10;
+      settings.endBlockHeight = 20;
+      settings.selfishMiningPowerPercentage = 25;
+      settings.simulationType = SimulationType.SELFISH_MINING;
+      return settings;
+    });
+  }
+}
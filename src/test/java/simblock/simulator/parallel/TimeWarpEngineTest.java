@@ -0,0 +1,83 @@
+package simblock.simulator.parallel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import helpers.SelfishMiningSimulationSettings;
+import helpers.SimulationSettings;
+import helpers.SimulationType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import simblock.Simulation;
+import simblock.simulator.EngineType;
+
+/**
+ * The Time Warp engine must produce the same output files as the sequential one, whatever the
+ * rollbacks.
+ */
+class TimeWarpEngineTest {
+
+  private static final Path OUTPUT_DIRECTORY = Paths.get("dist/output");
+
+  private static byte[][] runAndReadOutput(SimulationSettings settings) throws IOException {
+    new Simulation(settings).run();
+    return new byte[][] {
+        Files.readAllBytes(OUTPUT_DIRECTORY.resolve("blockList.txt")),
+        Files.readAllBytes(OUTPUT_DIRECTORY.resolve("blockSightings.bin"))
+    };
+  }
+
+  private static void assertSameOutput(Supplier<SimulationSettings> settings, long window)
+      throws IOException {
+    SimulationSettings sequential = settings.get();
+    sequential.engineType = EngineType.SEQUENTIAL;
+    byte[][] expected = runAndReadOutput(sequential);
+
+    SimulationSettings timeWarp = settings.get();
+    timeWarp.engineType = EngineType.TIME_WARP;
+    timeWarp.parallelism = 3;
+    timeWarp.optimisticWindow = window;
+    byte[][] actual = runAndReadOutput(timeWarp);
+
+    assertTrue(expected[0].length > 0);
+    assertTrue(expected[1].length > 0);
+    assertArrayEquals(expected[0], actual[0], "blockList.txt differs");
+    assertArrayEquals(expected[1], actual[1], "blockSightings.bin differs");
+  }
+
+  private static SimulationSettings defaultSettings() {
+    SimulationSettings settings = new SimulationSettings();
+    settings.numOfNodes = 100;
+    settings.interval = 1000 * 60 * 10;
+    settings.endBlockHeight = 20;
+    settings.simulationType = SimulationType.DEFAULT;
+    return settings;
+  }
+
+  @Test
+  void timeWarpRunProducesTheSequentialOutput() throws IOException {
+    assertSameOutput(TimeWarpEngineTest::defaultSettings, Long.MAX_VALUE);
+  }
+
+  @Test
+  void boundedTimeWarpRunProducesTheSequentialOutput() throws IOException {
+    assertSameOutput(TimeWarpEngineTest::defaultSettings, 500);
+  }
+
+  @Test
+  void timeWarpSelfishMiningRunProducesTheSequentialOutput() throws IOException {
+    assertSameOutput(() -> {
+      SelfishMiningSimulationSettings settings = new SelfishMiningSimulationSettings();
+      settings.numOfNodes = 60;
+      settings.interval = 1000 * 60 * 10;
+      settings.endBlockHeight = 20;
+      settings.selfishMiningPowerPercentage = 25;
+      settings.simulationType = SimulationType.SELFISH_MINING;
+      return settings;
+    }, Long.MAX_VALUE);
+  }
+}
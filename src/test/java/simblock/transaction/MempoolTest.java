@@ -0,0 +1,93 @@
+package simblock.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MempoolTest {
+
+  private TransactionRegistry registry;
+  private Mempool mempool;
+
+  @BeforeEach
+  void setUp() {
+    registry = new TransactionRegistry();
+    mempool = new Mempool(registry);
+  }
+
+  @Test
+  void highestFeeRateComesFirst() {
+    int cheap = registry.add(200, 200);
+    int expensive = registry.add(100, 1000);
+    int average = registry.add(400, 2000);
+    mempool.add(cheap);
+    mempool.add(expensive);
+    mempool.add(average);
+
+    assertEquals(expensive, mempool.peek());
+    assertTrue(mempool.remove(expensive));
+    assertEquals(average, mempool.peek());
+    assertEquals(600, mempool.getByteSize());
+  }
+
+  @Test
+  void transactionIsAddedOnce() {
+    int transaction = registry.add(200, 200);
+
+    assertTrue(mempool.add(transaction));
+    assertFalse(mempool.add(transaction));
+    assertEquals(1, mempool.size());
+    assertTrue(mempool.remove(transaction));
+    assertFalse(mempool.remove(transaction));
+    assertFalse(mempool.contains(transaction));
+    assertEquals(-1, mempool.peek());
+  }
+
+  @Test
+  void selectionSkipsTransactionsNotFitting() {
+    int large = registry.add(800, 80000);
+    int medium = registry.add(500, 25000);
+    int small = registry.add(100, 1000);
+    mempool.add(small);
+    mempool.add(medium);
+    mempool.add(large);
+
+    assertArrayEquals(new int[] {large, small}, mempool.selectTransactions(1000));
+    // The selection leaves the mempool unchanged
+    assertEquals(3, mempool.size());
+    assertEquals(large, mempool.peek());
+  }
+
+  @Test
+  void heapMatchesSortedSet() {
+    Random random = new Random(7);
+    TreeSet<Integer> expected = new TreeSet<>((a, b) -> registry.compareFeeRates(b, a));
+    List<Integer> added = new ArrayList<>();
+
+    for (int i = 0; i < 20000; i++) {
+      if (added.isEmpty() || random.nextInt(3) > 0) {
+        int transaction = registry.add(60 + random.nextInt(1000), random.nextInt(50000));
+        mempool.add(transaction);
+        expected.add(transaction);
+        added.add(transaction);
+      } else {
+        int transaction = added.remove(random.nextInt(added.size()));
+        assertTrue(mempool.remove(transaction));
+        expected.remove(transaction);
+      }
+      assertEquals(expected.size(), mempool.size());
+      assertEquals(expected.isEmpty() ? -1 : expected.first(), mempool.peek());
+    }
+
+    int[] selected = mempool.selectTransactions(Long.MAX_VALUE);
+    assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), selected);
+  }
+}
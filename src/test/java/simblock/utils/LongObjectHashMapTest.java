@@ -0,0 +1,74 @@
+package simblock.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LongObjectHashMapTest {
+
+  private LongObjectHashMap<String> map;
+
+  @BeforeEach
+  void setUp() {
+    map = new LongObjectHashMap<>();
+  }
+
+  @Test
+  void getReturnsNullIfNotMapped() {
+    assertNull(map.get(42L));
+    assertFalse(map.containsKey(42L));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  void putReplacesPreviousValue() {
+    assertNull(map.put(7L, "a"));
+    assertEquals("a", map.put(7L, "b"));
+    assertEquals("b", map.get(7L));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void putRejectsNullValues() {
+    assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+  }
+
+  @Test
+  void removeOnlyRemovesExpectedValue() {
+    map.put(3L, "a");
+    assertFalse(map.remove(3L, "b"));
+    assertTrue(map.remove(3L, "a"));
+    assertNull(map.remove(3L));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  void behavesLikeHashMap() {
+    Random random = new Random(0);
+    Map<Long, String> expected = new HashMap<>();
+
+    for (int i = 0; i < 100000; i++) {
+      // Few distinct keys so that puts, hits and removals all happen often
+      long key = random.nextInt(5000) - 100;
+      if (random.nextBoolean()) {
+        String value = Integer.toString(i);
+        assertEquals(expected.put(key, value), map.put(key, value));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+
+    for (long key = -100; key < 4900; key++) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+}
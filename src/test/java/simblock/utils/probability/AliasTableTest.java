@@ -0,0 +1,97 @@
+package simblock.utils.probability;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AliasTableTest {
+
+  private static final int SAMPLES = 100000;
+
+  private static double[] frequencies(AliasTable table, int outcomes) {
+    double[] frequencies = new double[outcomes];
+    for (int sample : table.samplePopulation(SAMPLES, 1)) {
+      frequencies[sample] += 1.0 / SAMPLES;
+    }
+    return frequencies;
+  }
+
+  @Test
+  void fromPmf() {
+    AliasTable table = new AliasTable();
+    table.fromPmf(new double[] {0.25, 0.5, 0.25});
+    assertArrayEquals(new double[] {0.25, 0.5, 0.25}, frequencies(table, 3), 0.01);
+  }
+
+  @Test
+  void fromCdf() {
+    AliasTable table = new AliasTable();
+    table.fromCdf(new double[] {0.25, 0.75, 1});
+    assertArrayEquals(new double[] {0.25, 0.5, 0.25}, frequencies(table, 3), 0.01);
+  }
+
+  @Test
+  void weightsNeedNotBeNormalized() {
+    AliasTable table = new AliasTable(new long[] {1, 0, 3});
+    assertEquals(3, table.size());
+    assertArrayEquals(new double[] {0.25, 0, 0.75}, frequencies(table, 3), 0.01);
+  }
+
+  @Test
+  void sameSeedSamePopulation() {
+    AliasTable table = new AliasTable(new double[] {1, 2, 3, 4});
+    assertArrayEquals(table.samplePopulation(50, 7), table.samplePopulation(50, 7));
+
+    ArrayList<Integer> population = table.generatePopulation(50, 7);
+    int[] samples = table.samplePopulation(50, 7);
+    for (int i = 0; i < samples.length; i++) {
+      assertEquals(samples[i], population.get(i));
+    }
+  }
+
+  @Test
+  void populationMatchesEnumeratedDistribution() {
+    double[] cdf = {0.1, 0.1, 0.35, 0.6, 0.95, 1};
+    AliasTable table = new AliasTable();
+    table.fromCdf(cdf);
+    ProbabilityUtils legacy = new ProbabilityUtils();
+    legacy.fromCdf(cdf);
+
+    int[] samples = table.samplePopulation(10000, 11);
+    ArrayList<Integer> population = legacy.generatePopulation(10000, 11);
+    for (int i = 0; i < samples.length; i++) {
+      assertEquals(population.get(i), samples[i]);
+    }
+  }
+
+  @Test
+  void aliasDrawsFollowTheWeights() {
+    AliasTable table = new AliasTable(new long[] {1, 0, 3});
+    Random random = new Random(5);
+    double[] frequencies = new double[3];
+    for (int i = 0; i < SAMPLES; i++) {
+      frequencies[table.sample(random)] += 1.0 / SAMPLES;
+    }
+    assertArrayEquals(new double[] {0.25, 0, 0.75}, frequencies, 0.01);
+  }
+
+  @Test
+  void singleOutcome() {
+    AliasTable table = new AliasTable(new double[] {5});
+    Random random = new Random(3);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(0, table.sample(random));
+    }
+  }
+
+  @Test
+  void invalidWeights() {
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {0, 0}));
+    assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] {1, -1}));
+  }
+}
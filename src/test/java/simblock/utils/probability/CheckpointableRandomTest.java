@@ -0,0 +1,35 @@
+package simblock.utils.probability;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CheckpointableRandomTest {
+
+  @Test
+  void drawsTheSameNumbersAsRandom() {
+    Random expected = new Random(42);
+    CheckpointableRandom actual = new CheckpointableRandom(42);
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(expected.nextDouble(), actual.nextDouble());
+      assertEquals(expected.nextInt(1000), actual.nextInt(1000));
+      assertEquals(expected.nextLong(), actual.nextLong());
+    }
+  }
+
+  @Test
+  void restoredStateRepeatsTheDraws() {
+    CheckpointableRandom random = new CheckpointableRandom(7);
+    random.nextDouble();
+
+    long state = random.getState();
+    double first = random.nextDouble();
+    long second = random.nextLong();
+
+    random.setState(state);
+    assertEquals(first, random.nextDouble());
+    assertEquals(second, random.nextLong());
+  }
+}
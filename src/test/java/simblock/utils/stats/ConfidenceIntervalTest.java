@@ -0,0 +1,31 @@
+package simblock.utils.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ConfidenceIntervalTest {
+
+  @Test
+  void studentIntervalOfSamples() {
+    ConfidenceInterval interval = ConfidenceInterval.of(new double[] {1, 2, 3, 4, 5}, 0.95);
+
+    assertEquals(3.0, interval.getMean(), 1e-12);
+    // t(0.975, 4) = 2.776445, standard deviation = sqrt(2.5)
+    assertEquals(2.776445 * Math.sqrt(2.5) / Math.sqrt(5), interval.getHalfWidth(), 1e-5);
+    assertEquals(5, interval.getSampleSize());
+  }
+
+  @Test
+  void singleSampleHasNoWidth() {
+    assertTrue(Double.isNaN(ConfidenceInterval.of(new double[] {1}, 0.95).getHalfWidth()));
+  }
+
+  @Test
+  void rejectsInvalidInput() {
+    assertThrows(IllegalArgumentException.class, () -> ConfidenceInterval.of(new double[0], 0.95));
+    assertThrows(IllegalArgumentException.class, () -> ConfidenceInterval.of(new double[] {1}, 1));
+  }
+}
@@ -0,0 +1,72 @@
+package simblock.utils.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LogLinearHistogramTest {
+
+  @Test
+  void smallValuesAreExact() {
+    LogLinearHistogram histogram = new LogLinearHistogram();
+    for (int value = 1; value <= 100; value++) {
+      histogram.record(value);
+    }
+
+    assertEquals(50, histogram.getValueAtQuantile(0.5));
+    assertEquals(90, histogram.getValueAtQuantile(0.9));
+    assertEquals(1, histogram.getValueAtQuantile(0));
+    assertEquals(100, histogram.getValueAtQuantile(1));
+    assertEquals(50.5, histogram.getMean());
+  }
+
+  @Test
+  void quantilesAreWithinTheRelativeError() {
+    Random random = new Random(3);
+    LogLinearHistogram histogram = new LogLinearHistogram();
+    long[] values = new long[100000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(8 + 2 * random.nextGaussian());
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double quantile : new double[] {0.01, 0.5, 0.9, 0.99, 0.999}) {
+      long expected = values[(int) Math.ceil(quantile * values.length) - 1];
+      double actual = histogram.getValueAtQuantile(quantile);
+      assertEquals(expected, actual, expected / 256.0 + 0.5, "quantile " + quantile);
+    }
+    assertEquals(values[0], histogram.getMin());
+    assertEquals(values[values.length - 1], histogram.getMax());
+  }
+
+  @Test
+  void cdfEndsAtTheMaximum() {
+    LogLinearHistogram histogram = new LogLinearHistogram();
+    histogram.record(3);
+    histogram.record(3);
+    histogram.record(1000);
+    histogram.record(Long.MAX_VALUE / 3);
+
+    List<LogLinearHistogram.Point> cdf = histogram.getCdf();
+
+    assertEquals(3, cdf.size());
+    assertEquals(new LogLinearHistogram.Point(3, 0.5), cdf.get(0));
+    assertTrue(cdf.get(1).getValue() >= 1000);
+    assertEquals(new LogLinearHistogram.Point(Long.MAX_VALUE / 3, 1.0), cdf.get(2));
+  }
+
+  @Test
+  void emptyHistogramHasNoQuantiles() {
+    LogLinearHistogram histogram = new LogLinearHistogram();
+
+    assertTrue(Double.isNaN(histogram.getValueAtQuantile(0.5)));
+    assertTrue(histogram.getCdf().isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+  }
+}